@@ -0,0 +1,94 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CParser.FileContentToParse;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+
+public class CParserThreadsTest {
+
+  private static final ImmutableList<FileContentToParse> PROGRAM =
+      ImmutableList.of(
+          new FileContentToParse(
+              "main.c",
+              "struct point { int x; int y; };\n"
+                  + "extern int shared;\n"
+                  + "static int counter = 0;\n"
+                  + "int first(struct point *p);\n"
+                  + "int main() {\n"
+                  + "  struct point p = {1, 2};\n"
+                  + "  counter++;\n"
+                  + "  return first(&p) + shared;\n"
+                  + "}"),
+          new FileContentToParse(
+              "first.c",
+              "struct point;\n"
+                  + "static int counter = 1;\n"
+                  + "int second(int);\n"
+                  + "int first(struct point *p) { counter++; return second(counter); }"),
+          new FileContentToParse(
+              "second.c",
+              "int shared = 42;\n"
+                  + "static int counter = 2;\n"
+                  + "int third(void);\n"
+                  + "int second(int x) { counter += x; return third(); }"),
+          new FileContentToParse(
+              "third.c",
+              "extern int shared;\n"
+                  + "static int helper(void) { return shared; }\n"
+                  + "int third(void) { return helper(); }"));
+
+  private static ParseResult parse(int pThreads) throws Exception {
+    Configuration config =
+        Configuration.builder().setOption("cfa.parserThreads", Integer.toString(pThreads)).build();
+    CParser parser =
+        CParser.Factory.getParser(
+            LogManager.createTestLogManager(),
+            CParser.Factory.getOptions(config),
+            MachineModel.LINUX32,
+            ShutdownNotifier.createDummy());
+    return parser.parseString(PROGRAM, new CSourceOriginMapping());
+  }
+
+  private static List<String> getGlobalDeclarations(ParseResult pResult) {
+    return FluentIterable.from(pResult.getGlobalDeclarations())
+        .transform(
+            declaration ->
+                declaration.getFirst().toASTString()
+                    + " "
+                    + declaration.getFirst().getFileLocation()
+                    + " "
+                    + declaration.getSecond())
+        .toList();
+  }
+
+  @Test
+  public void testConcurrentParsingIsDeterministic() throws Exception {
+    ParseResult sequential = parse(1);
+    ParseResult concurrent = parse(4);
+
+    assertThat(sequential.getFunctions().keySet())
+        .containsAtLeast("main", "first", "second", "third");
+    assertThat(concurrent.getFunctions().keySet())
+        .containsExactlyElementsIn(sequential.getFunctions().keySet())
+        .inOrder();
+    assertThat(getGlobalDeclarations(concurrent))
+        .containsExactlyElementsIn(getGlobalDeclarations(sequential))
+        .inOrder();
+  }
+}
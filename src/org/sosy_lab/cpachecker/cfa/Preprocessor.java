@@ -19,6 +19,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.MoreStrings;
 import org.sosy_lab.common.ProcessExecutor;
 import org.sosy_lab.common.configuration.Configuration;
@@ -40,7 +41,18 @@ public abstract class Preprocessor {
   @FileOption(Type.OUTPUT_DIRECTORY)
   private Path dumpDirectory = Paths.get("preprocessed");
 
+  @Option(
+      name = "preprocessor.cacheDirectory",
+      description =
+          "Directory where to cache the results of the preprocessor across runs. "
+              + "A result is reused if the command line, the source file, "
+              + "and all included files are unchanged. "
+              + "Not used for the clang preprocessor.")
+  @FileOption(Type.OUTPUT_DIRECTORY)
+  private @Nullable Path cacheDirectory = null;
+
   private final LogManager logger;
+  private @Nullable PreprocessorCache cache = null;
 
   protected Preprocessor(Configuration config, LogManager pLogger)
       throws InvalidConfigurationException {
@@ -52,7 +64,21 @@ public abstract class Preprocessor {
   }
 
   public String preprocess(String file) throws CParserException, InterruptedException {
-    String result = preprocess0(file);
+    String result;
+    if (cacheDirectory == null) {
+      result = preprocess0(file);
+    } else {
+      if (cache == null) {
+        cache = new PreprocessorCache(cacheDirectory, getCommandLine(), logger);
+      }
+      result = cache.lookup(file);
+      if (result != null) {
+        logger.log(Level.FINE, "Using cached result of", getName(), "for", file);
+      } else {
+        result = preprocess0(file);
+        cache.store(file, result);
+      }
+    }
     getAndWriteDumpedFile(result, file);
     return result;
   }
@@ -0,0 +1,161 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.io.IO;
+import org.sosy_lab.common.log.LogManager;
+
+/**
+ * Cache for results of the preprocessor across several runs, addressed by the content of the
+ * preprocessed file.
+ *
+ * <p>Each entry is identified by a hash of the command line of the preprocessor, the path of the
+ * preprocessed file, and its content. It consists of the output of the preprocessor and a manifest
+ * with the hashes of all files that were included, as listed in the line markers of the output. An
+ * entry is only used if all these files are still unchanged, otherwise it is replaced after running
+ * the preprocessor again. Like other compiler caches, this does not detect a new header file that
+ * would shadow a previously included one in the include path.
+ */
+final class PreprocessorCache {
+
+  /** line markers of the form <code># 12 "file.h" 1</code> or <code>#line 12 "file.h"</code> */
+  private static final Pattern LINE_MARKER =
+      Pattern.compile("^#(?:line)?\\s+\\d+\\s+\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+  private static final Splitter MANIFEST_SPLITTER = Splitter.on(' ').limit(2);
+
+  private static final String MANIFEST_SUFFIX = ".deps";
+  private static final String OUTPUT_SUFFIX = ".i";
+
+  private final Path cacheDirectory;
+  private final String commandLine;
+  private final LogManager logger;
+
+  PreprocessorCache(Path pCacheDirectory, String pCommandLine, LogManager pLogger) {
+    cacheDirectory = checkNotNull(pCacheDirectory);
+    commandLine = checkNotNull(pCommandLine);
+    logger = checkNotNull(pLogger);
+  }
+
+  /**
+   * Returns the cached output of the preprocessor for the given file, or null if there is no entry
+   * or one of the included files changed.
+   */
+  @Nullable String lookup(String pFile) {
+    try {
+      String key = getKey(pFile);
+      Path manifest = cacheDirectory.resolve(key + MANIFEST_SUFFIX);
+      List<String> dependencies;
+      try {
+        dependencies = Files.readAllLines(manifest, StandardCharsets.UTF_8);
+      } catch (NoSuchFileException e) {
+        return null;
+      }
+      for (String line : dependencies) {
+        List<String> parts = MANIFEST_SPLITTER.splitToList(line);
+        if (parts.size() != 2 || !parts.get(0).equals(hashFile(Paths.get(parts.get(1))))) {
+          logger.log(Level.FINE, "Included file", parts, "changed, preprocessing", pFile, "again");
+          return null;
+        }
+      }
+      return IO.toString(cacheDirectory.resolve(key + OUTPUT_SUFFIX), Charset.defaultCharset());
+    } catch (IOException e) {
+      // e.g., an included file was deleted
+      logger.logDebugException(e, "Cannot use cached result of preprocessor");
+      return null;
+    }
+  }
+
+  /** Stores the output of the preprocessor for the given file. */
+  void store(String pFile, String pOutput) {
+    try {
+      StringBuilder manifest = new StringBuilder();
+      for (Path dependency : getDependencies(pOutput)) {
+        manifest.append(hashFile(dependency)).append(' ').append(dependency).append('\n');
+      }
+      String key = getKey(pFile);
+      // write output before manifest, such that an entry is only visible if it is complete
+      writeAtomically(
+          cacheDirectory.resolve(key + OUTPUT_SUFFIX), pOutput, Charset.defaultCharset());
+      writeAtomically(
+          cacheDirectory.resolve(key + MANIFEST_SUFFIX),
+          manifest.toString(),
+          StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Cannot store result of preprocessor in cache");
+    }
+  }
+
+  /** Returns all files that appear in line markers of the output, i.e., the included files. */
+  static ImmutableSet<Path> getDependencies(String pOutput) {
+    ImmutableSet.Builder<Path> result = ImmutableSet.builder();
+    for (String line : Splitter.on('\n').split(pOutput)) {
+      if (line.startsWith("#")) {
+        Matcher matcher = LINE_MARKER.matcher(line);
+        if (matcher.find()) {
+          String file = matcher.group(1).replaceAll("\\\\(.)", "$1");
+          // skip pseudo files like "<built-in>" and "<command-line>"
+          if (!(file.startsWith("<") && file.endsWith(">"))) {
+            result.add(Paths.get(file));
+          }
+        }
+      }
+    }
+    return result.build();
+  }
+
+  private String getKey(String pFile) throws IOException {
+    Path file = Paths.get(pFile);
+    return Hashing.sha256()
+        .newHasher()
+        .putString(commandLine, StandardCharsets.UTF_8)
+        .putByte((byte) 0)
+        .putString(file.toAbsolutePath().normalize().toString(), StandardCharsets.UTF_8)
+        .putByte((byte) 0)
+        .putString(hashFile(file), StandardCharsets.UTF_8)
+        .hash()
+        .toString();
+  }
+
+  private static String hashFile(Path pFile) throws IOException {
+    return MoreFiles.asByteSource(pFile).hash(Hashing.sha256()).toString();
+  }
+
+  /** Writes a file such that concurrent runs never read a partially written file. */
+  private void writeAtomically(Path pFile, String pContent, Charset pCharset) throws IOException {
+    Files.createDirectories(cacheDirectory);
+    Path tmpFile = Files.createTempFile(cacheDirectory, pFile.getFileName().toString(), ".tmp");
+    try {
+      IO.writeFile(tmpFile, pCharset, pContent);
+      Files.move(
+          tmpFile, pFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmpFile);
+    }
+  }
+}
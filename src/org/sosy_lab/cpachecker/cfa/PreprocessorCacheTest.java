@@ -0,0 +1,79 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.log.LogManager;
+
+public class PreprocessorCacheTest {
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Path program;
+  private Path header;
+  private PreprocessorCache cache;
+
+  @Before
+  public void setUp() throws IOException {
+    program = tempFolder.newFile("program.c").toPath();
+    header = tempFolder.newFile("header.h").toPath();
+    Files.write(
+        program,
+        "#include \"header.h\"\nint main() { return X; }\n".getBytes(StandardCharsets.UTF_8));
+    Files.write(header, "#define X 0\n".getBytes(StandardCharsets.UTF_8));
+    cache =
+        new PreprocessorCache(
+            tempFolder.newFolder("cache").toPath(), "cpp", LogManager.createTestLogManager());
+  }
+
+  private String preprocessedProgram() {
+    return String.format(
+        "# 1 \"%s\"%n# 1 \"<built-in>\"%n# 1 \"%s\" 1%n# 2 \"%s\" 2%nint main() { return 0; }%n",
+        program, header, program);
+  }
+
+  @Test
+  public void testDependencies() {
+    assertThat(PreprocessorCache.getDependencies(preprocessedProgram()))
+        .containsExactly(program, header);
+    assertThat(PreprocessorCache.getDependencies("#line 3 \"dir\\\\a \\\"b\\\".h\"\n"))
+        .containsExactly(Paths.get("dir\\a \"b\".h"));
+  }
+
+  @Test
+  public void testCacheHit() {
+    assertThat(cache.lookup(program.toString())).isNull();
+    cache.store(program.toString(), preprocessedProgram());
+    assertThat(cache.lookup(program.toString())).isEqualTo(preprocessedProgram());
+  }
+
+  @Test
+  public void testChangedHeader() throws IOException {
+    cache.store(program.toString(), preprocessedProgram());
+    Files.write(header, "#define X 1\n".getBytes(StandardCharsets.UTF_8));
+    assertThat(cache.lookup(program.toString())).isNull();
+  }
+
+  @Test
+  public void testChangedProgram() throws IOException {
+    cache.store(program.toString(), preprocessedProgram());
+    Files.write(program, "int main() { return 1; }\n".getBytes(StandardCharsets.UTF_8));
+    assertThat(cache.lookup(program.toString())).isNull();
+  }
+}
@@ -0,0 +1,293 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cfa.blocks.builder;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.SetMultimap;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionCallEdge;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.util.CFATraversal;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
+
+/**
+ * <code>PartitioningHeuristic</code> that creates a block for a function-body only if a simple
+ * cost model expects the block to pay off, i.e., if the analysis time saved by cache hits for the
+ * function is larger than the overhead of reducing and expanding states at each call.
+ *
+ * <p>For each function, the heuristic estimates:
+ *
+ * <ul>
+ *   <li>the number of calls, where each call site counts once, or {@link #loopCallWeight} times
+ *       if it is inside a loop,
+ *   <li>the benefit <code>(calls - 1) * size</code>, i.e., the number of CFA nodes that do not
+ *       have to be analyzed again if every call except the first one is a cache hit,
+ *   <li>the cost <code>calls * (blockEntryCost + variableCost * variables)</code>, where
+ *       <code>variables</code> is the number of variables referenced in the function, because
+ *       reduce and expand operate on these variables at each call.
+ * </ul>
+ *
+ * A block is created if the benefit exceeds the cost. Recursive functions always get a block,
+ * because they cannot be inlined. Optionally, the decisions are refined with the block statistics
+ * of a previous run (cf. option <code>cpa.bam.blockStatisticsFile</code>): functions whose blocks
+ * were analyzed very quickly on average are inlined, because their cache reuse did not outweigh
+ * the block overhead.
+ */
+@Options(prefix = "cpa.bam.blockHeuristic.costModelPartitioning")
+public class CostModelPartitioning extends PartitioningHeuristic {
+
+  private static final CFATraversal TRAVERSE_CFA_INSIDE_FUNCTION =
+      CFATraversal.dfs().ignoreFunctionCalls();
+
+  private static final Splitter CSV_SPLITTER = Splitter.on(';').trimResults();
+  private static final Splitter FUNCTION_SPLITTER = Splitter.on(',').omitEmptyStrings();
+
+  @Option(
+      secure = true,
+      description =
+          "weight of a call site that is inside a loop, "
+              + "because such calls are usually executed several times.")
+  private double loopCallWeight = 2.0;
+
+  @Option(
+      secure = true,
+      description =
+          "fixed cost of entering and leaving a block, measured in CFA nodes. "
+              + "A higher value creates fewer blocks.")
+  private double blockEntryCost = 5.0;
+
+  @Option(
+      secure = true,
+      description =
+          "cost of reducing and expanding one variable when entering and leaving a block, "
+              + "measured in CFA nodes. A higher value creates fewer blocks.")
+  private double variableCost = 0.5;
+
+  @Option(secure = true, description = "also create blocks for loops, as LoopPartitioning does.")
+  private boolean createLoopBlocks = false;
+
+  @Option(
+      secure = true,
+      description =
+          "block statistics of a previous run (cf. cpa.bam.blockStatisticsFile) "
+              + "that are used to refine the partitioning.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private @Nullable Path profile = null;
+
+  @Option(
+      secure = true,
+      description =
+          "functions whose blocks were analyzed faster than this on average in the profile "
+              + "are inlined.")
+  @TimeSpanOption(
+      codeUnit = TimeUnit.MILLISECONDS,
+      defaultUserUnit = TimeUnit.MILLISECONDS,
+      min = 0)
+  private TimeSpan minProfiledAverageTime = TimeSpan.ofMillis(1);
+
+  private final @Nullable LoopPartitioning loopPartitioning;
+
+  /** average analysis time per function in milliseconds, as recorded in the profile */
+  private final ImmutableMap<String, Double> profiledAverageTimes;
+
+  private @Nullable Set<String> recursiveFunctions = null;
+  private @Nullable Set<CFANode> nodesInLoops = null;
+
+  /** Do not change signature! Constructor will be created with Reflections. */
+  public CostModelPartitioning(LogManager pLogger, CFA pCfa, Configuration pConfig)
+      throws InvalidConfigurationException {
+    super(pLogger, pCfa, pConfig);
+    pConfig.inject(this);
+    loopPartitioning = createLoopBlocks ? new LoopPartitioning(pLogger, pCfa, pConfig) : null;
+    profiledAverageTimes = profile == null ? ImmutableMap.of() : readProfile(profile);
+  }
+
+  /**
+   * Reads the average analysis time of each function block from the block statistics of a previous
+   * run.
+   */
+  private static ImmutableMap<String, Double> readProfile(Path pProfile)
+      throws InvalidConfigurationException {
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(pProfile, Charset.defaultCharset());
+    } catch (IOException e) {
+      throw new InvalidConfigurationException(
+          "Could not read block statistics for partitioning: " + e.getMessage(), e);
+    }
+    if (lines.isEmpty()) {
+      return ImmutableMap.of();
+    }
+
+    List<String> header = CSV_SPLITTER.splitToList(lines.get(0));
+    int functionsColumn = header.indexOf("functions");
+    int timeColumn = header.indexOf("summillis");
+    int intervalsColumn = header.indexOf("#intervals");
+    if (functionsColumn < 0 || timeColumn < 0 || intervalsColumn < 0) {
+      throw new InvalidConfigurationException(
+          "Block statistics in "
+              + pProfile
+              + " do not contain the columns required for partitioning.");
+    }
+
+    Map<String, Double> result = new HashMap<>();
+    for (String line : lines.subList(1, lines.size())) {
+      List<String> row = CSV_SPLITTER.splitToList(line);
+      if (row.size() <= Math.max(functionsColumn, Math.max(timeColumn, intervalsColumn))) {
+        continue; // empty or truncated line
+      }
+      try {
+        long intervals = Long.parseLong(row.get(intervalsColumn));
+        if (intervals > 0) {
+          double averageTime = Long.parseLong(row.get(timeColumn)) / (double) intervals;
+          for (String function : FUNCTION_SPLITTER.split(row.get(functionsColumn))) {
+            result.put(function, averageTime);
+          }
+        }
+      } catch (NumberFormatException e) {
+        throw new InvalidConfigurationException(
+            "Invalid block statistics in " + pProfile + ": " + line, e);
+      }
+    }
+    return ImmutableMap.copyOf(result);
+  }
+
+  @Override
+  protected Set<CFANode> getBlockForNode(CFANode pBlockHead) {
+    if (pBlockHead instanceof FunctionEntryNode) {
+      Set<CFANode> nodes = TRAVERSE_CFA_INSIDE_FUNCTION.collectNodesReachableFrom(pBlockHead);
+
+      // main function
+      if (pBlockHead.getNumEnteringEdges() == 0) {
+        return nodes;
+      }
+
+      if (isWorthABlock((FunctionEntryNode) pBlockHead, nodes)) {
+        return nodes;
+      }
+      return null;
+    }
+
+    if (loopPartitioning != null) {
+      return loopPartitioning.getBlockForNode(pBlockHead);
+    }
+    return null;
+  }
+
+  private boolean isWorthABlock(FunctionEntryNode pEntry, Set<CFANode> pBody) {
+    String function = pEntry.getFunctionName();
+    if (getRecursiveFunctions().contains(function)) {
+      logger.log(Level.FINE, "Creating block for recursive function", function);
+      return true;
+    }
+
+    Double averageTime = profiledAverageTimes.get(function);
+    if (averageTime != null && averageTime < minProfiledAverageTime.asMillis()) {
+      logger.log(
+          Level.FINE, "Inlining function", function, "due to profiled time of", averageTime, "ms");
+      return false;
+    }
+
+    double calls = 0;
+    for (CFAEdge callEdge : CFAUtils.enteringEdges(pEntry)) {
+      calls += isInLoop(callEdge.getPredecessor()) ? loopCallWeight : 1;
+    }
+    int variables = new ReferencedVariablesCollector(pBody).getVars().size();
+
+    double benefit = (calls - 1) * pBody.size();
+    double cost = calls * (blockEntryCost + variableCost * variables);
+    logger.log(
+        Level.ALL,
+        "Cost model for function",
+        function,
+        ": calls =",
+        calls,
+        ", size =",
+        pBody.size(),
+        ", variables =",
+        variables,
+        ", benefit =",
+        benefit,
+        ", cost =",
+        cost);
+    return benefit > cost;
+  }
+
+  private boolean isInLoop(CFANode pNode) {
+    if (nodesInLoops == null) {
+      nodesInLoops = new HashSet<>();
+      if (cfa.getLoopStructure().isPresent()) {
+        for (Loop loop : cfa.getLoopStructure().orElseThrow().getAllLoops()) {
+          nodesInLoops.addAll(loop.getLoopNodes());
+        }
+      }
+    }
+    return nodesInLoops.contains(pNode);
+  }
+
+  /** Returns the functions that can (directly or indirectly) call themselves. */
+  private Set<String> getRecursiveFunctions() {
+    if (recursiveFunctions == null) {
+      SetMultimap<String, String> callees = HashMultimap.create();
+      for (CFANode node : cfa.getAllNodes()) {
+        for (CFAEdge edge : CFAUtils.leavingEdges(node)) {
+          if (edge instanceof FunctionCallEdge) {
+            callees.put(node.getFunctionName(), edge.getSuccessor().getFunctionName());
+          }
+        }
+      }
+
+      ImmutableSet.Builder<String> result = ImmutableSet.builder();
+      for (String function : callees.keySet()) {
+        Set<String> reached = new HashSet<>();
+        Deque<String> waitlist = new ArrayDeque<>(callees.get(function));
+        while (!waitlist.isEmpty()) {
+          String callee = waitlist.pop();
+          if (callee.equals(function)) {
+            result.add(function);
+            break;
+          }
+          if (reached.add(callee)) {
+            waitlist.addAll(callees.get(callee));
+          }
+        }
+      }
+      recursiveFunctions = result.build();
+    }
+    return recursiveFunctions;
+  }
+}
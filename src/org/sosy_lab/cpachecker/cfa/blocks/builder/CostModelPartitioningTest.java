@@ -0,0 +1,135 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cfa.blocks.builder;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.blocks.BlockPartitioning;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class CostModelPartitioningTest {
+
+  private static final String[] PROGRAM = {
+    "int small(int x) {",
+    "  return x;",
+    "}",
+    "int big(int x) {",
+    "  int y = x;",
+    "  y = y + 1;",
+    "  y = y * 2;",
+    "  y = y - 3;",
+    "  y = y + 4;",
+    "  y = y * 5;",
+    "  y = y - 6;",
+    "  y = y + 7;",
+    "  y = y * 8;",
+    "  y = y - 9;",
+    "  y = y + 10;",
+    "  y = y * 11;",
+    "  y = y - 12;",
+    "  y = y + 13;",
+    "  y = y * 14;",
+    "  y = y - 15;",
+    "  return y;",
+    "}",
+    "int rec(int n) {",
+    "  if (n <= 0) {",
+    "    return 0;",
+    "  }",
+    "  return rec(n - 1);",
+    "}",
+    "int main() {",
+    "  int r = small(1);",
+    "  r = r + big(1);",
+    "  r = r + big(2);",
+    "  r = r + big(3);",
+    "  r = r + rec(r);",
+    "  return r;",
+    "}"
+  };
+
+  /** Header of the block statistics written by BAMCPAStatistics. */
+  private static final String PROFILE_HEADER =
+      "start; end; #locations; #variables; sumtime; maxtime; avgtime; #intervals; variables;"
+          + " functions; summillis;";
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static BlockPartitioning buildPartitioning(CFA pCfa, Configuration pConfig)
+      throws Exception {
+    return new CostModelPartitioning(LogManager.createTestLogManager(), pCfa, pConfig)
+        .buildPartitioning(new BlockPartitioningBuilder());
+  }
+
+  private static boolean hasBlock(BlockPartitioning pPartitioning, CFA pCfa, String pFunction) {
+    return pPartitioning.isCallNode(pCfa.getFunctionHead(pFunction));
+  }
+
+  @Test
+  public void testCostModel() throws Exception {
+    Configuration config = TestDataTools.configurationForTest().build();
+    CFA cfa = TestDataTools.makeCFA(config, PROGRAM);
+    BlockPartitioning partitioning = buildPartitioning(cfa, config);
+
+    assertThat(hasBlock(partitioning, cfa, "main")).isTrue();
+    // called only once, so a block cannot pay off
+    assertThat(hasBlock(partitioning, cfa, "small")).isFalse();
+    // called several times and large compared to its number of variables
+    assertThat(hasBlock(partitioning, cfa, "big")).isTrue();
+    // recursive functions cannot be inlined
+    assertThat(hasBlock(partitioning, cfa, "rec")).isTrue();
+  }
+
+  @Test
+  public void testHighBlockCost() throws Exception {
+    Configuration config =
+        TestDataTools.configurationForTest()
+            .setOption("cpa.bam.blockHeuristic.costModelPartitioning.blockEntryCost", "100")
+            .build();
+    CFA cfa = TestDataTools.makeCFA(config, PROGRAM);
+    BlockPartitioning partitioning = buildPartitioning(cfa, config);
+
+    assertThat(hasBlock(partitioning, cfa, "big")).isFalse();
+    assertThat(hasBlock(partitioning, cfa, "rec")).isTrue();
+  }
+
+  @Test
+  public void testProfile() throws Exception {
+    Path profile = tempFolder.newFile("blockStatistics.txt").toPath();
+    Files.write(
+        profile,
+        (PROFILE_HEADER
+                + "\n[N1]; [N2]; 2; 1; 0.001s; 0.001s; 0.000s; 2; [small::x]; small; 1;"
+                + "\n[N3]; [N4]; 40; 2; 0.000s; 0.000s; 0.000s; 3; [big::x, big::y]; big; 0;"
+                + "\n[N5]; [N6]; 8; 1; 0.000s; 0.000s; 0.000s; 0; [rec::n]; rec; 0;\n")
+            .getBytes(Charset.defaultCharset()));
+
+    Configuration config =
+        TestDataTools.configurationForTest()
+            .setOption(
+                "cpa.bam.blockHeuristic.costModelPartitioning.profile", profile.toString())
+            .build();
+    CFA cfa = TestDataTools.makeCFA(config, PROGRAM);
+    BlockPartitioning partitioning = buildPartitioning(cfa, config);
+
+    // the block of big was analyzed too quickly in the profile to pay off
+    assertThat(hasBlock(partitioning, cfa, "big")).isFalse();
+    assertThat(hasBlock(partitioning, cfa, "small")).isFalse();
+    assertThat(hasBlock(partitioning, cfa, "rec")).isTrue();
+  }
+}
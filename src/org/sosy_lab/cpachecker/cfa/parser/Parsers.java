@@ -63,6 +63,13 @@ public class Parsers {
     @Option(secure = true, description = "simplify simple const expressions like 1+2")
     private boolean simplifyConstExpressions = true;
 
+    @Option(
+        secure = true,
+        description =
+            "number of threads for parsing several translation units concurrently "
+                + "(0 for the number of available processors, 1 for sequential parsing)")
+    private int parserThreads = 0;
+
     public boolean initializeAllVariables() {
       return initializeAllVariables;
     }
@@ -78,6 +85,10 @@ public class Parsers {
     public boolean simplifyConstExpressions() {
       return simplifyConstExpressions;
     }
+
+    public int getParserThreads() {
+      return parserThreads > 0 ? parserThreads : Runtime.getRuntime().availableProcessors();
+    }
   }
 
   private Parsers() { }
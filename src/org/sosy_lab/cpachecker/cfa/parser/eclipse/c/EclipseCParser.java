@@ -13,10 +13,12 @@ import static com.google.common.base.Preconditions.checkArgument;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.io.MoreFiles;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.Charset;
@@ -28,6 +30,10 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
 import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTFunctionDefinition;
@@ -49,6 +55,7 @@ import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContentProvider;
 import org.eclipse.core.runtime.CoreException;
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.UnexpectedCheckedException;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
 import org.sosy_lab.common.time.Timer;
@@ -149,21 +156,78 @@ class EclipseCParser implements CParser {
     ParseContext parseContext =
         new ParseContext(createNiceFileNameFunction(fileNameMapping.keySet()), sourceOriginMapping);
 
-    List<IASTTranslationUnit> astUnits = new ArrayList<>(pInput.size());
-
-    for (FileToParse f : pInput) {
-      final String fileName = fixPath(f.getFileName());
-
-      try {
-        astUnits.add(parse(pWrapperFunction.wrap(fileName, f), parseContext));
-      } catch (IOException e) {
-        throw new CParserException("IO failed!", e);
+    int threads = Math.min(pInput.size(), options.getParserThreads());
+    List<IASTTranslationUnit> astUnits;
+    if (threads <= 1) {
+      astUnits = new ArrayList<>(pInput.size());
+      for (FileToParse f : pInput) {
+        astUnits.add(parse(wrap(f, pWrapperFunction), parseContext));
       }
+    } else {
+      astUnits = parseConcurrently(pInput, parseContext, pWrapperFunction, threads);
     }
 
     return buildCFA(astUnits, parseContext, scope);
   }
 
+  private FileContent wrap(FileToParse pFile, FileParseWrapper pWrapperFunction)
+      throws CParserException {
+    try {
+      return pWrapperFunction.wrap(fixPath(pFile.getFileName()), pFile);
+    } catch (IOException e) {
+      throw new CParserException("IO failed!", e);
+    }
+  }
+
+  /**
+   * Parses several translation units concurrently, because they are independent of each other.
+   * The result is in the order of the input, such that the CFA is built deterministically.
+   */
+  private List<IASTTranslationUnit> parseConcurrently(
+      List<? extends FileToParse> pInput,
+      ParseContext parseContext,
+      FileParseWrapper pWrapperFunction,
+      int threads)
+      throws CParserException, InterruptedException {
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            threads,
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("c-parser-%d").build());
+    parseTimer.start();
+    try {
+      List<Future<IASTTranslationUnit>> futures = new ArrayList<>(pInput.size());
+      for (FileToParse f : pInput) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  // the log adapter cancels only one parser, so each thread needs its own
+                  ShutdownNotifierLogAdapter log = new ShutdownNotifierLogAdapter(shutdownNotifier);
+                  try {
+                    return parse0(wrap(f, pWrapperFunction), parseContext, log);
+                  } finally {
+                    shutdownNotifier.unregister(log);
+                  }
+                }));
+      }
+
+      List<IASTTranslationUnit> astUnits = new ArrayList<>(pInput.size());
+      for (Future<IASTTranslationUnit> future : futures) {
+        astUnits.add(future.get());
+      }
+      return astUnits;
+
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.throwIfInstanceOf(cause, CParserException.class);
+      Throwables.throwIfInstanceOf(cause, InterruptedException.class);
+      Throwables.throwIfUnchecked(cause);
+      throw new UnexpectedCheckedException("parsing of C files", cause);
+    } finally {
+      executor.shutdownNow();
+      parseTimer.stop();
+    }
+  }
+
   @Override
   public ParseResult parseFile(List<String> pFilenames)
       throws CParserException, InterruptedException {
@@ -304,7 +368,17 @@ class EclipseCParser implements CParser {
       throws CParserException, InterruptedException {
     parseTimer.start();
     try {
-      IASTTranslationUnit result = getASTTranslationUnit(codeReader);
+      return parse0(codeReader, parseContext, parserLog);
+    } finally {
+      parseTimer.stop();
+    }
+  }
+
+  private IASTTranslationUnit parse0(
+      FileContent codeReader, ParseContext parseContext, IParserLogService log)
+      throws CParserException, InterruptedException {
+    try {
+      IASTTranslationUnit result = getASTTranslationUnit(codeReader, log);
 
       // Separate handling of include problems
       // so that we can give a better error message.
@@ -329,12 +403,10 @@ class EclipseCParser implements CParser {
 
     } catch (CFAGenerationRuntimeException | CoreException e) {
       throw new CParserException(e);
-    } finally {
-      parseTimer.stop();
     }
   }
 
-  private IASTTranslationUnit getASTTranslationUnit(FileContent pCode)
+  private IASTTranslationUnit getASTTranslationUnit(FileContent pCode, IParserLogService log)
       throws CFAGenerationRuntimeException, CoreException, InterruptedException {
     try {
       return language.getASTTranslationUnit(
@@ -343,7 +415,7 @@ class EclipseCParser implements CParser {
           FileContentProvider.instance,
           null,
           PARSER_OPTIONS,
-          parserLog);
+          log);
     } finally {
       shutdownNotifier.shutdownIfNecessary();
     }
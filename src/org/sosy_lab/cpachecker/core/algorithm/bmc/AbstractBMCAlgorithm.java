@@ -69,7 +69,9 @@ import org.sosy_lab.cpachecker.core.algorithm.bmc.candidateinvariants.TargetLoca
 import org.sosy_lab.cpachecker.core.algorithm.invariants.AbstractInvariantGenerator;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.DoNothingInvariantGenerator;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantGenerator;
+import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantStore;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.KInductionInvariantGenerator;
+import org.sosy_lab.cpachecker.core.algorithm.invariants.PortfolioInvariantGenerator;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.LoopIterationBounding;
@@ -437,8 +439,18 @@ abstract class AbstractBMCAlgorithm
             }
             try (@SuppressWarnings("resource")
                 KInductionProver kInductionProver = createInductionProver()) {
-            sound =
-                checkStepCase(reachedSet, candidateGenerator, kInductionProver, ctiBlockingClauses);
+              long invariantsVersion = getInvariantStoreVersion();
+              sound =
+                  checkStepCase(
+                      reachedSet, candidateGenerator, kInductionProver, ctiBlockingClauses);
+              // invariants published during the check might suffice for the current k
+              while (!sound && hasNewLoopHeadInvariantsSince(invariantsVersion)) {
+                logger.log(Level.INFO, "Checking step case again with new loop-head invariants");
+                invariantsVersion = getInvariantStoreVersion();
+                sound =
+                    checkStepCase(
+                        reachedSet, candidateGenerator, kInductionProver, ctiBlockingClauses);
+              }
             }
           }
           if (invariantGenerator.isProgramSafe()
@@ -860,6 +872,26 @@ abstract class AbstractBMCAlgorithm
         cfa.getMainFunction(), specification);
   }
 
+  /** Gets the version of the invariant store of a portfolio invariant generator, or 0. */
+  private long getInvariantStoreVersion() {
+    if (invariantGenerator instanceof PortfolioInvariantGenerator) {
+      return ((PortfolioInvariantGenerator) invariantGenerator).getInvariantStore().getVersion();
+    }
+    return 0;
+  }
+
+  /**
+   * Checks whether a portfolio invariant generator published new invariants for loop heads after
+   * the given version of its invariant store.
+   */
+  private boolean hasNewLoopHeadInvariantsSince(long pVersion) {
+    if (!(invariantGenerator instanceof PortfolioInvariantGenerator)) {
+      return false;
+    }
+    InvariantStore store = ((PortfolioInvariantGenerator) invariantGenerator).getInvariantStore();
+    return !Collections.disjoint(store.getLocationsUpdatedSince(pVersion), getLoopHeads());
+  }
+
   /**
    * Gets the loop heads.
    *
@@ -934,6 +966,24 @@ abstract class AbstractBMCAlgorithm
       }
     },
 
+    PORTFOLIO {
+
+      @Override
+      InvariantGenerator createInvariantGenerator(
+          Configuration pConfig,
+          LogManager pLogger,
+          ReachedSetFactory pReachedSetFactory,
+          ShutdownManager pShutdownManager,
+          CFA pCFA,
+          Specification pSpecification,
+          AggregatedReachedSets pAggregatedReachedSets,
+          TargetLocationProvider pTargetLocationProvider)
+          throws InvalidConfigurationException, CPAException {
+        return new PortfolioInvariantGenerator(
+            pConfig, pLogger, pShutdownManager, pCFA, pSpecification);
+      }
+    },
+
     DO_NOTHING {
 
       @Override
@@ -59,6 +59,7 @@ import org.sosy_lab.cpachecker.core.algorithm.invariants.ExpressionTreeSupplier;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantGenerator;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantSupplier;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.KInductionInvariantGenerator;
+import org.sosy_lab.cpachecker.core.algorithm.invariants.PortfolioInvariantGenerator;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
@@ -213,6 +214,10 @@ class KInductionProver implements AutoCloseable {
     if (!invariantGenerationRunning) {
       return expressionTreeSupplier;
     }
+    if (invariantGenerator instanceof PortfolioInvariantGenerator) {
+      // the store is updated by the portfolio whenever one of its generators finishes
+      return ((PortfolioInvariantGenerator) invariantGenerator).getInvariantStore();
+    }
     try {
       return new ExpressionTreeInvariantSupplier(invariantGenerator.get(), cfa);
     } catch (CPAException e) {
@@ -0,0 +1,123 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm.invariants;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.expressions.And;
+import org.sosy_lab.cpachecker.util.expressions.ExpressionTree;
+import org.sosy_lab.cpachecker.util.expressions.ExpressionTrees;
+
+/**
+ * Thread-safe store of invariants indexed by location, into which several invariant generators
+ * can publish their results while consumers read them.
+ *
+ * <p>Invariants are stored as {@link ExpressionTree}s, so that they do not depend on the formula
+ * manager of the generator that found them. Invariants published for the same location are
+ * conjoined.
+ *
+ * <p>Every call to {@link #publish(Map)} that changes the store creates a new version. Reading
+ * never blocks. To poll for new invariants incrementally, a consumer first reads the current
+ * version with {@link #getVersion()} and then asks for the locations updated since the version it
+ * saw last with {@link #getLocationsUpdatedSince(long)}. All locations updated up to the version
+ * that was read are guaranteed to be included.
+ */
+public final class InvariantStore implements ExpressionTreeSupplier {
+
+  private static final class VersionedInvariant {
+
+    private final ExpressionTree<Object> invariant;
+
+    private final long version;
+
+    private VersionedInvariant(ExpressionTree<Object> pInvariant, long pVersion) {
+      invariant = pInvariant;
+      version = pVersion;
+    }
+  }
+
+  private final ConcurrentMap<CFANode, VersionedInvariant> invariants = new ConcurrentHashMap<>();
+
+  /**
+   * The latest version of the store. It is only increased after all invariants of the version are
+   * stored, so that readers see them once they see the version.
+   */
+  private volatile long version = 0;
+
+  /**
+   * Publishes the given invariants and conjoins them with the invariants already known for the
+   * respective locations.
+   *
+   * @param pInvariants the invariants to publish, indexed by their locations.
+   * @return the version of the store after publishing the invariants.
+   */
+  public synchronized long publish(Map<CFANode, ExpressionTree<Object>> pInvariants) {
+    final long newVersion = version + 1;
+    boolean changed = false;
+    for (Map.Entry<CFANode, ExpressionTree<Object>> entry : pInvariants.entrySet()) {
+      ExpressionTree<Object> invariant = checkNotNull(entry.getValue());
+      if (ExpressionTrees.getTrue().equals(invariant)) {
+        continue;
+      }
+      VersionedInvariant old = invariants.get(entry.getKey());
+      ExpressionTree<Object> conjunction =
+          old == null ? invariant : And.of(old.invariant, invariant);
+      if (old == null || !conjunction.equals(old.invariant)) {
+        invariants.put(entry.getKey(), new VersionedInvariant(conjunction, newVersion));
+        changed = true;
+      }
+    }
+    if (changed) {
+      version = newVersion;
+    }
+    return version;
+  }
+
+  /**
+   * Gets the latest version of the store. The version increases whenever new invariants are
+   * published.
+   *
+   * @return the latest version of the store.
+   */
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * Gets the locations whose invariants changed after the given version. The result may also
+   * contain locations of versions that are newer than the latest version read by the caller.
+   *
+   * @param pVersion the version the caller knows about.
+   * @return the locations whose invariants changed after the given version.
+   */
+  public ImmutableSet<CFANode> getLocationsUpdatedSince(long pVersion) {
+    if (pVersion >= version) {
+      return ImmutableSet.of();
+    }
+    ImmutableSet.Builder<CFANode> result = ImmutableSet.builder();
+    invariants.forEach(
+        (location, invariant) -> {
+          if (invariant.version > pVersion) {
+            result.add(location);
+          }
+        });
+    return result.build();
+  }
+
+  @Override
+  public ExpressionTree<Object> getInvariantFor(CFANode pLocation) {
+    VersionedInvariant invariant = invariants.get(pLocation);
+    return invariant == null ? ExpressionTrees.getTrue() : invariant.invariant;
+  }
+}
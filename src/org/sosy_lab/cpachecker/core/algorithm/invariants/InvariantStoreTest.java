@@ -0,0 +1,78 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm.invariants;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.expressions.And;
+import org.sosy_lab.cpachecker.util.expressions.ExpressionTree;
+import org.sosy_lab.cpachecker.util.expressions.ExpressionTrees;
+import org.sosy_lab.cpachecker.util.expressions.LeafExpression;
+
+public class InvariantStoreTest {
+
+  private final InvariantStore store = new InvariantStore();
+
+  private final CFANode location1 = new CFANode(CFunctionDeclaration.DUMMY);
+  private final CFANode location2 = new CFANode(CFunctionDeclaration.DUMMY);
+
+  private final ExpressionTree<Object> invariantA = LeafExpression.<Object>of("a");
+  private final ExpressionTree<Object> invariantB = LeafExpression.<Object>of("b");
+
+  @Test
+  public void testPublish() {
+    assertThat(store.getVersion()).isEqualTo(0);
+    assertThat(store.getInvariantFor(location1)).isEqualTo(ExpressionTrees.getTrue());
+
+    long version = store.publish(ImmutableMap.of(location1, invariantA));
+
+    assertThat(version).isEqualTo(1);
+    assertThat(store.getVersion()).isEqualTo(1);
+    assertThat(store.getInvariantFor(location1)).isEqualTo(invariantA);
+    assertThat(store.getInvariantFor(location2)).isEqualTo(ExpressionTrees.getTrue());
+  }
+
+  @Test
+  public void testConjunction() {
+    store.publish(ImmutableMap.of(location1, invariantA));
+    store.publish(ImmutableMap.of(location1, invariantB));
+
+    assertThat(store.getInvariantFor(location1)).isEqualTo(And.of(invariantA, invariantB));
+    assertThat(store.getVersion()).isEqualTo(2);
+  }
+
+  @Test
+  public void testUnchangedInvariants() {
+    long version = store.publish(ImmutableMap.of(location1, And.of(invariantA, invariantB)));
+
+    // neither known conjuncts nor trivial invariants create a new version
+    assertThat(store.publish(ImmutableMap.of(location1, invariantB))).isEqualTo(version);
+    assertThat(store.publish(ImmutableMap.of(location2, ExpressionTrees.getTrue())))
+        .isEqualTo(version);
+    assertThat(store.getLocationsUpdatedSince(version)).isEmpty();
+  }
+
+  @Test
+  public void testLocationsUpdatedSince() {
+    long version1 = store.publish(ImmutableMap.of(location1, invariantA));
+    long version2 = store.publish(ImmutableMap.of(location2, invariantB));
+
+    assertThat(store.getLocationsUpdatedSince(0)).containsExactly(location1, location2);
+    assertThat(store.getLocationsUpdatedSince(version1)).containsExactly(location2);
+    assertThat(store.getLocationsUpdatedSince(version2)).isEmpty();
+
+    long version3 = store.publish(ImmutableMap.of(location1, invariantB));
+    assertThat(store.getLocationsUpdatedSince(version2)).containsExactly(location1);
+    assertThat(store.getLocationsUpdatedSince(version3)).isEmpty();
+  }
+}
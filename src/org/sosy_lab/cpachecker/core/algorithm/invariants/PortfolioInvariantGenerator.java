@@ -0,0 +1,242 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.algorithm.invariants;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import org.sosy_lab.common.ShutdownManager;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
+import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets.AggregatedReachedSetManager;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.core.specification.Specification;
+import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.expressions.ExpressionTree;
+import org.sosy_lab.cpachecker.util.expressions.ExpressionTrees;
+import org.sosy_lab.cpachecker.util.predicates.invariants.ExpressionTreeInvariantSupplier;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/**
+ * Invariant generator that runs several {@link CPAInvariantGenerator}s with different
+ * configurations concurrently. Whenever one of them finishes, its invariants are published into a
+ * shared {@link InvariantStore}, and its reached set is added to the reached sets returned by
+ * {@link #get()}. Consumers can therefore use the invariants of the fastest configurations while
+ * the others are still running.
+ */
+@Options(prefix = "invariantGeneration.portfolio")
+public class PortfolioInvariantGenerator extends AbstractInvariantGenerator
+    implements StatisticsProvider {
+
+  private static class PortfolioInvariantGeneratorStatistics implements Statistics {
+
+    private final AtomicInteger finishedGenerators = new AtomicInteger();
+
+    private final AtomicInteger failedGenerators = new AtomicInteger();
+
+    private final AtomicInteger publishedInvariants = new AtomicInteger();
+
+    @Override
+    public void printStatistics(PrintStream out, Result result, UnmodifiableReachedSet reached) {
+      StatisticsWriter.writingStatisticsTo(out)
+          .put("Number of finished invariant generators", finishedGenerators)
+          .put("Number of failed invariant generators", failedGenerators)
+          .put("Number of published location invariants", publishedInvariants);
+    }
+
+    @Override
+    public String getName() {
+      return "Portfolio invariant generator";
+    }
+  }
+
+  @Option(
+      secure = true,
+      required = true,
+      description =
+          "configuration files of the invariant generators that are run in parallel "
+              + "(each is used like invariantGeneration.config)")
+  @FileOption(FileOption.Type.REQUIRED_INPUT_FILE)
+  private List<Path> configFiles;
+
+  @Option(
+      secure = true,
+      description =
+          "maximum number of invariant generators that run at the same time "
+              + "(0 for one thread per configuration)")
+  private int threads = 0;
+
+  private final PortfolioInvariantGeneratorStatistics stats =
+      new PortfolioInvariantGeneratorStatistics();
+
+  private final LogManager logger;
+  private final CFA cfa;
+  private final ImmutableList<InvariantGenerator> generators;
+  private final InvariantStore store = new InvariantStore();
+  private final AggregatedReachedSetManager reachedSets = new AggregatedReachedSetManager();
+
+  private ExecutorService executor = null;
+
+  public PortfolioInvariantGenerator(
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownManager pShutdownManager,
+      CFA pCFA,
+      Specification pSpecification)
+      throws InvalidConfigurationException, CPAException {
+    pConfig.inject(this);
+    if (configFiles.isEmpty()) {
+      throw new InvalidConfigurationException(
+          "At least one configuration is required for the invariant generation portfolio.");
+    }
+    logger = pLogger;
+    cfa = pCFA;
+
+    ImmutableList.Builder<InvariantGenerator> builder = ImmutableList.builder();
+    for (int i = 0; i < configFiles.size(); i++) {
+      Configuration generatorConfig =
+          Configuration.builder()
+              .copyFrom(pConfig)
+              .setOption(
+                  "invariantGeneration.config", configFiles.get(i).toAbsolutePath().toString())
+              .build();
+      builder.add(
+          CPAInvariantGenerator.create(
+              generatorConfig,
+              pLogger.withComponentName("PortfolioInvariantGenerator" + i),
+              pShutdownManager,
+              Optional.empty(),
+              pCFA,
+              pSpecification,
+              ImmutableList.of()));
+    }
+    generators = builder.build();
+  }
+
+  @Override
+  protected void startImpl(CFANode pInitialLocation) {
+    checkState(executor == null);
+    int numberOfThreads = threads > 0 ? Math.min(threads, generators.size()) : generators.size();
+    executor =
+        Executors.newFixedThreadPool(
+            numberOfThreads,
+            new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("portfolio-invariant-generator-%d")
+                .build());
+    for (InvariantGenerator generator : generators) {
+      generator.start(pInitialLocation);
+      executor.execute(() -> runGenerator(generator));
+    }
+    executor.shutdown(); // will shutdown after all generators are finished
+  }
+
+  private void runGenerator(InvariantGenerator pGenerator) {
+    AggregatedReachedSets result;
+    try {
+      result = pGenerator.get();
+    } catch (CPAException e) {
+      logger.logUserException(Level.FINE, e, "Invariant generation failed.");
+      stats.failedGenerators.incrementAndGet();
+      return;
+    } catch (InterruptedException | CancellationException e) {
+      logger.log(Level.FINE, "Invariant generation was cancelled.");
+      logger.logDebugException(e);
+      return;
+    }
+    stats.finishedGenerators.incrementAndGet();
+    publish(result);
+
+    if (pGenerator.isProgramSafe()) {
+      // the other generators cannot contribute anything anymore
+      generators.stream().filter(g -> g != pGenerator).forEach(InvariantGenerator::cancel);
+    }
+  }
+
+  private void publish(AggregatedReachedSets pResult) {
+    ExpressionTreeSupplier supplier = new ExpressionTreeInvariantSupplier(pResult, cfa);
+    Map<CFANode, ExpressionTree<Object>> invariants = new HashMap<>();
+    for (CFANode node : cfa.getAllNodes()) {
+      ExpressionTree<Object> invariant = supplier.getInvariantFor(node);
+      if (!ExpressionTrees.getTrue().equals(invariant)) {
+        invariants.put(node, invariant);
+      }
+    }
+    for (UnmodifiableReachedSet reached : pResult.snapShot()) {
+      reachedSets.addReachedSet(reached);
+    }
+    store.publish(invariants);
+    stats.publishedInvariants.addAndGet(invariants.size());
+  }
+
+  /**
+   * Gets the store into which the invariants of all finished generators are published. The store
+   * can be polled at any time without blocking.
+   */
+  public InvariantStore getInvariantStore() {
+    return store;
+  }
+
+  @Override
+  public void cancel() {
+    checkState(executor != null);
+    generators.forEach(InvariantGenerator::cancel);
+  }
+
+  /**
+   * Returns the reached sets of all generators finished so far. This method does not block; the
+   * returned view is updated when further generators finish.
+   */
+  @Override
+  public AggregatedReachedSets get() {
+    checkState(executor != null);
+    return reachedSets.asView();
+  }
+
+  @Override
+  public boolean isProgramSafe() {
+    return generators.stream().anyMatch(InvariantGenerator::isProgramSafe);
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    List<Statistics> generatorStatistics = new ArrayList<>();
+    for (InvariantGenerator generator : generators) {
+      if (generator instanceof StatisticsProvider) {
+        ((StatisticsProvider) generator).collectStatistics(generatorStatistics);
+      }
+    }
+    pStatsCollection.addAll(generatorStatistics);
+    pStatsCollection.add(stats);
+  }
+}
@@ -117,6 +117,16 @@ class LocalizedRefinablePrecision extends RefinablePrecision {
     return false;
   }
 
+  @Override
+  public boolean tracksTheSameVariablesAt(
+      VariableTrackingPrecision pOtherPrecision, CFANode pLocation) {
+    return pOtherPrecision.getClass().equals(getClass())
+        && getBaseline().equals(((LocalizedRefinablePrecision) pOtherPrecision).getBaseline())
+        && rawPrecision
+            .get(pLocation)
+            .equals(((LocalizedRefinablePrecision) pOtherPrecision).rawPrecision.get(pLocation));
+  }
+
   @Override
   public boolean equals(Object other) {
     return super.equals(other)
@@ -122,6 +122,30 @@ public class ScopedRefinablePrecision extends RefinablePrecision {
     return false;
   }
 
+  /**
+   * Compares the global variables and the local variables of the function of the given location,
+   * because local variables of other functions are not in scope at this location.
+   */
+  @Override
+  public boolean tracksTheSameVariablesAt(
+      VariableTrackingPrecision pOtherPrecision, CFANode pLocation) {
+    if (!pOtherPrecision.getClass().equals(getClass())) {
+      return false;
+    }
+    ScopedRefinablePrecision otherPrecision = (ScopedRefinablePrecision) pOtherPrecision;
+    String functionName = pLocation.getFunctionName();
+    return getBaseline().equals(otherPrecision.getBaseline())
+        && Iterables.elementsEqual(
+            getVariablesInScope(rawPrecision, functionName),
+            getVariablesInScope(otherPrecision.rawPrecision, functionName));
+  }
+
+  private static Iterable<MemoryLocation> getVariablesInScope(
+      ImmutableSortedSet<MemoryLocation> pVariables, String pFunctionName) {
+    return Iterables.filter(
+        pVariables, v -> !v.isOnFunctionStack() || v.isOnFunctionStack(pFunctionName));
+  }
+
   @Override
   public boolean equals(Object other) {
     return super.equals(other)
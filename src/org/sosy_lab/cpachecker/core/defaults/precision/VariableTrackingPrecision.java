@@ -148,6 +148,19 @@ public abstract class VariableTrackingPrecision implements Precision, Serializab
    */
   public abstract boolean tracksTheSameVariablesAs(VariableTrackingPrecision otherPrecision);
 
+  /**
+   * This methods compares if this precision tracks the same variables as another precision at the
+   * given location. The default implementation ignores the location and compares the precisions
+   * globally, which is only exact for precisions that do not differ between locations.
+   *
+   * @param otherPrecision the precision to compare the tracking behavior
+   * @param location the location at which the tracking behavior is compared
+   */
+  public boolean tracksTheSameVariablesAt(
+      VariableTrackingPrecision otherPrecision, CFANode location) {
+    return tracksTheSameVariablesAs(otherPrecision);
+  }
+
   /**
    * This method checks if the caller precision is empty, thus there is
    * no variable that should be tracked.
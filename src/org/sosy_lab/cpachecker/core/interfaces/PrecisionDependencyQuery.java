@@ -0,0 +1,62 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.core.interfaces;
+
+/**
+ * Interface for CPAs that can tell whether their abstract states depend on a given change of the
+ * precision. This is used after a refinement to keep those states of the ARG that would be
+ * recomputed identically with the refined precision, instead of re-exploring them.
+ *
+ * <p>CPAs that do not implement this interface are treated conservatively, i.e., their states are
+ * considered to be affected by every change of their precision.
+ */
+public interface PrecisionDependencyQuery {
+
+  /**
+   * Checks whether the given abstract state may be different if it had been computed with the new
+   * precision instead of the old precision. The answer may be an over-approximation, i.e., it is
+   * always sound to return <code>true</code>.
+   *
+   * <p>The state must only be considered unaffected if it is guaranteed that the precision
+   * adjustment with the new precision yields the same state for the same predecessor.
+   *
+   * @param pState the abstract state of this CPA
+   * @param pOldPrecision the precision of this CPA with which the state was computed
+   * @param pNewPrecision the refined precision of this CPA
+   * @param pFullState the full abstract state, which can be used to access other components (e.g.,
+   *     the location)
+   * @return <code>false</code> if the state is guaranteed to be unaffected by the precision change
+   */
+  boolean isAffectedByPrecisionChange(
+      AbstractState pState,
+      Precision pOldPrecision,
+      Precision pNewPrecision,
+      AbstractState pFullState);
+
+  /**
+   * Checks whether the given abstract state of the given CPA may be affected by the precision
+   * change. This delegates to {@link #isAffectedByPrecisionChange} if the CPA supports it, and
+   * otherwise only considers states with unchanged precision as unaffected.
+   */
+  static boolean isAffectedByPrecisionChange(
+      ConfigurableProgramAnalysis pCpa,
+      AbstractState pState,
+      Precision pOldPrecision,
+      Precision pNewPrecision,
+      AbstractState pFullState) {
+    if (pOldPrecision == pNewPrecision) {
+      return false;
+    }
+    if (pCpa instanceof PrecisionDependencyQuery) {
+      return ((PrecisionDependencyQuery) pCpa)
+          .isAffectedByPrecisionChange(pState, pOldPrecision, pNewPrecision, pFullState);
+    }
+    return !pOldPrecision.equals(pNewPrecision);
+  }
+}
@@ -77,6 +77,12 @@ public final class ApronCPA
       description="Use this to change the underlying abstract domain in the APRON library")
   private ApronManager.AbstractDomain domainType = ApronManager.AbstractDomain.OCTAGON;
 
+  @Option(secure=true, description="split the abstract state into independent packs of variables,"
+      + " which are merged on demand when an operation relates variables of different packs."
+      + " This makes operations on states cheaper if variables do not interact,"
+      + " but relations between variables of different packs are lost on join and widening.")
+  private boolean packVariables = false;
+
   @Option(secure=true, description="get an initial precision from file")
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private Path initialPrecisionFile = null;
@@ -163,12 +169,17 @@ public final class ApronCPA
   @Override
   public AbstractState getInitialState(CFANode pNode, StateSpacePartition pPartition) {
     try {
-      return new ApronState(logger, apronManager);
+      return createEmptyState();
     } catch (ApronException e) {
       throw new RuntimeException("An error occured while operating with the apron library", e);
     }
   }
 
+  /** Creates a state without any constraints, with the configured handling of variables. */
+  public ApronState createEmptyState() throws ApronException {
+    return new ApronState(logger, apronManager, packVariables);
+  }
+
   @Override
   public Precision getInitialPrecision(CFANode pNode, StateSpacePartition pPartition) {
     return precision;
@@ -8,7 +8,6 @@
 
 package org.sosy_lab.cpachecker.cpa.apron;
 
-import apron.Abstract0;
 import apron.ApronException;
 import java.util.HashMap;
 import java.util.Map;
@@ -48,12 +47,12 @@ class ApronDomain implements AbstractDomain {
   @Override
   public AbstractState join(AbstractState successor, AbstractState reached) {
     Pair<ApronState, ApronState> shrinkedStates;
-    Abstract0 newApronState;
+    PackedAbstract0 newApronState;
     ApronState firstState;
     try {
       shrinkedStates = getShrinkedStates((ApronState)successor, (ApronState)reached);
       firstState = shrinkedStates.getFirst();
-      newApronState = firstState.getApronNativeState().joinCopy(firstState.getManager().getManager(), shrinkedStates.getSecond().getApronNativeState());
+      newApronState = firstState.getApronPackedState().join(shrinkedStates.getSecond().getApronPackedState());
 
     } catch (ApronException e) {
       throw new RuntimeException("An error occured while operating with the apron library", e);
@@ -77,13 +76,13 @@ class ApronDomain implements AbstractDomain {
 
   public AbstractState widening(ApronState successorState, ApronState reachedState) {
     Pair<ApronState, ApronState> shrinkedStates;
-    Abstract0 newApronState;
+    PackedAbstract0 newApronState;
     try {
       shrinkedStates = getShrinkedStates(successorState, reachedState);
       successorState = shrinkedStates.getFirst();
       reachedState = shrinkedStates.getSecond();
 
-      newApronState = reachedState.getApronNativeState().widening(reachedState.getManager().getManager(), successorState.getApronNativeState());
+      newApronState = reachedState.getApronPackedState().widening(successorState.getApronPackedState());
 
     } catch (ApronException e) {
       throw new RuntimeException("An error occured while operating with the apron library", e);
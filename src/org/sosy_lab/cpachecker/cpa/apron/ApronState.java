@@ -65,9 +65,12 @@ public class ApronState implements AbstractState, Serializable, FormulaReporting
   }
 
   // the Apron state representation
-  private transient Abstract0 apronState;
+  private transient PackedAbstract0 apronState;
   private transient ApronManager apronManager;
 
+  // whether the variables are kept in independent packs
+  private final boolean packVariables;
+
   // mapping from variable name to its identifier
   private List<MemoryLocation> integerToIndexMap;
   private List<MemoryLocation> realToIndexMap;
@@ -78,8 +81,14 @@ public class ApronState implements AbstractState, Serializable, FormulaReporting
 
   // also top element
   public ApronState(LogManager log, ApronManager manager) {
+    this(log, manager, false);
+  }
+
+  // also top element
+  public ApronState(LogManager log, ApronManager manager, boolean pPackVariables) {
     apronManager = manager;
-    apronState = new Abstract0(apronManager.getManager(), 0, 0);
+    apronState = PackedAbstract0.top(apronManager.getManager(), pPackVariables);
+    packVariables = pPackVariables;
     logger = log;
     logger.log(Level.FINEST, "initial apron state");
 
@@ -90,7 +99,12 @@ public class ApronState implements AbstractState, Serializable, FormulaReporting
   }
 
   public ApronState(Abstract0 apronNativeState, ApronManager manager, List<MemoryLocation> intMap, List<MemoryLocation> realMap, Map<MemoryLocation, Type> typeMap, boolean pIsLoopHead, LogManager log) {
-    apronState = apronNativeState;
+    this(PackedAbstract0.of(manager.getManager(), apronNativeState, false), manager, intMap, realMap, typeMap, pIsLoopHead, log);
+  }
+
+  ApronState(PackedAbstract0 apronPackedState, ApronManager manager, List<MemoryLocation> intMap, List<MemoryLocation> realMap, Map<MemoryLocation, Type> typeMap, boolean pIsLoopHead, LogManager log) {
+    apronState = apronPackedState;
+    packVariables = apronPackedState.isPacking();
     apronManager = manager;
     integerToIndexMap = intMap;
     realToIndexMap = realMap;
@@ -117,7 +131,7 @@ public class ApronState implements AbstractState, Serializable, FormulaReporting
 logger.log(Level.FINEST, "apron state: isEqual");
     return Objects.equals(integerToIndexMap, otherApron.integerToIndexMap)
            && Objects.equals(realToIndexMap, otherApron.realToIndexMap)
-           && this.apronState.isEqual(apronManager.getManager(), otherApron.apronState)
+           && this.apronState.isEqual(otherApron.apronState)
            && isLoopHead == otherApron.isLoopHead;
   }
 
@@ -140,7 +154,7 @@ logger.log(Level.FINEST, "apron state: isEqual");
     if (Objects.equals(integerToIndexMap, state.integerToIndexMap)
         && Objects.equals(realToIndexMap, state.realToIndexMap)) {
       logger.log(Level.FINEST, "apron state: isIncluded");
-      return apronState.isIncluded(apronManager.getManager(), state.apronState);
+      return apronState.isIncluded(state.apronState);
     } else {
       logger.log(Level.FINEST, "Removing some temporary (in the transferrelation)"
                  + " introduced variables from the Abstract0 to compute #isLessOrEquals()");
@@ -148,14 +162,14 @@ logger.log(Level.FINEST, "apron state: isEqual");
       if (integerToIndexMap.containsAll(state.integerToIndexMap)
           && realToIndexMap.containsAll(state.realToIndexMap)) {
         logger.log(Level.FINEST, "apron state: isIncluded");
-        return forgetVars(state).isIncluded(apronManager.getManager(), state.apronState);
+        return forgetVars(state).isIncluded(state.apronState);
       } else {
         return false;
       }
     }
   }
 
-  private Abstract0 forgetVars(ApronState pConsiderSubsetOfVars){
+  private PackedAbstract0 forgetVars(ApronState pConsiderSubsetOfVars){
     int amountInts = integerToIndexMap.size()-pConsiderSubsetOfVars.integerToIndexMap.size();
     int[] removeDim = new int[amountInts+realToIndexMap.size()-pConsiderSubsetOfVars.realToIndexMap.size()];
 
@@ -183,8 +197,7 @@ logger.log(Level.FINEST, "apron state: isEqual");
       indexThis++;
     }
 
-    return apronState.removeDimensionsCopy(apronManager.getManager(),
-        new Dimchange(amountInts, removeDim.length-amountInts, removeDim));
+    return apronState.removeDimensions(removeDim);
   }
 
   /**
@@ -230,8 +243,7 @@ logger.log(Level.FINEST, "apron state: isEqual");
         newTypeMap1.remove(realToIndexMap.get(index - amountInts));
       }
       logger.log(Level.FINEST, "apron state: removeDimensionCopy: " + new Dimchange(amountInts, amountReals, placesRemoved));
-      Abstract0 newApronState1 = apronState.removeDimensionsCopy(apronManager.getManager(),
-                                                                 new Dimchange(amountInts, amountReals, placesRemoved));
+      PackedAbstract0 newApronState1 = apronState.removeDimensions(placesRemoved);
       newState1 =  new ApronState(newApronState1, apronManager, newIntMap1, newRealMap1, newTypeMap1, isLoopHead, logger);
     } else {
       newState1 = this;
@@ -258,8 +270,7 @@ logger.log(Level.FINEST, "apron state: isEqual");
         newTypeMap2.remove(oldState.realToIndexMap.get(index - amountInts));
       }
       logger.log(Level.FINEST, "apron state: removeDimensionCopy: " + new Dimchange(amountInts, amountReals, placesRemoved));
-      Abstract0 newApronState2 =  oldState.apronState.removeDimensionsCopy(oldState.apronManager.getManager(),
-                                                                           new Dimchange(amountInts, amountReals, placesRemoved));
+      PackedAbstract0 newApronState2 = oldState.apronState.removeDimensions(placesRemoved);
       newState2 = new ApronState(newApronState2, oldState.apronManager, newIntMap2, newRealMap2, newTypeMap2, isLoopHead, logger);
     } else {
       newState2 = oldState;
@@ -271,15 +282,23 @@ logger.log(Level.FINEST, "apron state: isEqual");
   @Override
   public String toString() {
     logger.log(Level.FINEST, "apron state: toString");
-    return apronState.toString(apronManager.getManager());
+    return apronState.toString();
   }
 
   public boolean satisfies(Tcons0 cons) {
     logger.log(Level.FINEST, "apron state: satisfy: " + cons);
-    return apronState.satisfy(apronManager.getManager(), cons);
+    return apronState.satisfy(cons);
   }
 
+  /**
+   * Returns the Apron representation of this state. If the variables are packed, all packs are
+   * merged into a single abstract value.
+   */
   public Abstract0 getApronNativeState() {
+    return apronState.toAbstract0();
+  }
+
+  PackedAbstract0 getApronPackedState() {
     return apronState;
   }
 
@@ -305,7 +324,7 @@ logger.log(Level.FINEST, "apron state: isEqual");
 
   public boolean isEmpty() {
     logger.log(Level.FINEST, "apron state: isBottom");
-    return apronState.isBottom(apronManager.getManager());
+    return apronState.isBottom();
   }
 
   /**
@@ -319,7 +338,7 @@ logger.log(Level.FINEST, "apron state: isEqual");
     }
     logger.log(Level.FINEST, "apron state: forgetCopy: " + pVariableName);
     return new ApronState(
-        apronState.forgetCopy(apronManager.getManager(), varIdx, false),
+        apronState.forget(varIdx),
         apronManager,
         new ArrayList<>(integerToIndexMap),
         new ArrayList<>(realToIndexMap),
@@ -384,7 +403,7 @@ logger.log(Level.FINEST, "apron state: isEqual");
     logger.log(Level.FINEST, "apron state: addDimensionCopy: " + varName + " " + dimch);
     ApronState newState =
         new ApronState(
-            apronState.addDimensionsCopy(apronManager.getManager(), dimch, false),
+            apronState.addDimension(addPlace[0], type == Type.INT),
             apronManager,
             new ArrayList<>(integerToIndexMap),
             new ArrayList<>(realToIndexMap),
@@ -407,7 +426,7 @@ logger.log(Level.FINEST, "apron state: isEqual");
     }
     if (assignment != null) {
       logger.log(Level.FINEST, "apron state: assignCopy: " + leftVarName + " = " + assignment);
-      return new ApronState(apronState.assignCopy(apronManager.getManager(), varIndex, assignment, null),
+      return new ApronState(apronState.assign(varIndex, assignment),
                             apronManager,
                             integerToIndexMap,
                             realToIndexMap,
@@ -430,7 +449,7 @@ logger.log(Level.FINEST, "apron state: isEqual");
     }
     if (assignment != null) {
       logger.log(Level.FINEST, "apron state: assignCopy: " + leftVarName + " = " + assignment);
-      Abstract0 retState = apronState.assignCopy(apronManager.getManager(), varIndex, assignment, null);
+      PackedAbstract0 retState = apronState.assign(varIndex, assignment);
 
       if (retState == null) {
         logger.log(Level.WARNING, "Assignment of expression to variable yielded an empty state,"
@@ -453,7 +472,7 @@ logger.log(Level.FINEST, "apron state: isEqual");
 
   public ApronState addConstraint(Lincons0 constraint) {
     logger.log(Level.FINEST, "apron state: meetCopy: " + constraint);
-    return new ApronState(apronState.meetCopy(apronManager.getManager(), constraint),
+    return new ApronState(apronState.meet(constraint),
                           apronManager,
                           integerToIndexMap,
                           realToIndexMap,
@@ -464,7 +483,7 @@ logger.log(Level.FINEST, "apron state: isEqual");
 
   public ApronState addConstraint(Tcons0 constraint) {
     logger.log(Level.FINEST, "apron state: meetCopy: " + constraint);
-    return new ApronState(apronState.meetCopy(apronManager.getManager(), constraint),
+    return new ApronState(apronState.meet(constraint),
                           apronManager,
                           integerToIndexMap,
                           realToIndexMap,
@@ -481,10 +500,10 @@ logger.log(Level.FINEST, "apron state: isEqual");
     logger.log(Level.FINEST, "apron state: getBounds");
     Map<MemoryLocation, Interval> vars = new HashMap<>();
     for (MemoryLocation varName : integerToIndexMap) {
-      vars.put(varName, apronState.getBound(apronManager.getManager(), getVariableIndexFor(varName)));
+      vars.put(varName, apronState.getBound(getVariableIndexFor(varName)));
     }
     for (MemoryLocation varName : realToIndexMap) {
-      vars.put(varName, apronState.getBound(apronManager.getManager(), getVariableIndexFor(varName)));
+      vars.put(varName, apronState.getBound(getVariableIndexFor(varName)));
     }
     return vars;
   }
@@ -518,9 +537,7 @@ logger.log(Level.FINEST, "apron state: isEqual");
     logger.log(Level.FINEST, "apron state: removeDimensionCopy: " + new Dimchange(intsRemoved, realsRemoved, placesToRemove));
     ApronState newState =
         new ApronState(
-            apronState.removeDimensionsCopy(
-                apronManager.getManager(),
-                new Dimchange(intsRemoved, realsRemoved, placesToRemove)),
+            apronState.removeDimensions(placesToRemove),
             apronManager,
             new ArrayList<>(integerToIndexMap),
             new ArrayList<>(realToIndexMap),
@@ -532,14 +549,14 @@ logger.log(Level.FINEST, "apron state: isEqual");
     newState.variableToTypeMap.keySet().removeAll(keysToRemove);
 
     logger.log(Level.FINEST, "apron state: getDimension");
-    Dimension dim = newState.apronState.getDimension(apronManager.getManager());
+    Dimension dim = newState.apronState.getDimension();
     assert dim.intDim + dim.realDim == newState.sizeOfVariables();
     return newState;
   }
 
   private void writeObject(java.io.ObjectOutputStream out) throws IOException {
     out.defaultWriteObject();
-    byte[] serialized = apronState.serialize(apronManager.getManager());
+    byte[] serialized = apronState.serialize();
     out.writeInt(serialized.length);
     out.write(serialized);
   }
@@ -553,14 +570,18 @@ logger.log(Level.FINEST, "apron state: isEqual");
 
     byte[] deserialized = new byte[in.readInt()];
     in.readFully(deserialized);
-    apronState = Abstract0.deserialize(apronManager.getManager(), deserialized);
+    apronState =
+        PackedAbstract0.of(
+            apronManager.getManager(),
+            Abstract0.deserialize(apronManager.getManager(), deserialized),
+            packVariables);
   }
 
   @Override
   public BooleanFormula getFormulaApproximation(FormulaManagerView pManager) {
     BitvectorFormulaManager bitFmgr = pManager.getBitvectorFormulaManager();
     BooleanFormulaManager bFmgr = pManager.getBooleanFormulaManager();
-    Tcons0[] constraints = apronState.toTcons(apronManager.getManager());
+    Tcons0[] constraints = apronState.toTcons();
 
     return bFmgr.and(
         Lists.transform(Arrays.asList(constraints), cons -> createFormula(bFmgr, bitFmgr, cons)));
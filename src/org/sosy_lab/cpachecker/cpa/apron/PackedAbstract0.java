@@ -0,0 +1,657 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.apron;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import apron.Abstract0;
+import apron.Dimchange;
+import apron.Dimension;
+import apron.Interval;
+import apron.Lincons0;
+import apron.Linexpr0;
+import apron.Linterm0;
+import apron.Manager;
+import apron.Tcons0;
+import apron.Texpr0Intern;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.util.Pair;
+
+/**
+ * An abstract value of an Apron domain that is decomposed into independent packs of dimensions.
+ * Each pack has its own {@link Abstract0} over the dimensions of the pack, and the represented
+ * value is the product of the values of all packs. Dimensions are identified by their global
+ * index, with all integer dimensions before the real dimensions (as in {@link Abstract0}).
+ *
+ * <p>If packing is disabled, there is always a single pack containing all dimensions, which
+ * behaves exactly like a single {@link Abstract0}. Otherwise each new dimension starts in a pack of
+ * its own, and packs are merged on demand whenever an assignment or a constraint relates
+ * dimensions of different packs. The costs of join, widening and inclusion checks then depend on
+ * the size of the packs instead of on the total number of dimensions.
+ *
+ * <p>Instances are immutable.
+ */
+final class PackedAbstract0 {
+
+  private static final class Pack {
+
+    /** The global dimensions of this pack, sorted. Local dimension i is global dimension dims[i]. */
+    private final int[] dims;
+
+    private final Abstract0 value;
+
+    private Pack(int[] pDims, Abstract0 pValue) {
+      dims = pDims;
+      value = pValue;
+    }
+
+    private int localIndexOf(int pGlobalDim) {
+      int index = Arrays.binarySearch(dims, pGlobalDim);
+      assert index >= 0 : "dimension " + pGlobalDim + " is not part of the pack";
+      return index;
+    }
+  }
+
+  private final Manager manager;
+  private final int intDim;
+  private final int realDim;
+  private final boolean packing;
+  private final ImmutableList<Pack> packs;
+
+  /** The index of the pack in {@link #packs} for each global dimension. */
+  private final int[] packOfDim;
+
+  private PackedAbstract0(
+      Manager pManager, int pIntDim, int pRealDim, boolean pPacking, List<Pack> pPacks) {
+    manager = pManager;
+    intDim = pIntDim;
+    realDim = pRealDim;
+    packing = pPacking;
+    packs = ImmutableList.copyOf(pPacks);
+    assert packing || packs.size() == 1 : "without packing there is exactly one pack";
+
+    packOfDim = new int[intDim + realDim];
+    Arrays.fill(packOfDim, -1);
+    for (int i = 0; i < packs.size(); i++) {
+      for (int dim : packs.get(i).dims) {
+        assert packOfDim[dim] == -1 : "packs are not disjoint";
+        packOfDim[dim] = i;
+      }
+    }
+    assert Arrays.stream(packOfDim).allMatch(i -> i >= 0) : "packs do not cover all dimensions";
+  }
+
+  /** Creates the top value without any dimensions. */
+  static PackedAbstract0 top(Manager pManager, boolean pPacking) {
+    return of(pManager, new Abstract0(pManager, 0, 0), pPacking);
+  }
+
+  /** Creates a value with a single pack that consists of the given abstract value. */
+  static PackedAbstract0 of(Manager pManager, Abstract0 pValue, boolean pPacking) {
+    Dimension dim = pValue.getDimension(pManager);
+    return new PackedAbstract0(
+        pManager,
+        dim.intDim,
+        dim.realDim,
+        pPacking,
+        ImmutableList.of(new Pack(allDims(dim.intDim + dim.realDim), pValue)));
+  }
+
+  boolean isPacking() {
+    return packing;
+  }
+
+  private int size() {
+    return intDim + realDim;
+  }
+
+  private boolean isSinglePack() {
+    return packs.size() == 1 && packs.get(0).dims.length == size();
+  }
+
+  private static int[] allDims(int pSize) {
+    return IntStream.range(0, pSize).toArray();
+  }
+
+  private static int countInts(int[] pSortedDims, int pIntDim) {
+    int count = 0;
+    while (count < pSortedDims.length && pSortedDims[count] < pIntDim) {
+      count++;
+    }
+    return count;
+  }
+
+  private static int[] sortedDims(int[] pDims) {
+    return Arrays.stream(pDims).sorted().distinct().toArray();
+  }
+
+  private static int[] withDim(int[] pSortedDims, int pDim) {
+    return sortedDims(IntStream.concat(Arrays.stream(pSortedDims), IntStream.of(pDim)).toArray());
+  }
+
+  /**
+   * Returns the dimension change that inserts all dimensions of the sorted array pTo that are not
+   * in the sorted array pFrom, which is a subset of pTo.
+   */
+  private static Dimchange embedding(int[] pFrom, int[] pTo, int pIntDim) {
+    int[] added = new int[pTo.length - pFrom.length];
+    int addedInts = 0;
+    int k = 0;
+    int j = 0;
+    for (int dim : pTo) {
+      while (j < pFrom.length && pFrom[j] < dim) {
+        j++;
+      }
+      if (j < pFrom.length && pFrom[j] == dim) {
+        continue;
+      }
+      added[k++] = j;
+      if (dim < pIntDim) {
+        addedInts++;
+      }
+    }
+    assert k == added.length;
+    return new Dimchange(addedInts, added.length - addedInts, added);
+  }
+
+  /** Returns the dimension change that removes all global dimensions that are not in the pack. */
+  private Dimchange removingOtherDims(Pack pPack) {
+    int[] removed = new int[size() - pPack.dims.length];
+    int removedInts = 0;
+    int k = 0;
+    int j = 0;
+    for (int dim = 0; dim < size(); dim++) {
+      if (j < pPack.dims.length && pPack.dims[j] == dim) {
+        j++;
+      } else {
+        removed[k++] = dim;
+        if (dim < intDim) {
+          removedInts++;
+        }
+      }
+    }
+    return new Dimchange(removedInts, removed.length - removedInts, removed);
+  }
+
+  private Tcons0 localize(Pack pPack, Tcons0 pConstraint) {
+    if (pPack.dims.length == size()) {
+      return pConstraint;
+    }
+    return pConstraint.removeDimensionsCopy(removingOtherDims(pPack));
+  }
+
+  private Texpr0Intern localize(Pack pPack, Texpr0Intern pExpression) {
+    if (pPack.dims.length == size()) {
+      return pExpression;
+    }
+    return pExpression.removeDimensionsCopy(removingOtherDims(pPack));
+  }
+
+  private Linexpr0 localize(Pack pPack, Linexpr0 pExpression) {
+    if (pPack.dims.length == size()) {
+      return pExpression;
+    }
+    List<Linterm0> terms = new ArrayList<>();
+    for (Linterm0 term : pExpression.getLinterms()) {
+      if (!term.getCoefficient().isZero()) {
+        terms.add(new Linterm0(pPack.localIndexOf(term.getDimension()), term.getCoefficient()));
+      }
+    }
+    return new Linexpr0(terms.toArray(new Linterm0[0]), pExpression.getCst());
+  }
+
+  private Lincons0 localize(Pack pPack, Lincons0 pConstraint) {
+    if (pPack.dims.length == size()) {
+      return pConstraint;
+    }
+    Linexpr0 expression = localize(pPack, pConstraint.getExpression());
+    return pConstraint.getScalar() == null
+        ? new Lincons0(pConstraint.getKind(), expression)
+        : new Lincons0(pConstraint.getKind(), expression, pConstraint.getScalar());
+  }
+
+  private static int[] getDims(Linexpr0 pExpression) {
+    return sortedDims(
+        Arrays.stream(pExpression.getLinterms())
+            .filter(term -> !term.getCoefficient().isZero())
+            .mapToInt(Linterm0::getDimension)
+            .toArray());
+  }
+
+  /**
+   * Returns the indices of the packs that contain the given dimensions. A constraint without any
+   * dimensions can only make the value empty, so for no dimensions an arbitrary pack is returned.
+   */
+  private SortedSet<Integer> packsOf(int[] pDims) {
+    SortedSet<Integer> indices = new TreeSet<>();
+    for (int dim : pDims) {
+      indices.add(packOfDim[dim]);
+    }
+    if (indices.isEmpty() && !packs.isEmpty()) {
+      indices.add(0);
+    }
+    return indices;
+  }
+
+  /** Returns a single pack that is the product of the given packs. */
+  private Pack merge(Collection<Pack> pPacks) {
+    if (pPacks.isEmpty()) {
+      return new Pack(new int[0], new Abstract0(manager, 0, 0));
+    } else if (pPacks.size() == 1) {
+      return pPacks.iterator().next();
+    }
+
+    int[] dims = sortedDims(pPacks.stream().flatMapToInt(p -> Arrays.stream(p.dims)).toArray());
+    Abstract0[] embedded = new Abstract0[pPacks.size()];
+    int i = 0;
+    for (Pack pack : pPacks) {
+      embedded[i++] =
+          pack.value.addDimensionsCopy(manager, embedding(pack.dims, dims, intDim), false);
+    }
+    return new Pack(dims, Abstract0.meet(manager, embedded));
+  }
+
+  private Pack merge(SortedSet<Integer> pIndices) {
+    List<Pack> selected = new ArrayList<>(pIndices.size());
+    for (int index : pIndices) {
+      selected.add(packs.get(index));
+    }
+    return merge(selected);
+  }
+
+  /** Returns a copy of this value with the given packs replaced by the new packs. */
+  private PackedAbstract0 replacePacks(Collection<Integer> pRemoved, Pack... pNewPacks) {
+    List<Pack> newPacks = new ArrayList<>(packs.size() - pRemoved.size() + pNewPacks.length);
+    for (int i = 0; i < packs.size(); i++) {
+      if (!pRemoved.contains(i)) {
+        newPacks.add(packs.get(i));
+      }
+    }
+    newPacks.addAll(Arrays.asList(pNewPacks));
+    return new PackedAbstract0(manager, intDim, realDim, packing, newPacks);
+  }
+
+  /**
+   * Merges the packs of the given dimensions and applies the operation to the merged pack.
+   *
+   * @return the new value, or null if the operation returned null
+   */
+  private @Nullable PackedAbstract0 transform(
+      int[] pDims, Function<Pack, @Nullable Abstract0> pOperation) {
+    SortedSet<Integer> indices = packsOf(pDims);
+    Pack merged = merge(indices);
+    Abstract0 result = pOperation.apply(merged);
+    if (result == null) {
+      return null;
+    }
+    return replacePacks(indices, new Pack(merged.dims, result));
+  }
+
+  boolean isBottom() {
+    for (Pack pack : packs) {
+      if (pack.value.isBottom(manager)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  boolean satisfy(Tcons0 pConstraint) {
+    SortedSet<Integer> indices = packsOf(sortedDims(pConstraint.getDims()));
+    if (indices.size() < packs.size() && isBottom()) {
+      return true;
+    }
+    Pack merged = merge(indices);
+    return merged.value.satisfy(manager, localize(merged, pConstraint));
+  }
+
+  PackedAbstract0 meet(Tcons0 pConstraint) {
+    return transform(
+        sortedDims(pConstraint.getDims()),
+        pack -> pack.value.meetCopy(manager, localize(pack, pConstraint)));
+  }
+
+  PackedAbstract0 meet(Lincons0 pConstraint) {
+    return transform(
+        getDims(pConstraint.getExpression()),
+        pack -> pack.value.meetCopy(manager, localize(pack, pConstraint)));
+  }
+
+  /**
+   * Assigns the expression to the dimension.
+   *
+   * @return the new value, or null if Apron could not compute the assignment
+   */
+  @Nullable PackedAbstract0 assign(int pDim, Texpr0Intern pExpression) {
+    // the old value of the dimension is irrelevant, so it does not need to stay in its pack
+    PackedAbstract0 base = !packing || pExpression.hasDim(pDim) ? this : forget(pDim);
+    return base.transform(
+        withDim(sortedDims(pExpression.getDims()), pDim),
+        pack ->
+            pack.value.assignCopy(
+                manager, pack.localIndexOf(pDim), localize(pack, pExpression), null));
+  }
+
+  /**
+   * Assigns the expression to the dimension.
+   *
+   * @return the new value, or null if Apron could not compute the assignment
+   */
+  @Nullable PackedAbstract0 assign(int pDim, Linexpr0 pExpression) {
+    int[] dims = getDims(pExpression);
+    PackedAbstract0 base =
+        !packing || Arrays.binarySearch(dims, pDim) >= 0 ? this : forget(pDim);
+    return base.transform(
+        withDim(dims, pDim),
+        pack ->
+            pack.value.assignCopy(
+                manager, pack.localIndexOf(pDim), localize(pack, pExpression), null));
+  }
+
+  /**
+   * Removes all information about the dimension. With packing, the dimension is moved into a pack
+   * of its own.
+   */
+  PackedAbstract0 forget(int pDim) {
+    int index = packOfDim[pDim];
+    Pack pack = packs.get(index);
+    if (!packing || pack.dims.length == 1) {
+      return replacePacks(
+          ImmutableList.of(index),
+          new Pack(pack.dims, pack.value.forgetCopy(manager, pack.localIndexOf(pDim), false)));
+    }
+
+    boolean isInt = pDim < intDim;
+    int[] remainingDims = Arrays.stream(pack.dims).filter(dim -> dim != pDim).toArray();
+    Abstract0 remaining =
+        pack.value.removeDimensionsCopy(
+            manager,
+            new Dimchange(isInt ? 1 : 0, isInt ? 0 : 1, new int[] {pack.localIndexOf(pDim)}));
+    return replacePacks(
+        ImmutableList.of(index),
+        new Pack(remainingDims, remaining),
+        new Pack(new int[] {pDim}, new Abstract0(manager, isInt ? 1 : 0, isInt ? 0 : 1)));
+  }
+
+  /**
+   * Adds a new unconstrained dimension. All dimensions with an index greater or equal to the new
+   * dimension are shifted by one.
+   */
+  PackedAbstract0 addDimension(int pDim, boolean pIsInt) {
+    checkArgument(
+        pIsInt ? pDim <= intDim : (pDim >= intDim && pDim <= size()),
+        "integer dimensions have to precede real dimensions");
+    int newIntDim = intDim + (pIsInt ? 1 : 0);
+    int newRealDim = realDim + (pIsInt ? 0 : 1);
+
+    if (!packing) {
+      Pack pack = packs.get(0);
+      Abstract0 value =
+          pack.value.addDimensionsCopy(
+              manager, new Dimchange(pIsInt ? 1 : 0, pIsInt ? 0 : 1, new int[] {pDim}), false);
+      return new PackedAbstract0(
+          manager,
+          newIntDim,
+          newRealDim,
+          packing,
+          ImmutableList.of(new Pack(allDims(size() + 1), value)));
+    }
+
+    List<Pack> newPacks = new ArrayList<>(packs.size() + 1);
+    for (Pack pack : packs) {
+      int[] dims = Arrays.stream(pack.dims).map(dim -> dim >= pDim ? dim + 1 : dim).toArray();
+      newPacks.add(new Pack(dims, pack.value));
+    }
+    newPacks.add(
+        new Pack(new int[] {pDim}, new Abstract0(manager, pIsInt ? 1 : 0, pIsInt ? 0 : 1)));
+    return new PackedAbstract0(manager, newIntDim, newRealDim, packing, newPacks);
+  }
+
+  /** Removes the given dimensions, the remaining dimensions are renumbered accordingly. */
+  PackedAbstract0 removeDimensions(int[] pDims) {
+    int[] removed = sortedDims(pDims);
+    int removedInts = countInts(removed, intDim);
+
+    List<Pack> newPacks = new ArrayList<>(packs.size());
+    for (Pack pack : packs) {
+      List<Integer> removedLocal = new ArrayList<>();
+      List<Integer> remaining = new ArrayList<>();
+      for (int i = 0; i < pack.dims.length; i++) {
+        int dim = pack.dims[i];
+        int pos = Arrays.binarySearch(removed, dim);
+        if (pos >= 0) {
+          removedLocal.add(i);
+        } else {
+          // -(pos + 1) is the number of removed dimensions smaller than dim
+          remaining.add(dim + pos + 1);
+        }
+      }
+
+      Abstract0 value = pack.value;
+      if (!removedLocal.isEmpty()) {
+        int[] localDims = removedLocal.stream().mapToInt(Integer::intValue).toArray();
+        int localInts = countInts(localDims, countInts(pack.dims, intDim));
+        value =
+            value.removeDimensionsCopy(
+                manager, new Dimchange(localInts, localDims.length - localInts, localDims));
+      }
+      if (!packing || !remaining.isEmpty() || value.isBottom(manager)) {
+        newPacks.add(new Pack(remaining.stream().mapToInt(Integer::intValue).toArray(), value));
+      }
+    }
+    return new PackedAbstract0(
+        manager, intDim - removedInts, realDim - (removed.length - removedInts), packing, newPacks);
+  }
+
+  /** Returns the bounds of a dimension, which are empty if the value is bottom. */
+  Interval getBound(int pDim) {
+    Pack pack = packs.get(packOfDim[pDim]);
+    if (packs.size() > 1 && !pack.value.isBottom(manager) && isBottom()) {
+      // the whole product is empty if another pack is bottom
+      Interval bottom = new Interval();
+      bottom.setBottom();
+      return bottom;
+    }
+    return pack.value.getBound(manager, pack.localIndexOf(pDim));
+  }
+
+  Dimension getDimension() {
+    int ints = 0;
+    int reals = 0;
+    for (Pack pack : packs) {
+      Dimension dim = pack.value.getDimension(manager);
+      ints += dim.intDim;
+      reals += dim.realDim;
+    }
+    return new Dimension(ints, reals);
+  }
+
+  /** Returns the constraints of all packs over the global dimensions. */
+  Tcons0[] toTcons() {
+    if (isSinglePack()) {
+      return packs.get(0).value.toTcons(manager);
+    }
+    int[] all = allDims(size());
+    List<Tcons0> constraints = new ArrayList<>();
+    for (Pack pack : packs) {
+      Dimchange embedding = embedding(pack.dims, all, intDim);
+      for (Tcons0 constraint : pack.value.toTcons(manager)) {
+        constraints.add(constraint.addDimensionsCopy(embedding));
+      }
+    }
+    return constraints.toArray(new Tcons0[0]);
+  }
+
+  /** Merges all packs into a single abstract value over all dimensions. */
+  Abstract0 toAbstract0() {
+    if (isSinglePack()) {
+      return packs.get(0).value;
+    }
+    return merge(packs).value;
+  }
+
+  /**
+   * Merges packs of both values such that both values consist of packs with the same dimensions.
+   * Both values must not be empty.
+   *
+   * @return the list of the packs of both values, the packs at the same position in both lists
+   *     have the same dimensions
+   */
+  private static Pair<List<Pack>, List<Pack>> unify(PackedAbstract0 a, PackedAbstract0 b) {
+    checkArgument(a.intDim == b.intDim && a.realDim == b.realDim, "dimensions differ");
+
+    // union-find over the dimensions, joining all dimensions of each pack
+    int[] parent = allDims(a.size());
+    for (PackedAbstract0 value : ImmutableList.of(a, b)) {
+      for (Pack pack : value.packs) {
+        for (int i = 1; i < pack.dims.length; i++) {
+          int r1 = find(parent, pack.dims[0]);
+          int r2 = find(parent, pack.dims[i]);
+          parent[Math.max(r1, r2)] = Math.min(r1, r2);
+        }
+      }
+    }
+
+    Map<Integer, Pair<List<Pack>, List<Pack>>> classes = new LinkedHashMap<>();
+    for (int dim = 0; dim < a.size(); dim++) {
+      if (find(parent, dim) == dim) {
+        classes.put(dim, Pair.of(new ArrayList<>(), new ArrayList<>()));
+      }
+    }
+    for (Pack pack : a.packs) {
+      if (pack.dims.length > 0) {
+        classes.get(find(parent, pack.dims[0])).getFirst().add(pack);
+      }
+    }
+    for (Pack pack : b.packs) {
+      if (pack.dims.length > 0) {
+        classes.get(find(parent, pack.dims[0])).getSecond().add(pack);
+      }
+    }
+
+    List<Pack> packsA = new ArrayList<>(classes.size());
+    List<Pack> packsB = new ArrayList<>(classes.size());
+    for (Pair<List<Pack>, List<Pack>> packsOfClass : classes.values()) {
+      packsA.add(a.merge(packsOfClass.getFirst()));
+      packsB.add(b.merge(packsOfClass.getSecond()));
+    }
+    return Pair.of(packsA, packsB);
+  }
+
+  private static int find(int[] pParent, int pDim) {
+    int root = pDim;
+    while (pParent[root] != root) {
+      root = pParent[root];
+    }
+    while (pParent[pDim] != root) {
+      int next = pParent[pDim];
+      pParent[pDim] = root;
+      pDim = next;
+    }
+    return root;
+  }
+
+  boolean isIncluded(PackedAbstract0 pOther) {
+    if (isSinglePack() && pOther.isSinglePack()) {
+      return packs.get(0).value.isIncluded(manager, pOther.packs.get(0).value);
+    } else if (isBottom()) {
+      return true;
+    } else if (pOther.isBottom()) {
+      return false;
+    }
+    Pair<List<Pack>, List<Pack>> unified = unify(this, pOther);
+    for (int i = 0; i < unified.getFirst().size(); i++) {
+      if (!unified.getFirst().get(i).value.isIncluded(manager, unified.getSecond().get(i).value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  boolean isEqual(PackedAbstract0 pOther) {
+    if (isSinglePack() && pOther.isSinglePack()) {
+      return packs.get(0).value.isEqual(manager, pOther.packs.get(0).value);
+    }
+    boolean bottom = isBottom();
+    if (bottom || pOther.isBottom()) {
+      return bottom && pOther.isBottom();
+    }
+    Pair<List<Pack>, List<Pack>> unified = unify(this, pOther);
+    for (int i = 0; i < unified.getFirst().size(); i++) {
+      if (!unified.getFirst().get(i).value.isEqual(manager, unified.getSecond().get(i).value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  PackedAbstract0 join(PackedAbstract0 pOther) {
+    if (isSinglePack() && pOther.isSinglePack()) {
+      return withSinglePack(packs.get(0).value.joinCopy(manager, pOther.packs.get(0).value));
+    } else if (isBottom()) {
+      return pOther;
+    } else if (pOther.isBottom()) {
+      return this;
+    }
+    return combine(pOther, (a, b) -> a.joinCopy(manager, b));
+  }
+
+  /** Computes the widening of this value (the previous one) with the given value. */
+  PackedAbstract0 widening(PackedAbstract0 pOther) {
+    if (isSinglePack() && pOther.isSinglePack()) {
+      return withSinglePack(packs.get(0).value.widening(manager, pOther.packs.get(0).value));
+    } else if (isBottom()) {
+      return pOther;
+    } else if (pOther.isBottom()) {
+      return this;
+    }
+    return combine(pOther, (a, b) -> a.widening(manager, b));
+  }
+
+  private PackedAbstract0 withSinglePack(Abstract0 pValue) {
+    return new PackedAbstract0(
+        manager, intDim, realDim, packing, ImmutableList.of(new Pack(allDims(size()), pValue)));
+  }
+
+  private PackedAbstract0 combine(
+      PackedAbstract0 pOther, BinaryOperator<Abstract0> pOperation) {
+    Pair<List<Pack>, List<Pack>> unified = unify(this, pOther);
+    List<Pack> newPacks = new ArrayList<>(unified.getFirst().size());
+    for (int i = 0; i < unified.getFirst().size(); i++) {
+      Pack pack = unified.getFirst().get(i);
+      newPacks.add(
+          new Pack(pack.dims, pOperation.apply(pack.value, unified.getSecond().get(i).value)));
+    }
+    if (!packing) {
+      return withSinglePack(merge(newPacks).value);
+    }
+    return new PackedAbstract0(manager, intDim, realDim, packing, newPacks);
+  }
+
+  byte[] serialize() {
+    return toAbstract0().serialize(manager);
+  }
+
+  @Override
+  public String toString() {
+    return toAbstract0().toString(manager);
+  }
+}
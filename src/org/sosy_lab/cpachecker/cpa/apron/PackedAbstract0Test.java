@@ -0,0 +1,208 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.apron;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import apron.Abstract0;
+import apron.Dimchange;
+import apron.Lincons0;
+import apron.Linexpr0;
+import apron.Linterm0;
+import apron.Manager;
+import apron.MpqScalar;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+import org.sosy_lab.cpachecker.util.ApronManager;
+
+/**
+ * Unit tests for {@link PackedAbstract0}. Every operation is also applied to a single unpacked
+ * {@link Abstract0}, which the packed value has to match.
+ */
+@RunWith(Parameterized.class)
+public class PackedAbstract0Test {
+
+  @Parameters(name = "packing={0}")
+  public static Object[] getPacking() {
+    return new Object[] {true, false};
+  }
+
+  @Parameter(0)
+  public boolean packing;
+
+  private static final int DIMENSIONS = 4;
+
+  private static final Manager manager =
+      new ApronManager(ApronManager.AbstractDomain.OCTAGON).getManager();
+
+  /** A packed value together with the unpacked value that it should be equal to. */
+  private final class Value {
+
+    private final PackedAbstract0 packed;
+    private final Abstract0 unpacked;
+
+    private Value(PackedAbstract0 pPacked, Abstract0 pUnpacked) {
+      packed = pPacked;
+      unpacked = pUnpacked;
+      assertMatches();
+    }
+
+    private void assertMatches() {
+      assertWithMessage("packed value %s for %s", packed, unpacked.toString(manager))
+          .that(packed.toAbstract0().isEqual(manager, unpacked))
+          .isTrue();
+      assertThat(packed.isBottom()).isEqualTo(unpacked.isBottom(manager));
+      assertThat(packed.getDimension().intDim)
+          .isEqualTo(unpacked.getDimension(manager).intDim);
+      for (int dim = 0; dim < packed.getDimension().intDim; dim++) {
+        assertThat(packed.getBound(dim).isEqual(unpacked.getBound(manager, dim))).isTrue();
+      }
+    }
+
+    private Value meet(Lincons0 pConstraint) {
+      return new Value(packed.meet(pConstraint), unpacked.meetCopy(manager, pConstraint));
+    }
+
+    private Value join(Value pOther) {
+      return new Value(packed.join(pOther.packed), unpacked.joinCopy(manager, pOther.unpacked));
+    }
+
+    private Value forget(int pDim) {
+      return new Value(packed.forget(pDim), unpacked.forgetCopy(manager, pDim, false));
+    }
+
+    private Value remove(int pDim) {
+      return new Value(
+          packed.removeDimensions(new int[] {pDim}),
+          unpacked.removeDimensionsCopy(manager, new Dimchange(1, 0, new int[] {pDim})));
+    }
+
+    private void assertIncluded(Value pOther, boolean pExpected) {
+      assertThat(unpacked.isIncluded(manager, pOther.unpacked)).isEqualTo(pExpected);
+      assertThat(packed.isIncluded(pOther.packed)).isEqualTo(pExpected);
+      boolean equal = unpacked.isEqual(manager, pOther.unpacked);
+      assertThat(packed.isEqual(pOther.packed)).isEqualTo(equal);
+    }
+  }
+
+  /** Returns the top value over {@link #DIMENSIONS} integer dimensions. */
+  private Value top() {
+    PackedAbstract0 packed = PackedAbstract0.top(manager, packing);
+    for (int dim = 0; dim < DIMENSIONS; dim++) {
+      packed = packed.addDimension(dim, true);
+    }
+    return new Value(packed, new Abstract0(manager, DIMENSIONS, 0));
+  }
+
+  /** Returns the constraint sum(coefficient * dimension) + constant >= 0. */
+  private static Lincons0 atLeastZero(int pConstant, int... pCoefficientsAndDims) {
+    Linterm0[] terms = new Linterm0[pCoefficientsAndDims.length / 2];
+    for (int i = 0; i < terms.length; i++) {
+      terms[i] =
+          new Linterm0(
+              pCoefficientsAndDims[2 * i + 1], new MpqScalar(pCoefficientsAndDims[2 * i]));
+    }
+    return new Lincons0(Lincons0.SUPEQ, new Linexpr0(terms, new MpqScalar(pConstant)));
+  }
+
+  // 1 <= x0 <= 3, x1 >= x2
+  private Value first() {
+    return top()
+        .meet(atLeastZero(-1, 1, 0))
+        .meet(atLeastZero(3, -1, 0))
+        .meet(atLeastZero(0, 1, 1, -1, 2));
+  }
+
+  // x0 >= x1, x3 <= 5, 0 <= x2 <= 1
+  private Value second() {
+    return top()
+        .meet(atLeastZero(0, 1, 0, -1, 1))
+        .meet(atLeastZero(5, -1, 3))
+        .meet(atLeastZero(0, 1, 2))
+        .meet(atLeastZero(1, -1, 2));
+  }
+
+  private Value bottom() {
+    // x3 >= 1 and x3 <= 0
+    return first().meet(atLeastZero(-1, 1, 3)).meet(atLeastZero(0, -1, 3));
+  }
+
+  @Test
+  public void testOperationsAcrossPacks() {
+    Value first = first();
+    Value second = second();
+
+    // the packs {0}, {1, 2} and {0, 1}, {2}, {3} are unified to {0, 1, 2}, {3}
+    Value join = first.join(second);
+    first.assertIncluded(join, true);
+    second.assertIncluded(join, true);
+    join.assertIncluded(first, false);
+    first.assertIncluded(second, false);
+
+    Value meet = first.meet(atLeastZero(0, 1, 0, -1, 1)).meet(atLeastZero(5, -1, 3));
+    meet.assertIncluded(first, true);
+    meet.assertIncluded(join, true);
+    first.assertIncluded(meet, false);
+
+    // a constraint relating dimensions of different packs merges them
+    Value related = join.meet(atLeastZero(0, 1, 3, -1, 2));
+    related.assertIncluded(join, true);
+    related.join(first).assertIncluded(join, true);
+    join.join(related).assertIncluded(join, true);
+  }
+
+  @Test
+  public void testForgetAndRemove() {
+    Value value = first().meet(atLeastZero(0, 1, 0, -1, 1)).meet(atLeastZero(2, -1, 3));
+
+    Value forgotten = value.forget(1);
+    value.assertIncluded(forgotten, true);
+    forgotten.assertIncluded(value, false);
+    // the dimension is independent of the others afterwards
+    forgotten.meet(atLeastZero(-100, 1, 1)).assertIncluded(forgotten, true);
+    forgotten.forget(3).forget(0).assertIncluded(top(), true);
+    top().assertIncluded(forgotten.forget(3).forget(0).forget(2), true);
+
+    Value removed = value.remove(1);
+    assertThat(removed.packed.getDimension().intDim).isEqualTo(DIMENSIONS - 1);
+    // x3 is now x2
+    Value constrained = removed.meet(atLeastZero(-2, 1, 2)).meet(atLeastZero(0, 1, 0, -1, 2));
+    assertThat(constrained.packed.isBottom()).isFalse();
+    assertThat(constrained.remove(0).remove(0).packed.getDimension().intDim).isEqualTo(1);
+    assertThat(value.remove(3).remove(0).remove(0).remove(0).packed.getDimension().intDim)
+        .isEqualTo(0);
+  }
+
+  @Test
+  public void testBottom() {
+    Value bottom = bottom();
+    Value first = first();
+    Value second = second();
+    assertThat(bottom.packed.isBottom()).isTrue();
+
+    bottom.assertIncluded(first, true);
+    bottom.assertIncluded(second, true);
+    first.assertIncluded(bottom, false);
+    bottom.assertIncluded(bottom(), true);
+
+    bottom.join(second).assertIncluded(second, true);
+    second.join(bottom).assertIncluded(second, true);
+    second.assertIncluded(second.join(bottom), true);
+    bottom.meet(atLeastZero(0, 1, 0, -1, 1)).assertIncluded(bottom, true);
+
+    // bottom in one pack stays bottom when other dimensions change
+    Value changed = bottom.forget(0).forget(3).remove(1);
+    assertThat(changed.packed.isBottom()).isTrue();
+    assertThat(bottom.remove(3).packed.isBottom()).isTrue();
+  }
+}
@@ -34,10 +34,8 @@ import org.sosy_lab.cpachecker.core.defaults.precision.VariableTrackingPrecision
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
-import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.apron.ApronCPA;
-import org.sosy_lab.cpachecker.cpa.apron.ApronState;
 import org.sosy_lab.cpachecker.cpa.arg.ARGBasedRefiner;
 import org.sosy_lab.cpachecker.cpa.arg.ARGReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
@@ -47,7 +45,6 @@ import org.sosy_lab.cpachecker.cpa.predicate.PredicateCPARefiner;
 import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
 import org.sosy_lab.cpachecker.cpa.value.refiner.ValueAnalysisPathInterpolator;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
-import org.sosy_lab.cpachecker.util.ApronManager;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.Precisions;
 import org.sosy_lab.cpachecker.util.refinement.FeasibilityChecker;
@@ -96,16 +93,14 @@ class ApronARGBasedDelegatingRefiner implements ARGBasedRefiner, Statistics, Sta
   private final ShutdownNotifier shutdownNotifier;
   private final Configuration config;
 
-  private final ApronManager apronManager;
-  private final TransferRelation apronTransfer;
+  private final ApronCPA apronCpa;
 
   ApronARGBasedDelegatingRefiner(
       final Configuration pConfig,
       final LogManager pLogger,
       final ShutdownNotifier pShutdownNotifier,
       final CFA pCfa,
-      final ApronManager pApronManager,
-      final TransferRelation pApronTransfer,
+      final ApronCPA pApronCpa,
       final FeasibilityChecker<ValueAnalysisState> pValueAnalysisFeasibilityChecker,
       final ValueAnalysisPathInterpolator pValueAnalysisPathInterpolator)
       throws InvalidConfigurationException {
@@ -116,8 +111,7 @@ class ApronARGBasedDelegatingRefiner implements ARGBasedRefiner, Statistics, Sta
     shutdownNotifier = pShutdownNotifier;
     cfa = pCfa;
 
-    apronManager = pApronManager;
-    apronTransfer = pApronTransfer;
+    apronCpa = pApronCpa;
     valueAnalysisChecker = pValueAnalysisFeasibilityChecker;
     interpolatingRefiner = pValueAnalysisPathInterpolator;
   }
@@ -284,8 +278,8 @@ class ApronARGBasedDelegatingRefiner implements ARGBasedRefiner, Statistics, Sta
                 path,
                 ApronCPA.class,
                 cfa.getVarClassification(),
-                apronTransfer,
-                new ApronState(logger, apronManager));
+                apronCpa.getTransferRelation(),
+                apronCpa.createEmptyState());
 
       } else {
         ShutdownManager shutdown = ShutdownManager.createWithParent(shutdownNotifier);
@@ -301,8 +295,8 @@ class ApronARGBasedDelegatingRefiner implements ARGBasedRefiner, Statistics, Sta
                 path,
                 ApronCPA.class,
                 cfa.getVarClassification(),
-                apronTransfer,
-                new ApronState(logger, apronManager));
+                apronCpa.getTransferRelation(),
+                apronCpa.createEmptyState());
         limits.cancel();
       }
 
@@ -63,8 +63,7 @@ public abstract class ApronDelegatingRefiner implements Refiner {
             logger,
             shutdownNotifier,
             cfa,
-            apronCPA.getManager(),
-            apronCPA.getTransferRelation(),
+            apronCPA,
             feasibilityChecker,
             interpolatingRefiner);
     return AbstractARGBasedRefiner.forARGBasedRefiner(refiner, cpa);
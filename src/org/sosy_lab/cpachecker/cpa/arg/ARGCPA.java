@@ -16,6 +16,7 @@ import com.google.common.base.Predicates;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
+import java.io.PrintStream;
 import java.util.Collection;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -26,6 +27,7 @@ import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.blocks.BlockPartitioning;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.defaults.AbstractSingleWrapperCPA;
 import org.sosy_lab.cpachecker.core.defaults.AutomaticCPAFactory;
 import org.sosy_lab.cpachecker.core.defaults.FlatLatticeDomain;
@@ -39,19 +41,25 @@ import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithBAM;
 import org.sosy_lab.cpachecker.core.interfaces.ForcedCoveringStopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
+import org.sosy_lab.cpachecker.core.interfaces.PrecisionDependencyQuery;
 import org.sosy_lab.cpachecker.core.interfaces.Reducer;
 import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 @Options(prefix = "cpa.arg")
 public class ARGCPA extends AbstractSingleWrapperCPA
-    implements ConfigurableProgramAnalysisWithBAM, ProofChecker {
+    implements ConfigurableProgramAnalysisWithBAM, ProofChecker, PrecisionDependencyQuery {
 
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(ARGCPA.class);
@@ -96,10 +104,24 @@ public class ARGCPA extends AbstractSingleWrapperCPA
     description = "Enable reduction for nested abstract states when entering or leaving a block abstraction for BAM. The reduction can lead to a higher cache-hit-rate for BAM and a faster sub-analysis for blocks.")
   private boolean enableStateReduction = true;
 
+  @Option(
+      secure = true,
+      description =
+          "When removing a subtree of the ARG after a refinement, keep those states of the subtree "
+              + "that are not affected by the new precision (as determined by the wrapped CPAs) "
+              + "instead of re-exploring them. Only states whose ancestors are kept as well "
+              + "can be kept.")
+  private boolean keepUnaffectedStatesOnRefinement = false;
+
   private final LogManager logger;
 
   private final ARGStatistics stats;
 
+  private final StatInt keptStates =
+      new StatInt(StatKind.SUM, "Number of states kept during refinement");
+  private final StatInt removedStates =
+      new StatInt(StatKind.SUM, "Number of states removed during refinement");
+
   private ARGCPA(
       ConfigurableProgramAnalysis cpa,
       Configuration config,
@@ -189,6 +211,22 @@ public class ARGCPA extends AbstractSingleWrapperCPA
       // and afterwards call super.collectStatistics().
       pStatsCollection.add(stats);
     }
+    if (keepUnaffectedStatesOnRefinement) {
+      pStatsCollection.add(
+          new Statistics() {
+
+            @Override
+            public String getName() {
+              return "ARG re-validation";
+            }
+
+            @Override
+            public void printStatistics(
+                PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+              StatisticsWriter.writingStatisticsTo(pOut).put(keptStates).put(removedStates);
+            }
+          });
+    }
     super.collectStatistics(pStatsCollection);
   }
 
@@ -196,6 +234,29 @@ public class ARGCPA extends AbstractSingleWrapperCPA
     return stats;
   }
 
+  boolean keepsUnaffectedStatesOnRefinement() {
+    return keepUnaffectedStatesOnRefinement;
+  }
+
+  void recordRevalidation(int pKeptStates, int pRemovedStates) {
+    keptStates.setNextValue(pKeptStates);
+    removedStates.setNextValue(pRemovedStates);
+  }
+
+  @Override
+  public boolean isAffectedByPrecisionChange(
+      AbstractState pState,
+      Precision pOldPrecision,
+      Precision pNewPrecision,
+      AbstractState pFullState) {
+    return PrecisionDependencyQuery.isAffectedByPrecisionChange(
+        getWrappedCpa(),
+        ((ARGState) pState).getWrappedState(),
+        pOldPrecision,
+        pNewPrecision,
+        pFullState);
+  }
+
   @Override
   public boolean areAbstractSuccessors(AbstractState pElement, CFAEdge pCfaEdge,
       Collection<? extends AbstractState> pSuccessors) throws CPATransferException, InterruptedException {
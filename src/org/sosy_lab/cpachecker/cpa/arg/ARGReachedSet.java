@@ -35,6 +35,7 @@ import java.util.logging.Level;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.PrecisionDependencyQuery;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSetWrapper;
@@ -165,6 +166,10 @@ public class ARGReachedSet {
    */
   public void removeSubtree(ARGState e, Precision p, Predicate<? super Precision> pPrecisionType)
       throws InterruptedException {
+    if (keepsUnaffectedStates()) {
+      removeSubtree(e, ImmutableList.of(p), ImmutableList.of(pPrecisionType));
+      return;
+    }
     for (ARGState ae : removeSubtree0(e)) {
       mReached.updatePrecision(ae, adaptPrecision(mReached.getPrecision(ae), p, pPrecisionType));
       mReached.reAddToWaitlist(ae);
@@ -178,6 +183,10 @@ public class ARGReachedSet {
    * If multiple precisions are given,
    * adapt all matching sub-precisions of a WrappedPrecision.
    *
+   * <p>If the option <code>cpa.arg.keepUnaffectedStatesOnRefinement</code> is enabled,
+   * states of the subtree that are not affected by the new precision are kept
+   * (c.f. {@link #removeAffectedSubtree0(ARGState, Function)}).
+   *
    * @param pState The root of the removed subtree, may not be the initial element.
    * @param pPrecisions The new precisions.
    * @param pPrecTypes the types of the precisions.
@@ -193,25 +202,42 @@ public class ARGReachedSet {
 
     Preconditions.checkArgument(pPrecisions.size() == pPrecTypes.size());
 
-    Set<ARGState> toWaitlist = removeSubtree0(pState);
+    // states in the subtree often share their precision, thus adapt each precision only once
+    IdentityHashMap<Precision, Precision> precisionUpdateCache = new IdentityHashMap<>();
+    Function<Precision, Precision> precisionAdapter =
+        oldPrec ->
+            precisionUpdateCache.computeIfAbsent(
+                oldPrec, prec -> adaptPrecisions(prec, pPrecisions, pPrecTypes));
+
+    Set<ARGState> toWaitlist =
+        keepsUnaffectedStates()
+            ? removeAffectedSubtree0(pState, precisionAdapter)
+            : removeSubtree0(pState);
 
     for (ARGState waitingState : toWaitlist) {
       Precision waitingStatePrec = mReached.getPrecision(waitingState);
       Preconditions.checkState(waitingStatePrec != null);
 
-      for (int i = 0; i < pPrecisions.size(); i++) {
-        Precision adaptedPrec = adaptPrecision(waitingStatePrec, pPrecisions.get(i), pPrecTypes.get(i));
+      mReached.updatePrecision(waitingState, precisionAdapter.apply(waitingStatePrec));
+      mReached.reAddToWaitlist(waitingState);
+    }
+  }
 
-        // adaptedPrec == null, if the precision component was not changed
-        if (adaptedPrec != null ) {
-          waitingStatePrec = adaptedPrec;
-        }
-        Preconditions.checkState(waitingStatePrec != null);
+  private Precision adaptPrecisions(
+      Precision pPrecision,
+      List<Precision> pPrecisions,
+      List<Predicate<? super Precision>> pPrecTypes) {
+    Precision precision = pPrecision;
+    for (int i = 0; i < pPrecisions.size(); i++) {
+      Precision adaptedPrec = adaptPrecision(precision, pPrecisions.get(i), pPrecTypes.get(i));
+
+      // adaptedPrec == null, if the precision component was not changed
+      if (adaptedPrec != null) {
+        precision = adaptedPrec;
       }
-
-      mReached.updatePrecision(waitingState, waitingStatePrec);
-      mReached.reAddToWaitlist(waitingState);
+      Preconditions.checkState(precision != null);
     }
+    return precision;
   }
 
   /**
@@ -331,6 +357,79 @@ public class ARGReachedSet {
     return toWaitlist;
   }
 
+  private boolean keepsUnaffectedStates() {
+    return cpa instanceof ARGCPA && ((ARGCPA) cpa).keepsUnaffectedStatesOnRefinement();
+  }
+
+  /**
+   * Like {@link #removeSubtree0(ARGState)}, but keeps those states of the subtree that would be
+   * recomputed identically with the adapted precision. A state is kept if it is not affected by
+   * the precision change (as determined by {@link PrecisionDependencyQuery}) and if all its
+   * parents are kept as well (or are not part of the subtree), because the successors of a changed
+   * state need to be recomputed anyway. The kept states get the adapted precision, and those kept
+   * states that lost some of their children are returned for re-adding them to the waitlist.
+   *
+   * @param e The root of the subtree, may not be the initial element.
+   * @param pPrecisionAdapter computes the new precision for the precision of a state
+   * @return the elements to re-add to the waitlist
+   */
+  private Set<ARGState> removeAffectedSubtree0(
+      ARGState e, Function<Precision, Precision> pPrecisionAdapter) {
+    Preconditions.checkNotNull(e);
+    Preconditions.checkArgument(
+        !e.getParents().isEmpty(),
+        "May not remove the initial state from the ARG/reached set.\nTrying to remove state '%s'.",
+        e);
+    ARGCPA argCpa = (ARGCPA) cpa;
+
+    ImmutableList<ARGState> subtree = e.getSubgraph().toList();
+    Set<ARGState> kept = new HashSet<>();
+    Deque<ARGState> affected = new ArrayDeque<>();
+    for (ARGState state : subtree) {
+      Precision oldPrecision = mReached.getPrecision(state);
+      if (oldPrecision != null
+          && !argCpa.isAffectedByPrecisionChange(
+              state, oldPrecision, pPrecisionAdapter.apply(oldPrecision), state)) {
+        kept.add(state);
+      } else {
+        affected.add(state);
+      }
+    }
+
+    if (affected.isEmpty()) {
+      // the refinement would not make any progress, so we fall back to removing everything
+      argCpa.recordRevalidation(0, subtree.size());
+      return removeSubtree0(e);
+    }
+
+    // the descendants of affected states are affected, too
+    while (!affected.isEmpty()) {
+      for (ARGState child : affected.pop().getChildren()) {
+        if (kept.remove(child)) {
+          affected.push(child);
+        }
+      }
+    }
+
+    dumpSubgraph(e);
+
+    ImmutableList<ARGState> removed = from(subtree).filter(s -> !kept.contains(s)).toList();
+    ImmutableSet<ARGState> toUnreach =
+        from(removed).transformAndConcat(ARGState::getCoveredByThis).append(removed).toSet();
+    Set<ARGState> toWaitlist = removeSet(toUnreach);
+
+    int numKept = 0;
+    for (ARGState state : kept) {
+      if (!state.isDestroyed()) {
+        mReached.updatePrecision(state, pPrecisionAdapter.apply(mReached.getPrecision(state)));
+        numKept++;
+      }
+    }
+    argCpa.recordRevalidation(numKept, subtree.size() - numKept);
+
+    return toWaitlist;
+  }
+
   private void dumpSubgraph(ARGState e) {
     if (!(cpa instanceof ARGCPA)) {
       return;
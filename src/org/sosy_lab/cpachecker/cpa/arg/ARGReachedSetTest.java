@@ -0,0 +1,213 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import static com.google.common.collect.FluentIterable.from;
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.Iterables;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CPABuilder;
+import org.sosy_lab.cpachecker.core.algorithm.CPAAlgorithm;
+import org.sosy_lab.cpachecker.core.defaults.precision.VariableTrackingPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
+import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.core.specification.Specification;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisCPA;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.CPAs;
+import org.sosy_lab.cpachecker.util.Precisions;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class ARGReachedSetTest {
+
+  private static final String[] PROGRAM = {
+    "int main() {",
+    "  int a = 1;",
+    "  int b = 2;",
+    "  int c = 3;",
+    "  if (a == 1) {",
+    "    return 0;",
+    "  }",
+    "  return 1;",
+    "}"
+  };
+
+  private static final MemoryLocation VARIABLE_B = MemoryLocation.valueOf("main", "b");
+
+  /** An analysis of {@link #PROGRAM} with an empty, location-based precision for the values. */
+  private static final class Analysis {
+
+    private final CFA cfa;
+    private final ConfigurableProgramAnalysis cpa;
+    private final CPAAlgorithm algorithm;
+    private final ReachedSet reached;
+
+    private Analysis(boolean pKeepUnaffectedStates) throws Exception {
+      Configuration config =
+          TestDataTools.configurationForTest()
+              .setOption("cpa", "cpa.arg.ARGCPA")
+              .setOption("ARGCPA.cpa", "cpa.composite.CompositeCPA")
+              .setOption(
+                  "CompositeCPA.cpas",
+                  "cpa.location.LocationCPA, cpa.callstack.CallstackCPA,"
+                      + " cpa.value.ValueAnalysisCPA")
+              .setOption("precision.sharing", "LOCATION")
+              .setOption(
+                  "cpa.arg.keepUnaffectedStatesOnRefinement",
+                  Boolean.toString(pKeepUnaffectedStates))
+              .build();
+      LogManager logger = LogManager.createTestLogManager();
+      ShutdownNotifier shutdownNotifier = ShutdownNotifier.createDummy();
+      ReachedSetFactory reachedSetFactory = new ReachedSetFactory(config, logger);
+
+      cfa = TestDataTools.makeCFA(config, PROGRAM);
+      cpa =
+          new CPABuilder(config, logger, shutdownNotifier, reachedSetFactory)
+              .buildCPAs(cfa, Specification.alwaysSatisfied(), new AggregatedReachedSets());
+      CPAs.retrieveCPA(cpa, ValueAnalysisCPA.class).injectRefinablePrecision();
+      algorithm = CPAAlgorithm.create(cpa, logger, config, shutdownNotifier);
+
+      CFANode mainEntry = cfa.getMainFunction();
+      reached = reachedSetFactory.create();
+      reached.add(
+          cpa.getInitialState(mainEntry, StateSpacePartition.getDefaultPartition()),
+          cpa.getInitialPrecision(mainEntry, StateSpacePartition.getDefaultPartition()));
+      algorithm.run(reached);
+      assertThat(reached.hasWaitingState()).isFalse();
+    }
+
+    private CFANode getSuccessorOf(String pStatement) {
+      CFAEdge edge =
+          from(cfa.getAllNodes())
+              .transformAndConcat(CFAUtils::leavingEdges)
+              .firstMatch(e -> e.getRawStatement().equals(pStatement))
+              .get();
+      return edge.getSuccessor();
+    }
+
+    private ARGState getStateAt(CFANode pLocation) {
+      return (ARGState)
+          from(reached).filter(s -> AbstractStates.extractLocation(s) == pLocation).get(0);
+    }
+
+    private VariableTrackingPrecision getValuePrecision(AbstractState pState) {
+      return Precisions.extractPrecisionByType(
+          reached.getPrecision(pState), VariableTrackingPrecision.class);
+    }
+
+    /** Tracks the variable b from the location after its declaration on. */
+    private void refine() throws Exception {
+      ARGState firstState = getStateAt(getSuccessorOf("int a = 1;"));
+      VariableTrackingPrecision refinedPrecision =
+          getValuePrecision(firstState)
+              .withIncrement(
+                  ImmutableSetMultimap.of(
+                      getSuccessorOf("int b = 2;"), VARIABLE_B,
+                      getSuccessorOf("int c = 3;"), VARIABLE_B));
+      new ARGReachedSet(reached, cpa)
+          .removeSubtree(
+              firstState,
+              refinedPrecision,
+              VariableTrackingPrecision.isMatchingCPAClass(ValueAnalysisCPA.class));
+    }
+  }
+
+  private static boolean tracksB(ARGState pState) {
+    return AbstractStates.extractStateByType(pState, ValueAnalysisState.class)
+        .contains(VARIABLE_B);
+  }
+
+  @Test
+  public void testKeepUnaffectedStates() throws Exception {
+    Analysis analysis = new Analysis(true);
+    ARGState afterA = analysis.getStateAt(analysis.getSuccessorOf("int a = 1;"));
+    ARGState afterB = analysis.getStateAt(analysis.getSuccessorOf("int b = 2;"));
+    ARGState afterC = analysis.getStateAt(analysis.getSuccessorOf("int c = 3;"));
+    Precision oldPrecision = analysis.getValuePrecision(afterA);
+    assertThat(tracksB(afterB)).isFalse();
+
+    analysis.refine();
+
+    // the state after the declaration of a does not depend on the precision for b
+    assertThat(analysis.reached.contains(afterA)).isTrue();
+    assertThat(afterA.isDestroyed()).isFalse();
+    assertThat(analysis.getValuePrecision(afterA)).isNotEqualTo(oldPrecision);
+    // all later states are affected and removed, and their parent is explored again
+    assertThat(analysis.reached.contains(afterB)).isFalse();
+    assertThat(analysis.reached.contains(afterC)).isFalse();
+    assertThat(afterB.isDestroyed()).isTrue();
+    assertThat(analysis.reached.getWaitlist()).containsExactly(afterA);
+    assertThat(afterA.getChildren()).isEmpty();
+
+    analysis.algorithm.run(analysis.reached);
+    assertThat(analysis.getStateAt(analysis.getSuccessorOf("int a = 1;")))
+        .isSameInstanceAs(afterA);
+    assertThat(tracksB(analysis.getStateAt(analysis.getSuccessorOf("int b = 2;")))).isTrue();
+    assertThat(tracksB(analysis.getStateAt(analysis.getSuccessorOf("int c = 3;")))).isTrue();
+  }
+
+  @Test
+  public void testRemoveWholeSubtree() throws Exception {
+    Analysis analysis = new Analysis(false);
+    ARGState afterA = analysis.getStateAt(analysis.getSuccessorOf("int a = 1;"));
+    ARGState parent = Iterables.getOnlyElement(afterA.getParents());
+    ImmutableList<ARGState> subtree = afterA.getSubgraph().toList();
+
+    analysis.refine();
+
+    // without the option, every state of the subtree is removed
+    for (ARGState state : subtree) {
+      assertThat(analysis.reached.contains(state)).isFalse();
+      assertThat(state.isDestroyed()).isTrue();
+    }
+    assertThat(analysis.reached.getWaitlist()).containsExactly(parent);
+
+    analysis.algorithm.run(analysis.reached);
+    assertThat(analysis.getStateAt(analysis.getSuccessorOf("int a = 1;")))
+        .isNotSameInstanceAs(afterA);
+    assertThat(tracksB(analysis.getStateAt(analysis.getSuccessorOf("int b = 2;")))).isTrue();
+  }
+
+  @Test
+  public void testUnchangedPrecision() throws Exception {
+    Analysis analysis = new Analysis(true);
+    ARGState afterA = analysis.getStateAt(analysis.getSuccessorOf("int a = 1;"));
+    ARGState parent = Iterables.getOnlyElement(afterA.getParents());
+    ImmutableList<ARGState> subtree = afterA.getSubgraph().toList();
+
+    new ARGReachedSet(analysis.reached, analysis.cpa)
+        .removeSubtree(
+            afterA,
+            analysis.getValuePrecision(afterA),
+            VariableTrackingPrecision.isMatchingCPAClass(ValueAnalysisCPA.class));
+
+    // no state is affected, thus no progress would be made by keeping them all
+    for (ARGState state : subtree) {
+      assertThat(analysis.reached.contains(state)).isFalse();
+    }
+    assertThat(analysis.reached.getWaitlist()).containsExactly(parent);
+  }
+}
@@ -45,7 +45,8 @@ public abstract class AbstractBAMCPA extends AbstractSingleWrapperCPA {
   @Option(
     secure = true,
     description =
-        "Type of partitioning (FunctionAndLoopPartitioning or DelayedFunctionAndLoopPartitioning)\n"
+        "Type of partitioning (FunctionAndLoopPartitioning, DelayedFunctionAndLoopPartitioning\n"
+            + "or CostModelPartitioning)\n"
             + "or any class that implements a PartitioningHeuristic"
   )
   @ClassOption(packagePrefix = "org.sosy_lab.cpachecker.cfa.blocks.builder")
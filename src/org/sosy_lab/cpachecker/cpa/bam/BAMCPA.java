@@ -11,6 +11,8 @@ package org.sosy_lab.cpachecker.cpa.bam;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import java.util.Collection;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -26,6 +28,7 @@ import org.sosy_lab.cpachecker.core.defaults.AutomaticCPAFactory;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.CPAFactory;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
@@ -37,6 +40,7 @@ import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCacheAggressiveImpl;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCacheImpl;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMDataManager;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMDataManagerImpl;
+import org.sosy_lab.cpachecker.cpa.bam.cache.BAMSummaryStore;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 
@@ -51,6 +55,7 @@ public class BAMCPA extends AbstractBAMCPA implements StatisticsProvider, ProofC
   private final ProofChecker wrappedProofChecker;
   private final BAMDataManager data;
   private final BAMPCCManager bamPccManager;
+  private final @Nullable BAMSummaryStore summaryStore;
 
   @Option(name = "handleRecursiveProcedures", secure = true,
       description = "BAM allows to analyse recursive procedures. This strongly depends on the underlying CPA. "
@@ -94,6 +99,21 @@ public class BAMCPA extends AbstractBAMCPA implements StatisticsProvider, ProofC
     }
     data = new BAMDataManagerImpl(cache, pReachedSetFactory, pLogger);
 
+    BAMSummaryStore store =
+        new BAMSummaryStore(
+            config, pSpecification, pLogger, pCfa, this, blockPartitioning, getReducer());
+    if (!store.isEnabled()) {
+      store = null;
+    } else if (handleRecursiveProcedures || useCopyOnWriteRefinement()) {
+      // summaries would need to be re-analyzed in a way these modes do not support
+      logger.log(
+          Level.WARNING,
+          "Block summaries cannot be imported or exported for recursive procedures "
+              + "or with copy-on-write refinement, ignoring them.");
+      store = null;
+    }
+    summaryStore = store;
+
     bamPccManager = new BAMPCCManager(
         wrappedProofChecker,
         config,
@@ -155,6 +175,19 @@ public class BAMCPA extends AbstractBAMCPA implements StatisticsProvider, ProofC
     return bamPccManager;
   }
 
+  /** Returns the store for block summaries across several runs, if enabled. */
+  @Nullable BAMSummaryStore getSummaryStore() {
+    return summaryStore;
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    if (summaryStore != null) {
+      pStatsCollection.add(summaryStore);
+    }
+    super.collectStatistics(pStatsCollection);
+  }
+
   @Override
   public boolean areAbstractSuccessors(AbstractState pState, CFAEdge pCfaEdge,
       Collection<? extends AbstractState> pSuccessors) throws CPATransferException, InterruptedException {
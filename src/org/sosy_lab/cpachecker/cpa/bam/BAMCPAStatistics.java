@@ -8,6 +8,8 @@
 
 package org.sosy_lab.cpachecker.cpa.bam;
 
+import com.google.common.base.Joiner;
+import com.google.common.collect.FluentIterable;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.Writer;
@@ -29,6 +31,8 @@ import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
@@ -185,14 +189,15 @@ class BAMCPAStatistics implements Statistics {
     if (blockStatisticsFile != null) {
       try (Writer w = IO.openOutputFile(blockStatisticsFile, Charset.defaultCharset())) {
         w.write(
-            "start; end; #locations; #variables; sumtime; maxtime; avgtime; #intervals; variables;");
+            "start; end; #locations; #variables; sumtime; maxtime; avgtime; #intervals; variables;"
+                + " functions; summillis;");
         w.write("\n");
         for (Entry<Block, Timer> entry : timeForBlock.entrySet()) {
           Block block = entry.getKey();
           Timer timer = entry.getValue();
           w.write(
               String.format(
-                  "%s; %s; %s; %s; %s; %s; %s; %s; %s;",
+                  "%s; %s; %s; %s; %s; %s; %s; %s; %s; %s; %s;",
                   block.getCallNodes(),
                   block.getReturnNodes(),
                   block.getNodes().size(),
@@ -201,7 +206,12 @@ class BAMCPAStatistics implements Statistics {
                   timer.getMaxTime(),
                   timer.getAvgTime(),
                   timer.getNumberOfIntervals(),
-                  block.getVariables()));
+                  block.getVariables(),
+                  FluentIterable.from(block.getCallNodes())
+                      .filter(FunctionEntryNode.class)
+                      .transform(CFANode::getFunctionName)
+                      .join(Joiner.on(',')),
+                  timer.getSumTime().asMillis()));
           w.write("\n");
         }
       } catch (IOException e) {
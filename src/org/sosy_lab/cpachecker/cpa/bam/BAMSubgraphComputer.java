@@ -36,6 +36,7 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCache.BAMCacheEntry;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMDataManager;
+import org.sosy_lab.cpachecker.cpa.bam.cache.BAMSummaryStore.SummaryExitState;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.Pair;
 
@@ -230,6 +231,15 @@ public class BAMSubgraphComputer {
       final ARGState reducedTarget =
           (ARGState) data.getReducedStateForExpandedState(newExpandedTarget.getARGState());
 
+      // a summary from a previous run has no inner ARG, the block needs to be analyzed again.
+      if (reducedTarget instanceof SummaryExitState) {
+        logger.log(
+            Level.FINE,
+            "Target state refers to a block summary from a previous run. Analyzing the block.");
+        ((SummaryExitState) reducedTarget).discardSummary();
+        throw new MissingBlockException(expandedRoot, newExpandedTarget.getWrappedState());
+      }
+
       // first check, if the cached state is valid.
       if (reducedTarget.isDestroyed()) {
         logger.log(Level.FINE,
@@ -36,6 +36,7 @@ import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCache;
 import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCache.BAMCacheEntry;
+import org.sosy_lab.cpachecker.cpa.bam.cache.BAMSummaryStore;
 import org.sosy_lab.cpachecker.cpa.callstack.CallstackTransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
@@ -58,6 +59,8 @@ public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAExceptio
 
   private final boolean searchTargetStatesOnExit;
 
+  private final @Nullable BAMSummaryStore summaryStore;
+
   public BAMTransferRelation(
       BAMCPA bamCpa,
       ShutdownNotifier pShutdownNotifier,
@@ -73,6 +76,7 @@ public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAExceptio
     bamPccManager = pBamPccManager;
     stats = bamCpa.getStatistics();
     searchTargetStatesOnExit = pSearchTargetStatesOnExit;
+    summaryStore = bamCpa.getSummaryStore();
   }
 
   @Override
@@ -301,8 +305,18 @@ public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAExceptio
           Level.FINEST,
           "Cache miss: starting recursive CPAAlgorithm with new initial reached-set.");
       reached = entry.getReachedSet();
-      reducedResult = performCompositeAnalysisWithCPAAlgorithm(reached, innerSubtree);
-      assert reducedResult != null;
+      @Nullable
+      final Set<AbstractState> summarizedResult =
+          summaryStore == null ? null : summaryStore.applySummary(entry, innerSubtree);
+      if (summarizedResult != null) {
+        logger.log(Level.FINEST, "Using block summary from previous run instead of analysis.");
+        reducedResult = summarizedResult;
+      } else {
+        reducedResult = performCompositeAnalysisWithCPAAlgorithm(reached, innerSubtree);
+        assert reducedResult != null;
+        recordSummary(
+            reducedInitialState, reducedInitialPrecision, innerSubtree, reached, reducedResult);
+      }
       statesForFurtherAnalysis = filterResultStatesForFurtherAnalysis(reducedResult, null);
 
     } else {
@@ -329,6 +343,8 @@ public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAExceptio
             reached.getFirstState());
         reducedResult = performCompositeAnalysisWithCPAAlgorithm(reached, innerSubtree);
         Preconditions.checkNotNull(reducedResult);
+        recordSummary(
+            reducedInitialState, reducedInitialPrecision, innerSubtree, reached, reducedResult);
         statesForFurtherAnalysis =
             filterResultStatesForFurtherAnalysis(reducedResult, cachedReturnStates);
       }
@@ -354,6 +370,19 @@ public class BAMTransferRelation extends AbstractBAMTransferRelation<CPAExceptio
     return Pair.of(statesForFurtherAnalysis, reached);
   }
 
+  /** Stores the result of a completely analyzed block for later runs, if enabled. */
+  private void recordSummary(
+      final AbstractState reducedInitialState,
+      final Precision reducedInitialPrecision,
+      final Block innerSubtree,
+      final ReachedSet reached,
+      final Set<AbstractState> reducedResult) {
+    if (summaryStore != null && !reached.hasWaitingState()) {
+      summaryStore.recordSummary(
+          reducedInitialState, reducedInitialPrecision, innerSubtree, reducedResult);
+    }
+  }
+
   /**
    * We try to get a smaller set of states for further analysis.
    *
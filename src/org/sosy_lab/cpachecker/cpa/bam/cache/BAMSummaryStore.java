@@ -0,0 +1,502 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.bam.cache;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.cfa.blocks.BlockPartitioning;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.Reducer;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.core.specification.Specification;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.cpa.bam.cache.BAMCache.BAMCacheEntry;
+import org.sosy_lab.cpachecker.cpa.bam.cache.ProgramVersionFingerprints.VersionInfo;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.globalinfo.CFAInfo;
+import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/**
+ * Persistent storage of block summaries for BAM across several runs.
+ *
+ * <p>A summary consists of the reduced initial state and precision of a block and the reduced
+ * exit states that BAM computed for them. At the end of a run, summaries are serialized into a
+ * file (with the same mechanism as proofs for PCC). A later run can import this file, also for a
+ * modified version of the program. Each summary is stored with a fingerprint of the code of its
+ * block and of all functions called from it (see {@link ProgramVersionFingerprints}), and is only
+ * used if the block in the current run has the same fingerprint. Thus only blocks of functions that
+ * changed, or whose callees changed, are analyzed again. Abstract states refer to CFA nodes by
+ * their node numbers, which are mapped to the nodes of the current program for unchanged
+ * functions. Summaries are only valid for the same configuration and specification, thus the file
+ * also contains fingerprints of both and is ignored if they do not match the current run.
+ *
+ * <p>A summary is applied on a cache miss: The new reached-set for the block contains the initial
+ * state and the exit states from the summary as its direct children. Such a reached-set has no
+ * inner ARG, thus if a counterexample passes through it, the summary is discarded and the block is
+ * analyzed again (see {@link SummaryExitState#discardSummary()}).
+ */
+@Options(prefix = "cpa.bam.summaries")
+public class BAMSummaryStore implements Statistics {
+
+  private static final String FORMAT_VERSION = "BAM summaries v3";
+
+  /**
+   * Options that do not influence the summaries and are ignored for the fingerprint of the
+   * configuration, e.g., because they name the files with the program, the specification (which
+   * has its own fingerprint), or the summaries.
+   */
+  private static final ImmutableList<String> IGNORED_OPTION_PREFIXES =
+      ImmutableList.of(
+          "analysis.programNames",
+          "specification",
+          "cpa.bam.summaries.",
+          "output.",
+          "log.",
+          "limits.");
+
+  @Option(
+      secure = true,
+      name = "import",
+      description =
+          "import block summaries from a previous run with the same configuration and "
+              + "specification, and use them instead of analyzing unchanged blocks again. "
+              + "The previous run may have analyzed an older version of the program, "
+              + "then only blocks whose code and callees are unchanged are reused.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private @Nullable Path importFile = null;
+
+  @Option(
+      secure = true,
+      name = "export",
+      description = "export block summaries of this run for later runs.")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path exportFile = null;
+
+  /** Serializable representation of a summary. */
+  @SuppressFBWarnings("SE_BAD_FIELD")
+  private static final class Summary implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int callNode;
+    private final String blockFingerprint;
+    private final AbstractState initialState;
+    private final Precision precision;
+    private final ImmutableList<AbstractState> exitStates;
+
+    private Summary(
+        int pCallNode,
+        String pBlockFingerprint,
+        AbstractState pInitialState,
+        Precision pPrecision,
+        ImmutableList<AbstractState> pExitStates) {
+      callNode = pCallNode;
+      blockFingerprint = pBlockFingerprint;
+      initialState = pInitialState;
+      precision = pPrecision;
+      exitStates = pExitStates;
+    }
+  }
+
+  /**
+   * Exit state of a reached-set whose result was taken from a summary. Its parent is the initial
+   * state of the reached-set, but there is no path between them in the ARG.
+   */
+  public static final class SummaryExitState extends ARGState {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient BAMCacheEntry entry;
+    private final transient StatCounter discardedSummaries;
+
+    private SummaryExitState(
+        AbstractState pWrappedState,
+        ARGState pRoot,
+        BAMCacheEntry pEntry,
+        StatCounter pDiscardedSummaries) {
+      super(pWrappedState, pRoot);
+      entry = pEntry;
+      discardedSummaries = pDiscardedSummaries;
+    }
+
+    /**
+     * Removes the summarized exit states from the reached-set, such that the block is analyzed
+     * again from its initial state on the next cache access.
+     */
+    public void discardSummary() {
+      if (isDestroyed()) {
+        return; // already discarded via another exit state
+      }
+      ReachedSet reached = entry.getReachedSet();
+      ARGState root = (ARGState) reached.getFirstState();
+      for (ARGState exitState : ImmutableList.copyOf(root.getChildren())) {
+        reached.remove(exitState);
+        exitState.removeFromARG();
+      }
+      reached.reAddToWaitlist(root);
+      entry.deleteInfo();
+      discardedSummaries.inc();
+    }
+  }
+
+  private final StatInt changedFunctions =
+      new StatInt(StatKind.SUM, "Number of functions changed since previous run");
+  private final StatCounter importedSummaries = new StatCounter("Number of imported summaries");
+  private final StatCounter outdatedSummaries =
+      new StatCounter("Number of imported summaries for changed blocks");
+  private final StatCounter usedSummaries = new StatCounter("Number of used summaries");
+  private final StatCounter discardedSummaries =
+      new StatCounter("Number of summaries discarded for counterexamples");
+  private final StatInt exportedSummaries =
+      new StatInt(StatKind.SUM, "Number of exported summaries");
+  private final StatCounter unserializableSummaries =
+      new StatCounter("Number of summaries that could not be serialized");
+
+  private final Configuration config;
+  private final Specification specification;
+  private final LogManager logger;
+  private final CFA cfa;
+  private final ConfigurableProgramAnalysis cpa;
+  private final BlockPartitioning partitioning;
+  private final Reducer reducer;
+
+  /** fingerprints of the program and its blocks, computed on demand */
+  private @Nullable ProgramVersionFingerprints versionFingerprints = null;
+
+  private final Map<Block, String> blockFingerprints = new HashMap<>();
+
+  /** imported summaries, indexed by the hash of their initial state and their block */
+  private @Nullable Map<Pair<Object, Block>, Summary> importedSummaryMap = null;
+
+  /** summaries for export, we use LinkedHashMaps to avoid non-determinism */
+  private final Map<Pair<Object, Block>, Summary> summariesForExport = new LinkedHashMap<>();
+
+  public BAMSummaryStore(
+      Configuration pConfig,
+      Specification pSpecification,
+      LogManager pLogger,
+      CFA pCfa,
+      ConfigurableProgramAnalysis pCpa,
+      BlockPartitioning pPartitioning,
+      Reducer pReducer)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    config = pConfig;
+    specification = checkNotNull(pSpecification);
+    logger = checkNotNull(pLogger);
+    cfa = checkNotNull(pCfa);
+    cpa = checkNotNull(pCpa);
+    partitioning = checkNotNull(pPartitioning);
+    reducer = checkNotNull(pReducer);
+  }
+
+  /** Returns whether summaries are imported or exported at all. */
+  public boolean isEnabled() {
+    return importFile != null || exportFile != null;
+  }
+
+  /**
+   * Fills the given reached-set of a block with the exit states of a matching summary from a
+   * previous run, if there is one.
+   *
+   * @param pEntry the new cache entry, its reached-set must only contain the initial state.
+   * @param pBlock the block of the reached-set.
+   * @return the exit states of the summary, or null if no matching summary exists.
+   */
+  public @Nullable Set<AbstractState> applySummary(BAMCacheEntry pEntry, Block pBlock) {
+    if (importFile == null) {
+      return null;
+    }
+    if (importedSummaryMap == null) {
+      importedSummaryMap = importSummaries(importFile);
+    }
+    ReachedSet reached = pEntry.getReachedSet();
+    ARGState root = (ARGState) reached.getFirstState();
+    Precision precision = reached.getPrecision(root);
+    Summary summary = importedSummaryMap.get(getKey(root, precision, pBlock));
+    if (summary == null) {
+      return null;
+    }
+
+    ImmutableSet.Builder<AbstractState> exitStates = ImmutableSet.builder();
+    for (AbstractState exitState : summary.exitStates) {
+      SummaryExitState state = new SummaryExitState(exitState, root, pEntry, discardedSummaries);
+      reached.add(state, precision);
+      reached.removeOnlyFromWaitlist(state);
+      exitStates.add(state);
+    }
+    reached.removeOnlyFromWaitlist(root);
+    usedSummaries.inc();
+    return exitStates.build();
+  }
+
+  /**
+   * Registers the result of a completely analyzed block for export.
+   *
+   * @param pInitialState the reduced initial state of the block.
+   * @param pPrecision the reduced precision of the block.
+   * @param pBlock the analyzed block.
+   * @param pExitStates the reduced exit states of the block.
+   */
+  public void recordSummary(
+      AbstractState pInitialState,
+      Precision pPrecision,
+      Block pBlock,
+      Collection<AbstractState> pExitStates) {
+    if (exportFile == null
+        || FluentIterable.from(pExitStates)
+            .anyMatch(s -> AbstractStates.isTargetState(s) || s instanceof SummaryExitState)) {
+      return;
+    }
+    Pair<Object, Block> key = getKey(pInitialState, pPrecision, pBlock);
+    if (!summariesForExport.containsKey(key)) {
+      summariesForExport.put(
+          key,
+          new Summary(
+              AbstractStates.extractLocation(pInitialState).getNodeNumber(),
+              getFingerprint(pBlock),
+              ((ARGState) pInitialState).getWrappedState(),
+              pPrecision,
+              FluentIterable.from(pExitStates)
+                  .transform(s -> ((ARGState) s).getWrappedState())
+                  .toList()));
+    }
+  }
+
+  private Pair<Object, Block> getKey(AbstractState pState, Precision pPrecision, Block pBlock) {
+    return Pair.of(reducer.getHashCodeForState(pState, pPrecision), pBlock);
+  }
+
+  private ProgramVersionFingerprints getVersionFingerprints() {
+    if (versionFingerprints == null) {
+      versionFingerprints = new ProgramVersionFingerprints(cfa);
+    }
+    return versionFingerprints;
+  }
+
+  private String getFingerprint(Block pBlock) {
+    return blockFingerprints.computeIfAbsent(
+        pBlock, getVersionFingerprints()::getBlockFingerprint);
+  }
+
+  /** Returns a hash of all options of the configuration that may influence the summaries. */
+  private String getConfigurationFingerprint() {
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (String line :
+        FluentIterable.from(Splitter.on('\n').split(config.asPropertiesString()))
+            .filter(line -> IGNORED_OPTION_PREFIXES.stream().noneMatch(line::startsWith))
+            .toSortedList(String::compareTo)) {
+      hasher.putString(line, StandardCharsets.UTF_8).putByte((byte) 0);
+    }
+    return hasher.hash().toString();
+  }
+
+  /** Returns a hash of the contents of the specification files and of the properties. */
+  private String getSpecificationFingerprint() throws IOException {
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (Path specFile : specification.getSpecFiles()) {
+      hasher.putBytes(MoreFiles.asByteSource(specFile).hash(Hashing.sha256()).asBytes());
+    }
+    for (String property :
+        FluentIterable.from(specification.getProperties())
+            .transform(Object::toString)
+            .toSortedList(String::compareTo)) {
+      hasher.putString(property, StandardCharsets.UTF_8).putByte((byte) 0);
+    }
+    return hasher.hash().toString();
+  }
+
+  /** The deserialization of abstract states requires the CFA and the CPAs. */
+  private void prepareSerialization() {
+    GlobalInfo.getInstance().storeCFA(cfa);
+    GlobalInfo.getInstance().setUpInfoFromCPA(cpa);
+  }
+
+  private Map<Pair<Object, Block>, Summary> importSummaries(Path pFile) {
+    Map<Pair<Object, Block>, Summary> result = new HashMap<>();
+    prepareSerialization();
+    CFAInfo cfaInfo = GlobalInfo.getInstance().getCFAInfo().orElseThrow();
+    try (InputStream in = Files.newInputStream(pFile);
+        ObjectInputStream objects = new ObjectInputStream(new GZIPInputStream(in))) {
+      if (!FORMAT_VERSION.equals(objects.readUTF())) {
+        logger.log(Level.WARNING, "Ignoring block summaries in unknown format from", pFile);
+        return result;
+      }
+      if (!getConfigurationFingerprint().equals(objects.readUTF())
+          || !getSpecificationFingerprint().equals(objects.readUTF())) {
+        logger.log(
+            Level.WARNING,
+            "Ignoring block summaries for a different configuration or specification from",
+            pFile);
+        return result;
+      }
+      VersionInfo previousVersion = (VersionInfo) objects.readObject();
+      ProgramVersionFingerprints currentVersion = getVersionFingerprints();
+      changedFunctions.setNextValue(currentVersion.countChangedFunctions(previousVersion));
+      ImmutableMap<Integer, CFANode> previousNodes =
+          currentVersion.mapPreviousVersion(previousVersion);
+
+      int size = objects.readInt();
+      for (int i = 0; i < size; i++) {
+        byte[] data = (byte[]) objects.readObject();
+        importedSummaries.inc();
+        Summary summary;
+        // the abstract states refer to the nodes of the previous version
+        cfaInfo.setPreviousVersionNodes(previousNodes);
+        try (ObjectInputStream summaryIn =
+            new ObjectInputStream(new ByteArrayInputStream(data))) {
+          summary = (Summary) summaryIn.readObject();
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+          // e.g., a node of a changed function is referenced
+          logger.logDebugException(e, "Could not read block summary");
+          outdatedSummaries.inc();
+          continue;
+        } finally {
+          cfaInfo.setPreviousVersionNodes(null);
+        }
+
+        CFANode callNode = previousNodes.get(summary.callNode);
+        if (callNode == null || !partitioning.isCallNode(callNode)) {
+          outdatedSummaries.inc();
+          continue;
+        }
+        Block block = partitioning.getBlockForCallNode(callNode);
+        if (!getFingerprint(block).equals(summary.blockFingerprint)) {
+          outdatedSummaries.inc();
+          continue;
+        }
+        // update the node number, such that the summary can be exported again
+        summary =
+            new Summary(
+                callNode.getNodeNumber(),
+                summary.blockFingerprint,
+                summary.initialState,
+                summary.precision,
+                summary.exitStates);
+        Pair<Object, Block> key =
+            getKey(new ARGState(summary.initialState, null), summary.precision, block);
+        result.put(key, summary);
+        // keep valid summaries for the next run, even if they are not used in this run
+        summariesForExport.putIfAbsent(key, summary);
+      }
+    } catch (IOException | ClassNotFoundException | ClassCastException e) {
+      logger.logUserException(Level.WARNING, e, "Could not import block summaries");
+    }
+    return result;
+  }
+
+  private void exportSummaries(Path pFile) {
+    prepareSerialization();
+    ImmutableList.Builder<byte[]> serializedSummaries = ImmutableList.builder();
+    for (Summary summary : summariesForExport.values()) {
+      ByteArrayOutputStream data = new ByteArrayOutputStream();
+      try (ObjectOutputStream summaryOut = new ObjectOutputStream(data)) {
+        summaryOut.writeObject(summary);
+      } catch (IOException | RuntimeException e) {
+        // some abstract states or precisions cannot be serialized
+        logger.logDebugException(e, "Could not serialize block summary");
+        unserializableSummaries.inc();
+        continue;
+      }
+      serializedSummaries.add(data.toByteArray());
+    }
+
+    ImmutableList<byte[]> summaries = serializedSummaries.build();
+    try {
+      MoreFiles.createParentDirectories(pFile);
+      try (OutputStream out = Files.newOutputStream(pFile);
+          ObjectOutputStream objects = new ObjectOutputStream(new GZIPOutputStream(out))) {
+        objects.writeUTF(FORMAT_VERSION);
+        objects.writeUTF(getConfigurationFingerprint());
+        objects.writeUTF(getSpecificationFingerprint());
+        objects.writeObject(getVersionFingerprints().getVersionInfo());
+        objects.writeInt(summaries.size());
+        for (byte[] summary : summaries) {
+          objects.writeObject(summary);
+        }
+      }
+      exportedSummaries.setNextValue(summaries.size());
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not export block summaries");
+    }
+  }
+
+  @Override
+  public void printStatistics(PrintStream out, Result result, UnmodifiableReachedSet reached) {
+    StatisticsWriter.writingStatisticsTo(out)
+        .put(changedFunctions)
+        .put(importedSummaries)
+        .put(outdatedSummaries)
+        .put(usedSummaries)
+        .put(discardedSummaries)
+        .put(exportedSummaries)
+        .put(unserializableSummaries);
+  }
+
+  @Override
+  public void writeOutputFiles(Result pResult, UnmodifiableReachedSet pReached) {
+    if (exportFile != null) {
+      exportSummaries(exportFile);
+    }
+  }
+
+  @Override
+  public String getName() {
+    return "BAM block summaries";
+  }
+}
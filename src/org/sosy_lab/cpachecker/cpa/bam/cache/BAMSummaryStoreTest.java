@@ -0,0 +1,200 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.bam.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth.assertWithMessage;
+
+import com.google.common.collect.ImmutableList;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+public class BAMSummaryStoreTest {
+
+  private static final String CONFIGURATION = "config/valueAnalysis-bam.properties";
+
+  private static final String F = "  return x + 1;";
+  private static final String CHANGED_F = "  return 2 * x;";
+  private static final String SAFE_CHECK = "  if (b != 4) {";
+  private static final String UNSAFE_CHECK = "  if (b == 4) {";
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  /** Result of one run of CPAchecker together with its statistics. */
+  private static final class Run {
+
+    private final TestResults results;
+    private final String statistics;
+
+    private Run(TestResults pResults, String pStatistics) {
+      results = pResults;
+      statistics = pStatistics;
+    }
+
+    private Result getResult() {
+      return results.getCheckerResult().getResult();
+    }
+
+    private int getStatistic(String pName) {
+      Matcher matcher = Pattern.compile(Pattern.quote(pName) + ":\\s*(\\d+)").matcher(statistics);
+      assertWithMessage("statistics contain %s", pName).that(matcher.find()).isTrue();
+      return Integer.parseInt(matcher.group(1));
+    }
+  }
+
+  private static List<String> program(String pF, String pCheck) {
+    return ImmutableList.of(
+        "int f(int x) {",
+        pF,
+        "}",
+        "int g(int x) {",
+        "  return x * 2;",
+        "}",
+        "int main() {",
+        "  int a = f(1);",
+        "  int b = g(a);",
+        pCheck,
+        "  ERROR:",
+        "    return 1;",
+        "  }",
+        "  return 0;",
+        "}");
+  }
+
+  private ConfigurationBuilder configurationBuilder() throws Exception {
+    // unlike TestDataTools.configurationForTest(), output files are written
+    FileTypeConverter fileTypeConverter =
+        FileTypeConverter.create(
+            Configuration.builder()
+                .setOption("output.path", tempFolder.newFolder().toString())
+                .build());
+    return Configuration.builder()
+        .addConverter(FileOption.class, fileTypeConverter)
+        .loadFromFile(CONFIGURATION);
+  }
+
+  private Run run(
+      List<String> pProgram,
+      ConfigurationBuilder pConfig,
+      @Nullable Path pImport,
+      @Nullable Path pExport)
+      throws Exception {
+    Path programFile = tempFolder.newFile("program.c").toPath();
+    Files.write(programFile, pProgram, Charset.defaultCharset());
+    if (pImport != null) {
+      pConfig.setOption("cpa.bam.summaries.import", pImport.toString());
+    }
+    if (pExport != null) {
+      pConfig.setOption("cpa.bam.summaries.export", pExport.toString());
+    }
+
+    TestResults results = CPATestRunner.run(pConfig.build(), programFile.toString());
+    // the summaries are exported with the output files, and counted for the statistics
+    results.getCheckerResult().writeOutputFiles();
+    ByteArrayOutputStream statistics = new ByteArrayOutputStream();
+    try (PrintStream out = new PrintStream(statistics, true, Charset.defaultCharset().name())) {
+      results.getCheckerResult().printStatistics(out);
+    }
+    Files.delete(programFile);
+    return new Run(results, statistics.toString(Charset.defaultCharset().name()));
+  }
+
+  private Run run(List<String> pProgram, @Nullable Path pImport, @Nullable Path pExport)
+      throws Exception {
+    return run(pProgram, configurationBuilder(), pImport, pExport);
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    Path summaries1 = tempFolder.getRoot().toPath().resolve("summaries1.bin");
+    Path summaries2 = tempFolder.getRoot().toPath().resolve("summaries2.bin");
+    List<String> program = program(F, SAFE_CHECK);
+
+    Run first = run(program, null, summaries1);
+    first.results.assertIsSafe();
+    int exported = first.getStatistic("Number of exported summaries");
+    assertThat(exported).isGreaterThan(0);
+
+    Run second = run(program, summaries1, summaries2);
+    assertThat(second.getResult()).isEqualTo(first.getResult());
+    assertThat(second.getStatistic("Number of imported summaries")).isEqualTo(exported);
+    assertThat(second.getStatistic("Number of imported summaries for changed blocks"))
+        .isEqualTo(0);
+    assertThat(second.getStatistic("Number of used summaries")).isGreaterThan(0);
+
+    // summaries that were imported are exported again and are used in the same way
+    Run third = run(program, summaries2, null);
+    assertThat(third.getResult()).isEqualTo(first.getResult());
+    assertThat(third.getStatistic("Number of imported summaries")).isEqualTo(exported);
+    assertThat(third.getStatistic("Number of used summaries"))
+        .isEqualTo(second.getStatistic("Number of used summaries"));
+  }
+
+  @Test
+  public void testChangedBlock() throws Exception {
+    Path summaries = tempFolder.getRoot().toPath().resolve("summaries.bin");
+    run(program(F, SAFE_CHECK), null, summaries).results.assertIsSafe();
+
+    Run changed = run(program(CHANGED_F, SAFE_CHECK), summaries, null);
+    changed.results.assertIsSafe();
+    assertThat(changed.getStatistic("Number of functions changed since previous run"))
+        .isEqualTo(1);
+    // the summaries of f are rejected, but the ones of g are still valid
+    assertThat(changed.getStatistic("Number of imported summaries for changed blocks"))
+        .isGreaterThan(0);
+    assertThat(changed.getStatistic("Number of used summaries")).isGreaterThan(0);
+  }
+
+  @Test
+  public void testChangedConfiguration() throws Exception {
+    Path summaries = tempFolder.getRoot().toPath().resolve("summaries.bin");
+    run(program(F, SAFE_CHECK), null, summaries).results.assertIsSafe();
+
+    Run changed =
+        run(
+            program(F, SAFE_CHECK),
+            configurationBuilder().setOption("cpa.bam.aggressiveCaching", "true"),
+            summaries,
+            null);
+    changed.results.assertIsSafe();
+    assertThat(changed.results.getLog()).contains("different configuration or specification");
+    assertThat(changed.getStatistic("Number of imported summaries")).isEqualTo(0);
+    assertThat(changed.getStatistic("Number of used summaries")).isEqualTo(0);
+  }
+
+  @Test
+  public void testCounterexampleThroughSummary() throws Exception {
+    Path summaries = tempFolder.getRoot().toPath().resolve("summaries.bin");
+    run(program(F, SAFE_CHECK), null, summaries).results.assertIsSafe();
+
+    // f and g are unchanged, but now their results lead to the error location
+    Run unsafe = run(program(F, UNSAFE_CHECK), summaries, null);
+    unsafe.results.assertIsUnsafe();
+    assertThat(unsafe.getStatistic("Number of used summaries")).isGreaterThan(0);
+    assertThat(unsafe.getStatistic("Number of summaries discarded for counterexamples"))
+        .isGreaterThan(0);
+  }
+}
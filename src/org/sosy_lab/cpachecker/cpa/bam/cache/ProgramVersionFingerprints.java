@@ -0,0 +1,271 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.bam.cache;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.cfa.model.ADeclarationEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionCallEdge;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionReturnEdge;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+
+/**
+ * Fingerprints of the functions of a program that do not depend on node numbers or line numbers,
+ * such that the unchanged functions of two versions of a program can be matched.
+ *
+ * <p>The nodes of each function are numbered canonically by a depth-first traversal from the
+ * function entry, following the leaving edges in their order. The fingerprint of a function covers
+ * its declaration and, for each node in canonical order, the code of its leaving edges and the
+ * canonical indices of their successors. Function calls are represented by the name of the callee,
+ * return edges are ignored, because they depend on the callers. The transitive fingerprint of a
+ * function additionally covers all functions that it (transitively) calls.
+ */
+final class ProgramVersionFingerprints {
+
+  /** Information about a program version that is stored together with its summaries. */
+  static final class VersionInfo implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String globalsFingerprint;
+    private final ImmutableMap<String, String> functionFingerprints;
+
+    /** node numbers of each function, in canonical order */
+    private final ImmutableMap<String, int[]> nodeNumbers;
+
+    private VersionInfo(
+        String pGlobalsFingerprint,
+        ImmutableMap<String, String> pFunctionFingerprints,
+        ImmutableMap<String, int[]> pNodeNumbers) {
+      globalsFingerprint = pGlobalsFingerprint;
+      functionFingerprints = pFunctionFingerprints;
+      nodeNumbers = pNodeNumbers;
+    }
+  }
+
+  private final ImmutableMap<String, ImmutableList<CFANode>> canonicalNodes;
+  private final Map<CFANode, Integer> canonicalIndex = new HashMap<>();
+  private final ImmutableMap<String, String> functionFingerprints;
+  private final ImmutableMap<String, String> transitiveFingerprints;
+  private final String globalsFingerprint;
+
+  ProgramVersionFingerprints(CFA pCfa) {
+    ImmutableMap.Builder<String, ImmutableList<CFANode>> nodes = ImmutableMap.builder();
+    ImmutableMap.Builder<String, String> fingerprints = ImmutableMap.builder();
+    Map<String, Set<String>> callees = new HashMap<>();
+    Hasher globalsHasher = Hashing.sha256().newHasher();
+
+    // iterate in order of function names for a deterministic fingerprint of global declarations
+    for (Map.Entry<String, FunctionEntryNode> function : pCfa.getAllFunctions().entrySet()) {
+      ImmutableList<CFANode> functionNodes = collectNodesInCanonicalOrder(function.getValue());
+      for (int i = 0; i < functionNodes.size(); i++) {
+        canonicalIndex.put(functionNodes.get(i), i);
+      }
+      Set<String> functionCallees = new TreeSet<>();
+      nodes.put(function.getKey(), functionNodes);
+      fingerprints.put(
+          function.getKey(),
+          computeFunctionFingerprint(
+              function.getValue(), functionNodes, functionCallees, globalsHasher));
+      callees.put(function.getKey(), functionCallees);
+    }
+    canonicalNodes = nodes.build();
+    functionFingerprints = fingerprints.build();
+    globalsFingerprint = globalsHasher.hash().toString();
+    transitiveFingerprints = computeTransitiveFingerprints(functionFingerprints, callees);
+  }
+
+  private static ImmutableList<CFANode> collectNodesInCanonicalOrder(FunctionEntryNode pEntry) {
+    ImmutableList.Builder<CFANode> result = ImmutableList.builder();
+    Set<CFANode> visited = new HashSet<>();
+    Deque<CFANode> waitlist = new ArrayDeque<>();
+    waitlist.push(pEntry);
+    while (!waitlist.isEmpty()) {
+      CFANode node = waitlist.pop();
+      if (!visited.add(node)) {
+        continue;
+      }
+      result.add(node);
+      List<CFANode> successors = new ArrayList<>();
+      for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+        if (!(edge instanceof FunctionCallEdge || edge instanceof FunctionReturnEdge)) {
+          successors.add(edge.getSuccessor());
+        }
+      }
+      // push in reverse order, such that the first successor is visited first
+      for (int i = successors.size() - 1; i >= 0; i--) {
+        waitlist.push(successors.get(i));
+      }
+    }
+    return result.build();
+  }
+
+  private String computeFunctionFingerprint(
+      FunctionEntryNode pEntry,
+      ImmutableList<CFANode> pNodes,
+      Set<String> pCallees,
+      Hasher pGlobalsHasher) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putUnencodedChars(pEntry.getFunctionDefinition().toASTString()).putInt(pNodes.size());
+    for (CFANode node : pNodes) {
+      for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+        if (edge instanceof FunctionReturnEdge) {
+          continue;
+        }
+        hasher.putUnencodedChars(edge.getEdgeType().name()).putUnencodedChars(edge.getCode());
+        if (edge instanceof FunctionCallEdge) {
+          String callee = edge.getSuccessor().getFunctionName();
+          hasher.putUnencodedChars(callee);
+          pCallees.add(callee);
+        } else {
+          hasher.putInt(canonicalIndex.getOrDefault(edge.getSuccessor(), -1));
+        }
+        if (edge instanceof ADeclarationEdge
+            && ((ADeclarationEdge) edge).getDeclaration().isGlobal()) {
+          pGlobalsHasher.putUnencodedChars(edge.getCode());
+        }
+      }
+    }
+    return hasher.hash().toString();
+  }
+
+  /** The transitive fingerprint covers a function and all functions reachable from it. */
+  private static ImmutableMap<String, String> computeTransitiveFingerprints(
+      ImmutableMap<String, String> pFingerprints, Map<String, Set<String>> pCallees) {
+    ImmutableMap.Builder<String, String> result = ImmutableMap.builder();
+    for (String function : pFingerprints.keySet()) {
+      // sorted by name, such that the fingerprint is deterministic
+      Set<String> reached = new TreeSet<>();
+      Deque<String> waitlist = new ArrayDeque<>();
+      waitlist.push(function);
+      while (!waitlist.isEmpty()) {
+        String current = waitlist.pop();
+        if (reached.add(current)) {
+          waitlist.addAll(pCallees.getOrDefault(current, ImmutableSet.of()));
+        }
+      }
+      Hasher hasher = Hashing.sha256().newHasher();
+      for (String reachedFunction : reached) {
+        hasher
+            .putUnencodedChars(reachedFunction)
+            .putUnencodedChars(pFingerprints.getOrDefault(reachedFunction, "undefined"));
+      }
+      result.put(function, hasher.hash().toString());
+    }
+    return result.build();
+  }
+
+  /** Returns the fingerprint of a function and all functions that it (transitively) calls. */
+  @VisibleForTesting
+  String getTransitiveFingerprint(String pFunction) {
+    return transitiveFingerprints.get(pFunction);
+  }
+
+  /**
+   * Computes a fingerprint of a block that is independent of node numbers. It covers the global
+   * declarations, the code of all functions that are part of the block or called by it, and the
+   * position of the block nodes in their functions.
+   */
+  String getBlockFingerprint(Block pBlock) {
+    Hasher hasher = Hashing.sha256().newHasher();
+    hasher.putUnencodedChars(globalsFingerprint);
+    Map<String, List<Integer>> nodesPerFunction = new TreeMap<>();
+    for (CFANode node : pBlock.getNodes()) {
+      nodesPerFunction
+          .computeIfAbsent(node.getFunctionName(), k -> new ArrayList<>())
+          .add(canonicalIndex.getOrDefault(node, -1));
+    }
+    for (Map.Entry<String, List<Integer>> function : nodesPerFunction.entrySet()) {
+      hasher
+          .putUnencodedChars(function.getKey())
+          .putUnencodedChars(transitiveFingerprints.getOrDefault(function.getKey(), "undefined"));
+      function.getValue().sort(Comparator.naturalOrder());
+      function.getValue().forEach(hasher::putInt);
+    }
+    for (CFANode callNode : pBlock.getCallNodes()) {
+      hasher.putInt(canonicalIndex.getOrDefault(callNode, -1));
+    }
+    return hasher.hash().toString();
+  }
+
+  /** Returns the information required to match a later version of the program against this one. */
+  VersionInfo getVersionInfo() {
+    ImmutableMap.Builder<String, int[]> nodeNumbers = ImmutableMap.builder();
+    for (Map.Entry<String, ImmutableList<CFANode>> function : canonicalNodes.entrySet()) {
+      nodeNumbers.put(
+          function.getKey(),
+          function.getValue().stream().mapToInt(CFANode::getNodeNumber).toArray());
+    }
+    return new VersionInfo(globalsFingerprint, functionFingerprints, nodeNumbers.build());
+  }
+
+  /**
+   * Maps the node numbers of a previous version of the program to the nodes of this version. Only
+   * nodes of functions whose code did not change are mapped, and nothing is mapped if the global
+   * declarations changed.
+   */
+  ImmutableMap<Integer, CFANode> mapPreviousVersion(VersionInfo pPrevious) {
+    if (!globalsFingerprint.equals(pPrevious.globalsFingerprint)) {
+      return ImmutableMap.of();
+    }
+    ImmutableMap.Builder<Integer, CFANode> result = ImmutableMap.builder();
+    for (Map.Entry<String, ImmutableList<CFANode>> function : canonicalNodes.entrySet()) {
+      String name = function.getKey();
+      int[] previousNodeNumbers = pPrevious.nodeNumbers.get(name);
+      if (functionFingerprints.get(name).equals(pPrevious.functionFingerprints.get(name))
+          && previousNodeNumbers != null
+          && previousNodeNumbers.length == function.getValue().size()) {
+        for (int i = 0; i < previousNodeNumbers.length; i++) {
+          result.put(previousNodeNumbers[i], function.getValue().get(i));
+        }
+      }
+    }
+    return result.build();
+  }
+
+  /**
+   * Returns the number of functions that are new, changed, or removed compared to a previous
+   * version.
+   */
+  int countChangedFunctions(VersionInfo pPrevious) {
+    int changed = 0;
+    for (Map.Entry<String, String> function : functionFingerprints.entrySet()) {
+      if (!function.getValue().equals(pPrevious.functionFingerprints.get(function.getKey()))) {
+        changed++;
+      }
+    }
+    for (String function : pPrevious.functionFingerprints.keySet()) {
+      if (!functionFingerprints.containsKey(function)) {
+        changed++;
+      }
+    }
+    return changed;
+  }
+}
@@ -0,0 +1,128 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.bam.cache;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.blocks.Block;
+import org.sosy_lab.cpachecker.cfa.blocks.BlockPartitioning;
+import org.sosy_lab.cpachecker.cfa.blocks.builder.BlockPartitioningBuilder;
+import org.sosy_lab.cpachecker.cfa.blocks.builder.FunctionPartitioning;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cpa.bam.cache.ProgramVersionFingerprints.VersionInfo;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class ProgramVersionFingerprintsTest {
+
+  private static final String GLOBAL = "int global = 0;";
+  private static final String F = "int f(int x) { return x + global; }";
+  private static final String G = "int g(int x) { return f(x) * 2; }";
+  private static final String MAIN = "int main() { return g(1); }";
+
+  /** A version of the program together with its fingerprints and blocks. */
+  private static final class Version {
+
+    private final CFA cfa;
+    private final ProgramVersionFingerprints fingerprints;
+    private final BlockPartitioning partitioning;
+
+    private Version(String... pLines) throws Exception {
+      cfa = TestDataTools.makeCFA(pLines);
+      fingerprints = new ProgramVersionFingerprints(cfa);
+      Configuration config = TestDataTools.configurationForTest().build();
+      partitioning =
+          new FunctionPartitioning(LogManager.createTestLogManager(), cfa, config)
+              .buildPartitioning(new BlockPartitioningBuilder());
+    }
+
+    private String getBlockFingerprint(String pFunction) {
+      Block block = partitioning.getBlockForCallNode(cfa.getFunctionHead(pFunction));
+      return fingerprints.getBlockFingerprint(block);
+    }
+  }
+
+  @Test
+  public void testShiftedCode() throws Exception {
+    Version previous = new Version(GLOBAL, F, G, MAIN);
+    // the code is on other lines and the nodes are numbered differently
+    Version current = new Version("", "", GLOBAL, "", F, "", G, "", MAIN);
+    VersionInfo previousInfo = previous.fingerprints.getVersionInfo();
+
+    assertThat(current.fingerprints.countChangedFunctions(previousInfo)).isEqualTo(0);
+    for (String function : ImmutableList.of("f", "g", "main")) {
+      assertThat(current.fingerprints.getTransitiveFingerprint(function))
+          .isEqualTo(previous.fingerprints.getTransitiveFingerprint(function));
+    }
+    for (String function : ImmutableList.of("f", "g")) {
+      assertThat(current.getBlockFingerprint(function))
+          .isEqualTo(previous.getBlockFingerprint(function));
+    }
+
+    ImmutableMap<Integer, CFANode> mapping = current.fingerprints.mapPreviousVersion(previousInfo);
+    assertThat(mapping).hasSize(previous.cfa.getAllNodes().size());
+    assertThat(mapping.values()).containsExactlyElementsIn(current.cfa.getAllNodes());
+    for (CFANode node : previous.cfa.getAllNodes()) {
+      assertThat(mapping.get(node.getNodeNumber()).getFunctionName())
+          .isEqualTo(node.getFunctionName());
+    }
+    assertThat(mapping.get(previous.cfa.getFunctionHead("f").getNodeNumber()))
+        .isEqualTo(current.cfa.getFunctionHead("f"));
+  }
+
+  @Test
+  public void testChangedCallee() throws Exception {
+    Version previous = new Version(GLOBAL, F, G, MAIN);
+    Version current = new Version(GLOBAL, "int f(int x) { return x - global; }", G, MAIN);
+    VersionInfo previousInfo = previous.fingerprints.getVersionInfo();
+
+    assertThat(current.fingerprints.countChangedFunctions(previousInfo)).isEqualTo(1);
+    // g itself is unchanged, but it calls f
+    assertThat(current.fingerprints.getTransitiveFingerprint("g"))
+        .isNotEqualTo(previous.fingerprints.getTransitiveFingerprint("g"));
+    assertThat(current.getBlockFingerprint("g")).isNotEqualTo(previous.getBlockFingerprint("g"));
+    assertThat(current.getBlockFingerprint("f")).isNotEqualTo(previous.getBlockFingerprint("f"));
+
+    // only the nodes of the unchanged functions are mapped
+    ImmutableMap<Integer, CFANode> mapping = current.fingerprints.mapPreviousVersion(previousInfo);
+    assertThat(mapping).isNotEmpty();
+    assertThat(mapping).containsKey(previous.cfa.getFunctionHead("g").getNodeNumber());
+    assertThat(mapping).doesNotContainKey(previous.cfa.getFunctionHead("f").getNodeNumber());
+    for (CFANode node : mapping.values()) {
+      assertThat(node.getFunctionName()).isNotEqualTo("f");
+    }
+  }
+
+  @Test
+  public void testChangedGlobal() throws Exception {
+    Version previous = new Version(GLOBAL, F, G, MAIN);
+    Version current = new Version("int global = 1;", F, G, MAIN);
+    VersionInfo previousInfo = previous.fingerprints.getVersionInfo();
+
+    assertThat(current.fingerprints.mapPreviousVersion(previousInfo)).isEmpty();
+    assertThat(current.getBlockFingerprint("f")).isNotEqualTo(previous.getBlockFingerprint("f"));
+  }
+
+  @Test
+  public void testRemovedFunction() throws Exception {
+    Version previous =
+        new Version(GLOBAL, "int h(int x) { return x; }", F, G, "int main() { return g(h(1)); }");
+    Version current = new Version(GLOBAL, F, G, MAIN);
+
+    // main changed and h was removed
+    assertThat(
+            current.fingerprints.countChangedFunctions(previous.fingerprints.getVersionInfo()))
+        .isEqualTo(2);
+  }
+}
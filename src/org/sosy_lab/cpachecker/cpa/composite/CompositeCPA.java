@@ -34,6 +34,7 @@ import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithBA
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
+import org.sosy_lab.cpachecker.core.interfaces.PrecisionDependencyQuery;
 import org.sosy_lab.cpachecker.core.interfaces.Reducer;
 import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
@@ -47,7 +48,12 @@ import org.sosy_lab.cpachecker.cpa.predicate.PredicateCPA;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 
-public class CompositeCPA implements StatisticsProvider, WrapperCPA, ConfigurableProgramAnalysisWithBAM, ProofChecker {
+public class CompositeCPA
+    implements StatisticsProvider,
+        WrapperCPA,
+        ConfigurableProgramAnalysisWithBAM,
+        ProofChecker,
+        PrecisionDependencyQuery {
 
   @Options(prefix="cpa.composite")
   private static class CompositeOptions {
@@ -311,6 +317,24 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
     return getStopOperator().isCoveredBy(pElement, pOtherElement, cpas);
   }
 
+  @Override
+  public boolean isAffectedByPrecisionChange(
+      AbstractState pState,
+      Precision pOldPrecision,
+      Precision pNewPrecision,
+      AbstractState pFullState) {
+    CompositeState state = (CompositeState) pState;
+    List<Precision> oldPrecisions = ((CompositePrecision) pOldPrecision).getWrappedPrecisions();
+    List<Precision> newPrecisions = ((CompositePrecision) pNewPrecision).getWrappedPrecisions();
+    for (int i = 0; i < cpas.size(); i++) {
+      if (PrecisionDependencyQuery.isAffectedByPrecisionChange(
+          cpas.get(i), state.get(i), oldPrecisions.get(i), newPrecisions.get(i), pFullState)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public void setPartitioning(BlockPartitioning partitioning) {
     cpas.forEach(
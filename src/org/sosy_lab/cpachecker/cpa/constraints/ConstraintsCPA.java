@@ -214,6 +214,7 @@ public class ConstraintsCPA
 
   @Override
   public void close() {
+    constraintsSolver.close();
     solver.close();
   }
 }
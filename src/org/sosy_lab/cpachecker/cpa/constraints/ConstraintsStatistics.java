@@ -9,7 +9,9 @@
 package org.sosy_lab.cpachecker.cpa.constraints;
 
 import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
@@ -40,6 +42,10 @@ public class ConstraintsStatistics implements Statistics {
       new StatTimer(StatKind.SUM, "Time for model re-use attempts");
   public final StatTimer timeForSatCheck = new StatTimer(StatKind.SUM, "Time for SMT check");
   public final StatCounter modelReuseSuccesses = new StatCounter("Successful model re-uses");
+  public final StatInt reusedAssertions =
+      new StatInt(StatKind.SUM, "Number of re-used assertions on prover stack");
+  public final StatInt pushedAssertions =
+      new StatInt(StatKind.SUM, "Number of pushed assertions on prover stack");
 
   public StatCounter cacheLookups = new StatCounter("Cache lookups");
   public StatTimer directCacheLookupTime = new StatTimer(StatKind.SUM, "Direct cache lookup time");
@@ -48,6 +54,7 @@ public class ConstraintsStatistics implements Statistics {
   public StatCounter subsetCacheHits = new StatCounter("Subset cache hits");
   public StatTimer supersetLookupTime = new StatTimer(StatKind.SUM, "Superset cache lookup time");
   public StatCounter supersetCacheHits = new StatCounter("Superset cache hits");
+  private long solverTimeSavedBySetCaches = 0;
 
   public StatInt constraintNumberBeforeAdj =
       new StatInt(StatKind.SUM, "Constraints before refinement in state");
@@ -90,6 +97,8 @@ public class ConstraintsStatistics implements Statistics {
         .putIfUpdatedAtLeastOnce(timeForDefinitesComputation)
         .endLevel()
         .putIfUpdatedAtLeastOnce(modelReuseSuccesses)
+        .putIfUpdatedAtLeastOnce(reusedAssertions)
+        .putIfUpdatedAtLeastOnce(pushedAssertions)
         .spacer() // Direct constraints solver cache
         .putIf(cacheLookups.getUpdateCount() > 0, cacheLookups)
         .putIf(cacheLookups.getUpdateCount() > 0, directCacheHits)
@@ -100,6 +109,10 @@ public class ConstraintsStatistics implements Statistics {
         // Superset constraints solver cache
         .putIf(supersetLookupTime.getUpdateCount() > 0, supersetCacheHits)
         .putIf(supersetLookupTime.getUpdateCount() > 0, supersetLookupTime)
+        .putIf(
+            solverTimeSavedBySetCaches > 0,
+            "Solver time saved by subset/superset caches",
+            TimeSpan.ofNanos(solverTimeSavedBySetCaches).formatAs(TimeUnit.SECONDS))
         .spacer() // Constraints state simplifier
         .putIf(trivialRemovalTime.getUpdateCount() > 0, removedTrivial)
         .putIf(trivialRemovalTime.getUpdateCount() > 0, trivialRemovalTime)
@@ -111,6 +124,14 @@ public class ConstraintsStatistics implements Statistics {
         .putIfUpdatedAtLeastOnce(adjustmentTime);
   }
 
+  /**
+   * Records the solver time of a previous SAT check whose result was reused by the subset or
+   * superset cache.
+   */
+  public void addSolverTimeSaved(long pSolvingNanos) {
+    solverTimeSavedBySetCaches += pSolvingNanos;
+  }
+
   @Nullable
   @Override
   public String getName() {
@@ -0,0 +1,160 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.constraints.domain;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Index of sets of constraints that supports efficient lookup of subsets and supersets of a
+ * queried set (an Unlimited Branching Tree, i.e., a trie over the sorted elements of the sets).
+ *
+ * <p>Constraints are represented by non-negative integer ids, and each set is given as strictly
+ * increasing array of ids. A value is stored for each set. The index can be bounded, in which case
+ * the oldest sets are evicted first.
+ *
+ * @param <V> the type of the values stored for each set
+ */
+final class ConstraintSetIndex<V> {
+
+  private static final class Node<V> {
+    private final NavigableMap<Integer, Node<V>> children = new TreeMap<>();
+    private @Nullable V value = null;
+
+    private boolean isEmpty() {
+      return value == null && children.isEmpty();
+    }
+  }
+
+  private final Node<V> root = new Node<>();
+  private final int maxSize;
+
+  /** All stored sets in insertion order, used for eviction. */
+  private final Deque<int[]> insertionOrder = new ArrayDeque<>();
+
+  /**
+   * Creates a new index.
+   *
+   * @param pMaxSize the maximal number of stored sets, or 0 for an unbounded index
+   */
+  ConstraintSetIndex(final int pMaxSize) {
+    checkArgument(pMaxSize >= 0, "size must not be negative");
+    maxSize = pMaxSize;
+  }
+
+  int size() {
+    return insertionOrder.size();
+  }
+
+  /** Stores the given set with the given value. An existing value for the set is replaced. */
+  void put(final int[] pSet, final V pValue) {
+    checkNotNull(pValue);
+    assert isStrictlyIncreasing(pSet);
+
+    Node<V> node = root;
+    for (int id : pSet) {
+      node = node.children.computeIfAbsent(id, k -> new Node<>());
+    }
+    if (node.value == null) {
+      insertionOrder.addLast(pSet);
+    }
+    node.value = pValue;
+
+    if (maxSize > 0 && insertionOrder.size() > maxSize) {
+      remove(insertionOrder.removeFirst());
+    }
+  }
+
+  private void remove(final int[] pSet) {
+    remove(root, pSet, 0);
+  }
+
+  /** Removes the set from the subtrie below the given node and prunes nodes that become empty. */
+  private void remove(final Node<V> pNode, final int[] pSet, final int pIndex) {
+    if (pIndex == pSet.length) {
+      pNode.value = null;
+      return;
+    }
+    Node<V> child = pNode.children.get(pSet[pIndex]);
+    if (child != null) {
+      remove(child, pSet, pIndex + 1);
+      if (child.isEmpty()) {
+        pNode.children.remove(pSet[pIndex]);
+      }
+    }
+  }
+
+  /** Returns the value of any stored subset of the given set, or null if there is none. */
+  @Nullable V findSubset(final int[] pSet) {
+    assert isStrictlyIncreasing(pSet);
+    return findSubset(root, pSet, 0);
+  }
+
+  private @Nullable V findSubset(final Node<V> pNode, final int[] pSet, final int pIndex) {
+    if (pNode.value != null) {
+      return pNode.value;
+    }
+    for (int i = pIndex; i < pSet.length; i++) {
+      Node<V> child = pNode.children.get(pSet[i]);
+      if (child != null) {
+        V result = findSubset(child, pSet, i + 1);
+        if (result != null) {
+          return result;
+        }
+      }
+    }
+    return null;
+  }
+
+  /** Returns the value of any stored superset of the given set, or null if there is none. */
+  @Nullable V findSuperset(final int[] pSet) {
+    assert isStrictlyIncreasing(pSet);
+    return findSuperset(root, pSet, 0);
+  }
+
+  private @Nullable V findSuperset(final Node<V> pNode, final int[] pSet, final int pIndex) {
+    if (pIndex == pSet.length) {
+      return getAnyValue(pNode);
+    }
+    // stored sets are sorted, so children larger than the next queried element can not contain it
+    for (Entry<Integer, Node<V>> child : pNode.children.headMap(pSet[pIndex], true).entrySet()) {
+      int nextIndex = child.getKey() == pSet[pIndex] ? pIndex + 1 : pIndex;
+      V result = findSuperset(child.getValue(), pSet, nextIndex);
+      if (result != null) {
+        return result;
+      }
+    }
+    return null;
+  }
+
+  /** Returns the value of any set below the given node, which exists as empty nodes are pruned. */
+  private @Nullable V getAnyValue(final Node<V> pNode) {
+    Node<V> node = pNode;
+    while (node.value == null && !node.children.isEmpty()) {
+      node = node.children.firstEntry().getValue();
+    }
+    return node.value;
+  }
+
+  private static boolean isStrictlyIncreasing(final int[] pSet) {
+    for (int i = 1; i < pSet.length; i++) {
+      if (pSet[i - 1] >= pSet[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
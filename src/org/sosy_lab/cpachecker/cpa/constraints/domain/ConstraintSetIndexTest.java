@@ -0,0 +1,57 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.constraints.domain;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+
+/** Unit tests for {@link ConstraintSetIndex} */
+public class ConstraintSetIndexTest {
+
+  @Test
+  public void testFindSubset() {
+    ConstraintSetIndex<String> index = new ConstraintSetIndex<>(0);
+    index.put(new int[] {1, 3}, "13");
+    index.put(new int[] {2, 4, 6}, "246");
+
+    assertThat(index.findSubset(new int[] {1, 2, 3})).isEqualTo("13");
+    assertThat(index.findSubset(new int[] {1, 3})).isEqualTo("13");
+    assertThat(index.findSubset(new int[] {0, 2, 4, 5, 6})).isEqualTo("246");
+    assertThat(index.findSubset(new int[] {1, 2, 4})).isNull();
+    assertThat(index.findSubset(new int[] {})).isNull();
+  }
+
+  @Test
+  public void testFindSuperset() {
+    ConstraintSetIndex<String> index = new ConstraintSetIndex<>(0);
+    index.put(new int[] {1, 3, 5}, "135");
+    index.put(new int[] {2, 4}, "24");
+
+    assertThat(index.findSuperset(new int[] {3, 5})).isEqualTo("135");
+    assertThat(index.findSuperset(new int[] {1, 3, 5})).isEqualTo("135");
+    assertThat(index.findSuperset(new int[] {4})).isEqualTo("24");
+    assertThat(index.findSuperset(new int[] {})).isNotNull();
+    assertThat(index.findSuperset(new int[] {1, 2})).isNull();
+    assertThat(index.findSuperset(new int[] {1, 3, 5, 6})).isNull();
+  }
+
+  @Test
+  public void testEviction() {
+    ConstraintSetIndex<String> index = new ConstraintSetIndex<>(2);
+    index.put(new int[] {1}, "1");
+    index.put(new int[] {1, 2}, "12");
+    index.put(new int[] {3}, "3");
+
+    assertThat(index.size()).isEqualTo(2);
+    assertThat(index.findSubset(new int[] {1})).isNull();
+    assertThat(index.findSubset(new int[] {1, 2})).isEqualTo("12");
+    assertThat(index.findSuperset(new int[] {3})).isEqualTo("3");
+  }
+}
@@ -11,11 +11,9 @@ package org.sosy_lab.cpachecker.cpa.constraints.domain;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -28,6 +26,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -58,6 +57,15 @@ public class ConstraintsSolver {
   @Option(secure = true, description = "Whether to use superset caching", name = "cacheSupersets")
   private boolean cacheSupersets = true;
 
+  @Option(
+      secure = true,
+      description =
+          "Maximal number of sets of constraints stored for subset and superset caching "
+              + "(each), the oldest ones are evicted first. 0 means unbounded.",
+      name = "indexedCacheSize")
+  @IntegerOption(min = 0)
+  private int indexedCacheSize = 0;
+
   @Option(
       secure = true,
       description = "Whether to perform SAT checks only for the last added constraint",
@@ -79,9 +87,21 @@ public class ConstraintsSolver {
   )
   private boolean resolveDefinites = true;
 
+  @Option(
+      secure = true,
+      description =
+          "Keep a single prover environment over all SAT checks and only pop and push the "
+              + "constraints that differ from the previous check. Consecutive checks along a path "
+              + "usually share most of their constraints, so this avoids re-asserting them.",
+      name = "incrementalSolving")
+  private boolean incrementalSolving = false;
+
   private ConstraintsCache cache;
   private Solver solver;
   private ProverEnvironment prover;
+
+  /** Formulas currently on the stack of the prover, one formula per level (incremental mode). */
+  private final List<BooleanFormula> proverStack = new ArrayList<>();
   private FormulaManagerView formulaManager;
   private BooleanFormulaManagerView booleanFormulaManager;
 
@@ -91,6 +111,9 @@ public class ConstraintsSolver {
   /** Table of id constraints set, id identifier assignment, formula * */
   private Map<Constraint, BooleanFormula> constraintFormulas = new HashMap<>();
 
+  /** Unique ids of constraint formulas, used as elements of the subset and superset indices */
+  private final Map<BooleanFormula, Integer> formulaIds = new HashMap<>();
+
   private BooleanFormula literalForSingleAssignment;
 
   private ConstraintsStatistics stats;
@@ -146,6 +169,7 @@ public class ConstraintsSolver {
       return false;
     }
 
+    boolean keepProver = false;
     try {
       stats.timeForSolving.start();
 
@@ -163,23 +187,30 @@ public class ConstraintsSolver {
         unsat = false;
         pConstraints.setModel(res.getModelAssignment());
 
+      } else if (incrementalSolving) {
+        pushIncrementally(getProverStack(relevantConstraints, pConstraints));
+
       } else {
         prover = solver.newProverEnvironment(ProverOptions.GENERATE_MODELS);
         BooleanFormula definitesAndConstraints =
             combineWithDefinites(constraintsAsFormulas, pConstraints);
         prover.push(definitesAndConstraints);
+      }
 
+      if (unsat == null) {
+        long satCheckStart = System.nanoTime();
         try {
           stats.timeForSatCheck.start();
           unsat = prover.isUnsat();
         } finally {
           stats.timeForSatCheck.stop();
         }
+        long solvingNanos = System.nanoTime() - satCheckStart;
 
         if (!unsat) {
           ImmutableList<ValueAssignment> newModelAsAssignment = prover.getModelAssignments();
           pConstraints.setModel(newModelAsAssignment);
-          cache.addSat(constraintsAsFormulas, newModelAsAssignment);
+          cache.addSat(constraintsAsFormulas, newModelAsAssignment, solvingNanos);
           // doing this while the complete formula is still on the prover environment stack is
           // cheaper than performing another complete SAT check when the assignment is really
           // requested
@@ -197,18 +228,74 @@ public class ConstraintsSolver {
               : "Unsat with definite assignment, but not without. Definite assignment: "
               + pConstraints.getDefiniteAssignment();
 
-          cache.addUnsat(constraintsAsFormulas);
+          cache.addUnsat(constraintsAsFormulas, solvingNanos);
         }
       }
 
+      // the prover stack is only consistent if the check finished without exception
+      keepProver = incrementalSolving;
       return unsat;
 
     } finally {
-      closeProver();
+      if (!keepProver) {
+        closeProver();
+      }
       stats.timeForSolving.stop();
     }
   }
 
+  /**
+   * Returns the formulas to put on the prover stack for checking the given constraints in
+   * incremental mode. The constraints are ordered as in the state, such that consecutive states
+   * along a path share a common prefix. The definite assignments change often and are thus put on
+   * the last level.
+   */
+  private List<BooleanFormula> getProverStack(
+      Set<Constraint> pRelevantConstraints, ConstraintsState pConstraints) {
+    List<BooleanFormula> levels = new ArrayList<>(pRelevantConstraints.size() + 1);
+    for (Constraint c : pConstraints) {
+      if (pRelevantConstraints.contains(c)) {
+        levels.add(checkNotNull(constraintFormulas.get(c)));
+      }
+    }
+    levels.add(getDefAssignmentsFormula(pConstraints));
+    return levels;
+  }
+
+  /**
+   * Aligns the stack of the long-lived prover with the given formulas: all levels after the common
+   * prefix of the current stack and the given formulas are popped, and the remaining formulas are
+   * pushed.
+   */
+  private void pushIncrementally(List<BooleanFormula> pLevels) throws InterruptedException {
+    if (prover == null) {
+      prover = solver.newProverEnvironment(ProverOptions.GENERATE_MODELS);
+    }
+
+    int commonPrefix = 0;
+    while (commonPrefix < proverStack.size()
+        && commonPrefix < pLevels.size()
+        && proverStack.get(commonPrefix).equals(pLevels.get(commonPrefix))) {
+      commonPrefix++;
+    }
+    while (proverStack.size() > commonPrefix) {
+      prover.pop();
+      proverStack.remove(proverStack.size() - 1);
+    }
+    for (BooleanFormula level : pLevels.subList(commonPrefix, pLevels.size())) {
+      prover.push(level);
+      proverStack.add(level);
+    }
+
+    stats.reusedAssertions.setNextValue(commonPrefix);
+    stats.pushedAssertions.setNextValue(pLevels.size() - commonPrefix);
+  }
+
+  /** Closes the prover environment that is kept alive between checks in incremental mode. */
+  public void close() {
+    closeProver();
+  }
+
   private BooleanFormula combineWithDefinites(
       Collection<BooleanFormula> pConstraintsAsFormulas,
       ConstraintsState pConstraints) {
@@ -274,6 +361,7 @@ public class ConstraintsSolver {
     if (prover != null) {
       prover.close();
       prover = null;
+      proverStack.clear();
     }
   }
 
@@ -358,14 +446,24 @@ public class ConstraintsSolver {
     return getFormulaCreator(pFunctionName).createFormula(pConstraint);
   }
 
+  /** Returns the sorted ids of the given formulas, without duplicates. */
+  private int[] getConstraintIds(Collection<BooleanFormula> pFormulas) {
+    return pFormulas.stream()
+        .mapToInt(f -> formulaIds.computeIfAbsent(f, k -> formulaIds.size()))
+        .sorted()
+        .distinct()
+        .toArray();
+  }
+
   private interface ConstraintsCache {
     CacheResult getCachedResult(Collection<BooleanFormula> pConstraints);
 
     void addSat(
         Collection<BooleanFormula> pConstraints,
-        ImmutableList<ValueAssignment> pModelAssignment);
+        ImmutableList<ValueAssignment> pModelAssignment,
+        long pSolvingNanos);
 
-    void addUnsat(Collection<BooleanFormula> pConstraints);
+    void addUnsat(Collection<BooleanFormula> pConstraints, long pSolvingNanos);
   }
 
   private class MatchingConstraintsCache implements ConstraintsCache {
@@ -394,12 +492,13 @@ public class ConstraintsSolver {
     @Override
     public void addSat(
         Collection<BooleanFormula> pConstraints,
-        ImmutableList<ValueAssignment> pModelAssignment) {
+        ImmutableList<ValueAssignment> pModelAssignment,
+        long pSolvingNanos) {
       add(pConstraints, CacheResult.getSat(pModelAssignment));
     }
 
     @Override
-    public void addUnsat(Collection<BooleanFormula> pConstraints) {
+    public void addUnsat(Collection<BooleanFormula> pConstraints, long pSolvingNanos) {
       add(pConstraints, CacheResult.getUnsat());
     }
 
@@ -408,13 +507,24 @@ public class ConstraintsSolver {
     }
   }
 
+  /** The result of a SAT check together with the time the solver needed for it. */
+  private static class IndexedResult {
+    private final CacheResult result;
+    private final long solvingNanos;
+
+    private IndexedResult(CacheResult pResult, long pSolvingNanos) {
+      result = pResult;
+      solvingNanos = pSolvingNanos;
+    }
+  }
+
   private class SupersetConstraintsCache implements ConstraintsCache {
 
     private ConstraintsCache delegate;
 
-    /** Multimap that maps each constraint to all sets of constraints that it occurs in */
-    private Multimap<BooleanFormula, Set<BooleanFormula>> constraintContainedIn =
-        HashMultimap.create();
+    /** Index of all satisfiable sets of constraints */
+    private final ConstraintSetIndex<IndexedResult> satisfiableSets =
+        new ConstraintSetIndex<>(indexedCacheSize);
 
     public SupersetConstraintsCache(final ConstraintsCache pDelegate) {
       delegate = pDelegate;
@@ -426,9 +536,13 @@ public class ConstraintsSolver {
       if (!res.isSat() && !res.isUnsat()) {
         try {
           stats.supersetLookupTime.start();
-          res = getCachedResultOfSuperset(pConstraints);
-          if (res.isSat() || res.isUnsat()) {
+          // each superset of the queried constraints that is satisfiable has a model
+          // that also satisfies the queried constraints
+          IndexedResult superset = satisfiableSets.findSuperset(getConstraintIds(pConstraints));
+          if (superset != null) {
             stats.supersetCacheHits.inc();
+            stats.addSolverTimeSaved(superset.solvingNanos);
+            res = superset.result;
           }
         } finally {
           stats.supersetLookupTime.stop();
@@ -439,50 +553,18 @@ public class ConstraintsSolver {
 
     @Override
     public void addSat(
-        Collection<BooleanFormula> pConstraints, ImmutableList<ValueAssignment> pModelAssignment) {
-      add(pConstraints);
-      delegate.addSat(pConstraints, pModelAssignment);
+        Collection<BooleanFormula> pConstraints,
+        ImmutableList<ValueAssignment> pModelAssignment,
+        long pSolvingNanos) {
+      satisfiableSets.put(
+          getConstraintIds(pConstraints),
+          new IndexedResult(CacheResult.getSat(pModelAssignment), pSolvingNanos));
+      delegate.addSat(pConstraints, pModelAssignment, pSolvingNanos);
     }
 
     @Override
-    public void addUnsat(Collection<BooleanFormula> pConstraints) {
-      add(pConstraints);
-      delegate.addUnsat(pConstraints);
-    }
-
-    private void add(Collection<BooleanFormula> pConstraints) {
-      for (BooleanFormula c : pConstraints) {
-        constraintContainedIn.put(c, ImmutableSet.copyOf(pConstraints));
-      }
-    }
-
-    CacheResult getCachedResultOfSuperset(Collection<BooleanFormula> pConstraints) {
-      checkState(!pConstraints.isEmpty());
-
-      Set<Set<BooleanFormula>> containAllConstraints = null;
-      for (BooleanFormula c : pConstraints) {
-        Set<Set<BooleanFormula>> containC = ImmutableSet.copyOf(constraintContainedIn.get(c));
-        if (containAllConstraints == null) {
-          containAllConstraints = containC;
-        } else {
-          containAllConstraints = Sets.intersection(containAllConstraints, containC);
-        }
-
-        if (containAllConstraints.isEmpty()) {
-          return CacheResult.getUnknown();
-        }
-      }
-
-      checkNotNull(containAllConstraints);
-      int sizeOfQuery = pConstraints.size();
-      for (Set<BooleanFormula> col : containAllConstraints) {
-        CacheResult cachedResult = delegate.getCachedResult(col);
-        if (sizeOfQuery <= col.size() && cachedResult.isSat()) {
-          // currently considered collection is a superset of the queried collection
-          return cachedResult;
-        }
-      }
-      return CacheResult.getUnknown();
+    public void addUnsat(Collection<BooleanFormula> pConstraints, long pSolvingNanos) {
+      delegate.addUnsat(pConstraints, pSolvingNanos);
     }
   }
 
@@ -490,11 +572,9 @@ public class ConstraintsSolver {
 
     private ConstraintsCache delegate;
 
-    /**
-     * Multimap that maps each constraint to all sets of constraints that it occurred in
-     */
-    private Multimap<BooleanFormula, Set<BooleanFormula>> constraintContainedIn =
-        HashMultimap.create();
+    /** Index of all unsatisfiable sets of constraints */
+    private final ConstraintSetIndex<IndexedResult> unsatisfiableSets =
+        new ConstraintSetIndex<>(indexedCacheSize);
 
     public SubsetConstraintsCache(final ConstraintsCache pDelegate) {
       delegate = pDelegate;
@@ -503,57 +583,37 @@ public class ConstraintsSolver {
     @Override
     public CacheResult getCachedResult(Collection<BooleanFormula> pConstraints) {
       CacheResult res = delegate.getCachedResult(pConstraints);
-        if (!res.isSat() && !res.isUnsat()) {
+      if (!res.isSat() && !res.isUnsat()) {
         try {
           stats.subsetLookupTime.start();
-          res = getCachedResultOfSubset(pConstraints);
-          if (res.isSat() || res.isUnsat()) {
+          // each set of constraints that contains an unsatisfiable subset is unsatisfiable
+          IndexedResult subset = unsatisfiableSets.findSubset(getConstraintIds(pConstraints));
+          if (subset != null) {
             stats.subsetCacheHits.inc();
+            stats.addSolverTimeSaved(subset.solvingNanos);
+            res = subset.result;
           }
         } finally {
           stats.subsetLookupTime.stop();
-          }
         }
+      }
       return res;
     }
 
     @Override
     public void addSat(
-        Collection<BooleanFormula> pConstraints, ImmutableList<ValueAssignment> pModelAssignment) {
-      add(pConstraints);
-      delegate.addSat(pConstraints, pModelAssignment);
+        Collection<BooleanFormula> pConstraints,
+        ImmutableList<ValueAssignment> pModelAssignment,
+        long pSolvingNanos) {
+      delegate.addSat(pConstraints, pModelAssignment, pSolvingNanos);
     }
 
     @Override
-    public void addUnsat(Collection<BooleanFormula> pConstraints) {
-      add(pConstraints);
-      delegate.addUnsat(pConstraints);
-    }
-
-    private void add(Collection<BooleanFormula> pConstraints) {
-      for (BooleanFormula c : pConstraints) {
-        constraintContainedIn.put(c, ImmutableSet.copyOf(pConstraints));
-      }
-    }
-
-    CacheResult getCachedResultOfSubset(Collection<BooleanFormula> pConstraints) {
-      checkState(!pConstraints.isEmpty());
-
-      Set<Set<BooleanFormula>> containAllConstraints = new HashSet<>();
-      for (BooleanFormula c : pConstraints) {
-        Set<Set<BooleanFormula>> containC = ImmutableSet.copyOf(constraintContainedIn.get(c));
-        containAllConstraints.addAll(containC);
-      }
-
-      int sizeOfQuery = pConstraints.size();
-      for (Set<BooleanFormula> col : containAllConstraints) {
-        CacheResult cachedResult = delegate.getCachedResult(col);
-        if (sizeOfQuery >= col.size() && cachedResult.isUnsat()) {
-          // currently considered collection is a subset of the queried collection
-          return cachedResult;
-        }
-      }
-      return CacheResult.getUnknown();
+    public void addUnsat(Collection<BooleanFormula> pConstraints, long pSolvingNanos) {
+      unsatisfiableSets.put(
+          getConstraintIds(pConstraints),
+          new IndexedResult(CacheResult.getUnsat(), pSolvingNanos));
+      delegate.addUnsat(pConstraints, pSolvingNanos);
     }
   }
 
@@ -567,12 +627,13 @@ public class ConstraintsSolver {
     @Override
     public void addSat(
         Collection<BooleanFormula> pConstraints,
-        ImmutableList<ValueAssignment> pModelAssignment) {
+        ImmutableList<ValueAssignment> pModelAssignment,
+        long pSolvingNanos) {
       // do nothing
     }
 
     @Override
-    public void addUnsat(Collection<BooleanFormula> pConstraints) {
+    public void addUnsat(Collection<BooleanFormula> pConstraints, long pSolvingNanos) {
       // do nothing
     }
   }
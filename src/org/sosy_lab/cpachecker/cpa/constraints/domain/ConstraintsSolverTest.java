@@ -0,0 +1,145 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.constraints.domain;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.Type;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.core.AnalysisDirection;
+import org.sosy_lab.cpachecker.cpa.constraints.ConstraintsStatistics;
+import org.sosy_lab.cpachecker.cpa.constraints.constraint.Constraint;
+import org.sosy_lab.cpachecker.cpa.value.symbolic.type.SymbolicExpression;
+import org.sosy_lab.cpachecker.cpa.value.symbolic.type.SymbolicValueFactory;
+import org.sosy_lab.cpachecker.cpa.value.symbolic.util.SymbolicValues;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.ctoformula.CtoFormulaConverter;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.ctoformula.CtoFormulaTypeHandler;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.ctoformula.FormulaEncodingOptions;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/** Unit tests for {@link ConstraintsSolver} */
+public class ConstraintsSolverTest {
+
+  private static final String FUNCTION = "main";
+
+  private final SymbolicValueFactory factory = SymbolicValueFactory.getInstance();
+  private final Type defType = CNumericTypes.INT;
+
+  private final SymbolicExpression idExp1 =
+      factory.asConstant(factory.newIdentifier(MemoryLocation.valueOf("id1")), defType);
+  private final SymbolicExpression idExp2 =
+      factory.asConstant(factory.newIdentifier(MemoryLocation.valueOf("id2")), defType);
+
+  // id1 > 0, id1 < 10, id2 == id1 + 1
+  private final Constraint positive =
+      (Constraint) factory.greaterThan(idExp1, number(0), defType, defType);
+  private final Constraint belowTen =
+      (Constraint) factory.lessThan(idExp1, number(10), defType, defType);
+  private final Constraint successor =
+      factory.equal(idExp2, factory.add(idExp1, number(1), defType, defType), defType, defType);
+
+  private final LogManager logger = LogManager.createTestLogManager();
+  private final ShutdownNotifier shutdownNotifier = ShutdownNotifier.createDummy();
+
+  @Before
+  public void setUp() {
+    SymbolicValues.initialize();
+  }
+
+  private SymbolicExpression number(int pValue) {
+    return factory.asConstant(new NumericValue(pValue), defType);
+  }
+
+  private static ConstraintsState state(Constraint... pConstraints) {
+    ConstraintsState state = new ConstraintsState();
+    for (Constraint constraint : pConstraints) {
+      state.add(constraint);
+    }
+    return state;
+  }
+
+  /**
+   * States along two paths: the first ones share a growing prefix of constraints, then the path
+   * diverges with a contradicting constraint and returns to a shorter prefix.
+   */
+  private List<ConstraintsState> getStates() {
+    Constraint id2IsTwelve = factory.equal(idExp2, number(12), defType, defType);
+    Constraint id2IsFive = factory.equal(idExp2, number(5), defType, defType);
+    Constraint id1IsNine = factory.equal(idExp1, number(9), defType, defType);
+    return ImmutableList.of(
+        state(positive),
+        state(positive, belowTen),
+        state(positive, belowTen, successor),
+        state(positive, belowTen, successor, id2IsTwelve),
+        state(positive, belowTen, successor, id2IsFive),
+        state(positive, belowTen, id1IsNine),
+        state(positive, (Constraint) factory.lessThan(idExp1, number(1), defType, defType)));
+  }
+
+  private List<Boolean> checkAll(boolean pIncremental, ConstraintsStatistics pStats)
+      throws Exception {
+    Configuration config =
+        TestDataTools.configurationForTest()
+            .setOption("cpa.constraints.incrementalSolving", Boolean.toString(pIncremental))
+            // every state has to be checked by the solver
+            .setOption("cpa.constraints.cache", "false")
+            .build();
+    Solver solver = Solver.create(config, logger, shutdownNotifier);
+    CtoFormulaConverter converter =
+        new CtoFormulaConverter(
+            new FormulaEncodingOptions(config),
+            solver.getFormulaManager(),
+            MachineModel.LINUX32,
+            Optional.empty(),
+            logger,
+            shutdownNotifier,
+            new CtoFormulaTypeHandler(logger, MachineModel.LINUX32),
+            AnalysisDirection.FORWARD);
+    ConstraintsSolver constraintsSolver =
+        new ConstraintsSolver(config, solver, solver.getFormulaManager(), converter, pStats);
+
+    List<Boolean> results = new ArrayList<>();
+    try {
+      for (ConstraintsState state : getStates()) {
+        results.add(constraintsSolver.isUnsat(state, FUNCTION));
+      }
+    } finally {
+      constraintsSolver.close();
+      solver.close();
+    }
+    return results;
+  }
+
+  @Test
+  public void testIncrementalSolving() throws Exception {
+    ConstraintsStatistics incrementalStats = new ConstraintsStatistics();
+    List<Boolean> incremental = checkAll(true, incrementalStats);
+    List<Boolean> nonIncremental = checkAll(false, new ConstraintsStatistics());
+
+    assertThat(nonIncremental)
+        .containsExactly(false, false, false, true, false, false, true)
+        .inOrder();
+    assertThat(incremental).containsExactlyElementsIn(nonIncremental).inOrder();
+    // the prefix of the previous check is kept on the prover stack
+    assertThat(incrementalStats.reusedAssertions.getValueSum()).isGreaterThan(0);
+  }
+}
@@ -12,17 +12,22 @@ package org.sosy_lab.cpachecker.cpa.formulaslicing;
 import static com.google.common.collect.FluentIterable.from;
 
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Level;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -65,6 +70,15 @@ public class FormulaSlicingManager implements StatisticsProvider {
   @Option(secure=true, description="Filter lemmas by liveness")
   private boolean filterByLiveness = true;
 
+  @Option(secure=true, description="Cache the results of inductive weakening by the candidate "
+      + "lemmas and the loop transition, and re-use them on later visits of the loop head")
+  private boolean cacheInductiveWeakening = true;
+
+  @Option(secure=true, description="Maximal number of entries in the cache of inductive "
+      + "weakening results")
+  @IntegerOption(min=1)
+  private int inductiveWeakeningCacheSize = 10000;
+
   private final PathFormulaManager pfmgr;
   private final BooleanFormulaManager bfmgr;
   private final FormulaManagerView fmgr;
@@ -75,6 +89,14 @@ public class FormulaSlicingManager implements StatisticsProvider {
   private final LiveVariables liveVariables;
   private final LoopStructure loopStructure;
 
+  /**
+   * Results of inductive weakening, keyed by the (optional) abstraction of the
+   * parent state, the loop transition with its starting SSA and the candidate
+   * lemmas. The results only depend on the formulas, so they stay valid across
+   * visits of the same loop head with different abstract states.
+   */
+  private final Cache<List<Object>, Set<BooleanFormula>> inductiveWeakeningCache;
+
   @SuppressWarnings({"FieldCanBeLocal", "unused"})
   private final LogManager logger;
 
@@ -101,6 +123,8 @@ public class FormulaSlicingManager implements StatisticsProvider {
       pCfa.getLoopStructure().isPresent());
     liveVariables = pCfa.getLiveVariables().orElseThrow();
     loopStructure = pCfa.getLoopStructure().orElseThrow();
+    inductiveWeakeningCache =
+        CacheBuilder.newBuilder().maximumSize(inductiveWeakeningCacheSize).build();
   }
 
   public Collection<? extends SlicingState> getAbstractSuccessors(
@@ -279,21 +303,13 @@ public class FormulaSlicingManager implements StatisticsProvider {
       statistics.inductiveWeakening.start();
       if (parentState != prevToMerge) {
 
-        finalClauses = inductiveWeakeningManager.findInductiveWeakeningForRCNF(
-            parentState.getSSA(),
-            parentState.getAbstraction(),
-            iState.getPathFormula(),
-            candidateLemmas
-        );
+        finalClauses = findInductiveWeakening(
+            Optional.of(parentState.getAbstraction()), path, candidateLemmas);
         inductiveUnder = ImmutableSet.of();
       } else {
 
         // No nested loops: remove lemmas on both sides.
-        finalClauses = inductiveWeakeningManager.findInductiveWeakeningForRCNF(
-            parentState.getSSA(),
-            iState.getPathFormula(),
-            candidateLemmas
-        );
+        finalClauses = findInductiveWeakening(Optional.empty(), path, candidateLemmas);
 
         if (finalClauses.equals(candidateLemmas)) {
           inductiveUnder = Sets.union(prevToMerge.getInductiveUnder(),
@@ -323,6 +339,47 @@ public class FormulaSlicingManager implements StatisticsProvider {
     return Optional.of(out);
   }
 
+  /**
+   * Find the subset of the candidate lemmas that is inductive under the given
+   * transition, assuming the parent abstraction if it is present.
+   */
+  Set<BooleanFormula> findInductiveWeakening(
+      Optional<Set<BooleanFormula>> parentAbstraction,
+      PathFormulaWithStartSSA transition,
+      Set<BooleanFormula> candidateLemmas)
+      throws SolverException, InterruptedException {
+    List<Object> key = ImmutableList.of(parentAbstraction, transition, candidateLemmas);
+    if (cacheInductiveWeakening) {
+      Set<BooleanFormula> cached = inductiveWeakeningCache.getIfPresent(key);
+      if (cached != null) {
+        statistics.inductiveWeakeningCacheHits++;
+        return cached;
+      }
+      statistics.inductiveWeakeningCacheMisses++;
+    }
+
+    Set<BooleanFormula> out;
+    if (parentAbstraction.isPresent()) {
+      out = inductiveWeakeningManager.findInductiveWeakeningForRCNF(
+          transition.getStartMap(),
+          parentAbstraction.orElseThrow(),
+          transition.getPathFormula(),
+          candidateLemmas
+      );
+    } else {
+      out = inductiveWeakeningManager.findInductiveWeakeningForRCNF(
+          transition.getStartMap(),
+          transition.getPathFormula(),
+          candidateLemmas
+      );
+    }
+
+    if (cacheInductiveWeakening) {
+      inductiveWeakeningCache.put(key, out);
+    }
+    return out;
+  }
+
   /**
    * Check whether target state is unreachable.
    */
@@ -0,0 +1,190 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.formulaslicing;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.CFACreator;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.core.AnalysisDirection;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.util.predicates.RCNFManager;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.CachingPathFormulaManager;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManagerImpl;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.PointerTargetSet;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.IntegerFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.predicates.weakening.InductiveWeakeningManager;
+import org.sosy_lab.cpachecker.util.predicates.weakening.WeakeningOptions;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+
+public class FormulaSlicingManagerTest {
+
+  private LogManager logger;
+  private ShutdownNotifier notifier;
+  private Solver solver;
+  private FormulaManagerView fmgr;
+  private CachingPathFormulaManager pfmgr;
+  private CFA cfa;
+  private CFANode loopHead;
+
+  @Before
+  public void setUp() throws Exception {
+    Configuration config = getConfig(true);
+    notifier = ShutdownNotifier.createDummy();
+    logger = LogManager.createTestLogManager();
+    solver = Solver.create(config, logger, notifier);
+    fmgr = solver.getFormulaManager();
+    pfmgr =
+        new CachingPathFormulaManager(
+            new PathFormulaManagerImpl(
+                fmgr,
+                config,
+                logger,
+                notifier,
+                MachineModel.LINUX32,
+                Optional.empty(),
+                AnalysisDirection.FORWARD));
+    cfa =
+        TestDataTools.toSingleFunctionCFA(
+            new CFACreator(config, logger, notifier),
+            "int x = 0; int y = 1;",
+            "while (1) {",
+            "x += 1; y = 0;",
+            "}");
+    loopHead = Iterables.getOnlyElement(cfa.getAllLoopHeads().orElseThrow());
+  }
+
+  private static Configuration getConfig(boolean pCacheInductiveWeakening) throws Exception {
+    return TestDataTools.configurationForTest()
+        .setOptions(
+            ImmutableMap.of(
+                "solver.solver", "z3",
+                "cfa.findLiveVariables", "true",
+                "cpa.predicate.encodeBitvectorAs", "integer",
+                "cpa.slicing.cacheInductiveWeakening",
+                    Boolean.toString(pCacheInductiveWeakening)))
+        .build();
+  }
+
+  private FormulaSlicingManager createManager(boolean pCacheInductiveWeakening)
+      throws Exception {
+    Configuration config = getConfig(pCacheInductiveWeakening);
+    return new FormulaSlicingManager(
+        config,
+        pfmgr,
+        fmgr,
+        cfa,
+        new InductiveWeakeningManager(new WeakeningOptions(config), solver, logger, notifier),
+        new RCNFManager(config),
+        solver,
+        logger);
+  }
+
+  /** Returns the transition of one loop iteration, starting after the declarations. */
+  private PathFormulaWithStartSSA getLoopTransition() throws Exception {
+    SSAMap start =
+        SSAMap.emptySSAMap()
+            .builder()
+            .setIndex("main::x", CNumericTypes.INT, 1)
+            .setIndex("main::y", CNumericTypes.INT, 1)
+            .build();
+    PathFormula transition =
+        new LoopTransitionFinder(
+                getConfig(true),
+                cfa.getLoopStructure().orElseThrow(),
+                pfmgr,
+                fmgr,
+                logger,
+                notifier)
+            .generateLoopTransition(start, PointerTargetSet.emptyPointerTargetSet(), loopHead);
+    return new PathFormulaWithStartSSA(transition, start);
+  }
+
+  /** Returns the candidate lemmas x >= 0 and y = 1, of which only the first one is inductive. */
+  private Set<BooleanFormula> getCandidateLemmas() {
+    IntegerFormulaManagerView imgr = fmgr.getIntegerFormulaManager();
+    IntegerFormula x = imgr.makeVariable("main::x");
+    IntegerFormula y = imgr.makeVariable("main::y");
+    return ImmutableSet.of(
+        imgr.greaterOrEquals(x, imgr.makeNumber(0)), imgr.equal(y, imgr.makeNumber(1)));
+  }
+
+  private static FormulaSlicingStatistics getStatistics(FormulaSlicingManager pManager) {
+    List<Statistics> statistics = new ArrayList<>();
+    pManager.collectStatistics(statistics);
+    return (FormulaSlicingStatistics) Iterables.getOnlyElement(statistics);
+  }
+
+  @Test
+  public void testSecondVisitOfLoopHeadHitsCache() throws Exception {
+    FormulaSlicingManager manager = createManager(true);
+    IntegerFormulaManagerView imgr = fmgr.getIntegerFormulaManager();
+    BooleanFormula inductiveLemma =
+        imgr.greaterOrEquals(imgr.makeVariable("main::x"), imgr.makeNumber(0));
+
+    Set<BooleanFormula> firstVisit =
+        manager.findInductiveWeakening(
+            Optional.empty(), getLoopTransition(), getCandidateLemmas());
+    assertThat(firstVisit).containsExactly(inductiveLemma);
+    assertThat(getStatistics(manager).inductiveWeakeningCacheHits).isEqualTo(0);
+    assertThat(getStatistics(manager).inductiveWeakeningCacheMisses).isEqualTo(1);
+
+    // a later visit of the loop head creates equal, but new transitions and lemmas
+    Set<BooleanFormula> secondVisit =
+        manager.findInductiveWeakening(
+            Optional.empty(), getLoopTransition(), getCandidateLemmas());
+    assertThat(secondVisit).isSameInstanceAs(firstVisit);
+    assertThat(getStatistics(manager).inductiveWeakeningCacheHits).isEqualTo(1);
+    assertThat(getStatistics(manager).inductiveWeakeningCacheMisses).isEqualTo(1);
+
+    // the parent abstraction is part of the key
+    manager.findInductiveWeakening(
+        Optional.of(ImmutableSet.of(inductiveLemma)), getLoopTransition(), getCandidateLemmas());
+    assertThat(getStatistics(manager).inductiveWeakeningCacheMisses).isEqualTo(2);
+  }
+
+  @Test
+  public void testSameLemmasWithoutCache() throws Exception {
+    FormulaSlicingManager cachingManager = createManager(true);
+    FormulaSlicingManager manager = createManager(false);
+
+    Set<BooleanFormula> cached =
+        cachingManager.findInductiveWeakening(
+            Optional.empty(), getLoopTransition(), getCandidateLemmas());
+    for (int visit = 0; visit < 2; visit++) {
+      assertThat(
+              manager.findInductiveWeakening(
+                  Optional.empty(), getLoopTransition(), getCandidateLemmas()))
+          .containsExactlyElementsIn(cached);
+    }
+    assertThat(getStatistics(manager).inductiveWeakeningCacheHits).isEqualTo(0);
+    assertThat(getStatistics(manager).inductiveWeakeningCacheMisses).isEqualTo(0);
+  }
+}
@@ -45,6 +45,8 @@ class FormulaSlicingStatistics implements Statistics {
   final Timer inductiveWeakening = new Timer();
   final Multiset<CFANode> inductiveWeakeningLocations = HashMultiset.create();
   int cachedInductiveWeakenings = 0;
+  int inductiveWeakeningCacheHits = 0;
+  int inductiveWeakeningCacheMisses = 0;
 
   /**
    * Reachability statistics.
@@ -61,6 +63,8 @@ class FormulaSlicingStatistics implements Statistics {
 
     printTimer(out, inductiveWeakening, "inductive weakening",
         cachedInductiveWeakenings);
+    printCacheHitRate(out, "inductive weakening results",
+        inductiveWeakeningCacheHits, inductiveWeakeningCacheMisses);
 
     printTimer(out, solver.solverTime,
         "checking reachability",
@@ -77,6 +81,12 @@ class FormulaSlicingStatistics implements Statistics {
     return "Formula Slicing Manager";
   }
 
+  private void printCacheHitRate(PrintStream out, String name, int hits, int misses) {
+    int lookups = hits + misses;
+    out.printf("Cache hits for %s: %d of %d (%.1f%%)%n",
+        name, hits, lookups, lookups == 0 ? 0.0 : 100.0 * hits / lookups);
+  }
+
   private void printTimer(PrintStream out, Timer t, String name,
                           Object cacheHits) {
     out.printf("Time spent in %s: %s (Max: %s), (Avg: %s), (#calls = %s), "
@@ -55,6 +55,7 @@ import org.sosy_lab.cpachecker.util.CFATraversal.CFAVisitor;
 import org.sosy_lab.cpachecker.util.CFATraversal.TraversalProcess;
 import org.sosy_lab.cpachecker.util.LoopStructure;
 import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
+import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap;
@@ -74,6 +75,8 @@ public class LoopTransitionFinder implements StatisticsProvider {
    */
   private static class Stats implements Statistics {
     final Timer LBEencodingTimer = new Timer();
+    int transitionCacheHits = 0;
+    int transitionCacheMisses = 0;
 
     @Override
     public void printStatistics(PrintStream out, Result result, UnmodifiableReachedSet reached) {
@@ -81,6 +84,8 @@ public class LoopTransitionFinder implements StatisticsProvider {
           LBEencodingTimer,
           LBEencodingTimer.getMaxTime().formatAs(TimeUnit.SECONDS),
           LBEencodingTimer.getAvgTime().formatAs(TimeUnit.SECONDS));
+      out.printf("Cache hits for loop transitions: %d of %d%n",
+          transitionCacheHits, transitionCacheHits + transitionCacheMisses);
     }
 
     @Override
@@ -102,6 +107,10 @@ public class LoopTransitionFinder implements StatisticsProvider {
   @TimeSpanOption(codeUnit = TimeUnit.NANOSECONDS, defaultUserUnit = TimeUnit.SECONDS, min = 0)
    private TimeSpan timeForLoopGeneration = TimeSpan.ofSeconds(0);
 
+  @Option(secure=true, description="Cache the generated loop transitions for each loop head "
+      + "and starting SSA map.")
+  private boolean cacheLoopTransitions = true;
+
   private final PathFormulaManager pfmgr;
   private final FormulaManagerView fmgr;
   private final LogManager logger;
@@ -111,6 +120,13 @@ public class LoopTransitionFinder implements StatisticsProvider {
 
   private final Map<CFANode, Table<CFANode, CFANode, EdgeWrapper>> LBEcache;
 
+  /**
+   * Generated loop transitions for each loop head, keyed by the starting SSA map and the
+   * pointer-target set.
+   */
+  private final Table<CFANode, Pair<SSAMap, PointerTargetSet>, PathFormulaWithStartSSA>
+      transitionCache = HashBasedTable.create();
+
   public LoopTransitionFinder(
       Configuration config,
       LoopStructure pLoopStructure,
@@ -139,6 +155,16 @@ public class LoopTransitionFinder implements StatisticsProvider {
     Preconditions.checkState(loopStructure.getAllLoopHeads()
         .contains(loopHead));
 
+    Pair<SSAMap, PointerTargetSet> key = Pair.of(start, pts);
+    if (cacheLoopTransitions) {
+      PathFormulaWithStartSSA cached = transitionCache.get(loopHead, key);
+      if (cached != null) {
+        statistics.transitionCacheHits++;
+        return cached.getPathFormula();
+      }
+      statistics.transitionCacheMisses++;
+    }
+
     ShutdownManager loopGenerationShutdown = ShutdownManager.createWithParent(shutdownNotifier);
     ResourceLimitChecker limits = null;
     if (!timeForLoopGeneration.isEmpty()) {
@@ -161,6 +187,9 @@ public class LoopTransitionFinder implements StatisticsProvider {
       limits.cancel();
     }
 
+    if (cacheLoopTransitions) {
+      transitionCache.put(loopHead, key, new PathFormulaWithStartSSA(out, start));
+    }
     return out;
   }
 
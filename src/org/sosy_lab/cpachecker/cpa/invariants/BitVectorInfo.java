@@ -30,12 +30,20 @@ public class BitVectorInfo implements TypeInfo {
 
   private final BigInteger maxValue;
 
+  /**
+   * Whether all values of the bit vector can be represented as primitive <code>long</code>
+   * values, which is the case for all signed bit vectors of size up to 64 and all unsigned bit
+   * vectors of size up to 63.
+   */
+  private final boolean fitsInLong;
+
   private BitVectorInfo(int pSize, boolean pSigned) {
     Preconditions.checkArgument(pSize >= 0, "bit vector size must not be negative");
     size = pSize;
     signed = pSigned;
     minValue = !signed ? BigInteger.ZERO : BigInteger.valueOf(2).pow(size - 1).negate();
     maxValue = !signed ? BigInteger.valueOf(2).pow(size).subtract(BigInteger.ONE) : BigInteger.valueOf(2).pow(size - 1).subtract(BigInteger.ONE);
+    fitsInLong = minValue.bitLength() < Long.SIZE && maxValue.bitLength() < Long.SIZE;
   }
 
   public int getSize() {
@@ -57,6 +65,17 @@ public class BitVectorInfo implements TypeInfo {
     return maxValue;
   }
 
+  /**
+   * Checks whether all values of the bit vector can be represented as primitive <code>long</code>
+   * values. If so, bit-vector intervals of this type are computed on primitive bounds.
+   *
+   * @return <code>true</code> if all values of the bit vector fit into a <code>long</code>,
+   *     <code>false</code> otherwise.
+   */
+  public boolean fitsInLong() {
+    return fitsInLong;
+  }
+
   public BitVectorInterval getRange() {
     return BitVectorInterval.of(this, minValue, maxValue);
   }
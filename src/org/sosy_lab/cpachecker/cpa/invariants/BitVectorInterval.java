@@ -17,6 +17,7 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * This class represents simple convex ranges of BigIntegers.
@@ -24,19 +25,35 @@ import java.util.Objects;
  * concrete value or infinity. In case of a concrete value, the bound is assumed
  * to be included in the range.
  *
+ * <p>If all values of the bit vector fit into a <code>long</code> (see {@link
+ * BitVectorInfo#fitsInLong()}), the bounds are stored as primitive values and
+ * the big integer representation of the bounds is only created on demand.
+ *
  * All instances of this class are immutable.
  */
 public class BitVectorInterval implements BitVectorType {
 
   /**
-   * The lower bound of the interval.
+   * The lower bound of the interval, or <code>null</code> if it was not
+   * requested yet for a bit vector that fits into a <code>long</code>.
    */
-  private final BigInteger lowerBound;
+  private @Nullable BigInteger lowerBound;
 
   /**
-   * The upper bound of the interval.
+   * The upper bound of the interval, or <code>null</code> if it was not
+   * requested yet for a bit vector that fits into a <code>long</code>.
    */
-  private final BigInteger upperBound;
+  private @Nullable BigInteger upperBound;
+
+  /**
+   * The lower bound of the interval, if the bit vector fits into a <code>long</code>.
+   */
+  private final long longLowerBound;
+
+  /**
+   * The upper bound of the interval, if the bit vector fits into a <code>long</code>.
+   */
+  private final long longUpperBound;
 
   /**
    * Size and signedness.
@@ -63,6 +80,34 @@ public class BitVectorInterval implements BitVectorType {
     info = pInfo;
     lowerBound = pLowerBound;
     upperBound = pUpperBound;
+    if (pInfo.fitsInLong()) {
+      longLowerBound = pLowerBound.longValueExact();
+      longUpperBound = pUpperBound.longValueExact();
+    } else {
+      longLowerBound = 0;
+      longUpperBound = 0;
+    }
+  }
+
+  /**
+   * Creates a new interval from the given lower bound to the given upper bound
+   * for a bit vector that fits into a <code>long</code>.
+   *
+   * The lower bound must be a value less than or equal to the upper bound.
+   *
+   * @param pLowerBound the lower bound of the interval.
+   * @param pUpperBound the upper bound of the interval.
+   */
+  private BitVectorInterval(BitVectorInfo pInfo, long pLowerBound, long pUpperBound) {
+    checkNotNull(pInfo);
+    checkArgument(pInfo.fitsInLong(), "bit vector does not fit into a long");
+    checkArgument(pLowerBound <= pUpperBound, "lower endpoint greater than upper end point");
+    checkArgument(pLowerBound >= pInfo.getMinValue().longValue(), "lower bound must fit the bit vector");
+    checkArgument(pUpperBound <= pInfo.getMaxValue().longValue(), "upper bound must fit the bit vector");
+
+    info = pInfo;
+    longLowerBound = pLowerBound;
+    longUpperBound = pUpperBound;
   }
 
   /**
@@ -79,14 +124,50 @@ public class BitVectorInterval implements BitVectorType {
    * Return lower bound (may only be called if {@link #hasLowerBound()} returns true.
    */
   public BigInteger getLowerBound() {
-    return lowerBound;
+    BigInteger result = lowerBound;
+    if (result == null) {
+      result = BigInteger.valueOf(longLowerBound);
+      lowerBound = result;
+    }
+    return result;
   }
 
   /**
    * Return upper bound (may only be called if {@link #hasUpperBound()} returns true.
    */
   public BigInteger getUpperBound() {
-    return upperBound;
+    BigInteger result = upperBound;
+    if (result == null) {
+      result = BigInteger.valueOf(longUpperBound);
+      upperBound = result;
+    }
+    return result;
+  }
+
+  /**
+   * Return lower bound as primitive value (may only be called if
+   * {@link BitVectorInfo#fitsInLong()} returns true for the type of this interval).
+   */
+  public long getLowerBoundAsLong() {
+    checkState(info.fitsInLong());
+    return longLowerBound;
+  }
+
+  /**
+   * Return upper bound as primitive value (may only be called if
+   * {@link BitVectorInfo#fitsInLong()} returns true for the type of this interval).
+   */
+  public long getUpperBoundAsLong() {
+    checkState(info.fitsInLong());
+    return longUpperBound;
+  }
+
+  /**
+   * Checks if the bounds of both this and the given interval are stored as
+   * primitive values.
+   */
+  private boolean bothFitInLong(BitVectorInterval pOther) {
+    return info.fitsInLong() && pOther.info.fitsInLong();
   }
 
   /**
@@ -123,23 +204,35 @@ public class BitVectorInterval implements BitVectorType {
     // The lower bound of this interval is a candidate for the new lower bound
     // The lower bound of the other interval is a candidate as well
     // The new lower bound is the maximum of both lower bounds.
-    BigInteger newLowerBound = this.lowerBound.max(pOther.getLowerBound());
+    if (info.fitsInLong()) {
+      return new BitVectorInterval(
+          info,
+          Math.max(longLowerBound, pOther.longLowerBound),
+          Math.min(longUpperBound, pOther.longUpperBound));
+    }
+    BigInteger newLowerBound = getLowerBound().max(pOther.getLowerBound());
 
     // The upper bound of this interval is a candidate for the new lower bound
     // The upper bound of the other interval is a candidate as well
     // The new upper bound is the minimum of both upper bounds.
-    BigInteger newUpperBound = this.upperBound.min(pOther.getUpperBound());
+    BigInteger newUpperBound = getUpperBound().min(pOther.getUpperBound());
 
     return new BitVectorInterval(info, newLowerBound, newUpperBound);
   }
 
   public BitVectorInterval getNegativePart() {
     Preconditions.checkArgument(containsNegative(), "This interval has no negative part.");
+    if (info.fitsInLong()) {
+      return new BitVectorInterval(info, longLowerBound, Math.min(-1, longUpperBound));
+    }
     return BitVectorInterval.of(info, lowerBound, BigInteger.valueOf(-1).min(upperBound));
   }
 
   public BitVectorInterval getPositivePart() {
     Preconditions.checkArgument(containsPositive(), "This interval has no positive part.");
+    if (info.fitsInLong()) {
+      return new BitVectorInterval(info, Math.max(1, longLowerBound), longUpperBound);
+    }
     return BitVectorInterval.of(info, BigInteger.ONE.max(lowerBound), upperBound);
   }
 
@@ -165,6 +258,9 @@ public class BitVectorInterval implements BitVectorType {
    * positive value, <code>false</code> otherwise.
    */
   public boolean containsPositive() {
+    if (info.fitsInLong()) {
+      return longUpperBound > 0;
+    }
     return upperBound.signum() == 1;
   }
 
@@ -174,6 +270,9 @@ public class BitVectorInterval implements BitVectorType {
    * <code>false</code> otherwise.
    */
   public boolean containsZero() {
+    if (info.fitsInLong()) {
+      return longUpperBound >= 0 && longLowerBound <= 0;
+    }
     return upperBound.signum() >= 0
         && lowerBound.signum() <= 0;
   }
@@ -184,6 +283,13 @@ public class BitVectorInterval implements BitVectorType {
    * <code>false</code> otherwise.
    */
   public boolean contains(BigInteger pValue) {
+    if (info.fitsInLong()) {
+      if (pValue.bitLength() >= Long.SIZE) {
+        return false;
+      }
+      long value = pValue.longValue();
+      return longUpperBound >= value && longLowerBound <= value;
+    }
     return upperBound.compareTo(pValue) >= 0
         && lowerBound.compareTo(pValue) <= 0;
   }
@@ -194,6 +300,9 @@ public class BitVectorInterval implements BitVectorType {
    * negative value, <code>false</code> otherwise.
    */
   public boolean containsNegative() {
+    if (info.fitsInLong()) {
+      return longLowerBound < 0;
+    }
     return lowerBound.signum() == -1;
   }
 
@@ -204,7 +313,7 @@ public class BitVectorInterval implements BitVectorType {
    * @return The upper bound minus the lower bound plus one.
    */
   public BigInteger size() {
-    return upperBound.subtract(lowerBound).add(BigInteger.ONE);
+    return getUpperBound().subtract(getLowerBound()).add(BigInteger.ONE);
   }
 
   /**
@@ -216,6 +325,9 @@ public class BitVectorInterval implements BitVectorType {
    * single value, <code>false</code> otherwise.
    */
   public boolean isSingleton() {
+    if (info.fitsInLong()) {
+      return longLowerBound == longUpperBound;
+    }
     return lowerBound.equals(upperBound);
   }
 
@@ -230,8 +342,14 @@ public class BitVectorInterval implements BitVectorType {
    * @return the mathematical negation of this interval.
    */
   public BitVectorInterval negate(boolean pAllowSignedWrapAround, OverflowEventHandler pOverflowEventHandler) {
-    BigInteger newLowerBound = upperBound.negate();
-    BigInteger newUpperBound = lowerBound.negate();
+    if (info.fitsInLong()
+        && longLowerBound != Long.MIN_VALUE
+        && -longUpperBound >= info.getMinValue().longValue()
+        && -longLowerBound <= info.getMaxValue().longValue()) {
+      return new BitVectorInterval(info, -longUpperBound, -longLowerBound);
+    }
+    BigInteger newLowerBound = getUpperBound().negate();
+    BigInteger newUpperBound = getLowerBound().negate();
 
     boolean lbExceedsBelow = newLowerBound.compareTo(info.getMinValue()) < 0;
     boolean lbExceedsAbove = !lbExceedsBelow && newLowerBound.compareTo(info.getMaxValue()) > 0;
@@ -363,6 +481,31 @@ public class BitVectorInterval implements BitVectorType {
     return BitVectorInterval.of(pInfo, lowerBound, upperBound);
   }
 
+  /**
+   * Casts the interval of the given primitive bounds to the given bit vector,
+   * which must fit into a <code>long</code>. Only if the bounds exceed the
+   * range of the bit vector, the computation falls back to big integers.
+   *
+   * @see #cast(BitVectorInfo, BigInteger, BigInteger, boolean, OverflowEventHandler)
+   */
+  public static BitVectorInterval cast(BitVectorInfo pInfo,
+      long pLowerBound,
+      long pUpperBound,
+      boolean pAllowSignedWrapAround,
+      OverflowEventHandler pOverflowEventHandler) {
+    checkArgument(pInfo.fitsInLong(), "bit vector does not fit into a long");
+    if (pLowerBound >= pInfo.getMinValue().longValue()
+        && pUpperBound <= pInfo.getMaxValue().longValue()) {
+      return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
+    }
+    return cast(
+        pInfo,
+        BigInteger.valueOf(pLowerBound),
+        BigInteger.valueOf(pUpperBound),
+        pAllowSignedWrapAround,
+        pOverflowEventHandler);
+  }
+
   /**
    * Returns an interval from this interval's lower bound to the maximum value
    * allowed by the bit vector size.
@@ -371,6 +514,12 @@ public class BitVectorInterval implements BitVectorType {
    * allowed by the bit vector size.
    */
   public BitVectorInterval extendToMaxValue() {
+    if (info.fitsInLong()) {
+      long maxValue = info.getMaxValue().longValue();
+      return longUpperBound == maxValue
+          ? this
+          : new BitVectorInterval(info, longLowerBound, maxValue);
+    }
     if (upperBound.equals(info.getMaxValue())) {
       return this;
     }
@@ -385,6 +534,12 @@ public class BitVectorInterval implements BitVectorType {
    * allowed by the bit vector size.
    */
   public BitVectorInterval extendToMinValue() {
+    if (info.fitsInLong()) {
+      long minValue = info.getMinValue().longValue();
+      return longLowerBound == minValue
+          ? this
+          : new BitVectorInterval(info, minValue, longUpperBound);
+    }
     if (lowerBound.equals(info.getMinValue())) {
       return this;
     }
@@ -400,17 +555,23 @@ public class BitVectorInterval implements BitVectorType {
     }
 
     BitVectorInterval other = (BitVectorInterval) pObj;
-    return Objects.equals(this.lowerBound, other.lowerBound)
-        && Objects.equals(this.upperBound, other.upperBound);
+    if (bothFitInLong(other)) {
+      return longLowerBound == other.longLowerBound && longUpperBound == other.longUpperBound;
+    }
+    return Objects.equals(this.getLowerBound(), other.getLowerBound())
+        && Objects.equals(this.getUpperBound(), other.getUpperBound());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(lowerBound, upperBound);
+    return Objects.hash(getLowerBound(), getUpperBound());
   }
 
   @Override
   public String toString() {
+    if (info.fitsInLong()) {
+      return "[" + longLowerBound + ", " + longUpperBound + "]";
+    }
     return "[" + lowerBound + ", " + upperBound + "]";
   }
 
@@ -428,8 +589,11 @@ public class BitVectorInterval implements BitVectorType {
       return false;
     }
 
-    return this.lowerBound.compareTo(pOther.lowerBound) <= 0
-        && this.upperBound.compareTo(pOther.upperBound) >= 0;
+    if (bothFitInLong(pOther)) {
+      return longLowerBound <= pOther.longLowerBound && longUpperBound >= pOther.longUpperBound;
+    }
+    return this.getLowerBound().compareTo(pOther.getLowerBound()) <= 0
+        && this.getUpperBound().compareTo(pOther.getUpperBound()) >= 0;
   }
 
   /**
@@ -445,8 +609,13 @@ public class BitVectorInterval implements BitVectorType {
   public boolean touches(BitVectorInterval pOther) {
     if (pOther == null) { return false; }
     if (intersectsWith(pOther)) { return true; }
-    return pOther.upperBound.add(BigInteger.ONE).equals(this.lowerBound)
-        || this.upperBound.add(BigInteger.ONE).equals(pOther.lowerBound);
+    if (bothFitInLong(pOther)) {
+      // an upper bound less than the other lower bound cannot overflow when incremented
+      return (pOther.longUpperBound < longLowerBound && pOther.longUpperBound + 1 == longLowerBound)
+          || (longUpperBound < pOther.longLowerBound && longUpperBound + 1 == pOther.longLowerBound);
+    }
+    return pOther.getUpperBound().add(BigInteger.ONE).equals(this.getLowerBound())
+        || this.getUpperBound().add(BigInteger.ONE).equals(pOther.getLowerBound());
   }
 
   /**
@@ -460,8 +629,11 @@ public class BitVectorInterval implements BitVectorType {
 
     // this is [a, b]; other is [c, d]
     // result is true if a <= d and b >= c
-    boolean aLessThanOrEqB = this.lowerBound.compareTo(other.upperBound) <= 0;
-    boolean bGreaterThanOrEqC = this.upperBound.compareTo(other.lowerBound) >= 0;
+    if (bothFitInLong(other)) {
+      return longLowerBound <= other.longUpperBound && longUpperBound >= other.longLowerBound;
+    }
+    boolean aLessThanOrEqB = this.getLowerBound().compareTo(other.getUpperBound()) <= 0;
+    boolean bGreaterThanOrEqC = this.getUpperBound().compareTo(other.getLowerBound()) >= 0;
     return aLessThanOrEqB && bGreaterThanOrEqC;
   }
 
@@ -529,6 +701,13 @@ public class BitVectorInterval implements BitVectorType {
     return new BitVectorInterval(pInfo, pI, pI);
   }
 
+  public static BitVectorInterval singleton(BitVectorInfo pInfo, long pI) {
+    if (!pInfo.fitsInLong()) {
+      return singleton(pInfo, BigInteger.valueOf(pI));
+    }
+    return new BitVectorInterval(pInfo, pI, pI);
+  }
+
   public static BitVectorInterval greaterOrEqual(BitVectorInfo pInfo, BigInteger pI) {
     return singleton(pInfo, pI).extendToMaxValue();
   }
@@ -541,11 +720,28 @@ public class BitVectorInterval implements BitVectorType {
     return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
   }
 
+  public static BitVectorInterval of(BitVectorInfo pInfo, long pLowerBound, long pUpperBound) {
+    if (!pInfo.fitsInLong()) {
+      return of(pInfo, BigInteger.valueOf(pLowerBound), BigInteger.valueOf(pUpperBound));
+    }
+    return new BitVectorInterval(pInfo, pLowerBound, pUpperBound);
+  }
+
   /**
    * Create the smallest interval that contains two given intervals;
    */
   public static BitVectorInterval span(BitVectorInterval a, BitVectorInterval b) {
     a.checkBitVectorCompatibilityWith(b);
+    if (a.info.fitsInLong()) {
+      long lower = Math.min(a.longLowerBound, b.longLowerBound);
+      long upper = Math.max(a.longUpperBound, b.longUpperBound);
+      if (lower == a.longLowerBound && upper == a.longUpperBound) {
+        return a;
+      } else if (lower == b.longLowerBound && upper == b.longUpperBound) {
+        return b;
+      }
+      return new BitVectorInterval(a.info, lower, upper);
+    }
     BigInteger lower;
     if (a.lowerBound == null || b.lowerBound == null) {
       lower = null;
@@ -1753,35 +1753,7 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
   private static BitVectorInterval union(BitVectorInterval pA, BitVectorInterval pB) {
     Preconditions.checkArgument(pA.getTypeInfo().equals(pB.getTypeInfo()));
     Preconditions.checkArgument(pA.touches(pB), "Cannot unite intervals that do not touch.");
-    return BitVectorInterval.of(pA.getTypeInfo(), lowestBound(pA, pB), highestBound(pA, pB));
-  }
-
-  /**
-   * Returns the lowest bound of the two given intervals.
-   *
-   * @param pA one if the intervals to get the lowest lower bound from.
-   * @param pB one if the intervals to get the lowest lower bound from.
-   *
-   * @return the lowest bound of the two given intervals.
-   */
-  private static BigInteger lowestBound(BitVectorInterval pA, BitVectorInterval pB) {
-    BigInteger aLowerBound = pA.getLowerBound();
-    BigInteger bLowerBound = pB.getLowerBound();
-    return lessOrEqual(aLowerBound, bLowerBound) ? aLowerBound : bLowerBound;
-  }
-
-  /**
-   * Returns the highest bound of the two given intervals.
-   *
-   * @param pA one if the intervals to get the highest upper bound from.
-   * @param pB one if the intervals to get the highest upper bound from.
-   *
-   * @return the highest bound of the two given intervals.
-   */
-  private static BigInteger highestBound(BitVectorInterval pA, BitVectorInterval pB) {
-    BigInteger aUpperBound = pA.getUpperBound();
-    BigInteger bUpperBound = pB.getUpperBound();
-    return lessOrEqual(bUpperBound, aUpperBound) ? aUpperBound : bUpperBound;
+    return BitVectorInterval.span(pA, pB);
   }
 
   /**
@@ -1797,18 +1769,6 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
     return pFirst.compareTo(pSecond) < 0;
   }
 
-  /**
-   * Checks if the first given big integer is less than or equal to the second given big integer, none of which may be <code>null</code>.
-   *
-   * @param pFirst the value being compared to the reference value.
-   * @param pSecond the reference value.
-   *
-   * @return <code>true</code> if <code>pFirst</code> is less than or equal to <code>pSecond</code>, <code>false</code> otherwise.
-   */
-  private static boolean lessOrEqual(BigInteger pFirst, BigInteger pSecond) {
-    return pFirst.compareTo(pSecond) <= 0;
-  }
-
   /**
    * Creates a new compound state from the given simple interval.
    *
@@ -1843,7 +1803,7 @@ public class CompoundBitVectorInterval implements CompoundIntegralInterval, BitV
    * @return a compound state representing the given long value.
    */
   public static CompoundBitVectorInterval singleton(BitVectorInfo pInfo, long pValue) {
-    return singleton(pInfo, BigInteger.valueOf(pValue));
+    return CompoundBitVectorInterval.of(BitVectorInterval.singleton(pInfo, pValue));
   }
 
   /**
@@ -51,11 +51,19 @@ public enum CompoundBitVectorIntervalManagerFactory implements CompoundIntervalM
   }
 
   public CompoundIntervalManager createCompoundIntervalManager(TypeInfo pInfo, boolean pWithOverflowHandlers) {
+    return createCompoundIntervalManager(
+        pInfo, pWithOverflowHandlers ? this::handleAllOverflowHandlers : () -> {});
+  }
+
+  /**
+   * Creates a compound interval manager that reports signed overflows to the given handler instead
+   * of the registered overflow event handlers.
+   */
+  public CompoundIntervalManager createCompoundIntervalManager(
+      TypeInfo pInfo, OverflowEventHandler pOverflowEventHandler) {
     if (pInfo instanceof BitVectorInfo) {
       return new CompoundBitVectorIntervalManager(
-          (BitVectorInfo) pInfo,
-          isSignedWrapAroundAllowed(),
-          pWithOverflowHandlers ? this::handleAllOverflowHandlers : () -> {});
+          (BitVectorInfo) pInfo, isSignedWrapAroundAllowed(), pOverflowEventHandler);
     }
     if (pInfo instanceof FloatingPointTypeInfo) {
       return new CompoundFloatingPointIntervalManager((FloatingPointTypeInfo) pInfo);
@@ -65,6 +73,11 @@ public enum CompoundBitVectorIntervalManagerFactory implements CompoundIntervalM
 
   public abstract boolean isSignedWrapAroundAllowed();
 
+  /** Notifies all registered overflow event handlers about a signed overflow. */
+  public void signalOverflow() {
+    handleAllOverflowHandlers();
+  }
+
   public void addOverflowEventHandler(OverflowEventHandler pOverflowEventHandler) {
     overflowEventHandlers.add(pOverflowEventHandler);
   }
@@ -64,7 +64,8 @@ public final class Add<ConstantType> extends AbstractBinaryFormula<ConstantType>
    * @return the sum of the given formulae.
    */
   static <ConstantType> Add<ConstantType> of(NumeralFormula<ConstantType> pSummand1, NumeralFormula<ConstantType> pSummand2) {
-    return new Add<>(pSummand1, pSummand2);
+    return FormulaInterner.intern(
+        Add.class, () -> new Add<>(pSummand1, pSummand2), pSummand1, pSummand2);
   }
 
 }
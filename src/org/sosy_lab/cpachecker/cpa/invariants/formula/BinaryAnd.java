@@ -46,7 +46,8 @@ final class BinaryAnd<ConstantType> extends AbstractBinaryFormula<ConstantType>
    * @return the binary and operation over the given operands.
    */
   static <ConstantType> BinaryAnd<ConstantType> of(NumeralFormula<ConstantType> pOperand1, NumeralFormula<ConstantType> pOperand2) {
-    return new BinaryAnd<>(pOperand1, pOperand2);
+    return FormulaInterner.intern(
+        BinaryAnd.class, () -> new BinaryAnd<>(pOperand1, pOperand2), pOperand1, pOperand2);
   }
 
 }
@@ -80,7 +80,7 @@ class BinaryNot<ConstantType> extends AbstractFormula<ConstantType>
    * @return the binary negation of the given formula.
    */
   static <ConstantType> BinaryNot<ConstantType> of(NumeralFormula<ConstantType> pToFlip) {
-    return new BinaryNot<>(pToFlip);
+    return FormulaInterner.intern(BinaryNot.class, () -> new BinaryNot<>(pToFlip), pToFlip);
   }
 
 }
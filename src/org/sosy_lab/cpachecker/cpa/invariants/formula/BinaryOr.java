@@ -48,7 +48,8 @@ final class BinaryOr<ConstantType> extends AbstractBinaryFormula<ConstantType>
    * given operands.
    */
   static <ConstantType> BinaryOr<ConstantType> of(NumeralFormula<ConstantType> pOperand1, NumeralFormula<ConstantType> pOperand2) {
-    return new BinaryOr<>(pOperand1, pOperand2);
+    return FormulaInterner.intern(
+        BinaryOr.class, () -> new BinaryOr<>(pOperand1, pOperand2), pOperand1, pOperand2);
   }
 
 }
@@ -43,7 +43,8 @@ final class BinaryXor<ConstantType> extends AbstractBinaryFormula<ConstantType>
    * over the given operands.
    */
   static <ConstantType> BinaryXor<ConstantType> of(NumeralFormula<ConstantType> pOperand1, NumeralFormula<ConstantType> pOperand2) {
-    return new BinaryXor<>(pOperand1, pOperand2);
+    return FormulaInterner.intern(
+        BinaryXor.class, () -> new BinaryXor<>(pOperand1, pOperand2), pOperand1, pOperand2);
   }
 
 }
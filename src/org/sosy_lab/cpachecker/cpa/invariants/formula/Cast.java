@@ -59,7 +59,8 @@ class Cast<ConstantType> extends AbstractFormula<ConstantType> {
 
   public static <ConstantType> Cast<ConstantType> of(
       TypeInfo pTypeInfo, NumeralFormula<ConstantType> pCasted) {
-    return new Cast<>(pTypeInfo, pCasted);
+    return FormulaInterner.intern(
+        Cast.class, () -> new Cast<>(pTypeInfo, pCasted), pTypeInfo, pCasted);
   }
 
 }
@@ -93,7 +93,8 @@ public class Constant<T> extends AbstractFormula<T> implements NumeralFormula<T>
    * @return a invariants formula representing a constant with the given value.
    */
   static <T> Constant<T> of(TypeInfo pInfo, T pValue) {
-    return new Constant<>(pInfo, pValue);
+    return FormulaInterner.intern(
+        Constant.class, () -> new Constant<>(pInfo, pValue), pInfo, pValue);
   }
 
   /**
@@ -104,7 +105,7 @@ public class Constant<T> extends AbstractFormula<T> implements NumeralFormula<T>
    * @return a invariants formula representing a constant with the given value.
    */
   static <T extends Typed> Constant<T> of(T pValue) {
-    return new Constant<>(pValue.getTypeInfo(), pValue);
+    return of(pValue.getTypeInfo(), pValue);
   }
 
 }
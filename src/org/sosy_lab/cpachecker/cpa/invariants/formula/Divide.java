@@ -68,7 +68,8 @@ final class Divide<ConstantType> extends AbstractBinaryFormula<ConstantType>
    * numerator formula by the given denominator formula.
    */
   static <ConstantType> Divide<ConstantType> of(NumeralFormula<ConstantType> pNumerator, NumeralFormula<ConstantType> pDenominator) {
-    return new Divide<>(pNumerator, pDenominator);
+    return FormulaInterner.intern(
+        Divide.class, () -> new Divide<>(pNumerator, pDenominator), pNumerator, pDenominator);
   }
 
 }
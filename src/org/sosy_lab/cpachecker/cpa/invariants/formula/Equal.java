@@ -96,7 +96,8 @@ public class Equal<ConstantType> implements BooleanFormula<ConstantType> {
    * operands.
    */
   static <ConstantType> Equal<ConstantType> of(NumeralFormula<ConstantType> pOperand1, NumeralFormula<ConstantType> pOperand2) {
-    return new Equal<>(pOperand1, pOperand2);
+    return FormulaInterner.intern(
+        Equal.class, () -> new Equal<>(pOperand1, pOperand2), pOperand1, pOperand2);
   }
 
 }
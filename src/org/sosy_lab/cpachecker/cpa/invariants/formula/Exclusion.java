@@ -55,7 +55,7 @@ public class Exclusion<ConstantType> extends AbstractFormula<ConstantType> imple
   }
 
   public static <ConstantType> NumeralFormula<ConstantType> of(NumeralFormula<ConstantType> pToExclude) {
-    return new Exclusion<>(pToExclude);
+    return FormulaInterner.intern(Exclusion.class, () -> new Exclusion<>(pToExclude), pToExclude);
   }
 
 }
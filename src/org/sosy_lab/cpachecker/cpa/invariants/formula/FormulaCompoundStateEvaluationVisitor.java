@@ -8,12 +8,21 @@
 
 package org.sosy_lab.cpachecker.cpa.invariants.formula;
 
+import com.google.common.base.Equivalence;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.cpa.invariants.CompoundBitVectorIntervalManagerFactory;
 import org.sosy_lab.cpachecker.cpa.invariants.CompoundInterval;
 import org.sosy_lab.cpachecker.cpa.invariants.CompoundIntervalManager;
 import org.sosy_lab.cpachecker.cpa.invariants.CompoundIntervalManagerFactory;
+import org.sosy_lab.cpachecker.cpa.invariants.NonRecursiveEnvironment;
+import org.sosy_lab.cpachecker.cpa.invariants.OverflowEventHandler;
 import org.sosy_lab.cpachecker.cpa.invariants.TypeInfo;
 import org.sosy_lab.cpachecker.cpa.invariants.Typed;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
@@ -27,10 +36,39 @@ import org.sosy_lab.cpachecker.util.states.MemoryLocation;
  */
 public class FormulaCompoundStateEvaluationVisitor implements FormulaEvaluationVisitor<CompoundInterval> {
 
+  private static final int EVALUATION_CACHE_SIZE = 10000;
+
+  /**
+   * Evaluation results of formulae in environments, keyed by the identity of the (interned)
+   * formula, the identity of the (immutable) environment, the manager factory and whether overflow
+   * events are handled. The result does not depend on anything else, so the cache is shared by all
+   * visitors, most of which are short-lived.
+   */
+  private static final Cache<List<Object>, EvaluationResult> EVALUATION_CACHE =
+      CacheBuilder.newBuilder().maximumSize(EVALUATION_CACHE_SIZE).build();
+
+  private static final class EvaluationResult {
+
+    private final @Nullable Object value;
+
+    /** Whether a signed overflow was signalled during the evaluation. */
+    private final boolean overflow;
+
+    private EvaluationResult(@Nullable Object pValue, boolean pOverflow) {
+      value = pValue;
+      overflow = pOverflow;
+    }
+  }
+
   private final CompoundIntervalManagerFactory compoundIntervalManagerFactory;
 
   private final boolean withOverflowEventHandlers;
 
+  private final OverflowEventHandler overflowEventHandler = this::handleOverflow;
+
+  /** The number of signed overflows signalled by this visitor so far. */
+  private int overflows = 0;
+
   public FormulaCompoundStateEvaluationVisitor(CompoundIntervalManagerFactory pCompoundIntervalManagerFactory) {
     this(pCompoundIntervalManagerFactory, true);
   }
@@ -43,38 +81,94 @@ public class FormulaCompoundStateEvaluationVisitor implements FormulaEvaluationV
   private CompoundIntervalManager getCompoundIntervalManager(TypeInfo pTypeInfo) {
     if (compoundIntervalManagerFactory instanceof CompoundBitVectorIntervalManagerFactory) {
       CompoundBitVectorIntervalManagerFactory compoundBitVectorIntervalManagerFactory = (CompoundBitVectorIntervalManagerFactory) compoundIntervalManagerFactory;
-      return compoundBitVectorIntervalManagerFactory.createCompoundIntervalManager(pTypeInfo, withOverflowEventHandlers);
+      return compoundBitVectorIntervalManagerFactory.createCompoundIntervalManager(
+          pTypeInfo, withOverflowEventHandlers ? overflowEventHandler : OverflowEventHandler.EMPTY);
     }
     return compoundIntervalManagerFactory.createCompoundIntervalManager(pTypeInfo);
   }
 
+  private void handleOverflow() {
+    overflows++;
+    ((CompoundBitVectorIntervalManagerFactory) compoundIntervalManagerFactory).signalOverflow();
+  }
+
+  private CompoundInterval evaluate(
+      NumeralFormula<CompoundInterval> pFormula,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    if (pFormula instanceof Constant) {
+      return ((Constant<CompoundInterval>) pFormula).getValue();
+    }
+    return evaluate(pFormula, pEnvironment, () -> pFormula.accept(this, pEnvironment));
+  }
+
+  private BooleanConstant<CompoundInterval> evaluate(
+      BooleanFormula<CompoundInterval> pFormula,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
+    if (pFormula instanceof BooleanConstant) {
+      return (BooleanConstant<CompoundInterval>) pFormula;
+    }
+    return evaluate(pFormula, pEnvironment, () -> pFormula.accept(this, pEnvironment));
+  }
+
+  /**
+   * Evaluates a formula with memoization. Results are only cached for environments of type {@link
+   * NonRecursiveEnvironment}, because they are immutable. Signed overflows that occurred while
+   * computing a cached result are signalled again whenever the cached result is used.
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T evaluate(
+      Object pFormula,
+      Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment,
+      Supplier<T> pEvaluation) {
+    if (!(pEnvironment instanceof NonRecursiveEnvironment)) {
+      return pEvaluation.get();
+    }
+    List<Object> key =
+        ImmutableList.of(
+            Equivalence.identity().wrap(pFormula),
+            Equivalence.identity().wrap(pEnvironment),
+            compoundIntervalManagerFactory,
+            withOverflowEventHandlers);
+    EvaluationResult cached = EVALUATION_CACHE.getIfPresent(key);
+    if (cached != null) {
+      if (cached.overflow) {
+        handleOverflow();
+      }
+      return (T) cached.value;
+    }
+    int overflowsBefore = overflows;
+    T result = pEvaluation.get();
+    EVALUATION_CACHE.put(key, new EvaluationResult(result, overflows != overflowsBefore));
+    return result;
+  }
+
   private CompoundIntervalManager getCompoundIntervalManager(Typed pTyped) {
     return getCompoundIntervalManager(pTyped.getTypeInfo());
   }
 
   @Override
   public CompoundInterval visit(Add<CompoundInterval> pAdd, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    return getCompoundIntervalManager(pAdd).add(pAdd.getSummand1().accept(this, pEnvironment), pAdd.getSummand2().accept(this, pEnvironment));
+    return getCompoundIntervalManager(pAdd).add(evaluate(pAdd.getSummand1(), pEnvironment), evaluate(pAdd.getSummand2(), pEnvironment));
   }
 
   @Override
   public CompoundInterval visit(BinaryAnd<CompoundInterval> pAnd, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    return getCompoundIntervalManager(pAnd).binaryAnd(pAnd.getOperand1().accept(this, pEnvironment), pAnd.getOperand2().accept(this, pEnvironment));
+    return getCompoundIntervalManager(pAnd).binaryAnd(evaluate(pAnd.getOperand1(), pEnvironment), evaluate(pAnd.getOperand2(), pEnvironment));
   }
 
   @Override
   public CompoundInterval visit(BinaryNot<CompoundInterval> pNot, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    return getCompoundIntervalManager(pNot).binaryNot(pNot.getFlipped().accept(this, pEnvironment));
+    return getCompoundIntervalManager(pNot).binaryNot(evaluate(pNot.getFlipped(), pEnvironment));
   }
 
   @Override
   public CompoundInterval visit(BinaryOr<CompoundInterval> pOr, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    return getCompoundIntervalManager(pOr).binaryOr(pOr.getOperand1().accept(this, pEnvironment), pOr.getOperand2().accept(this, pEnvironment));
+    return getCompoundIntervalManager(pOr).binaryOr(evaluate(pOr.getOperand1(), pEnvironment), evaluate(pOr.getOperand2(), pEnvironment));
   }
 
   @Override
   public CompoundInterval visit(BinaryXor<CompoundInterval> pXor, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    return getCompoundIntervalManager(pXor).binaryXor(pXor.getOperand1().accept(this, pEnvironment), pXor.getOperand2().accept(this, pEnvironment));
+    return getCompoundIntervalManager(pXor).binaryXor(evaluate(pXor.getOperand1(), pEnvironment), evaluate(pXor.getOperand2(), pEnvironment));
   }
 
   @Override
@@ -84,13 +178,13 @@ public class FormulaCompoundStateEvaluationVisitor implements FormulaEvaluationV
 
   @Override
   public CompoundInterval visit(Divide<CompoundInterval> pDivide, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    return getCompoundIntervalManager(pDivide).divide(pDivide.getNumerator().accept(this, pEnvironment), pDivide.getDenominator().accept(this, pEnvironment));
+    return getCompoundIntervalManager(pDivide).divide(evaluate(pDivide.getNumerator(), pEnvironment), evaluate(pDivide.getDenominator(), pEnvironment));
   }
 
   @Override
   public BooleanConstant<CompoundInterval> visit(Equal<CompoundInterval> pEqual, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    CompoundInterval operand1 = pEqual.getOperand1().accept(this, pEnvironment);
-    CompoundInterval operand2 = pEqual.getOperand2().accept(this, pEnvironment);
+    CompoundInterval operand1 = evaluate(pEqual.getOperand1(), pEnvironment);
+    CompoundInterval operand2 = evaluate(pEqual.getOperand2(), pEnvironment);
 
     CompoundInterval result = getCompoundIntervalManager(pEqual.getOperand1()).logicalEquals(operand1, operand2);
     if (result.isDefinitelyTrue()) {
@@ -147,7 +241,7 @@ public class FormulaCompoundStateEvaluationVisitor implements FormulaEvaluationV
   @Override
   public CompoundInterval visit(Exclusion<CompoundInterval> pExclusion,
       Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    CompoundInterval excluded = pExclusion.getExcluded().accept(this, pEnvironment);
+    CompoundInterval excluded = evaluate(pExclusion.getExcluded(), pEnvironment);
     if (excluded.isSingleton()) {
       return excluded.invert();
     }
@@ -157,8 +251,8 @@ public class FormulaCompoundStateEvaluationVisitor implements FormulaEvaluationV
   @Override
   public BooleanConstant<CompoundInterval> visit(LessThan<CompoundInterval> pLessThan, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
     CompoundInterval value = getCompoundIntervalManager(pLessThan.getOperand1()).lessThan(
-        pLessThan.getOperand1().accept(this, pEnvironment),
-        pLessThan.getOperand2().accept(this, pEnvironment));
+        evaluate(pLessThan.getOperand1(), pEnvironment),
+        evaluate(pLessThan.getOperand2(), pEnvironment));
     if (value.isDefinitelyTrue()) {
       return BooleanConstant.getTrue();
     }
@@ -170,8 +264,8 @@ public class FormulaCompoundStateEvaluationVisitor implements FormulaEvaluationV
 
   @Override
   public BooleanConstant<CompoundInterval> visit(LogicalAnd<CompoundInterval> pAnd, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    BooleanConstant<CompoundInterval> leftEval = pAnd.getOperand1().accept(this, pEnvironment);
-    BooleanConstant<CompoundInterval> rightEval = pAnd.getOperand2().accept(this, pEnvironment);
+    BooleanConstant<CompoundInterval> leftEval = evaluate(pAnd.getOperand1(), pEnvironment);
+    BooleanConstant<CompoundInterval> rightEval = evaluate(pAnd.getOperand2(), pEnvironment);
     // If one operand is false, return it
     if (leftEval != null && !leftEval.getValue()) {
       return leftEval;
@@ -189,7 +283,7 @@ public class FormulaCompoundStateEvaluationVisitor implements FormulaEvaluationV
 
   @Override
   public BooleanConstant<CompoundInterval> visit(LogicalNot<CompoundInterval> pNot, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    BooleanConstant<CompoundInterval> operandEval = pNot.getNegated().accept(this, pEnvironment);
+    BooleanConstant<CompoundInterval> operandEval = evaluate(pNot.getNegated(), pEnvironment);
     if (operandEval == null) {
       return operandEval;
     }
@@ -198,27 +292,27 @@ public class FormulaCompoundStateEvaluationVisitor implements FormulaEvaluationV
 
   @Override
   public CompoundInterval visit(Modulo<CompoundInterval> pModulo, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    return getCompoundIntervalManager(pModulo).modulo(pModulo.getNumerator().accept(this, pEnvironment), pModulo.getDenominator().accept(this, pEnvironment));
+    return getCompoundIntervalManager(pModulo).modulo(evaluate(pModulo.getNumerator(), pEnvironment), evaluate(pModulo.getDenominator(), pEnvironment));
   }
 
   @Override
   public CompoundInterval visit(Multiply<CompoundInterval> pMultiply, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    return getCompoundIntervalManager(pMultiply).multiply(pMultiply.getFactor1().accept(this, pEnvironment), pMultiply.getFactor2().accept(this, pEnvironment));
+    return getCompoundIntervalManager(pMultiply).multiply(evaluate(pMultiply.getFactor1(), pEnvironment), evaluate(pMultiply.getFactor2(), pEnvironment));
   }
 
   @Override
   public CompoundInterval visit(ShiftLeft<CompoundInterval> pShiftLeft, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    return getCompoundIntervalManager(pShiftLeft).shiftLeft(pShiftLeft.getShifted().accept(this, pEnvironment), pShiftLeft.getShiftDistance().accept(this, pEnvironment));
+    return getCompoundIntervalManager(pShiftLeft).shiftLeft(evaluate(pShiftLeft.getShifted(), pEnvironment), evaluate(pShiftLeft.getShiftDistance(), pEnvironment));
   }
 
   @Override
   public CompoundInterval visit(ShiftRight<CompoundInterval> pShiftRight, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    return getCompoundIntervalManager(pShiftRight).shiftRight(pShiftRight.getShifted().accept(this, pEnvironment), pShiftRight.getShiftDistance().accept(this, pEnvironment));
+    return getCompoundIntervalManager(pShiftRight).shiftRight(evaluate(pShiftRight.getShifted(), pEnvironment), evaluate(pShiftRight.getShiftDistance(), pEnvironment));
   }
 
   @Override
   public CompoundInterval visit(Union<CompoundInterval> pUnion, Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    return getCompoundIntervalManager(pUnion).union(pUnion.getOperand1().accept(this, pEnvironment), pUnion.getOperand2().accept(this, pEnvironment));
+    return getCompoundIntervalManager(pUnion).union(evaluate(pUnion.getOperand1(), pEnvironment), evaluate(pUnion.getOperand2(), pEnvironment));
   }
 
   @Override
@@ -227,7 +321,7 @@ public class FormulaCompoundStateEvaluationVisitor implements FormulaEvaluationV
     if (varState == null) {
       return getCompoundIntervalManager(pVariable).allPossibleValues();
     }
-    return varState.accept(this, pEnvironment);
+    return evaluate(varState, pEnvironment);
   }
 
   @Override
@@ -243,22 +337,22 @@ public class FormulaCompoundStateEvaluationVisitor implements FormulaEvaluationV
   @Override
   public CompoundInterval visit(IfThenElse<CompoundInterval> pIfThenElse,
       Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    BooleanConstant<CompoundInterval> condition = pIfThenElse.getCondition().accept(this, pEnvironment);
+    BooleanConstant<CompoundInterval> condition = evaluate(pIfThenElse.getCondition(), pEnvironment);
     if (BooleanConstant.isTrue(condition)) {
-      return pIfThenElse.getPositiveCase().accept(this, pEnvironment);
+      return evaluate(pIfThenElse.getPositiveCase(), pEnvironment);
     }
     if (BooleanConstant.isFalse(condition)) {
-      return pIfThenElse.getNegativeCase().accept(this, pEnvironment);
+      return evaluate(pIfThenElse.getNegativeCase(), pEnvironment);
     }
     return getCompoundIntervalManager(pIfThenElse).union(
-        pIfThenElse.getPositiveCase().accept(this, pEnvironment),
-        pIfThenElse.getNegativeCase().accept(this, pEnvironment));
+        evaluate(pIfThenElse.getPositiveCase(), pEnvironment),
+        evaluate(pIfThenElse.getNegativeCase(), pEnvironment));
   }
 
   @Override
   public CompoundInterval visit(Cast<CompoundInterval> pCast,
       Map<? extends MemoryLocation, ? extends NumeralFormula<CompoundInterval>> pEnvironment) {
-    CompoundInterval casted = pCast.getCasted().accept(this, pEnvironment);
+    CompoundInterval casted = evaluate(pCast.getCasted(), pEnvironment);
     return getCompoundIntervalManager(pCast).cast(pCast.getTypeInfo(), casted);
   }
 
@@ -0,0 +1,121 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.invariants.formula;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cpa.invariants.BitVectorInfo;
+import org.sosy_lab.cpachecker.cpa.invariants.CompoundBitVectorIntervalManagerFactory;
+import org.sosy_lab.cpachecker.cpa.invariants.CompoundInterval;
+import org.sosy_lab.cpachecker.cpa.invariants.CompoundIntervalManager;
+import org.sosy_lab.cpachecker.cpa.invariants.NonRecursiveEnvironment;
+import org.sosy_lab.cpachecker.cpa.invariants.OverflowEventHandler;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+public class FormulaCompoundStateEvaluationVisitorTest {
+
+  private static final CompoundBitVectorIntervalManagerFactory FACTORY =
+      CompoundBitVectorIntervalManagerFactory.FORBID_SIGNED_WRAP_AROUND;
+
+  private static final BitVectorInfo INT = BitVectorInfo.from(32, true);
+
+  private static final BitVectorInfo LONG = BitVectorInfo.from(64, true);
+
+  private static final MemoryLocation X = MemoryLocation.valueOf("x");
+
+  private static final MemoryLocation Y = MemoryLocation.valueOf("y");
+
+  private final CompoundIntervalManager intManager = FACTORY.createCompoundIntervalManager(INT);
+
+  private int overflows = 0;
+
+  private final OverflowEventHandler countOverflows = () -> overflows++;
+
+  @Before
+  public void setUp() {
+    FACTORY.addOverflowEventHandler(countOverflows);
+  }
+
+  @After
+  public void tearDown() {
+    FACTORY.removeOverflowEventHandler(countOverflows);
+  }
+
+  private Constant<CompoundInterval> constant(long pValue) {
+    return Constant.of(INT, intManager.singleton(pValue));
+  }
+
+  /** Evaluates the formula with a new visitor, like most users of the visitor do. */
+  private static CompoundInterval evaluate(
+      NumeralFormula<CompoundInterval> pFormula,
+      Map<MemoryLocation, NumeralFormula<CompoundInterval>> pEnvironment) {
+    return pFormula.accept(new FormulaCompoundStateEvaluationVisitor(FACTORY), pEnvironment);
+  }
+
+  @Test
+  public void testCachedEvaluationEqualsFreshOne() {
+    Variable<CompoundInterval> x = Variable.of(INT, X);
+    Variable<CompoundInterval> y = Variable.of(INT, Y);
+    // x in {1, 5}, y = x + 3
+    CompoundInterval oneOrFive = intManager.union(intManager.singleton(1), intManager.singleton(5));
+    NonRecursiveEnvironment environment =
+        NonRecursiveEnvironment.of(FACTORY)
+            .putAndCopy(X, Constant.of(INT, oneOrFive))
+            .putAndCopy(Y, Add.of(x, constant(3)));
+    // (y * 2) + (x - 1), cast to long
+    NumeralFormula<CompoundInterval> formula =
+        Cast.of(LONG, Add.of(Multiply.of(y, constant(2)), Add.of(x, constant(-1))));
+
+    // environments that are not a NonRecursiveEnvironment are never cached
+    CompoundInterval fresh = evaluate(formula, new HashMap<>(environment));
+    CompoundInterval first = evaluate(formula, environment);
+    CompoundInterval cached = evaluate(formula, environment);
+
+    assertThat(first).isEqualTo(fresh);
+    assertThat(cached).isEqualTo(fresh);
+    assertThat(fresh.contains(BigInteger.valueOf(8))).isTrue();
+    assertThat(fresh.contains(BigInteger.valueOf(20))).isTrue();
+    assertThat(fresh.contains(BigInteger.valueOf(21))).isFalse();
+  }
+
+  @Test
+  public void testOverflowIsSignalledAgainOnCacheHit() {
+    Variable<CompoundInterval> x = Variable.of(INT, X);
+    NonRecursiveEnvironment environment =
+        NonRecursiveEnvironment.of(FACTORY).putAndCopy(X, constant(Integer.MAX_VALUE));
+    // the sum overflows and is evaluated in the cached subformula
+    NumeralFormula<CompoundInterval> formula = Cast.of(LONG, Add.of(x, constant(1)));
+
+    CompoundInterval fresh = evaluate(formula, new HashMap<>(environment));
+    int freshOverflows = overflows;
+    assertThat(freshOverflows).isGreaterThan(0);
+
+    overflows = 0;
+    CompoundInterval first = evaluate(formula, environment);
+    assertThat(overflows).isEqualTo(freshOverflows);
+
+    overflows = 0;
+    CompoundInterval cached = evaluate(formula, environment);
+    assertThat(overflows).isEqualTo(freshOverflows);
+    assertThat(first).isEqualTo(fresh);
+    assertThat(cached).isEqualTo(fresh);
+
+    // without overflow event handlers, nothing is signalled for the cached result either
+    overflows = 0;
+    formula.accept(new FormulaCompoundStateEvaluationVisitor(FACTORY, false), environment);
+    formula.accept(new FormulaCompoundStateEvaluationVisitor(FACTORY, false), environment);
+    assertThat(overflows).isEqualTo(0);
+  }
+}
@@ -0,0 +1,60 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.invariants.formula;
+
+import com.google.common.base.Equivalence;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Hash-consing for invariants formulae: all formulae are created by the factory methods of the
+ * formula classes, which use this class to return the same instance for structurally identical
+ * formulae. This saves memory and allows to use the identity of a formula as cache key (c.f. {@link
+ * FormulaCompoundStateEvaluationVisitor}).
+ *
+ * <p>Because the operands of a formula are interned before the formula itself, operands are
+ * compared by identity. In contrast to {@link Object#equals(Object)} of the formulae, this
+ * distinguishes the order of the operands of commutative operators, so interning never changes
+ * the structure of a formula. Instances are only referenced weakly.
+ */
+final class FormulaInterner {
+
+  private static final ConcurrentMap<List<Object>, Object> FORMULAE =
+      CacheBuilder.newBuilder().weakValues().<List<Object>, Object>build().asMap();
+
+  private FormulaInterner() {}
+
+  /**
+   * Gets the unique instance of the formula of the given type with the given components, and
+   * creates it if no such formula exists.
+   *
+   * @param pType the class of the formula.
+   * @param pConstructor creates the formula if it does not exist yet.
+   * @param pComponents the components of the formula. Components that are formulae are compared
+   *     by identity, all other components by equality.
+   * @return the unique instance of the formula.
+   */
+  @SuppressWarnings("unchecked")
+  static <F> F intern(Class<?> pType, Supplier<F> pConstructor, Object... pComponents) {
+    ImmutableList.Builder<Object> key =
+        ImmutableList.builderWithExpectedSize(pComponents.length + 1);
+    key.add(pType);
+    for (Object component : pComponents) {
+      if (component instanceof NumeralFormula || component instanceof BooleanFormula) {
+        key.add(Equivalence.identity().wrap(component));
+      } else {
+        key.add(component);
+      }
+    }
+    return (F) FORMULAE.computeIfAbsent(key.build(), k -> pConstructor.get());
+  }
+}
@@ -0,0 +1,80 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.invariants.formula;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cpa.invariants.BitVectorInfo;
+import org.sosy_lab.cpachecker.cpa.invariants.CompoundBitVectorIntervalManagerFactory;
+import org.sosy_lab.cpachecker.cpa.invariants.CompoundInterval;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+public class FormulaInternerTest {
+
+  private static final BitVectorInfo INT = BitVectorInfo.from(32, true);
+
+  private static final BitVectorInfo LONG = BitVectorInfo.from(64, true);
+
+  private static final MemoryLocation X = MemoryLocation.valueOf("x");
+
+  private static final MemoryLocation Y = MemoryLocation.valueOf("y");
+
+  private static Constant<CompoundInterval> one(BitVectorInfo pInfo) {
+    return Constant.of(
+        pInfo,
+        CompoundBitVectorIntervalManagerFactory.FORBID_SIGNED_WRAP_AROUND
+            .createCompoundIntervalManager(pInfo)
+            .singleton(1));
+  }
+
+  @Test
+  public void testInternedFormulasAreSame() {
+    Variable<CompoundInterval> x = Variable.of(INT, X);
+    assertThat(Variable.<CompoundInterval>of(INT, X)).isSameInstanceAs(x);
+    assertThat(one(INT)).isSameInstanceAs(one(INT));
+
+    Add<CompoundInterval> sum = Add.of(x, one(INT));
+    assertThat(Add.of(Variable.<CompoundInterval>of(INT, X), one(INT))).isSameInstanceAs(sum);
+    assertThat(Cast.of(LONG, Add.of(Variable.<CompoundInterval>of(INT, X), one(INT))))
+        .isSameInstanceAs(Cast.of(LONG, sum));
+    assertThat(LogicalNot.of(Equal.of(sum, x))).isSameInstanceAs(LogicalNot.of(Equal.of(sum, x)));
+  }
+
+  @Test
+  public void testDifferentlyTypedOperandsAreNotMerged() {
+    Variable<CompoundInterval> intX = Variable.of(INT, X);
+    Variable<CompoundInterval> longX = Variable.of(LONG, X);
+    assertThat(longX).isNotSameInstanceAs(intX);
+    assertThat(longX.getTypeInfo()).isEqualTo(LONG);
+
+    assertThat(one(LONG)).isNotSameInstanceAs(one(INT));
+    assertThat(one(LONG).getTypeInfo()).isEqualTo(LONG);
+
+    Add<CompoundInterval> intSum = Add.of(intX, one(INT));
+    Add<CompoundInterval> longSum = Add.of(longX, one(LONG));
+    assertThat(longSum).isNotSameInstanceAs(intSum);
+    assertThat(longSum.getTypeInfo()).isEqualTo(LONG);
+    assertThat(Cast.of(LONG, intX)).isNotSameInstanceAs(Cast.of(INT, intX));
+  }
+
+  @Test
+  public void testOperandOrderIsKept() {
+    Variable<CompoundInterval> x = Variable.of(INT, X);
+    Variable<CompoundInterval> y = Variable.of(INT, Y);
+
+    // the sums are equal, but interning must not swap the operands
+    Add<CompoundInterval> xPlusY = Add.of(x, y);
+    Add<CompoundInterval> yPlusX = Add.of(y, x);
+    assertThat(yPlusX).isEqualTo(xPlusY);
+    assertThat(yPlusX).isNotSameInstanceAs(xPlusY);
+    assertThat(yPlusX.getSummand1()).isSameInstanceAs(y);
+    assertThat(xPlusY.getSummand1()).isSameInstanceAs(x);
+  }
+}
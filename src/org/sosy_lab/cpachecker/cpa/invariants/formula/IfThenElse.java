@@ -83,7 +83,10 @@ class IfThenElse<ConstantType> extends AbstractFormula<ConstantType> {
       BooleanFormula<ConstantType> pCondition,
       NumeralFormula<ConstantType> pPositiveCase,
       NumeralFormula<ConstantType> pNegativeCase) {
-    return new IfThenElse<>(pCondition, pPositiveCase, pNegativeCase);
+    return FormulaInterner.intern(
+        IfThenElse.class,
+        () -> new IfThenElse<>(pCondition, pPositiveCase, pNegativeCase),
+        pCondition, pPositiveCase, pNegativeCase);
   }
 
 }
@@ -93,7 +93,8 @@ public class LessThan<ConstantType> implements BooleanFormula<ConstantType> {
    * given operands.
    */
   static <ConstantType> LessThan<ConstantType> of(NumeralFormula<ConstantType> pOperand1, NumeralFormula<ConstantType> pOperand2) {
-    return new LessThan<>(pOperand1, pOperand2);
+    return FormulaInterner.intern(
+        LessThan.class, () -> new LessThan<>(pOperand1, pOperand2), pOperand1, pOperand2);
   }
 
 }
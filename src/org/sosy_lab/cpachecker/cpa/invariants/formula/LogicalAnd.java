@@ -93,7 +93,8 @@ public class LogicalAnd<ConstantType> implements BooleanFormula<ConstantType> {
    * given operands.
    */
   static <ConstantType> LogicalAnd<ConstantType> of(BooleanFormula<ConstantType> pOperand1, BooleanFormula<ConstantType> pOperand2) {
-    return new LogicalAnd<>(pOperand1, pOperand2);
+    return FormulaInterner.intern(
+        LogicalAnd.class, () -> new LogicalAnd<>(pOperand1, pOperand2), pOperand1, pOperand2);
   }
 
 }
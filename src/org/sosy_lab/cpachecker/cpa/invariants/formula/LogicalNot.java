@@ -109,7 +109,7 @@ public class LogicalNot<ConstantType> implements BooleanFormula<ConstantType> {
    * operand.
    */
   static <ConstantType> LogicalNot<ConstantType> of(BooleanFormula<ConstantType> pToNegate) {
-    return new LogicalNot<>(pToNegate);
+    return FormulaInterner.intern(LogicalNot.class, () -> new LogicalNot<>(pToNegate), pToNegate);
   }
 
 }
@@ -67,7 +67,8 @@ final class Modulo<ConstantType> extends AbstractBinaryFormula<ConstantType>
    * given operands.
    */
   static <ConstantType> Modulo<ConstantType> of(NumeralFormula<ConstantType> pNumerator, NumeralFormula<ConstantType> pDenominator) {
-    return new Modulo<>(pNumerator, pDenominator);
+    return FormulaInterner.intern(
+        Modulo.class, () -> new Modulo<>(pNumerator, pDenominator), pNumerator, pDenominator);
   }
 
 }
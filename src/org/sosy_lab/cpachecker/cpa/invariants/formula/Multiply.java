@@ -67,7 +67,8 @@ public final class Multiply<ConstantType> extends AbstractBinaryFormula<Constant
    * factors.
    */
   static <ConstantType> Multiply<ConstantType> of(NumeralFormula<ConstantType> pFactor1, NumeralFormula<ConstantType> pFactor2) {
-    return new Multiply<>(pFactor1, pFactor2);
+    return FormulaInterner.intern(
+        Multiply.class, () -> new Multiply<>(pFactor1, pFactor2), pFactor1, pFactor2);
   }
 
 }
@@ -70,7 +70,8 @@ final class ShiftLeft<ConstantType> extends AbstractBinaryFormula<ConstantType>
    */
   static <ConstantType> ShiftLeft<ConstantType> of(NumeralFormula<ConstantType> pToShift,
       NumeralFormula<ConstantType> pShiftDistance) {
-    return new ShiftLeft<>(pToShift, pShiftDistance);
+    return FormulaInterner.intern(
+        ShiftLeft.class, () -> new ShiftLeft<>(pToShift, pShiftDistance), pToShift, pShiftDistance);
   }
 
 }
@@ -69,7 +69,10 @@ final class ShiftRight<ConstantType> extends AbstractBinaryFormula<ConstantType>
    * given operand by the second given operand.
    */
   static <ConstantType> ShiftRight<ConstantType> of(NumeralFormula<ConstantType> pToShift, NumeralFormula<ConstantType> pShiftDistance) {
-    return new ShiftRight<>(pToShift, pShiftDistance);
+    return FormulaInterner.intern(
+        ShiftRight.class,
+        () -> new ShiftRight<>(pToShift, pShiftDistance),
+        pToShift, pShiftDistance);
   }
 
 }
@@ -50,7 +50,8 @@ public final class Union<ConstantType> extends AbstractBinaryFormula<ConstantTyp
    */
   public static <ConstantType> Union<ConstantType> of(NumeralFormula<ConstantType> pOperand1,
       NumeralFormula<ConstantType> pOperand2) {
-    return new Union<>(pOperand1, pOperand2);
+    return FormulaInterner.intern(
+        Union.class, () -> new Union<>(pOperand1, pOperand2), pOperand1, pOperand2);
   }
 
 }
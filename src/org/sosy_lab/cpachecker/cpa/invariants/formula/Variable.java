@@ -69,6 +69,7 @@ public class Variable<ConstantType> extends AbstractFormula<ConstantType> implem
    * @return an invariants formula representing the variable with the given memory location.
    */
   static <ConstantType> Variable<ConstantType> of(TypeInfo pInfo, MemoryLocation pMemoryLocation) {
-    return new Variable<>(pInfo, pMemoryLocation);
+    return FormulaInterner.intern(
+        Variable.class, () -> new Variable<>(pInfo, pMemoryLocation), pInfo, pMemoryLocation);
   }
 }
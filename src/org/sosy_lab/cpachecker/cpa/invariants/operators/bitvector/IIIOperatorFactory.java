@@ -63,6 +63,19 @@ enum IIIOperatorFactory {
          * bounds for the new upper bound. If any of the summands is not
          * finite, the resulting bound isn't finite either.
          */
+        BitVectorInfo info = pOperand1.getTypeInfo();
+        if (info.fitsInLong()) {
+          try {
+            return BitVectorInterval.cast(
+                info,
+                Math.addExact(pOperand1.getLowerBoundAsLong(), pOperand2.getLowerBoundAsLong()),
+                Math.addExact(pOperand1.getUpperBoundAsLong(), pOperand2.getUpperBoundAsLong()),
+                pAllowSignedWrapAround,
+                pOverflowEventHandler);
+          } catch (ArithmeticException e) {
+            // the exact result does not fit into a long, fall back to big integers
+          }
+        }
         BigInteger lowerBound = pOperand1.getLowerBound();
         BigInteger upperBound = pOperand1.getUpperBound();
         BigInteger pLowerBound = pOperand2.getLowerBound();
@@ -321,6 +334,27 @@ enum IIIOperatorFactory {
          * At most one bound of each interval can be infinite and neither
          * of the intervals is a singleton at this point.
          */
+        BitVectorInfo info = pFirstOperand.getTypeInfo();
+        if (info.fitsInLong()) {
+          long lb1 = pFirstOperand.getLowerBoundAsLong();
+          long ub1 = pFirstOperand.getUpperBoundAsLong();
+          long lb2 = pSecondOperand.getLowerBoundAsLong();
+          long ub2 = pSecondOperand.getUpperBoundAsLong();
+          try {
+            long lbLb = Math.multiplyExact(lb1, lb2);
+            long lbUb = Math.multiplyExact(lb1, ub2);
+            long ubLb = Math.multiplyExact(ub1, lb2);
+            long ubUb = Math.multiplyExact(ub1, ub2);
+            return BitVectorInterval.cast(
+                info,
+                Math.min(Math.min(lbLb, lbUb), Math.min(ubLb, ubUb)),
+                Math.max(Math.max(lbLb, lbUb), Math.max(ubLb, ubUb)),
+                pAllowSignedWrapAround,
+                pOverflowEventHandler);
+          } catch (ArithmeticException e) {
+            // the exact result does not fit into a long, fall back to big integers
+          }
+        }
         BigInteger pLowerBound = pSecondOperand.getLowerBound();
         BigInteger pUpperBound = pSecondOperand.getUpperBound();
 
@@ -25,6 +25,10 @@ public class IIIOperatorTest {
 
   private static final BitVectorInfo INT = BitVectorInfo.from(32, true);
 
+  private static final BitVectorInfo LONG = BitVectorInfo.from(64, true);
+
+  private static final BitVectorInfo ULONG = BitVectorInfo.from(64, false);
+
   private static final Operator<BitVectorInterval, BitVectorInterval, BitVectorInterval> ADD
     = IIIOperatorFactory.INSTANCE.getAdd(true, OverflowEventHandler.EMPTY);
 
@@ -44,6 +48,43 @@ public class IIIOperatorTest {
     assertThat(ADD.apply(zero, one)).isEqualTo(one);
   }
 
+  @Test
+  public void testAddLongBounds() {
+    long max = Long.MAX_VALUE;
+    BitVectorInterval oneToTwo = BitVectorInterval.of(LONG, 1, 2);
+    assertThat(ADD.apply(BitVectorInterval.of(LONG, max - 3, max - 2), oneToTwo))
+        .isEqualTo(BitVectorInterval.of(LONG, max - 2, max));
+    // the upper bound overflows a long, so the result is computed on big integers
+    assertThat(ADD.apply(BitVectorInterval.of(LONG, max - 1, max), oneToTwo))
+        .isEqualTo(LONG.getRange());
+    assertThat(
+            ADD.apply(
+                BitVectorInterval.of(ULONG, BigInteger.ONE, BigInteger.valueOf(max)),
+                BitVectorInterval.of(ULONG, BigInteger.ONE, BigInteger.valueOf(max))))
+        .isEqualTo(
+            BitVectorInterval.of(
+                ULONG, BigInteger.TWO, BigInteger.valueOf(max).multiply(BigInteger.TWO)));
+  }
+
+  @Test
+  public void testMultiplyLongBounds() {
+    BitVectorInterval negThreeToTwo = BitVectorInterval.of(INT, -3, 2);
+    BitVectorInterval fourToFive = BitVectorInterval.of(INT, 4, 5);
+    assertThat(MULTIPLY.apply(negThreeToTwo, fourToFive))
+        .isEqualTo(BitVectorInterval.of(INT, -15, 10));
+    BitVectorInterval large = BitVectorInterval.of(LONG, 1L << 40, 1L << 41);
+    assertThat(MULTIPLY.apply(large, large)).isEqualTo(LONG.getRange());
+  }
+
+  @Test
+  public void testLongAndBigIntegerBoundsAreEqual() {
+    BitVectorInterval primitive = BitVectorInterval.of(INT, 1, 2);
+    BitVectorInterval big = BitVectorInterval.of(INT, BigInteger.ONE, BigInteger.TWO);
+    assertThat(primitive).isEqualTo(big);
+    assertThat(primitive.hashCode()).isEqualTo(big.hashCode());
+    assertThat(BitVectorInterval.of(ULONG, BigInteger.ONE, BigInteger.TWO)).isEqualTo(primitive);
+  }
+
   @Test
   public void testModulo() {
     BigInteger scalarFour = BigInteger.valueOf(4);
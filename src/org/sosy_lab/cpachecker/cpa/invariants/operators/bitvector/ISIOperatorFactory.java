@@ -43,6 +43,20 @@ enum ISIOperatorFactory {
         if (pFirstOperand.isTop() || pSecondOperand.equals(BigInteger.ZERO)) {
           return pFirstOperand;
         }
+        BitVectorInfo info = pFirstOperand.getTypeInfo();
+        if (info.fitsInLong() && pSecondOperand.bitLength() < Long.SIZE) {
+          long value = pSecondOperand.longValue();
+          try {
+            return BitVectorInterval.cast(
+                info,
+                Math.addExact(pFirstOperand.getLowerBoundAsLong(), value),
+                Math.addExact(pFirstOperand.getUpperBoundAsLong(), value),
+                pAllowSignedWrapAround,
+                pOverflowEventHandler);
+          } catch (ArithmeticException e) {
+            // the exact result does not fit into a long, fall back to big integers
+          }
+        }
         BigInteger lowerBound = pFirstOperand.getLowerBound().add(pSecondOperand);
         BigInteger upperBound = pFirstOperand.getUpperBound().add(pSecondOperand);
         return BitVectorInterval.cast(
@@ -112,6 +126,20 @@ enum ISIOperatorFactory {
          * Infinite bounds stay infinite, finite bounds are multiplied with
          * the factor.
          */
+        BitVectorInfo info = pFirstOperand.getTypeInfo();
+        if (info.fitsInLong() && pSecondOperand.bitLength() < Long.SIZE) {
+          long factor = pSecondOperand.longValue();
+          try {
+            return BitVectorInterval.cast(
+                info,
+                Math.multiplyExact(pFirstOperand.getLowerBoundAsLong(), factor),
+                Math.multiplyExact(pFirstOperand.getUpperBoundAsLong(), factor),
+                pAllowSignedWrapAround,
+                pOverflowEventHandler);
+          } catch (ArithmeticException e) {
+            // the exact result does not fit into a long, fall back to big integers
+          }
+        }
         BigInteger lowerBound = pFirstOperand.getLowerBound().multiply(pSecondOperand);
         BigInteger upperBound = pFirstOperand.getUpperBound().multiply(pSecondOperand);
         return BitVectorInterval.cast(
@@ -445,6 +473,18 @@ enum ISIOperatorFactory {
          */
         if (pSecondOperand.compareTo(BigInteger.valueOf(pFirstOperand.getTypeInfo().getSize()))
             <= 0) {
+          BitVectorInfo info = pFirstOperand.getTypeInfo();
+          int distance = pSecondOperand.intValue();
+          if (info.fitsInLong() && distance < Long.SIZE - 1) {
+            long lowerBound = pFirstOperand.getLowerBoundAsLong() << distance;
+            long upperBound = pFirstOperand.getUpperBoundAsLong() << distance;
+            // the shift is exact if shifting back yields the original bounds
+            if (lowerBound >> distance == pFirstOperand.getLowerBoundAsLong()
+                && upperBound >> distance == pFirstOperand.getUpperBoundAsLong()) {
+              return BitVectorInterval.cast(
+                  info, lowerBound, upperBound, pAllowSignedWrapAround, pOverflowEventHandler);
+            }
+          }
           BigInteger lowerBound =
               pFirstOperand.getLowerBound().shiftLeft(pSecondOperand.intValue());
           BigInteger upperBound =
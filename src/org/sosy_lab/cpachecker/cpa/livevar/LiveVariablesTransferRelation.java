@@ -74,6 +74,7 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
 import org.sosy_lab.cpachecker.cfa.model.FunctionReturnEdge;
 import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
 import org.sosy_lab.cpachecker.core.defaults.ForwardingTransferRelation;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.CFAUtils;
@@ -104,14 +105,32 @@ public class LiveVariablesTransferRelation extends ForwardingTransferRelation<Li
   private final LogManager logger;
   private final CFA cfa;
 
+  /**
+   * Whether the live variables of each location are collected while the transfer relation is used
+   * (c.f. {@link #getLiveVariables()}).
+   */
+  private final boolean recordLiveVariables;
+
   public LiveVariablesTransferRelation(
       Optional<VariableClassification> pVarClass,
       Configuration pConfig,
       Language pLang,
       CFA pCFA, LogManager pLogger) throws InvalidConfigurationException {
+    this(pVarClass, pConfig, pLang, pCFA, pLogger, true);
+  }
+
+  private LiveVariablesTransferRelation(
+      Optional<VariableClassification> pVarClass,
+      Configuration pConfig,
+      Language pLang,
+      CFA pCFA,
+      LogManager pLogger,
+      boolean pRecordLiveVariables)
+      throws InvalidConfigurationException {
     pConfig.inject(this);
     logger = pLogger;
     cfa = pCFA;
+    recordLiveVariables = pRecordLiveVariables;
 
     if (!cfa.getVarClassification().isPresent() && cfa.getLanguage() == Language.C) {
       throw new AssertionError(
@@ -158,14 +177,25 @@ public class LiveVariablesTransferRelation extends ForwardingTransferRelation<Li
       }
     }
 
-    for (CFANode node : pCFA.getAllNodes()) {
-      liveVariables.put(node, new BitSet(noVars));
-    }
-
     addressedOrGlobalVars = (BitSet) addressedVars.clone();
     addressedOrGlobalVars.or(globalVars);
   }
 
+  /**
+   * Creates a transfer relation that is used on bit sets directly (c.f. {@link
+   * #getLiveVariablesBefore(CFAEdge, BitSet)}) by a dataflow analysis that keeps track of the live
+   * variables of each location itself, so the transfer relation does not record them.
+   */
+  public static LiveVariablesTransferRelation createForDataflowAnalysis(
+      Optional<VariableClassification> pVarClass,
+      Configuration pConfig,
+      CFA pCFA,
+      LogManager pLogger)
+      throws InvalidConfigurationException {
+    return new LiveVariablesTransferRelation(
+        pVarClass, pConfig, pCFA.getLanguage(), pCFA, pLogger, false);
+  }
+
   public LiveVariablesState getInitialState(CFANode pNode) {
     if (pNode instanceof FunctionExitNode) {
       FunctionExitNode eNode = (FunctionExitNode) pNode;
@@ -183,7 +213,9 @@ public class LiveVariablesTransferRelation extends ForwardingTransferRelation<Li
             LiveVariables.LIVE_DECL_EQUIVALENCE.wrap(returnVarName.get());
 
         int wrappedVarPos = declarationListPos.get(wrappedVar);
-        liveVariables.get(pNode).set(wrappedVarPos);
+        if (recordLiveVariables) {
+          liveVariables.computeIfAbsent(pNode, n -> new BitSet(noVars)).set(wrappedVarPos);
+        }
 
         BitSet out = new BitSet(noVars);
         out.set(wrappedVarPos);
@@ -239,11 +271,37 @@ public class LiveVariablesTransferRelation extends ForwardingTransferRelation<Li
       return ImmutableSet.of();
     }
 
-    // live variables of multiedges were handled separately.
-    liveVariables.get(edge.getPredecessor()).or(successor.getDataCopy());
+    if (recordLiveVariables) {
+      liveVariables
+          .computeIfAbsent(edge.getPredecessor(), n -> new BitSet(noVars))
+          .or(successor.getDataCopy());
+    }
     return Collections.singleton(successor);
   }
 
+  /**
+   * Gets the variables that are live at the given location before any edge is analyzed, i.e., the
+   * return variable at function exits.
+   */
+  public BitSet getInitialLiveVariables(CFANode pNode) {
+    return getInitialState(pNode).getDataCopy();
+  }
+
+  /**
+   * Computes the variables that are live before the given edge from the variables that are live
+   * after it. The given bit set is not modified.
+   */
+  public BitSet getLiveVariablesBefore(CFAEdge pEdge, BitSet pLiveAfter)
+      throws CPATransferException, InterruptedException {
+    BitSet result = new BitSet(noVars);
+    for (LiveVariablesState predecessor :
+        getAbstractSuccessorsForEdge(
+            LiveVariablesState.of(pLiveAfter, this), SingletonPrecision.getInstance(), pEdge)) {
+      result.or(predecessor.getDataCopy());
+    }
+    return result;
+  }
+
 
   @Override
   protected  LiveVariablesState handleAssumption(
@@ -408,12 +466,16 @@ public class LiveVariablesTransferRelation extends ForwardingTransferRelation<Li
     ImmutableListMultimap.Builder<CFANode, Wrapper<ASimpleDeclaration>> builder =
         ImmutableListMultimap.builder();
     for (CFANode node : cfa.getAllNodes()) {
-      builder.putAll(node, dataToVars(liveVariables.get(node)));
+      BitSet live = liveVariables.get(node);
+      if (live != null) {
+        builder.putAll(node, dataToVars(live));
+      }
     }
     return builder.build();
   }
 
-  Collection<Wrapper<ASimpleDeclaration>> dataToVars(BitSet data) {
+  /** Returns the declarations of the variables with the given indices. */
+  public Collection<Wrapper<ASimpleDeclaration>> dataToVars(BitSet data) {
     List<Wrapper<ASimpleDeclaration>> out = new ArrayList<>();
     for (int i = data.nextSetBit(0); i >= 0; i = data.nextSetBit(i + 1)) {
       out.add(allDeclarations.get(i));
@@ -0,0 +1,208 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.policyiteration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.FormulaType;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment.OptStatus;
+import org.sosy_lab.java_smt.api.SolverException;
+
+/**
+ * Maximizes several templates in parallel. The templates are partitioned across a fixed number of
+ * workers, each of which owns a separate solver context and uses a single optimization environment
+ * for all its templates. Formulas are translated into the context of the worker before the worker
+ * is started, because solver contexts must not be accessed concurrently.
+ *
+ * <p>Only the optimal values are computed here. The policy for a template is derived afterwards in
+ * the main solver context (c.f. {@link PolicyIterationManager}), which only requires a single
+ * satisfiability check once the optimal value is known.
+ */
+final class ParallelTemplateOptimizer implements AutoCloseable {
+
+  /** Prefix of the variables for the objectives, suffixed with the index of the objective. */
+  private static final String OBJECTIVE_VAR_PREFIX = "__LPI_OBJECTIVE_";
+
+  /** Result of the maximization of a single objective. */
+  static final class OptimizationResult {
+    private final OptStatus status;
+    private final Optional<Rational> bound;
+
+    private OptimizationResult(OptStatus pStatus, Optional<Rational> pBound) {
+      status = pStatus;
+      bound = pBound;
+    }
+
+    OptStatus getStatus() {
+      return status;
+    }
+
+    /** The optimal value (only for {@link OptStatus#OPT}), empty if unbounded. */
+    Optional<Rational> getBound() {
+      return bound;
+    }
+  }
+
+  private final Configuration config;
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+  private final FormulaManagerView fmgr;
+  private final Rational epsilon;
+  private final ListeningExecutorService executor;
+
+  /** Solvers of the workers, created lazily. */
+  private final List<Solver> workerSolvers = new ArrayList<>();
+
+  private final int numberOfWorkers;
+
+  ParallelTemplateOptimizer(
+      Configuration pConfig,
+      LogManager pLogger,
+      ShutdownNotifier pShutdownNotifier,
+      FormulaManagerView pFmgr,
+      Rational pEpsilon,
+      int pNumberOfWorkers) {
+    checkArgument(pNumberOfWorkers > 1, "parallel optimization needs at least two workers");
+    config = pConfig;
+    logger = pLogger;
+    shutdownNotifier = pShutdownNotifier;
+    fmgr = pFmgr;
+    epsilon = pEpsilon;
+    numberOfWorkers = pNumberOfWorkers;
+    executor =
+        listeningDecorator(
+            Executors.newFixedThreadPool(
+                pNumberOfWorkers,
+                new ThreadFactoryBuilder()
+                    .setDaemon(true)
+                    .setNameFormat("LPI-optimization-thread-%d")
+                    .build()));
+  }
+
+  private Solver getWorkerSolver(int pWorker) throws InvalidConfigurationException {
+    while (workerSolvers.size() <= pWorker) {
+      workerSolvers.add(Solver.create(config, logger, shutdownNotifier));
+    }
+    return workerSolvers.get(pWorker);
+  }
+
+  /**
+   * Maximizes each objective subject to the start constraints and the respective constraint.
+   *
+   * @param pStartConstraints constraints common to all objectives
+   * @param pConstraints the constraint for each objective
+   * @param pObjectives the objectives, in the same order as the constraints
+   * @return the result for each objective, in the same order
+   */
+  List<OptimizationResult> maximize(
+      BooleanFormula pStartConstraints,
+      List<BooleanFormula> pConstraints,
+      List<Formula> pObjectives)
+      throws SolverException, InterruptedException, InvalidConfigurationException {
+    checkArgument(pConstraints.size() == pObjectives.size());
+    final int size = pObjectives.size();
+    final int workers = Math.min(numberOfWorkers, size);
+
+    List<ListenableFuture<List<OptimizationResult>>> futures = new ArrayList<>(workers);
+    for (int w = 0; w < workers; w++) {
+      Solver solver = getWorkerSolver(w);
+      FormulaManagerView workerFmgr = solver.getFormulaManager();
+
+      // translate all formulas for this worker in the current thread
+      BooleanFormula start = workerFmgr.translateFrom(pStartConstraints, fmgr);
+      List<BooleanFormula> constraints = new ArrayList<>();
+      List<Formula> objectives = new ArrayList<>();
+      for (int i = w; i < size; i += workers) {
+        Formula objective = pObjectives.get(i);
+        FormulaType<Formula> type = fmgr.getFormulaType(objective);
+        // objectives of different templates may have different types
+        String objectiveName = OBJECTIVE_VAR_PREFIX + i;
+        BooleanFormula definition =
+            fmgr.makeEqual(fmgr.makeVariable(type, objectiveName), objective);
+        constraints.add(
+            workerFmgr.translateFrom(
+                fmgr.getBooleanFormulaManager().and(pConstraints.get(i), definition), fmgr));
+        objectives.add(workerFmgr.makeVariable(type, objectiveName));
+      }
+
+      futures.add(executor.submit(() -> maximize(solver, start, constraints, objectives)));
+    }
+
+    List<List<OptimizationResult>> partitionResults;
+    try {
+      partitionResults = Futures.allAsList(futures).get();
+    } catch (ExecutionException e) {
+      // the other workers must not run on their contexts anymore when they are re-used
+      Futures.getUnchecked(Futures.successfulAsList(futures));
+      Throwables.propagateIfPossible(
+          e.getCause(), SolverException.class, InterruptedException.class);
+      throw new AssertionError("Unexpected exception during optimization", e.getCause());
+    }
+
+    List<OptimizationResult> results = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      results.add(partitionResults.get(i % workers).get(i / workers));
+    }
+    return results;
+  }
+
+  private List<OptimizationResult> maximize(
+      Solver pSolver,
+      BooleanFormula pStartConstraints,
+      List<BooleanFormula> pConstraints,
+      List<Formula> pObjectives)
+      throws SolverException, InterruptedException {
+    List<OptimizationResult> results = new ArrayList<>(pObjectives.size());
+    try (OptimizationProverEnvironment optEnvironment = pSolver.newOptEnvironment()) {
+      optEnvironment.addConstraint(pStartConstraints);
+      for (int i = 0; i < pObjectives.size(); i++) {
+        shutdownNotifier.shutdownIfNecessary();
+        optEnvironment.push();
+        optEnvironment.addConstraint(pConstraints.get(i));
+        int handle = optEnvironment.maximize(pObjectives.get(i));
+        OptStatus status = optEnvironment.check();
+        Optional<Rational> bound = Optional.empty();
+        if (status == OptStatus.OPT) {
+          bound = optEnvironment.upper(handle, epsilon);
+        }
+        results.add(new OptimizationResult(status, bound));
+        optEnvironment.pop();
+      }
+    }
+    return results;
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+    workerSolvers.forEach(Solver::close);
+    workerSolvers.clear();
+  }
+}
@@ -0,0 +1,200 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.cpa.policyiteration;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSetMultimap;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.cpa.policyiteration.ParallelTemplateOptimizer.OptimizationResult;
+import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.IntegerFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.RationalFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.java_smt.api.NumeralFormula.RationalFormula;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment.OptStatus;
+
+public class ParallelTemplateOptimizerTest {
+
+  private static final Rational EPSILON = Rational.ONE;
+  private static final Rational FIVE_HALVES = Rational.of(BigInteger.valueOf(5), BigInteger.TWO);
+
+  private static final String[] PROGRAM = {
+    "int main() {",
+    "  int i = 0;",
+    "  int j = 0;",
+    "  while (i < 10) {",
+    "    i++;",
+    "    j += 2;",
+    "  }",
+    "  if (j > 20) {",
+    "    ERROR:",
+    "    return 1;",
+    "  }",
+    "  return 0;",
+    "}"
+  };
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Configuration config;
+  private Solver solver;
+  private FormulaManagerView fmgr;
+
+  @Before
+  public void setUp() throws Exception {
+    config = TestDataTools.configurationForTest().setOption("solver.solver", "z3").build();
+    solver =
+        Solver.create(config, LogManager.createTestLogManager(), ShutdownNotifier.createDummy());
+    fmgr = solver.getFormulaManager();
+  }
+
+  @After
+  public void tearDown() {
+    solver.close();
+  }
+
+  /** Maximizes each objective on its own in the main solver context. */
+  private List<Optional<Rational>> maximizeSequentially(
+      BooleanFormula pStartConstraints,
+      List<BooleanFormula> pConstraints,
+      List<Formula> pObjectives)
+      throws Exception {
+    ImmutableList.Builder<Optional<Rational>> bounds = ImmutableList.builder();
+    try (OptimizationProverEnvironment optEnvironment = solver.newOptEnvironment()) {
+      optEnvironment.addConstraint(pStartConstraints);
+      for (int i = 0; i < pObjectives.size(); i++) {
+        optEnvironment.push();
+        optEnvironment.addConstraint(pConstraints.get(i));
+        int handle = optEnvironment.maximize(pObjectives.get(i));
+        assertThat(optEnvironment.check()).isEqualTo(OptStatus.OPT);
+        bounds.add(optEnvironment.upper(handle, EPSILON));
+        optEnvironment.pop();
+      }
+    }
+    return bounds.build();
+  }
+
+  @Test
+  public void testObjectivesOfDifferentTypes() throws Exception {
+    BooleanFormulaManagerView bfmgr = fmgr.getBooleanFormulaManager();
+    IntegerFormulaManagerView imgr = fmgr.getIntegerFormulaManager();
+    RationalFormulaManagerView rmgr = fmgr.getRationalFormulaManager();
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    RationalFormula r = rmgr.makeVariable("r");
+
+    BooleanFormula startConstraints =
+        bfmgr.and(
+            imgr.greaterOrEquals(x, imgr.makeNumber(0)),
+            imgr.lessOrEquals(x, imgr.makeNumber(10)));
+    // with two workers, integer and rational objectives are maximized by the same worker
+    List<Formula> objectives = ImmutableList.of(x, r, imgr.add(x, y), r, imgr.negate(x));
+    List<BooleanFormula> constraints =
+        ImmutableList.of(
+            imgr.lessOrEquals(x, imgr.makeNumber(7)),
+            rmgr.lessOrEquals(r, rmgr.makeNumber(FIVE_HALVES)),
+            imgr.lessOrEquals(y, imgr.subtract(imgr.makeNumber(3), x)),
+            // unbounded
+            rmgr.greaterOrEquals(r, rmgr.makeNumber(0)),
+            bfmgr.makeTrue());
+
+    List<OptimizationResult> parallelResults;
+    try (ParallelTemplateOptimizer optimizer =
+        new ParallelTemplateOptimizer(
+            config,
+            LogManager.createTestLogManager(),
+            ShutdownNotifier.createDummy(),
+            fmgr,
+            EPSILON,
+            2)) {
+      parallelResults = optimizer.maximize(startConstraints, constraints, objectives);
+    }
+
+    List<Optional<Rational>> sequentialBounds =
+        maximizeSequentially(startConstraints, constraints, objectives);
+    assertThat(sequentialBounds)
+        .containsExactly(
+            Optional.of(Rational.ofLong(7)),
+            Optional.of(FIVE_HALVES),
+            Optional.of(Rational.ofLong(3)),
+            Optional.empty(),
+            Optional.of(Rational.ZERO))
+        .inOrder();
+    assertThat(parallelResults).hasSize(objectives.size());
+    for (int i = 0; i < objectives.size(); i++) {
+      assertThat(parallelResults.get(i).getStatus()).isEqualTo(OptStatus.OPT);
+      assertThat(parallelResults.get(i).getBound()).isEqualTo(sequentialBounds.get(i));
+    }
+  }
+
+  /** Returns the bounds of all abstracted states, by the number of their location. */
+  private ImmutableSetMultimap<Integer, Map<String, Rational>> getAbstractions(int pThreads)
+      throws Exception {
+    Path programFile = tempFolder.newFile("program" + pThreads + ".c").toPath();
+    Files.write(programFile, ImmutableList.copyOf(PROGRAM), Charset.defaultCharset());
+    Configuration analysisConfig =
+        TestDataTools.configurationForTest()
+            .loadFromFile("config/includes/policy.properties")
+            .setOption("cpa.lpi.optimizationThreads", Integer.toString(pThreads))
+            .build();
+    TestResults results = CPATestRunner.run(analysisConfig, programFile.toString());
+
+    ImmutableSetMultimap.Builder<Integer, Map<String, Rational>> abstractions =
+        ImmutableSetMultimap.builder();
+    for (AbstractState state : results.getCheckerResult().getReached()) {
+      PolicyAbstractedState abstractedState =
+          AbstractStates.extractStateByType(state, PolicyAbstractedState.class);
+      if (abstractedState != null) {
+        ImmutableMap.Builder<String, Rational> bounds = ImmutableMap.builder();
+        abstractedState
+            .getAbstraction()
+            .forEach((template, bound) -> bounds.put(template.toString(), bound.getBound()));
+        abstractions.put(abstractedState.getNode().getNodeNumber(), bounds.build());
+      }
+    }
+    return abstractions.build();
+  }
+
+  @Test
+  public void testSameAbstractionAsSequential() throws Exception {
+    ImmutableSetMultimap<Integer, Map<String, Rational>> sequential = getAbstractions(1);
+    ImmutableSetMultimap<Integer, Map<String, Rational>> parallel = getAbstractions(3);
+
+    assertThat(sequential).isNotEmpty();
+    assertThat(parallel).isEqualTo(sequential);
+  }
+}
@@ -300,6 +300,7 @@ public class PolicyCPA extends SingleEdgeTransferRelation
 
   @Override
   public void close() {
+    policyIterationManager.close();
     solver.close();
   }
 
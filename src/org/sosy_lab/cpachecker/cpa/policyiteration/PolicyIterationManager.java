@@ -15,8 +15,10 @@ import static org.sosy_lab.cpachecker.cpa.policyiteration.PolicyIterationManager
 import static org.sosy_lab.cpachecker.cpa.policyiteration.PolicyIterationManager.DecompositionStatus.UNBOUNDED;
 import static org.sosy_lab.cpachecker.util.AbstractStates.asIterable;
 
+import com.google.common.base.Equivalence;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Streams;
@@ -25,6 +27,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -36,6 +39,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.UniqueIdGenerator;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -157,6 +161,17 @@ public class PolicyIterationManager {
       + "let other CPAs use the output of LPI.")
   private boolean delayAbstractionUntilStrengthen = false;
 
+  @Option(secure=true, description="Number of threads for maximizing the templates during "
+      + "abstraction. With more than one thread, the templates are partitioned across "
+      + "independent solver instances, which are run in parallel.")
+  @IntegerOption(min=1)
+  private int optimizationThreads = 1;
+
+  @Option(secure=true, description="Maximal number of policy bounds that are cached for "
+      + "re-use in later abstractions of the same formula (0 to disable the cache).")
+  @IntegerOption(min=0)
+  private int policyBoundCacheSize = 0;
+
   private final FormulaManagerView fmgr;
   private final CFA cfa;
   private final PathFormulaManager pfmgr;
@@ -173,6 +188,14 @@ public class PolicyIterationManager {
   private final TemplatePrecision initialPrecision;
   private final TemplateToFormulaConversionManager templateToFormulaConversionManager;
   @Nullable private BlockPartitioning partitioning;
+  @Nullable private final ParallelTemplateOptimizer parallelOptimizer;
+
+  /**
+   * Cache for the results of abstraction of a single template, keyed by the template, the
+   * abstracted path formula, the start constraints, and the backpointer state and precision.
+   * Contains the bound, or empty if the template is unbounded.
+   */
+  private final Map<List<Object>, Optional<PolicyBound>> policyBoundCache;
 
   public PolicyIterationManager(
       Configuration pConfig,
@@ -207,6 +230,29 @@ public class PolicyIterationManager {
 
     pwm =
         generateTemplatesUsingConvexHull ? new PolyhedraWideningManager(statistics, logger) : null;
+
+    parallelOptimizer =
+        optimizationThreads > 1
+            ? new ParallelTemplateOptimizer(
+                pConfig, logger, shutdownNotifier, fmgr, EPSILON, optimizationThreads)
+            : null;
+    final int cacheSize = policyBoundCacheSize;
+    policyBoundCache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected boolean removeEldestEntry(Entry<List<Object>, Optional<PolicyBound>> pEldest) {
+            return size() > cacheSize;
+          }
+        };
+  }
+
+  /** Releases the solvers used for parallel optimization. */
+  void close() {
+    if (parallelOptimizer != null) {
+      parallelOptimizer.close();
+    }
   }
 
   /**
@@ -838,6 +884,11 @@ public class PolicyIterationManager {
 
     final Map<Template, PolicyBound> abstraction = new HashMap<>();
 
+    // templates that still need to be optimized, with their objective and constraint
+    final List<Template> queryTemplates = new ArrayList<>();
+    final List<Formula> queryObjectives = new ArrayList<>();
+    final List<BooleanFormula> queryConstraints = new ArrayList<>();
+
     try (OptimizationProverEnvironment optEnvironment = solver.newOptEnvironment()) {
 
       optEnvironment.push();
@@ -845,8 +896,6 @@ public class PolicyIterationManager {
       optEnvironment.push();
 
       for (Template template : precision.getTemplatesForNode(node)) {
-        optEnvironment.pop();
-        optEnvironment.push();
 
         // Optimize for the template subject to the
         // constraints introduced by {@code p}.
@@ -881,6 +930,18 @@ public class PolicyIterationManager {
           }
         }
 
+        if (policyBoundCacheSize > 0) {
+          Optional<PolicyBound> cachedBound =
+              policyBoundCache.get(
+                  getPolicyBoundCacheKey(template, p, startConstraints, generatorState, precision));
+          if (cachedBound != null) {
+            statistics.policyBoundCacheHits++;
+            cachedBound.ifPresent(b -> abstraction.put(template, b));
+            continue;
+          }
+          statistics.policyBoundCacheMisses++;
+        }
+
         Set<BooleanFormula> slicedConstraint = computeRelevantSubset(
             lemmas, startConstraintLemmas, objectiveVars);
         BooleanFormula f = bfmgr.and(slicedConstraint);
@@ -905,6 +966,15 @@ public class PolicyIterationManager {
           abstraction.put(template, bound);
         }
 
+        if (parallelOptimizer != null) {
+          queryTemplates.add(template);
+          queryObjectives.add(objective);
+          queryConstraints.add(annotatedFormula);
+          continue;
+        }
+
+        optEnvironment.pop();
+        optEnvironment.push();
         optEnvironment.addConstraint(annotatedFormula);
 
         int handle = optEnvironment.maximize(objective);
@@ -917,31 +987,66 @@ public class PolicyIterationManager {
           statistics.optTimer.stop();
         }
 
-        switch (status) {
-          case OPT:
-
-            Optional<Rational> bound = optEnvironment.upper(handle, EPSILON);
-            Optional<PolicyBound> policyBound = getPolicyBound(
-                template, precision, optEnvironment, bound, annotatedFormula,
-                p, generatorState, objective);
-            if (policyBound.isPresent()) {
-              abstraction.put(template, policyBound.orElseThrow());
-            }
-
-            logger.log(Level.FINE, "Got bound: ", bound);
-            break;
-
-          case UNSAT:
-            throw new CPAException("Unexpected UNSAT");
-
-          case UNDEF:
-            logger.log(Level.WARNING, "Solver returned undefined status on the problem: ");
-            logger.log(Level.INFO, optEnvironment.toString());
-            throw new CPATransferException("Solver returned undefined status");
-          default:
-            throw new AssertionError("Unhandled enum value in switch: " + status);
+        checkOptimizationStatus(status, optEnvironment);
+        Optional<Rational> bound = optEnvironment.upper(handle, EPSILON);
+        Optional<PolicyBound> policyBound = getPolicyBound(
+            template, precision, optEnvironment, bound, annotatedFormula,
+            p, generatorState, objective);
+        if (policyBound.isPresent()) {
+          abstraction.put(template, policyBound.orElseThrow());
         }
+        logger.log(Level.FINE, "Got bound: ", bound);
+        cachePolicyBound(template, p, startConstraints, generatorState, precision, abstraction);
+      }
 
+      if (!queryTemplates.isEmpty()) {
+        List<ParallelTemplateOptimizer.OptimizationResult> results;
+        try {
+          statistics.optTimer.start();
+          results =
+              parallelOptimizer.maximize(startConstraints, queryConstraints, queryObjectives);
+        } catch (InvalidConfigurationException e) {
+          throw new CPAException("Could not create solver for parallel optimization", e);
+        } finally {
+          statistics.optTimer.stop();
+        }
+
+        for (int i = 0; i < queryTemplates.size(); i++) {
+          Template template = queryTemplates.get(i);
+          Formula objective = queryObjectives.get(i);
+          BooleanFormula annotatedFormula = queryConstraints.get(i);
+          checkOptimizationStatus(results.get(i).getStatus(), optEnvironment);
+          Optional<Rational> bound = results.get(i).getBound();
+
+          // The optimal value is known, get a model that attains it for deriving the policy.
+          optEnvironment.pop();
+          optEnvironment.push();
+          optEnvironment.addConstraint(annotatedFormula);
+          if (bound.isPresent()) {
+            optEnvironment.addConstraint(
+                fmgr.makeGreaterOrEqual(
+                    objective, fmgr.makeNumber(objective, bound.orElseThrow()), true));
+          }
+          OptStatus status = optEnvironment.check();
+          if (status != OptStatus.OPT) {
+            // the bound may be approximated with epsilon for strict inequalities
+            optEnvironment.pop();
+            optEnvironment.push();
+            optEnvironment.addConstraint(annotatedFormula);
+            int handle = optEnvironment.maximize(objective);
+            checkOptimizationStatus(optEnvironment.check(), optEnvironment);
+            bound = optEnvironment.upper(handle, EPSILON);
+          }
+
+          Optional<PolicyBound> policyBound = getPolicyBound(
+              template, precision, optEnvironment, bound, annotatedFormula,
+              p, generatorState, objective);
+          if (policyBound.isPresent()) {
+            abstraction.put(template, policyBound.orElseThrow());
+          }
+          logger.log(Level.FINE, "Got bound: ", bound);
+          cachePolicyBound(template, p, startConstraints, generatorState, precision, abstraction);
+        }
       }
     } catch (SolverException e) {
       throw new CPATransferException("Solver error: ", e);
@@ -961,6 +1066,53 @@ public class PolicyIterationManager {
         pSibling);
   }
 
+  private void checkOptimizationStatus(
+      OptStatus status, OptimizationProverEnvironment optEnvironment) throws CPAException {
+    switch (status) {
+      case OPT:
+        return;
+      case UNSAT:
+        throw new CPAException("Unexpected UNSAT");
+      case UNDEF:
+        logger.log(Level.WARNING, "Solver returned undefined status on the problem: ");
+        logger.log(Level.INFO, optEnvironment.toString());
+        throw new CPATransferException("Solver returned undefined status");
+      default:
+        throw new AssertionError("Unhandled enum value in switch: " + status);
+    }
+  }
+
+  private List<Object> getPolicyBoundCacheKey(
+      Template template,
+      PathFormula p,
+      BooleanFormula startConstraints,
+      PolicyIntermediateState generatorState,
+      TemplatePrecision precision) {
+    // The policy bound refers to the backpointer as its predecessor, so it is compared by
+    // identity, like the precision, which determines the dependencies of the bound.
+    return ImmutableList.of(
+        template,
+        p,
+        startConstraints,
+        Equivalence.identity().wrap(generatorState.getBackpointerState()),
+        Equivalence.identity().wrap(precision));
+  }
+
+  /** Stores the abstraction computed for the given template in the cache. */
+  private void cachePolicyBound(
+      Template template,
+      PathFormula p,
+      BooleanFormula startConstraints,
+      PolicyIntermediateState generatorState,
+      TemplatePrecision precision,
+      Map<Template, PolicyBound> abstraction) {
+    if (policyBoundCacheSize > 0) {
+      policyBoundCache.put(
+          getPolicyBoundCacheKey(template, p, startConstraints, generatorState, precision),
+          Optional.ofNullable(abstraction.get(template)));
+    }
+  }
+
   private PolicyBound updatePolicyBoundDependencies(
       PolicyBound bound, Formula objective
   ) throws SolverException, InterruptedException {
@@ -42,6 +42,9 @@ public class PolicyIterationStatistics implements Statistics {
 
   final Timer getBoundTimer = new Timer();
 
+  int policyBoundCacheHits = 0;
+  int policyBoundCacheMisses = 0;
+
   private final CFA cfa;
 
   private BigInteger wideningTemplatesGenerated = BigInteger.ZERO;
@@ -67,6 +70,8 @@ public class PolicyIterationStatistics implements Statistics {
 
     out.printf("Number of templates generated through widening: %s%n",
         wideningTemplatesGenerated);
+    out.printf("Policy bound cache hits: %d, misses: %d%n",
+        policyBoundCacheHits, policyBoundCacheMisses);
 
     UpdateStats<?> updateStats = getUpdateStats(updateCounter);
     UpdateStats<?> templateUpdateStats = getUpdateStats(templateUpdateCounter);
@@ -186,7 +186,14 @@ public class PredicateCPA
 
     invariantsManager =
         new PredicateCPAInvariantsManager(
-            config, logger, pShutdownNotifier, pCfa, specification, pAggregatedReachedSets);
+            config,
+            logger,
+            pShutdownNotifier,
+            pCfa,
+            specification,
+            pAggregatedReachedSets,
+            pathFormulaManager,
+            formulaManager);
 
     abstractionOptions = new PredicateAbstractionManagerOptions(config);
     abstractionStorage =
@@ -234,6 +234,7 @@ class PredicateCPAInvariantsManager implements StatisticsProvider, InvariantSupp
   private PathFormulaManager pfmgr;
 
   private final RCNFManager semiCNFConverter;
+  private final LoopTransitionFinder loopTransitionFinder;
   private final CFA cfa;
 
   private final Configuration config;
@@ -252,7 +253,9 @@ class PredicateCPAInvariantsManager implements StatisticsProvider, InvariantSupp
       ShutdownNotifier pShutdownNotifier,
       CFA pCfa,
       Specification pSpecification,
-      AggregatedReachedSets pAggregatedReachedSets)
+      AggregatedReachedSets pAggregatedReachedSets,
+      PathFormulaManager pPathFormulaManager,
+      FormulaManagerView pFormulaManager)
       throws InvalidConfigurationException {
     pConfig.inject(this);
 
@@ -271,6 +274,21 @@ class PredicateCPAInvariantsManager implements StatisticsProvider, InvariantSupp
     } else {
       semiCNFConverter = null;
     }
+
+    // shared by all invariant generations, such that its cached loop transitions are reused
+    if (generationStrategy.contains(InvariantGenerationStrategy.PF_INDUCTIVE_WEAKENING)
+        && cfa.getLoopStructure().isPresent()) {
+      loopTransitionFinder =
+          new LoopTransitionFinder(
+              pConfig,
+              cfa.getLoopStructure().orElseThrow(),
+              pPathFormulaManager,
+              pFormulaManager,
+              pLogger,
+              pShutdownNotifier);
+    } else {
+      loopTransitionFinder = null;
+    }
   }
 
   public boolean appendToAbstractionFormula() {
@@ -473,8 +491,7 @@ class PredicateCPAInvariantsManager implements StatisticsProvider, InvariantSupp
               for (Pair<PathFormula, CFANode> pair : argForPathFormulaBasedGeneration) {
                 if (pair.getFirst() != null) {
                 wasSuccessful =
-                    findInvariantPartOfPathFormulaWithWeakening(
-                            pair.getSecond(), pair.getFirst(), invariantShutdown.getNotifier())
+                    findInvariantPartOfPathFormulaWithWeakening(pair.getSecond(), pair.getFirst())
                         || wasSuccessful;
                 } else {
                   addResultToCache(bfmgr.makeTrue(), pair.getSecond());
@@ -574,25 +591,18 @@ class PredicateCPAInvariantsManager implements StatisticsProvider, InvariantSupp
    * @throws CPATransferException may be thrown during loop transition creation
    */
   private boolean findInvariantPartOfPathFormulaWithWeakening(
-      final CFANode pLocation, final PathFormula pBlockFormula, ShutdownNotifier pInvariantShutdown)
+      final CFANode pLocation, final PathFormula pBlockFormula)
       throws SolverException, InterruptedException, CPATransferException,
           InvalidConfigurationException {
     assert semiCNFConverter != null;
+    assert loopTransitionFinder != null;
 
     try {
       stats.pfWeakeningTime.start();
 
       PointerTargetSet pts = pBlockFormula.getPointerTargetSet();
       SSAMap ssa = pBlockFormula.getSsa();
-      PathFormula loopFormula =
-          new LoopTransitionFinder(
-                  config,
-                  cfa.getLoopStructure().orElseThrow(),
-                  pfmgr,
-                  fmgr,
-                  logger,
-                  pInvariantShutdown)
-              .generateLoopTransition(ssa, pts, pLocation);
+      PathFormula loopFormula = loopTransitionFinder.generateLoopTransition(ssa, pts, pLocation);
 
       Set<BooleanFormula> lemmas =
           Collections3.transformedImmutableSetCopy(
@@ -1105,6 +1115,9 @@ class PredicateCPAInvariantsManager implements StatisticsProvider, InvariantSupp
     if (semiCNFConverter != null) {
       semiCNFConverter.collectStatistics(pStatsCollection);
     }
+    if (loopTransitionFinder != null) {
+      loopTransitionFinder.collectStatistics(pStatsCollection);
+    }
   }
 
 }
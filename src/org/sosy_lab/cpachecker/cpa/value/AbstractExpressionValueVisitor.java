@@ -2366,6 +2366,15 @@ public abstract class AbstractExpressionValueVisitor
       case INT:
       case CHAR:
         {
+          final boolean targetIsSigned = machineModel.isSigned(st);
+
+          if (size > 0
+              && (size < SIZE_OF_JAVA_LONG || (size == SIZE_OF_JAVA_LONG && targetIsSigned))
+              && isIntegralNumberFittingInLong(numericValue.getNumber())) {
+            // fast path for the common case, avoids creating several BigIntegers per cast
+            return castIntegralLong(numericValue, size, targetIsSigned);
+          }
+
           if (isNan(numericValue)) {
             // result of conversion of NaN to integer is undefined
             return UnknownValue.getInstance();
@@ -2386,7 +2395,6 @@ public abstract class AbstractExpressionValueVisitor
         } else {
           valueToCastAsInt = BigInteger.valueOf(numericValue.longValue());
         }
-          final boolean targetIsSigned = machineModel.isSigned(st);
 
           final BigInteger maxValue = BigInteger.ONE.shiftLeft(size); // 2^size
           BigInteger result = valueToCastAsInt.remainder(maxValue); // shrink to number of bits
@@ -2465,6 +2473,50 @@ public abstract class AbstractExpressionValueVisitor
     }
   }
 
+  /**
+   * Returns whether the given number is an integral number whose value can be represented as
+   * Java long without loss.
+   */
+  private static boolean isIntegralNumberFittingInLong(final Number pNumber) {
+    return pNumber instanceof Long
+        || pNumber instanceof Integer
+        || pNumber instanceof Short
+        || pNumber instanceof Byte
+        || (pNumber instanceof BigInteger && ((BigInteger) pNumber).bitLength() < SIZE_OF_JAVA_LONG);
+  }
+
+  /**
+   * Casts an integral value that fits into a Java long to a C integer type with the given size
+   * (in bits) using primitive arithmetics. The result is the same as for the general computation
+   * based on {@link BigInteger}, i.e., the value is wrapped around into the range of the target
+   * type. This is only valid for signed target types up to 64 bits and for unsigned target types
+   * with less than 64 bits, because otherwise the result does not fit into a Java long.
+   *
+   * @param pValue the value to cast, its number must fit into a long
+   * @param pSize the size of the target type in bits
+   * @param pTargetIsSigned whether the target type is signed
+   * @return the cast value, which is the given value itself if it does not change
+   */
+  private static NumericValue castIntegralLong(
+      final NumericValue pValue, final int pSize, final boolean pTargetIsSigned) {
+    final long value = pValue.longValue();
+    final long result;
+    if (pSize == SIZE_OF_JAVA_LONG) {
+      result = value;
+    } else if (pTargetIsSigned) {
+      // keep the lowest bits and extend the sign bit of the target type
+      final int shift = SIZE_OF_JAVA_LONG - pSize;
+      result = (value << shift) >> shift;
+    } else {
+      result = value & ((1L << pSize) - 1);
+    }
+
+    if (result == value && pValue.getNumber() instanceof Long) {
+      return pValue;
+    }
+    return new NumericValue(result);
+  }
+
   private static Value convertToBool(final NumericValue pValue) {
     Number n = pValue.getNumber();
     if (isBooleanFalseRepresentation(n)) {
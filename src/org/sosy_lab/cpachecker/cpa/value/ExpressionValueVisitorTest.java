@@ -266,6 +266,48 @@ public class ExpressionValueVisitorTest {
   }
 
 
+  /**
+   * this test checks that casts of integral values give the same results, independent of whether
+   * the value is represented as primitive number or as BigInteger
+   */
+  @Test
+  public void checkIntegralCastsOfAllRepresentations() {
+    ImmutableList<Long> values =
+        ImmutableList.of(
+            0L, 1L, -1L, 127L, 128L, -129L, 255L, 65535L, -65536L, 2147483647L, 2147483648L,
+            -2147483649L, 4294967295L, 4294967296L, Long.MAX_VALUE, Long.MIN_VALUE);
+    ImmutableList<CSimpleType> types =
+        ImmutableList.of(
+            S_CHAR, U_CHAR, S_SHORT_INT, U_SHORT_INT, S_INT, U_INT, S_LONG_INT, U_LONG_INT,
+            S_LONG_LONG_INT, U_LONG_LONG_INT);
+
+    for (CSimpleType type : types) {
+      int size = machineModel.getSizeofInBits(type);
+      BigInteger range = BigInteger.ONE.shiftLeft(size);
+      for (long value : values) {
+        BigInteger expected = BigInteger.valueOf(value).mod(range);
+        if (machineModel.isSigned(type) && expected.testBit(size - 1)) {
+          expected = expected.subtract(range);
+        }
+        // unsigned 64-bit values are always represented as BigInteger
+        Number expectedNumber =
+            size < 64 || machineModel.isSigned(type) ? expected.longValueExact() : expected;
+
+        for (Number in :
+            ImmutableList.<Number>of(
+                value, BigInteger.valueOf(value), (int) value, (short) value, (byte) value)) {
+          if (in.longValue() != value) {
+            continue; // narrowing representations can not hold every value
+          }
+          Value result =
+              AbstractExpressionValueVisitor.castCValue(
+                  new NumericValue(in), type, machineModel, logger, FileLocation.DUMMY);
+          assertThat(result).isEqualTo(new NumericValue(expectedNumber));
+        }
+      }
+    }
+  }
+
   @Test
   public void checkFloatCasts32() {
     assume().that(machineModel).isSameInstanceAs(MachineModel.LINUX32);
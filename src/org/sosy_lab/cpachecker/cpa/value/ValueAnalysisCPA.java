@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -43,6 +44,7 @@ import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysisWithCo
 import org.sosy_lab.cpachecker.core.interfaces.MergeOperator;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
+import org.sosy_lab.cpachecker.core.interfaces.PrecisionDependencyQuery;
 import org.sosy_lab.cpachecker.core.interfaces.Reducer;
 import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
@@ -59,16 +61,19 @@ import org.sosy_lab.cpachecker.cpa.value.symbolic.SymbolicValueAnalysisPrecision
 import org.sosy_lab.cpachecker.cpa.value.symbolic.SymbolicValueAnalysisPrecisionAdjustment.SymbolicStatistics;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.SymbolicValueAssigner;
 import org.sosy_lab.cpachecker.cpa.value.symbolic.type.SymbolicValue;
+import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.StateToFormulaWriter;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
 import org.sosy_lab.cpachecker.util.states.MemoryLocationValueHandler;
+import org.sosy_lab.cpachecker.util.states.PersistentMemoryLocationMap;
 
 @Options(prefix = "cpa.value")
 public class ValueAnalysisCPA extends AbstractCPA
     implements ConfigurableProgramAnalysisWithBAM,
         StatisticsProvider,
         ProofCheckerCPA,
-        ConfigurableProgramAnalysisWithConcreteCex {
+        ConfigurableProgramAnalysisWithConcreteCex,
+        PrecisionDependencyQuery {
 
   private enum UnknownValueStrategy {
     /** This strategy discards all unknown values from the value analysis state */
@@ -103,6 +108,14 @@ public class ValueAnalysisCPA extends AbstractCPA
       description = "Tells the value analysis how to handle unknown values.")
   private UnknownValueStrategy unknownValueStrategy = UnknownValueStrategy.DISCARD;
 
+  @Option(
+      secure = true,
+      description =
+          "Store the values of the abstract states in a hash trie over the ids of the memory"
+              + " locations instead of a tree map sorted by the names of the memory locations."
+              + " This makes lookups and updates cheaper for programs with many variables.")
+  private boolean useIdKeyedStateMap = false;
+
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(ValueAnalysisCPA.class);
   }
@@ -258,6 +271,10 @@ public class ValueAnalysisCPA extends AbstractCPA
 
   @Override
   public AbstractState getInitialState(CFANode pNode, StateSpacePartition pPartition) {
+    if (useIdKeyedStateMap) {
+      return new ValueAnalysisState(
+          Optional.of(cfa.getMachineModel()), PersistentMemoryLocationMap.of());
+    }
     return new ValueAnalysisState(cfa.getMachineModel());
   }
 
@@ -314,6 +331,24 @@ public class ValueAnalysisCPA extends AbstractCPA
     writer.collectStatistics(pStatsCollection);
   }
 
+  @Override
+  public boolean isAffectedByPrecisionChange(
+      AbstractState pState,
+      Precision pOldPrecision,
+      Precision pNewPrecision,
+      AbstractState pFullState) {
+    if (!(pOldPrecision instanceof VariableTrackingPrecision)
+        || !(pNewPrecision instanceof VariableTrackingPrecision)) {
+      return !pOldPrecision.equals(pNewPrecision);
+    }
+    // the precision is only applied in the precision adjustment for the state's location,
+    // thus the state does not change if the tracked variables at this location are the same
+    CFANode location = AbstractStates.extractLocation(pFullState);
+    return location == null
+        || !((VariableTrackingPrecision) pOldPrecision)
+            .tracksTheSameVariablesAt((VariableTrackingPrecision) pNewPrecision, location);
+  }
+
   @Override
   public ConcreteStatePath createConcreteStatePath(ARGPath pPath) {
     return errorPathAllocator.allocateAssignmentsToPath(pPath);
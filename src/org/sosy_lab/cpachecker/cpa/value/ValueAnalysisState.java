@@ -364,7 +364,13 @@ public final class ValueAnalysisState
    */
   @Override
   public ValueAnalysisState join(ValueAnalysisState reachedState) {
-    PersistentMap<MemoryLocation, ValueAndType> newConstantsMap = PathCopyingPersistentTreeMap.of();
+    // states derived from each other often still share their (persistent) map
+    if (constantsMap == reachedState.constantsMap) {
+      return reachedState;
+    }
+
+    // keep the implementation of the map that the analysis was configured with
+    PersistentMap<MemoryLocation, ValueAndType> newConstantsMap = reachedState.constantsMap.empty();
 
     for (Entry<MemoryLocation, ValueAndType> otherEntry : reachedState.constantsMap.entrySet()) {
       MemoryLocation key = otherEntry.getKey();
@@ -392,6 +398,10 @@ public final class ValueAnalysisState
   @Override
   public boolean isLessOrEqual(ValueAnalysisState other) {
 
+    if (constantsMap == other.constantsMap) {
+      return true;
+    }
+
     // also, this element is not less or equal than the other element, if it contains less elements
     if (constantsMap.size() < other.constantsMap.size()) {
       return false;
@@ -435,7 +445,9 @@ public final class ValueAnalysisState
 
     ValueAnalysisState otherElement = (ValueAnalysisState) other;
     // hashCode is used as optimization: about 20% speedup when using many SingletonSets
-    return otherElement.hashCode == hashCode && otherElement.constantsMap.equals(constantsMap);
+    return otherElement.hashCode == hashCode
+        && (otherElement.constantsMap == constantsMap
+            || otherElement.constantsMap.equals(constantsMap));
   }
 
   @Override
@@ -19,25 +19,37 @@ import com.google.common.base.Equivalence;
 import com.google.common.base.Equivalence.Wrapper;
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
+import com.google.common.base.Throwables;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.SortedSetMultimap;
 import com.google.common.collect.TreeMultimap;
+import com.google.common.math.IntMath;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
@@ -71,8 +83,11 @@ import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
 import org.sosy_lab.cpachecker.core.specification.Specification;
 import org.sosy_lab.cpachecker.cpa.livevar.LiveVariablesCPA;
+import org.sosy_lab.cpachecker.cpa.livevar.LiveVariablesTransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
+import org.sosy_lab.cpachecker.util.dataflow.BitSetDataflowAnalysis;
+import org.sosy_lab.cpachecker.util.dataflow.BitSetDataflowAnalysis.Direction;
 import org.sosy_lab.cpachecker.util.resources.ResourceLimit;
 import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
 import org.sosy_lab.cpachecker.util.resources.WalltimeLimit;
@@ -139,6 +154,13 @@ public class LiveVariables {
                     min=0)
     private TimeSpan partwiseLivenessCheckTime = TimeSpan.ofSeconds(20);
 
+    @Option(
+        secure = true,
+        description =
+            "Compute function-wise live variables with a dedicated dataflow analysis"
+                + " that handles functions in parallel instead of running the CPA algorithm.")
+    private boolean useDataflowAnalysis = true;
+
     public LiveVariablesConfiguration(Configuration config) throws InvalidConfigurationException {
       config.inject(this);
     }
@@ -415,14 +437,20 @@ public class LiveVariables {
       limitChecker = null;
     }
 
-    Optional<AnalysisParts> parts =
-        getNecessaryAnalysisComponents(cfa, logger, shutdownNotifier, config.evaluationStrategy);
     Multimap<CFANode, Wrapper<ASimpleDeclaration>> liveVariables = null;
 
     // create live variables
-    if (parts.isPresent()) {
-      liveVariables =
-          addLiveVariablesFromCFA(cfa, logger, parts.orElseThrow(), config.evaluationStrategy);
+    if (config.evaluationStrategy == EvaluationStrategy.FUNCTION_WISE
+        && config.useDataflowAnalysis) {
+      liveVariables = computeFunctionWiseLiveVariables(cfa, logger, shutdownNotifier);
+
+    } else {
+      Optional<AnalysisParts> parts =
+          getNecessaryAnalysisComponents(cfa, logger, shutdownNotifier, config.evaluationStrategy);
+      if (parts.isPresent()) {
+        liveVariables =
+            addLiveVariablesFromCFA(cfa, logger, parts.orElseThrow(), config.evaluationStrategy);
+      }
     }
 
     if (limitChecker != null) {
@@ -541,6 +569,91 @@ public class LiveVariables {
     return liveVarCPA.getLiveVariables();
   }
 
+  /**
+   * Computes the live variables of each function separately with a {@link BitSetDataflowAnalysis}
+   * that uses the transfer relation of the {@link LiveVariablesCPA}. The functions are distributed
+   * among several threads; as the transfer relation is not thread-safe, each thread has its own
+   * instance.
+   *
+   * @return the live variables, or null if they could not be computed.
+   */
+  private static @Nullable Multimap<CFANode, Wrapper<ASimpleDeclaration>>
+      computeFunctionWiseLiveVariables(
+          final CFA pCfa, final LogManager logger, final ShutdownNotifier shutdownNotifier)
+          throws InterruptedException {
+
+    ImmutableListMultimap<String, CFANode> nodesPerFunction =
+        Multimaps.index(pCfa.getAllNodes(), CFANode::getFunctionName);
+    List<String> functionNames = nodesPerFunction.keySet().asList();
+    if (functionNames.isEmpty()) {
+      return ImmutableListMultimap.of();
+    }
+    int threads = Math.min(Runtime.getRuntime().availableProcessors(), functionNames.size());
+    List<List<String>> partitions =
+        Lists.partition(
+            functionNames, IntMath.divide(functionNames.size(), threads, RoundingMode.CEILING));
+
+    final Configuration config;
+    try {
+      config =
+          Configuration.builder()
+              .loadFromResource(LiveVariables.class, "liveVariables-intraprocedural.properties")
+              .build();
+    } catch (InvalidConfigurationException e) {
+      logger.logUserException(Level.WARNING, e, "Could not compute live variables.");
+      return null;
+    }
+
+    logger.log(Level.INFO, "Starting live variables collection ...");
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            partitions.size(),
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("live-variables-%d").build());
+    ImmutableListMultimap.Builder<CFANode, Wrapper<ASimpleDeclaration>> liveVariables =
+        ImmutableListMultimap.builder();
+    try {
+      List<Future<Multimap<CFANode, Wrapper<ASimpleDeclaration>>>> results = new ArrayList<>();
+      for (List<String> partition : partitions) {
+        results.add(
+            executor.submit(
+                () -> {
+                  LiveVariablesTransferRelation transfer =
+                      LiveVariablesTransferRelation.createForDataflowAnalysis(
+                          pCfa.getVarClassification(), config, pCfa, logger);
+                  BitSetDataflowAnalysis analysis =
+                      new BitSetDataflowAnalysis(
+                          Direction.BACKWARD, transfer::getLiveVariablesBefore, shutdownNotifier);
+                  ImmutableListMultimap.Builder<CFANode, Wrapper<ASimpleDeclaration>> result =
+                      ImmutableListMultimap.builder();
+                  for (String function : partition) {
+                    analysis
+                        .solve(
+                            nodesPerFunction.get(function),
+                            node ->
+                                node instanceof FunctionExitNode
+                                    ? transfer.getInitialLiveVariables(node)
+                                    : null)
+                        .forEach((node, live) -> result.putAll(node, transfer.dataToVars(live)));
+                  }
+                  return result.build();
+                }));
+      }
+      for (Future<Multimap<CFANode, Wrapper<ASimpleDeclaration>>> result : results) {
+        liveVariables.putAll(result.get());
+      }
+
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      logger.logUserException(Level.WARNING, e.getCause(), "Could not compute live variables.");
+      return null;
+    } finally {
+      executor.shutdownNow();
+    }
+
+    logger.log(Level.INFO, "Stopping live variables collection ...");
+    return liveVariables.build();
+  }
+
   private static Optional<AnalysisParts> getNecessaryAnalysisComponents(final CFA cfa,
       final LogManager logger,
       final ShutdownNotifier shutdownNotifier,
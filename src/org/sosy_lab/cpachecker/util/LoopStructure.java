@@ -33,9 +33,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NavigableMap;
 import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.function.Function;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -443,7 +445,7 @@ public final class LoopStructure implements Serializable {
     return null;
   }
 
-  // wrapper class for Set<CFANode> because Java arrays don't like generics
+  // set of CFANodes that were eliminated and merged into an edge
   private static class Edge {
     private final Set<CFANode> nodes = Sets.newHashSetWithExpectedSize(1);
 
@@ -460,21 +462,131 @@ public final class LoopStructure implements Serializable {
     }
   }
 
+  /**
+   * The graph that is simplified while searching for loops, stored as sparse adjacency maps such
+   * that memory is linear in the number of edges. For each node index i, the outgoing and incoming
+   * edges are indexed by the index of the respective other node. The maps are sorted, so edges are
+   * visited in the order of node indices, which keeps the result deterministic.
+   */
+  private static final class Graph {
+
+    private final List<NavigableMap<Integer, Edge>> successors;
+    private final List<NavigableMap<Integer, Edge>> predecessors;
+
+    private Graph(int size) {
+      successors = new ArrayList<>(size);
+      predecessors = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        successors.add(new TreeMap<>());
+        predecessors.add(new TreeMap<>());
+      }
+    }
+
+    // get edge from i to j, or null if it does not exist
+    private @Nullable Edge get(int i, int j) {
+      return successors.get(i).get(j);
+    }
+
+    // get edge from i to j, ensuring that it is added if it does not exist yet
+    private Edge getOrCreate(int i, int j) {
+      Edge result = successors.get(i).get(j);
+      if (result == null) {
+        result = new Edge();
+        successors.get(i).put(j, result);
+        predecessors.get(j).put(i, result);
+      }
+      return result;
+    }
+
+    private void remove(int i, int j) {
+      successors.get(i).remove(j);
+      predecessors.get(j).remove(i);
+    }
+
+    // indices of all successors of i, in ascending order (copied, so the graph may be changed)
+    private List<Integer> getSuccessors(int i) {
+      return ImmutableList.copyOf(successors.get(i).keySet());
+    }
+
+    // indices of all predecessors of i, in ascending order (copied, so the graph may be changed)
+    private List<Integer> getPredecessors(int i) {
+      return ImmutableList.copyOf(predecessors.get(i).keySet());
+    }
+
+    // find index of single predecessor of node i
+    // if there is no predecessor, -1 is returned
+    // if there are several predecessors, -2 is returned
+    private int findSingleIncomingEdgeOfNode(int i) {
+      return findSingle(predecessors.get(i));
+    }
+
+    // find index of single successor of node i
+    // if there is no successor, -1 is returned
+    // if there are several successors, -2 is returned
+    private int findSingleOutgoingEdgeOfNode(int i) {
+      return findSingle(successors.get(i));
+    }
+
+    private static int findSingle(NavigableMap<Integer, Edge> pEdges) {
+      switch (pEdges.size()) {
+        case 0:
+          return -1;
+        case 1:
+          return pEdges.firstKey();
+        default:
+          return -2;
+      }
+    }
+  }
+
   /**
    * Build loop-structure information for a CFA.
    * Do not call this method outside of the frontend,
    * use {@link org.sosy_lab.cpachecker.cfa.CFA#getLoopStructure()} instead.
+   * Functions are analyzed in parallel.
    * @throws ParserException If the structure of the CFA is too complex for determining loops.
    */
   public static LoopStructure getLoopStructure(MutableCFA cfa) throws ParserException {
+    List<String> functionNames = ImmutableList.copyOf(cfa.getAllFunctionNames());
+    List<Collection<Loop>> loopsPerFunction;
+    try {
+      loopsPerFunction =
+          functionNames.parallelStream()
+              .map(
+                  functionName -> {
+                    try {
+                      return findLoops(cfa.getFunctionNodes(functionName), cfa.getLanguage());
+                    } catch (ParserException e) {
+                      throw new LoopDetectionFailedException(e);
+                    }
+                  })
+              .collect(ImmutableList.toImmutableList());
+    } catch (LoopDetectionFailedException e) {
+      throw e.getCause();
+    }
+
     ImmutableListMultimap.Builder<String, Loop> loops = ImmutableListMultimap.builder();
-    for (String functionName : cfa.getAllFunctionNames()) {
-      NavigableSet<CFANode> nodes = cfa.getFunctionNodes(functionName);
-      loops.putAll(functionName, findLoops(nodes, cfa.getLanguage()));
+    for (int i = 0; i < functionNames.size(); i++) {
+      loops.putAll(functionNames.get(i), loopsPerFunction.get(i));
     }
     return new LoopStructure(loops.build());
   }
 
+  /** Used to pass a {@link ParserException} out of the parallel loop detection. */
+  private static final class LoopDetectionFailedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private LoopDetectionFailedException(ParserException pCause) {
+      super(pCause);
+    }
+
+    @Override
+    public synchronized ParserException getCause() {
+      return (ParserException) super.getCause();
+    }
+  }
+
   /**
    * Find all loops inside a given set of CFA nodes. The nodes in the given set may not be connected
    * with any nodes outside of this set. This method tries to differentiate nested loops.
@@ -521,14 +633,14 @@ public final class LoopStructure implements Serializable {
 
     // We need to store some information per pair of CFANodes.
     // We could use Map<Pair<CFANode, CFANode>> but it would be very memory
-    // inefficient. Instead we use some arrays.
-    // We use the reverse post-order id of each node as the array index for that node,
+    // inefficient. Instead we use a sparse graph indexed by integers.
+    // We use the reverse post-order id of each node as the index for that node,
     // because this id is unique, without gaps, and its minimum is 0.
     // (Note that all removed nodes from initialChain
     // are guaranteed to have higher reverse post-order ids than the remaining nodes.)
     // It's important to not use the node number because it has large gaps.
     final Function<CFANode, Integer> arrayIndexForNode = CFANode::getReversePostorderId;
-    // this is the size of the arrays
+    // this is the number of nodes
     final int size = nodes.size();
 
     // all nodes of the graph
@@ -536,9 +648,10 @@ public final class LoopStructure implements Serializable {
     final CFANode[] nodesArray = new CFANode[size];
 
     // all edges of the graph
-    // Iff there is an edge from nodes[i] to nodes[j], edges[i][j] is not null.
-    // The set edges[i][j].nodes contains all nodes that were eliminated and merged into this edge.
-    final Edge[][] edges =  new Edge[size][size];
+    // Iff there is an edge from nodes[i] to nodes[j], edges.get(i, j) is not null.
+    // The set edges.get(i, j).nodes contains all nodes that were eliminated and merged into this
+    // edge.
+    final Graph edges = new Graph(size);
 
     List<Loop> loops = new ArrayList<>();
 
@@ -553,7 +666,7 @@ public final class LoopStructure implements Serializable {
       for (CFAEdge edge : leavingEdges(n)) {
         CFANode succ = edge.getSuccessor();
         int j = arrayIndexForNode.apply(succ);
-        edges[i][j] = new Edge();
+        edges.getOrCreate(i, j);
 
         if (i == j) {
           // self-edge
@@ -585,9 +698,7 @@ public final class LoopStructure implements Serializable {
         final int current = arrayIndexForNode.apply(currentNode);
 
         // Mark this node as a loop head
-        if (edges[current][current] == null) {
-          edges[current][current] = new Edge();
-        }
+        edges.getOrCreate(current, current);
         handleLoop(currentNode, current, edges, loops);
 
         // Now merge current into all its successors
@@ -662,7 +773,7 @@ public final class LoopStructure implements Serializable {
       NavigableSet<CFANode> nodes,
       final Function<CFANode, Integer> arrayIndexForNode,
       final CFANode[] nodesArray,
-      final Edge[][] edges,
+      final Graph edges,
       List<Loop> loops) {
 
     boolean changed = false;
@@ -674,8 +785,8 @@ public final class LoopStructure implements Serializable {
         final int current = arrayIndexForNode.apply(currentNode);
 
         // find edges of current
-        final int predecessor = findSingleIncomingEdgeOfNode(current, edges);
-        final int successor   = findSingleOutgoingEdgeOfNode(current, edges);
+        final int predecessor = edges.findSingleIncomingEdgeOfNode(current);
+        final int successor   = edges.findSingleOutgoingEdgeOfNode(current);
 
         if ((predecessor == -1) && (successor == -1)) {
           // no edges, eliminate node
@@ -683,21 +794,21 @@ public final class LoopStructure implements Serializable {
 
         } else if ((predecessor == -1) && (successor > -1)) {
           // no incoming edges, one outgoing edge
-          final int successor2 = findSingleOutgoingEdgeOfNode(successor, edges);
+          final int successor2 = edges.findSingleOutgoingEdgeOfNode(successor);
           if (successor2 == -1) {
             // the current node is a source that is only connected with a sink
             // we can remove it
-            edges[current][successor] = null;
+            edges.remove(current, successor);
             it.remove(); // delete currentNode
           }
 
         } else if ((successor == -1) && (predecessor > -1)) {
           // one incoming edge, no outgoing edges
-          final int predecessor2 = findSingleIncomingEdgeOfNode(predecessor, edges);
+          final int predecessor2 = edges.findSingleIncomingEdgeOfNode(predecessor);
           if (predecessor2 == -1) {
             // the current node is a sink that is only connected with a source
             // we can remove it
-            edges[predecessor][current] =  null;
+            edges.remove(predecessor, current);
             it.remove(); // delete currentNode
           }
 
@@ -709,11 +820,11 @@ public final class LoopStructure implements Serializable {
           moveOutgoingEdges(currentNode, current, predecessor, edges);
 
           // delete from graph
-          edges[predecessor][current] = null;
+          edges.remove(predecessor, current);
           it.remove(); // delete currentNode
 
           // now predecessor node might have gained a self-edge
-          if (edges[predecessor][predecessor] != null) {
+          if (edges.get(predecessor, predecessor) != null) {
             CFANode pred = nodesArray[predecessor];
             handleLoop(pred, predecessor, edges, loops);
           }
@@ -727,11 +838,11 @@ public final class LoopStructure implements Serializable {
           moveIncomingEdges(currentNode, current, successor, edges);
 
           // delete from graph
-          edges[current][successor] = null;
+          edges.remove(current, successor);
           it.remove(); // delete currentNode
 
           // now successor node might have gained a self-edge
-          if (edges[successor][successor] != null) {
+          if (edges.get(successor, successor) != null) {
             CFANode succ = nodesArray[successor];
             handleLoop(succ, successor, edges, loops);
           }
@@ -742,21 +853,19 @@ public final class LoopStructure implements Serializable {
   }
 
   private static void moveIncomingEdges(final CFANode fromNode, final int from, final int to,
-      final Edge[][] edges) {
-    Edge edgeFromTo = edges[from][to];
-
-    for (int j = 0; j < edges.length; j++) {
-      if (edges[j][from] != null) {
-        // combine three edges (j,current) (current,successor) and (j,successor)
-        // into a single edge (j,successor)
-        Edge targetEdge = getEdge(j, to, edges);
-        targetEdge.add(edges[j][from]);
-        if (edgeFromTo != null) {
-          targetEdge.add(edgeFromTo);
-        }
-        targetEdge.add(fromNode);
-        edges[j][from] = null;
+      final Graph edges) {
+    Edge edgeFromTo = edges.get(from, to);
+
+    for (int j : edges.getPredecessors(from)) {
+      // combine three edges (j,current) (current,successor) and (j,successor)
+      // into a single edge (j,successor)
+      Edge targetEdge = edges.getOrCreate(j, to);
+      targetEdge.add(edges.get(j, from));
+      if (edgeFromTo != null) {
+        targetEdge.add(edgeFromTo);
       }
+      targetEdge.add(fromNode);
+      edges.remove(j, from);
     }
   }
 
@@ -764,125 +873,61 @@ public final class LoopStructure implements Serializable {
    * Copy all outgoing edges of "from" to "to", and delete them from "from" afterwards.
    */
   private static void moveOutgoingEdges(final CFANode fromNode, final int from, final int to,
-      final Edge[][] edges) {
-    Edge edgeToFrom = edges[to][from];
-
-    for (int j = 0; j < edges.length; j++) {
-      if (edges[from][j] != null) {
-        // combine three edges (predecessor,current) (current,j) and (predecessor,j)
-        // into a single edge (predecessor,j)
-        Edge targetEdge = getEdge(to, j, edges);
-        targetEdge.add(edges[from][j]);
-        if (edgeToFrom != null) {
-          targetEdge.add(edgeToFrom);
-        }
-        targetEdge.add(fromNode);
-        edges[from][j] = null;
+      final Graph edges) {
+    Edge edgeToFrom = edges.get(to, from);
+
+    for (int j : edges.getSuccessors(from)) {
+      // combine three edges (predecessor,current) (current,j) and (predecessor,j)
+      // into a single edge (predecessor,j)
+      Edge targetEdge = edges.getOrCreate(to, j);
+      targetEdge.add(edges.get(from, j));
+      if (edgeToFrom != null) {
+        targetEdge.add(edgeToFrom);
       }
+      targetEdge.add(fromNode);
+      edges.remove(from, j);
     }
   }
 
   private static void mergeNodeIntoSuccessors(CFANode currentNode, final int current,
-      final CFANode[] nodesArray, final Edge[][] edges, List<Loop> loops) {
-    List<Integer> predecessors = new ArrayList<>();
-    List<Integer> successors = new ArrayList<>();
-    for (int i = 0; i < edges.length; i++) {
-      if (edges[i][current] != null) {
-        predecessors.add(i);
-      }
-      if (edges[current][i] != null) {
-        successors.add(i);
-      }
-    }
+      final CFANode[] nodesArray, final Graph edges, List<Loop> loops) {
+    List<Integer> predecessors = edges.getPredecessors(current);
+    List<Integer> successors = edges.getSuccessors(current);
 
     for (int successor : successors) {
       for (int predecessor : predecessors) {
         // create edge (pred, succ) from (pred, current) and (current, succ)
-        Edge targetEdge = getEdge(predecessor, successor, edges);
-        targetEdge.add(edges[predecessor][current]);
-        targetEdge.add(edges[current][successor]);
+        Edge targetEdge = edges.getOrCreate(predecessor, successor);
+        targetEdge.add(edges.get(predecessor, current));
+        targetEdge.add(edges.get(current, successor));
         targetEdge.add(currentNode);
 
       }
-      if (edges[successor][successor] != null) {
+      if (edges.get(successor, successor) != null) {
         CFANode succ = nodesArray[successor];
         handleLoop(succ, successor, edges, loops);
       }
     }
 
     for (int predecessor : predecessors) {
-      edges[predecessor][current] = null;
+      edges.remove(predecessor, current);
     }
     for (int successor : successors) {
-      edges[current][successor] = null;
+      edges.remove(current, successor);
     }
   }
 
-  // get edge from edges array, ensuring that it is added if it does not exist yet
-  private static Edge getEdge(int i, int j, Edge[][] edges) {
-    Edge result = edges[i][j];
-    if (edges[i][j] == null) {
-      result = new Edge();
-      edges[i][j] = result;
-    }
-    return result;
-  }
-
   // create a loop from a node with a self-edge
   private static void handleLoop(final CFANode loopHead, int loopHeadIndex,
-      final Edge[][] edges, Collection<Loop> loops) {
+      final Graph edges, Collection<Loop> loops) {
     assert loopHead != null;
 
     // store loop
-    Loop loop = new Loop(loopHead, edges[loopHeadIndex][loopHeadIndex].asNodeSet());
+    Loop loop = new Loop(loopHead, edges.get(loopHeadIndex, loopHeadIndex).asNodeSet());
     loops.add(loop);
 
     // remove this loop from the graph
-    edges[loopHeadIndex][loopHeadIndex] = null;
-  }
-
-  // find index of single predecessor of node i
-  // if there is no successor, -1 is returned
-  // if there are several successor, -2 is returned
-  private static int findSingleIncomingEdgeOfNode(int i, Edge[][] edges) {
-    final int size = edges.length;
-
-    int predecessor = -1;
-    for (int j = 0; j < size; j++) {
-      if (edges[j][i] != null) {
-        // i has incoming edge from j
-
-        if (predecessor > -1) {
-          // not the only incoming edge
-          return -2;
-        } else {
-          predecessor = j;
-        }
-      }
-    }
-    return predecessor;
-  }
-
-  // find index of single successor of node i
-  // if there is no successor, -1 is returned
-  // if there are several successors, -2 is returned
-  private static int findSingleOutgoingEdgeOfNode(int i, Edge[][] edges) {
-    final int size = edges.length;
-
-    int successor = -1;
-    for (int j = 0; j < size; j++) {
-      if (edges[i][j] != null) {
-        // i has outgoing edge to j
-
-        if (successor > -1) {
-          // not the only outgoing edge
-          return -2;
-        } else {
-          successor = j;
-        }
-      }
-    }
-    return successor;
+    edges.remove(loopHeadIndex, loopHeadIndex);
   }
 
   public static Collection<Loop> getRecursions(final CFA cfa) {
@@ -0,0 +1,155 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.dataflow;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.Maps;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionCallEdge;
+import org.sosy_lab.cpachecker.cfa.model.FunctionReturnEdge;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+
+/**
+ * Worklist solver for intraprocedural dataflow problems whose facts are sets of dense indices
+ * (e.g., variable ids) represented as {@link BitSet}s, and whose join is the union (e.g., live
+ * variables or reaching definitions).
+ *
+ * <p>The analysis is applied to the nodes of a single function: function call and return edges are
+ * ignored, but summary edges are followed. Nodes are processed in the order of their reverse
+ * post-order ids, such that in forward direction a node is usually handled after its
+ * predecessors, and in backward direction after its successors, which reduces the number of
+ * iterations for loops.
+ *
+ * <p>Instances of this class do not have any state, so they can be used for several functions
+ * concurrently as long as the transfer function is thread-safe.
+ */
+public final class BitSetDataflowAnalysis {
+
+  public enum Direction {
+    FORWARD,
+    BACKWARD
+  }
+
+  /** Transfer function of a dataflow analysis. */
+  @FunctionalInterface
+  public interface TransferFunction {
+
+    /**
+     * Computes the facts after the given edge (in the direction of the analysis) from the facts
+     * before it.
+     *
+     * @param pEdge the edge to handle.
+     * @param pInput the facts before the edge. Must not be modified.
+     * @return the facts after the edge as a new bit set, which is owned by the caller.
+     */
+    BitSet apply(CFAEdge pEdge, BitSet pInput) throws CPATransferException, InterruptedException;
+  }
+
+  /**
+   * Creates a transfer function that computes the union of {@code gen(e)} and {@code in \ kill(e)}
+   * for each edge {@code e}.
+   */
+  public static TransferFunction genKill(
+      Function<CFAEdge, BitSet> pGen, Function<CFAEdge, BitSet> pKill) {
+    checkNotNull(pGen);
+    checkNotNull(pKill);
+    return (edge, input) -> {
+      BitSet result = (BitSet) input.clone();
+      result.andNot(pKill.apply(edge));
+      result.or(pGen.apply(edge));
+      return result;
+    };
+  }
+
+  private final Direction direction;
+  private final TransferFunction transferFunction;
+  private final ShutdownNotifier shutdownNotifier;
+
+  public BitSetDataflowAnalysis(
+      Direction pDirection, TransferFunction pTransferFunction, ShutdownNotifier pShutdownNotifier) {
+    direction = checkNotNull(pDirection);
+    transferFunction = checkNotNull(pTransferFunction);
+    shutdownNotifier = checkNotNull(pShutdownNotifier);
+  }
+
+  /**
+   * Computes the least fixpoint of the dataflow problem on the given nodes.
+   *
+   * @param pNodes the nodes to analyze, usually all nodes of a function. Edges to other nodes are
+   *     ignored.
+   * @param pInitialFacts the facts that hold at a node independently of its neighbors (e.g., the
+   *     return variable is live at the function exit). Nodes without initial facts start with the
+   *     empty set.
+   * @return the facts of each of the given nodes. For a forward analysis, these are the facts
+   *     before the leaving edges of a node, for a backward analysis before its entering edges.
+   */
+  public Map<CFANode, BitSet> solve(
+      Collection<CFANode> pNodes, Function<CFANode, BitSet> pInitialFacts)
+      throws CPATransferException, InterruptedException {
+    Map<CFANode, BitSet> facts = Maps.newHashMapWithExpectedSize(pNodes.size());
+    for (CFANode node : pNodes) {
+      BitSet initial = pInitialFacts.apply(node);
+      facts.put(node, initial == null ? new BitSet() : (BitSet) initial.clone());
+    }
+
+    // the reverse post-order id of the function entry is the highest one
+    Comparator<CFANode> order = Comparator.comparingInt(CFANode::getReversePostorderId);
+    PriorityQueue<CFANode> waitlist =
+        new PriorityQueue<>(direction == Direction.FORWARD ? order.reversed() : order);
+    Set<CFANode> waiting = new HashSet<>(pNodes);
+    waitlist.addAll(pNodes);
+
+    while (!waitlist.isEmpty()) {
+      shutdownNotifier.shutdownIfNecessary();
+      CFANode node = waitlist.poll();
+      waiting.remove(node);
+      BitSet fact = facts.get(node);
+
+      for (CFAEdge edge : getEdges(node)) {
+        CFANode target =
+            direction == Direction.FORWARD ? edge.getSuccessor() : edge.getPredecessor();
+        BitSet targetFact = facts.get(target);
+        if (targetFact == null) {
+          continue; // not one of the analyzed nodes
+        }
+
+        BitSet newFacts = transferFunction.apply(edge, fact);
+        newFacts.andNot(targetFact);
+        if (!newFacts.isEmpty()) {
+          targetFact.or(newFacts);
+          if (waiting.add(target)) {
+            waitlist.add(target);
+          }
+        }
+      }
+    }
+    return facts;
+  }
+
+  private FluentIterable<CFAEdge> getEdges(CFANode pNode) {
+    FluentIterable<CFAEdge> edges =
+        direction == Direction.FORWARD
+            ? CFAUtils.allLeavingEdges(pNode)
+            : CFAUtils.allEnteringEdges(pNode);
+    return edges.filter(e -> !(e instanceof FunctionCallEdge || e instanceof FunctionReturnEdge));
+  }
+}
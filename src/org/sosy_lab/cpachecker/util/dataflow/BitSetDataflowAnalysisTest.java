@@ -0,0 +1,129 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.dataflow;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.ast.ASimpleDeclaration;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.LiveVariables;
+import org.sosy_lab.cpachecker.util.dataflow.BitSetDataflowAnalysis.Direction;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class BitSetDataflowAnalysisTest {
+
+  private static final String[] PROGRAM = {
+    "int f(int x) {",
+    "  return x + 1;",
+    "}",
+    "int main() {",
+    "  int i = 0;",
+    "  int s = 0;",
+    "  int unused = 0;",
+    "  while (i < 10) {",
+    "    s = f(s) + i;",
+    "    i++;",
+    "  }",
+    "  return s;",
+    "}"
+  };
+
+  private static CFA makeCFA(boolean pUseDataflowAnalysis) throws Exception {
+    Configuration config =
+        TestDataTools.configurationForTest()
+            .setOption("cfa.findLiveVariables", "true")
+            .setOption("liveVar.useDataflowAnalysis", Boolean.toString(pUseDataflowAnalysis))
+            .build();
+    return TestDataTools.makeCFA(config, PROGRAM);
+  }
+
+  /** Nodes in the order of their numbers, which is the same for two CFAs of the same program. */
+  private static List<CFANode> getSortedNodes(CFA pCfa) {
+    return ImmutableList.sortedCopyOf(
+        Comparator.comparingInt(CFANode::getNodeNumber), pCfa.getAllNodes());
+  }
+
+  private static List<String> getLiveVariableNames(LiveVariables pLiveVariables, CFANode pNode) {
+    return FluentIterable.from(pLiveVariables.getLiveVariablesForNode(pNode))
+        .transform(ASimpleDeclaration::getQualifiedName)
+        .toSortedList(String::compareTo);
+  }
+
+  @Test
+  public void testLiveVariablesAgainstCPA() throws Exception {
+    CFA dataflowCfa = makeCFA(true);
+    CFA cpaCfa = makeCFA(false);
+    LiveVariables dataflowLiveVariables = dataflowCfa.getLiveVariables().orElseThrow();
+    LiveVariables cpaLiveVariables = cpaCfa.getLiveVariables().orElseThrow();
+
+    List<CFANode> dataflowNodes = getSortedNodes(dataflowCfa);
+    List<CFANode> cpaNodes = getSortedNodes(cpaCfa);
+    assertThat(dataflowNodes).hasSize(cpaNodes.size());
+
+    boolean someVariableLive = false;
+    for (int i = 0; i < dataflowNodes.size(); i++) {
+      List<String> expected = getLiveVariableNames(cpaLiveVariables, cpaNodes.get(i));
+      assertThat(getLiveVariableNames(dataflowLiveVariables, dataflowNodes.get(i)))
+          .containsExactlyElementsIn(expected)
+          .inOrder();
+      someVariableLive |= !expected.isEmpty();
+    }
+    assertThat(someVariableLive).isTrue();
+
+    for (CFANode loopHead : dataflowCfa.getAllLoopHeads().orElseThrow()) {
+      assertThat(getLiveVariableNames(dataflowLiveVariables, loopHead))
+          .containsAtLeast("main::i", "main::s");
+      assertThat(getLiveVariableNames(dataflowLiveVariables, loopHead))
+          .doesNotContain("main::unused");
+    }
+  }
+
+  @Test
+  public void testForwardAnalysisWithLoop() throws Exception {
+    CFA cfa = TestDataTools.makeCFA(PROGRAM);
+    List<CFANode> mainNodes =
+        FluentIterable.from(cfa.getAllNodes())
+            .filter(node -> node.getFunctionName().equals("main"))
+            .toList();
+
+    // the fact of a node is the set of lines of all edges that may have been taken before it
+    BitSetDataflowAnalysis analysis =
+        new BitSetDataflowAnalysis(
+            Direction.FORWARD,
+            BitSetDataflowAnalysis.genKill(
+                edge -> {
+                  BitSet lines = new BitSet();
+                  lines.set(edge.getLineNumber());
+                  return lines;
+                },
+                edge -> new BitSet()),
+            ShutdownNotifier.createDummy());
+    Map<CFANode, BitSet> facts = analysis.solve(mainNodes, node -> null);
+
+    assertThat(facts.keySet()).containsExactlyElementsIn(mainNodes);
+    assertThat(facts.get(cfa.getMainFunction())).isEqualTo(new BitSet());
+    for (CFANode loopHead : cfa.getAllLoopHeads().orElseThrow()) {
+      // the body of the loop is reached through the back edge
+      assertThat(facts.get(loopHead).get(5)).isTrue();
+      assertThat(facts.get(loopHead).get(10)).isTrue();
+      assertThat(facts.get(loopHead).get(12)).isFalse();
+    }
+    assertThat(facts.get(cfa.getMainFunction().getExitNode()).get(12)).isTrue();
+  }
+}
@@ -0,0 +1,13 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+/**
+ * Classic worklist-based dataflow analyses on the CFA, which are cheaper than running a CPA for
+ * simple problems like live variables or reaching definitions.
+ */
+package org.sosy_lab.cpachecker.util.dataflow;
@@ -22,6 +22,8 @@ import com.google.common.collect.Table;
 import com.google.common.collect.Table.Cell;
 import java.io.Serializable;
 import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
@@ -29,9 +31,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.Set;
-import java.util.function.Predicate;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -51,6 +51,10 @@ import org.sosy_lab.cpachecker.util.states.MemoryLocation;
  *
  * <p>A dependence graph G = (V, E) is a directed graph. His nodes V are CFA edges of the program.
  * Given two nodes i and j, if j is a dependence of i, a directed edge (j, i) from j to i is in E.
+ *
+ * <p>Internally, nodes are numbered consecutively and the edges are stored in compressed sparse row
+ * format for both directions, which needs much less memory than a table of nodes and allows fast
+ * traversals with bit sets as visited sets.
  */
 public final class DependenceGraph implements Serializable {
 
@@ -68,7 +72,17 @@ public final class DependenceGraph implements Serializable {
   }
 
   private final ImmutableNodeMap nodes;
-  private ImmutableTable<DGNode, DGNode, DependenceType> adjacencyMatrix;
+
+  /** All nodes of the graph, the index of a node in this list is its id. */
+  private final ImmutableList<DGNode> nodesById;
+
+  private final ImmutableMap<DGNode, Integer> ids;
+
+  /** Edges (j, i) indexed by j. */
+  private final CompressedAdjacency successors;
+
+  /** Edges (j, i) indexed by i. */
+  private final CompressedAdjacency predecessors;
 
   private final transient ShutdownNotifier shutdownNotifier;
 
@@ -78,7 +92,33 @@ public final class DependenceGraph implements Serializable {
       final ShutdownNotifier pShutdownNotifier) {
 
     nodes = new ImmutableNodeMap(pNodes);
-    adjacencyMatrix = ImmutableTable.copyOf(pEdges);
+    nodesById =
+        ImmutableSet.<DGNode>builder()
+            .addAll(nodes.getAllNodes())
+            .addAll(pEdges.rowKeySet())
+            .addAll(pEdges.columnKeySet())
+            .build()
+            .asList();
+    ImmutableMap.Builder<DGNode, Integer> idBuilder =
+        ImmutableMap.builderWithExpectedSize(nodesById.size());
+    for (int i = 0; i < nodesById.size(); i++) {
+      idBuilder.put(nodesById.get(i), i);
+    }
+    ids = idBuilder.build();
+
+    int edgeCount = pEdges.size();
+    int[] sources = new int[edgeCount];
+    int[] targets = new int[edgeCount];
+    DependenceType[] types = new DependenceType[edgeCount];
+    int i = 0;
+    for (Cell<DGNode, DGNode, DependenceType> edge : pEdges.cellSet()) {
+      sources[i] = ids.get(edge.getRowKey());
+      targets[i] = ids.get(edge.getColumnKey());
+      types[i] = checkNotNull(edge.getValue());
+      i++;
+    }
+    successors = new CompressedAdjacency(nodesById.size(), sources, targets, types);
+    predecessors = new CompressedAdjacency(nodesById.size(), targets, sources, types);
     shutdownNotifier = pShutdownNotifier;
   }
 
@@ -91,8 +131,16 @@ public final class DependenceGraph implements Serializable {
     return new DependenceGraphBuilder(pCfa, pConfig, pLogger, pShutdownNotifier);
   }
 
+  /** Creates a table of all edges of the graph, e.g., for exporting it. */
   Table<DGNode, DGNode, DependenceType> getMatrix() {
-    return adjacencyMatrix;
+    ImmutableTable.Builder<DGNode, DGNode, DependenceType> matrix = ImmutableTable.builder();
+    for (int source = 0; source < nodesById.size(); source++) {
+      for (int k = successors.offsets[source]; k < successors.offsets[source + 1]; k++) {
+        matrix.put(
+            nodesById.get(source), nodesById.get(successors.targets[k]), successors.types[k]);
+      }
+    }
+    return matrix.build();
   }
 
   public Collection<DGNode> getAllNodes() {
@@ -149,23 +197,48 @@ public final class DependenceGraph implements Serializable {
       CFAEdge pStart, TraversalDirection pDirection, Collection<CFAEdge> pEdgesToIgnore)
       throws InterruptedException {
 
+    Map<CFAEdge, Optional<Set<MemoryLocation>>> reachable = new HashMap<>();
+    traverse(pStart, pDirection, pEdgesToIgnore, reachable);
+    return ReachedSet.fromMutable(reachable);
+  }
+
+  /**
+   * Creates a query that collects the dependences reachable from several start edges, e.g., for
+   * slicing with many slicing criteria.
+   */
+  public ReachabilityQuery createReachabilityQuery(TraversalDirection pDirection) {
+    return new ReachabilityQuery(pDirection);
+  }
+
+  /**
+   * Adds the dependences reachable from the given edge to the given map.
+   *
+   * @return whether all edges of the program are reachable (due to unknown pointers).
+   */
+  private boolean traverse(
+      CFAEdge pStart,
+      TraversalDirection pDirection,
+      Collection<CFAEdge> pEdgesToIgnore,
+      Map<CFAEdge, Optional<Set<MemoryLocation>>> reachable)
+      throws InterruptedException {
+
     // reachable.get(cfaEdge) == null
     //   => cfaEdge not reachable
     // reachable.get(cfaEdge) == optional && optional.isEmpty()
     //   => edge reachable, all its causes reachable
     // reachable.get(cfaEdge) == optional && optional.isPresent()
     //   => edge reachable, all its causes in optional.get() are reachable
-    Map<CFAEdge, Optional<Set<MemoryLocation>>> reachable = new HashMap<>();
 
     Set<CFunctionSummaryEdge> relevantSummaryEdges = new HashSet<>();
     Multimap<AFunctionDeclaration, CFunctionCallEdge> ignoredCallEdges = HashMultimap.create();
 
-    Collection<DGNode> seen = new HashSet<>();
-    Queue<DGNode> waitlist = new ArrayDeque<>();
+    BitSet seen = new BitSet(nodesById.size());
+    IntArrayDeque waitlist = new IntArrayDeque();
 
     for (DGNode dgNode : nodes.getNodesForEdge(pStart)) {
-      seen.add(dgNode);
-      waitlist.add(dgNode);
+      int id = ids.get(dgNode);
+      seen.set(id);
+      waitlist.add(id);
     }
 
     if (pDirection == TraversalDirection.BACKWARD) {
@@ -175,7 +248,8 @@ public final class DependenceGraph implements Serializable {
     while (!waitlist.isEmpty()) {
 
       shutdownNotifier.shutdownIfNecessary();
-      DGNode current = waitlist.remove();
+      int currentId = waitlist.remove();
+      DGNode current = nodesById.get(currentId);
 
       // FIXME: this is a strong overapproximation: If an unknown pointer is used,
       // we don't know anything, so we use the full program as slice
@@ -185,7 +259,7 @@ public final class DependenceGraph implements Serializable {
         for (CFAEdge edge : nodes.nodesForEdges.keySet()) {
           reachable.put(edge, Optional.empty());
         }
-        break;
+        return true;
 
       } else if (!pEdgesToIgnore.contains(current.getCfaEdge())) {
 
@@ -219,53 +293,32 @@ public final class DependenceGraph implements Serializable {
         if (pDirection == TraversalDirection.BACKWARD && edge instanceof CFunctionReturnEdge) {
           relevantSummaryEdges.add(((CFunctionReturnEdge) edge).getSummaryEdge());
           ignoredCallEdges.removeAll(edge.getPredecessor().getFunction());
-          nodes.getNodesForEdge(pStart).forEach(waitlist::add);
+          for (DGNode dgNode : nodes.getNodesForEdge(pStart)) {
+            waitlist.add(ids.get(dgNode));
+          }
         }
 
-        for (DGNode dgNode : getAdjacentNeighbors(current, pDirection)) {
-          if (seen.add(dgNode)) {
-            waitlist.add(dgNode);
-          }
+        if (pDirection != TraversalDirection.BACKWARD) {
+          addUnseenNeighbors(successors, currentId, seen, waitlist);
+        }
+        if (pDirection != TraversalDirection.FORWARD) {
+          addUnseenNeighbors(predecessors, currentId, seen, waitlist);
         }
       }
     }
 
-    return ReachedSet.fromMutable(reachable);
+    return false;
   }
 
-  private ImmutableSet<DGNode> getAdjacentNeighbors(
-      final DGNode pNode, final TraversalDirection pDirection) {
-    return getAdjacentNeighbors(
-        pNode, pDirection, dgEdge -> true);
-  }
-
-  private ImmutableSet<DGNode> getAdjacentNeighbors(
-      DGNode pNode, TraversalDirection pDirection, Predicate<DependenceType> pIsEdgeOfInterest) {
-
-    return getAdjacentNodes(pNode, pDirection).entrySet().stream()
-        .filter(e -> pIsEdgeOfInterest.test(e.getValue()))
-        .map(e -> e.getKey())
-        .collect(ImmutableSet.toImmutableSet());
-  }
-
-  private Map<DGNode, DependenceType> getAdjacentNodes(
-      DGNode pNode, TraversalDirection pDirection) {
-    Map<DGNode, DependenceType> adjacentEdges;
-    switch (pDirection) {
-      case FORWARD:
-        adjacentEdges = adjacencyMatrix.row(pNode);
-        break;
-      case BACKWARD:
-        adjacentEdges = adjacencyMatrix.column(pNode);
-        break;
-      case BOTH:
-        adjacentEdges = adjacencyMatrix.row(pNode);
-        adjacentEdges.putAll(adjacencyMatrix.column(pNode));
-        break;
-      default:
-        throw new AssertionError("Unhandled direction " + pDirection);
-    }
-    return adjacentEdges;
+  private static void addUnseenNeighbors(
+      CompressedAdjacency pAdjacency, int pNode, BitSet pSeen, IntArrayDeque pWaitlist) {
+    for (int k = pAdjacency.offsets[pNode]; k < pAdjacency.offsets[pNode + 1]; k++) {
+      int neighbor = pAdjacency.targets[k];
+      if (!pSeen.get(neighbor)) {
+        pSeen.set(neighbor);
+        pWaitlist.add(neighbor);
+      }
+    }
   }
 
   @Override
@@ -278,13 +331,116 @@ public final class DependenceGraph implements Serializable {
     }
     DependenceGraph that = (DependenceGraph) pO;
     // If these equal, the root nodesForEdges have to equal, too.
-    return Objects.equals(nodes, that.nodes)
-        && Objects.equals(adjacencyMatrix, that.adjacencyMatrix);
+    return Objects.equals(nodes, that.nodes) && Objects.equals(getMatrix(), that.getMatrix());
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(nodes, adjacencyMatrix);
+    return Objects.hash(nodes, getMatrix());
+  }
+
+  /**
+   * Query for the dependences reachable from several start edges. The results of the traversals
+   * are accumulated, and a start edge that was already reached from a previous start edge is
+   * skipped, because its dependences are already included (this is only true as long as no
+   * function call/return edge is a start edge). Thus, start edges should be added such that edges
+   * with many dependences come first.
+   */
+  public final class ReachabilityQuery {
+
+    private final TraversalDirection direction;
+    private final Map<CFAEdge, Optional<Set<MemoryLocation>>> reachable = new HashMap<>();
+    private boolean allReachable = false;
+
+    private ReachabilityQuery(TraversalDirection pDirection) {
+      direction = checkNotNull(pDirection);
+    }
+
+    /**
+     * Adds the dependences reachable from the given edge to the result of this query.
+     *
+     * @return whether a traversal was necessary, i.e., whether the edge was not yet reached.
+     */
+    public boolean add(CFAEdge pStart) throws InterruptedException {
+      if (allReachable || reachable.containsKey(pStart)) {
+        return false;
+      }
+      allReachable = traverse(pStart, direction, ImmutableSet.of(), reachable);
+      return true;
+    }
+
+    /** Returns whether the given edge is reachable from any start edge added so far. */
+    public boolean isReached(CFAEdge pEdge) {
+      return reachable.containsKey(pEdge);
+    }
+
+    public ReachedSet getReachedSet() {
+      return ReachedSet.fromMutable(reachable);
+    }
+  }
+
+  /**
+   * Adjacency lists in compressed sparse row format: the neighbors of node i are {@code
+   * targets[offsets[i]]} to {@code targets[offsets[i + 1] - 1]}.
+   */
+  private static final class CompressedAdjacency implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int[] offsets;
+    private final int[] targets;
+    private final DependenceType[] types;
+
+    private CompressedAdjacency(
+        int pNodeCount, int[] pSources, int[] pTargets, DependenceType[] pTypes) {
+      offsets = new int[pNodeCount + 1];
+      for (int source : pSources) {
+        offsets[source + 1]++;
+      }
+      for (int i = 0; i < pNodeCount; i++) {
+        offsets[i + 1] += offsets[i];
+      }
+      targets = new int[pSources.length];
+      types = new DependenceType[pSources.length];
+      int[] next = Arrays.copyOf(offsets, pNodeCount);
+      for (int k = 0; k < pSources.length; k++) {
+        int position = next[pSources[k]]++;
+        targets[position] = pTargets[k];
+        types[position] = pTypes[k];
+      }
+    }
+  }
+
+  /** Simple FIFO queue of ints that avoids boxing. */
+  private static final class IntArrayDeque {
+
+    private int[] elements = new int[16];
+    private int head = 0;
+    private int size = 0;
+
+    private boolean isEmpty() {
+      return size == 0;
+    }
+
+    private void add(int pElement) {
+      if (size == elements.length) {
+        int[] newElements = new int[elements.length * 2];
+        for (int i = 0; i < size; i++) {
+          newElements[i] = elements[(head + i) % elements.length];
+        }
+        elements = newElements;
+        head = 0;
+      }
+      elements[(head + size) % elements.length] = pElement;
+      size++;
+    }
+
+    private int remove() {
+      int result = elements[head];
+      head = (head + 1) % elements.length;
+      size--;
+      return result;
+    }
   }
 
   private static final class ImmutableNodeMap implements Serializable {
@@ -8,7 +8,11 @@
 
 package org.sosy_lab.cpachecker.util.globalinfo;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cpa.location.LocationStateFactory;
@@ -17,6 +21,7 @@ public class CFAInfo {
   private final ImmutableMap<Integer, CFANode> nodeNumberToNode;
   private LocationStateFactory locationStateFactory;
   private final CFA cfa;
+  private @Nullable ImmutableMap<Integer, CFANode> previousVersionNodes = null;
 
   CFAInfo(CFA cfa) {
     ImmutableMap.Builder<Integer, CFANode> nodeNumberToNode0 = ImmutableMap.builder();
@@ -28,9 +33,28 @@ public class CFAInfo {
   }
 
   public CFANode getNodeByNodeNumber(int nodeNumber) {
+    if (previousVersionNodes != null) {
+      CFANode node = previousVersionNodes.get(nodeNumber);
+      checkArgument(
+          node != null, "node %s of previous program version has no counterpart", nodeNumber);
+      return node;
+    }
     return nodeNumberToNode.get(nodeNumber);
   }
 
+  /**
+   * While objects from a previous version of the program are deserialized, node numbers are
+   * resolved with the given mapping instead of the node numbers of the current CFA, and resolving
+   * a node without counterpart fails with an {@link IllegalArgumentException}.
+   *
+   * @param pPreviousVersionNodes the nodes of the current CFA indexed by the node numbers of the
+   *     previous version, or null to use the node numbers of the current CFA again.
+   */
+  public void setPreviousVersionNodes(@Nullable Map<Integer, CFANode> pPreviousVersionNodes) {
+    previousVersionNodes =
+        pPreviousVersionNodes == null ? null : ImmutableMap.copyOf(pPreviousVersionNodes);
+  }
+
   public void storeLocationStateFactory(LocationStateFactory pElementFactory) {
     locationStateFactory = pElementFactory;
   }
@@ -0,0 +1,620 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+import java.util.Arrays;
+import java.util.Collection;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.annotations.SuppressForbidden;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonDoubleValue;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonIntValue;
+import org.sosy_lab.cpachecker.cpa.octagon.values.OctagonInterval;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+/**
+ * Octagon manager that is implemented in Java, such that no native library and no JNI calls are
+ * necessary. Octagons are immutable {@link OctagonMatrix} objects that are managed by the garbage
+ * collector, and number arrays are plain double arrays.
+ *
+ * <p>Integral octagons use the tight closure and round all constants down, their values are exact
+ * as long as they fit into the mantissa of a double.
+ *
+ * <p>Transfer functions that are not octagonal (e.g., assignments with non-unit coefficients) are
+ * over-approximated with interval arithmetic, similar to the native library.
+ */
+public class JavaOctagonManager extends OctagonManager implements StatisticsProvider {
+
+  private static final double INF = Double.POSITIVE_INFINITY;
+
+  /* types of binary constraints, c.f. BinaryConstraints in OctagonState */
+  private static final int PX = 0;
+  private static final int MX = 1;
+  private static final int PXPY = 2;
+  private static final int PXMY = 3;
+  private static final int MXPY = 4;
+  private static final int MXMY = 5;
+
+  private final boolean integral;
+  private final OctagonClosureStatistics stats = new OctagonClosureStatistics();
+
+  /**
+   * Creates a new manager.
+   *
+   * @param pIntegral whether octagons range over the integers (like {@link OctagonIntManager}) or
+   *     the reals (like {@link OctagonFloatManager})
+   */
+  public JavaOctagonManager(boolean pIntegral) {
+    integral = pIntegral;
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    pStatsCollection.add(stats);
+  }
+
+  private Octagon wrap(OctagonMatrix pMatrix) {
+    return new Octagon(pMatrix, this);
+  }
+
+  /* num handling function*/
+
+  @Override
+  public NumArray init_num_t(int n) {
+    return new NumArray(new double[n]);
+  }
+
+  @Override
+  public void num_set(NumArray n1, NumArray n2) {
+    double[] source = n2.getValues();
+    double[] target = n1.getValues();
+    System.arraycopy(source, 0, target, 0, Math.min(source.length, target.length));
+  }
+
+  @Override
+  public Octagon set_bounds(Octagon oct, int pos, NumArray lower, NumArray upper) {
+    // same convention as for reading bounds: the lower array contains the negated lower bound
+    OctagonMatrix result = oct.getMatrix().forget(pos);
+    return wrap(addBounds(result, pos, -lower.getValues()[0], upper.getValues()[0]));
+  }
+
+  @Override
+  public void num_set_int(NumArray n, int pos, long i) {
+    n.getValues()[pos] = i;
+  }
+
+  @Override
+  public void num_set_float(NumArray n, int pos, double d) {
+    n.getValues()[pos] = d;
+  }
+
+  @Override
+  public void num_set_inf(NumArray n, int pos) {
+    n.getValues()[pos] = INF;
+  }
+
+  @Override
+  public long num_get_int(NumArray n, int pos) {
+    return (long) n.getValues()[pos];
+  }
+
+  @Override
+  public double num_get_float(NumArray n, int pos) {
+    return n.getValues()[pos];
+  }
+
+  @Override
+  public boolean num_infty(NumArray n, int pos) {
+    return Double.isInfinite(n.getValues()[pos]);
+  }
+
+  @Override
+  public void num_clear_n(NumArray n, int size) {
+    // number arrays are managed by the garbage collector
+  }
+
+  /* Octagon handling functions */
+
+  @Override
+  public Octagon empty(int n) {
+    return wrap(OctagonMatrix.empty(n, integral, stats));
+  }
+
+  @Override
+  public Octagon universe(int n) {
+    return wrap(OctagonMatrix.universe(n, integral, stats));
+  }
+
+  @Override
+  public Octagon copy(Octagon oct) {
+    // octagons are immutable
+    return oct;
+  }
+
+  @Override
+  public Octagon full_copy(Octagon oct) {
+    return oct;
+  }
+
+  @Override
+  public int dimension(Octagon oct) {
+    return oct.getMatrix().getDimension();
+  }
+
+  @Override
+  public int nbconstraints(Octagon oct) {
+    return oct.getMatrix().countConstraints();
+  }
+
+  @Override
+  public boolean isEmpty(Octagon oct) {
+    return oct.getMatrix().isEmpty();
+  }
+
+  @Override
+  public int isEmptyLazy(Octagon oct) {
+    OctagonMatrix matrix = oct.getMatrix();
+    if (!matrix.isClosureKnown()) {
+      return 3;
+    }
+    return matrix.isEmpty() ? 1 : 2;
+  }
+
+  @Override
+  public boolean isUniverse(Octagon oct) {
+    return oct.getMatrix().isUniverse();
+  }
+
+  @Override
+  public boolean isIncludedIn(Octagon oct1, Octagon oct2) {
+    return oct1.getMatrix().isIncludedIn(oct2.getMatrix());
+  }
+
+  @Override
+  public int isIncludedInLazy(Octagon oct1, Octagon oct2) {
+    return oct1.getMatrix().isIncludedInLazy(oct2.getMatrix());
+  }
+
+  @Override
+  public boolean isEqual(Octagon oct1, Octagon oct2) {
+    return oct1.getMatrix().isEqualTo(oct2.getMatrix());
+  }
+
+  @Override
+  public int isEqualLazy(Octagon oct1, Octagon oct2) {
+    return oct1.getMatrix().isEqualToLazy(oct2.getMatrix());
+  }
+
+  @Override
+  public boolean isIn(Octagon oct1, NumArray array) {
+    return oct1.getMatrix().contains(array.getValues());
+  }
+
+  /* Operators */
+
+  @Override
+  public Octagon intersection(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getMatrix().meet(oct2.getMatrix()));
+  }
+
+  @Override
+  public Octagon union(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getMatrix().join(oct2.getMatrix()));
+  }
+
+  @Override
+  public Octagon widening(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getMatrix().widen(oct2.getMatrix()));
+  }
+
+  @Override
+  public Octagon narrowing(Octagon oct1, Octagon oct2) {
+    return wrap(oct1.getMatrix().narrow(oct2.getMatrix()));
+  }
+
+  /* Transfer Functions */
+
+  @Override
+  public Octagon forget(Octagon oct, int k) {
+    return wrap(oct.getMatrix().forget(k));
+  }
+
+  /**
+   * Assigns x_k := a_0*v_0 + ... + a_{n-1}*v_{n-1} + c, where the array contains the coefficients
+   * followed by the constant c.
+   */
+  @Override
+  public Octagon assingVar(Octagon oct, int k, NumArray array) {
+    return wrap(assign(oct.getMatrix(), k, array.getValues()));
+  }
+
+  private OctagonMatrix assign(OctagonMatrix pMatrix, int k, double[] pCoefficients) {
+    final int n = pMatrix.getDimension();
+    checkArgument(pCoefficients.length > n, "coefficients do not have the right size");
+    if (pMatrix.isEmpty()) {
+      return pMatrix;
+    }
+    final double constant = pCoefficients[n];
+    final int other = getSingleOtherVariable(pCoefficients, n, k);
+
+    if (other == -1) {
+      // x := a*x + c
+      double factor = pCoefficients[k];
+      if (factor == 1) {
+        return pMatrix.translate(k, constant);
+      } else if (factor == -1) {
+        return pMatrix.negate(k).translate(k, constant);
+      } else if (factor == 0) {
+        return addBounds(pMatrix.forget(k), k, constant, constant);
+      }
+
+    } else if (other >= 0 && pCoefficients[k] == 0 && Math.abs(pCoefficients[other]) == 1) {
+      // x := +-y + c
+      OctagonMatrix result = pMatrix.forget(k);
+      if (pCoefficients[other] == 1) {
+        return result.addConstraints(
+            new int[] {PXMY, MXPY},
+            new int[] {k, k},
+            new int[] {other, other},
+            new double[] {constant, -constant});
+      } else {
+        return result.addConstraints(
+            new int[] {PXPY, MXMY},
+            new int[] {k, k},
+            new int[] {other, other},
+            new double[] {constant, -constant});
+      }
+    }
+
+    // not octagonal, use the bounds of the right-hand side
+    double low = constant;
+    double high = constant;
+    for (int i = 0; i < n; i++) {
+      double factor = pCoefficients[i];
+      if (factor > 0) {
+        low += factor * pMatrix.getLowerBound(i);
+        high += factor * pMatrix.getUpperBound(i);
+      } else if (factor < 0) {
+        low += factor * pMatrix.getUpperBound(i);
+        high += factor * pMatrix.getLowerBound(i);
+      }
+    }
+    return addBounds(pMatrix.forget(k), k, low, high);
+  }
+
+  /**
+   * Returns the only variable other than k with a non-zero coefficient, -1 if there is none, and
+   * -2 if there are several.
+   */
+  private static int getSingleOtherVariable(double[] pCoefficients, int n, int k) {
+    int result = -1;
+    for (int i = 0; i < n; i++) {
+      if (i != k && pCoefficients[i] != 0) {
+        if (result != -1) {
+          return -2;
+        }
+        result = i;
+      }
+    }
+    return result;
+  }
+
+  /** Adds the bounds low <= x_k <= high, infinite bounds are ignored. */
+  private static OctagonMatrix addBounds(
+      OctagonMatrix pMatrix, int k, double pLow, double pHigh) {
+    if (pLow > pHigh) {
+      return pMatrix.bottom();
+    }
+    int[] types = new int[2];
+    double[] constants = new double[2];
+    int count = 0;
+    if (pHigh != INF) {
+      types[count] = PX;
+      constants[count++] = pHigh;
+    }
+    if (pLow != -INF) {
+      types[count] = MX;
+      constants[count++] = -pLow;
+    }
+    if (count == 0) {
+      return pMatrix;
+    }
+    int[] vars = new int[count];
+    Arrays.fill(vars, k);
+    return pMatrix.addConstraints(
+        Arrays.copyOf(types, count), vars, vars, Arrays.copyOf(constants, count));
+  }
+
+  /**
+   * Adds binary constraints, the array contains for each constraint its type, the two variables,
+   * and the constant.
+   */
+  @Override
+  public Octagon addBinConstraint(Octagon oct, int noOfConstraints, NumArray array) {
+    double[] values = array.getValues();
+    checkArgument(values.length >= 4 * noOfConstraints, "too few values for constraints");
+    int[] types = new int[noOfConstraints];
+    int[] varsX = new int[noOfConstraints];
+    int[] varsY = new int[noOfConstraints];
+    double[] constants = new double[noOfConstraints];
+    for (int i = 0; i < noOfConstraints; i++) {
+      types[i] = (int) values[4 * i];
+      varsX[i] = (int) values[4 * i + 1];
+      varsY[i] = (int) values[4 * i + 2];
+      constants[i] = values[4 * i + 3];
+    }
+    return wrap(oct.getMatrix().addConstraints(types, varsX, varsY, constants));
+  }
+
+  /**
+   * Substitutes x by a linear expression (backward assignment). This is exact for x := +-x + c and
+   * otherwise over-approximated by forgetting x.
+   */
+  @Override
+  public Octagon substituteVar(Octagon oct, int x, NumArray array) {
+    return wrap(substitute(oct.getMatrix(), x, array.getValues()));
+  }
+
+  private static OctagonMatrix substitute(OctagonMatrix pMatrix, int x, double[] pCoefficients) {
+    final int n = pMatrix.getDimension();
+    checkArgument(pCoefficients.length > n, "coefficients do not have the right size");
+    final double constant = pCoefficients[n];
+    if (getSingleOtherVariable(pCoefficients, n, x) == -1) {
+      if (pCoefficients[x] == 1) {
+        return pMatrix.translate(x, -constant);
+      } else if (pCoefficients[x] == -1) {
+        return pMatrix.translate(x, -constant).negate(x);
+      }
+    }
+    return pMatrix.forget(x);
+  }
+
+  /**
+   * Adds the constraint a_0*v_0 + ... + a_{n-1}*v_{n-1} + c >= 0, where the array contains the
+   * coefficients followed by the constant c.
+   */
+  @Override
+  public Octagon addConstraint(Octagon oct, NumArray array) {
+    return wrap(addLinearConstraint(oct.getMatrix(), array.getValues()));
+  }
+
+  private OctagonMatrix addLinearConstraint(OctagonMatrix pMatrix, double[] pCoefficients) {
+    final int n = pMatrix.getDimension();
+    checkArgument(pCoefficients.length > n, "coefficients do not have the right size");
+    if (pMatrix.isEmpty()) {
+      return pMatrix;
+    }
+    final double constant = pCoefficients[n];
+    int x = -1;
+    int y = -1;
+    boolean isOctagonal = true;
+    for (int i = 0; i < n && isOctagonal; i++) {
+      if (pCoefficients[i] != 0) {
+        isOctagonal = Math.abs(pCoefficients[i]) == 1 && y == -1;
+        if (x == -1) {
+          x = i;
+        } else {
+          y = i;
+        }
+      }
+    }
+
+    if (isOctagonal) {
+      if (x == -1) {
+        return constant >= 0 ? pMatrix : pMatrix.bottom();
+      }
+      // a*x + b*y + c >= 0 is equivalent to -a*x - b*y <= c
+      boolean posX = pCoefficients[x] < 0;
+      int type;
+      if (y == -1) {
+        type = posX ? PX : MX;
+        y = x;
+      } else {
+        boolean posY = pCoefficients[y] < 0;
+        type = posX ? (posY ? PXPY : PXMY) : (posY ? MXPY : MXMY);
+      }
+      return pMatrix.addConstraints(
+          new int[] {type}, new int[] {x}, new int[] {y}, new double[] {constant});
+    }
+
+    // not octagonal, derive bounds for each variable from the bounds of the others
+    double[] lower = new double[n];
+    double[] upper = new double[n];
+    for (int i = 0; i < n; i++) {
+      lower[i] = pMatrix.getLowerBound(i);
+      upper[i] = pMatrix.getUpperBound(i);
+    }
+    OctagonMatrix result = pMatrix;
+    for (int j = 0; j < n; j++) {
+      if (pCoefficients[j] == 0) {
+        continue;
+      }
+      // a_j*v_j >= -c - max(sum of the other terms)
+      double maxOthers = constant;
+      for (int i = 0; i < n && maxOthers != INF; i++) {
+        if (i != j && pCoefficients[i] != 0) {
+          maxOthers += pCoefficients[i] * (pCoefficients[i] > 0 ? upper[i] : lower[i]);
+        }
+      }
+      if (maxOthers == INF) {
+        continue;
+      }
+      double bound = maxOthers / Math.abs(pCoefficients[j]);
+      int type = pCoefficients[j] > 0 ? MX : PX;
+      result =
+          result.addConstraints(
+              new int[] {type}, new int[] {j}, new int[] {j}, new double[] {bound});
+    }
+    return result;
+  }
+
+  /**
+   * Assigns x_k := [a_0]*v_0 + ... + [a_{n-1}]*v_{n-1} + [c], where the array contains for each
+   * coefficient (and the constant) the upper bound followed by the negated lower bound.
+   */
+  @Override
+  public Octagon intervAssingVar(Octagon oct, int k, NumArray array) {
+    OctagonMatrix matrix = oct.getMatrix();
+    double[] values = array.getValues();
+    double[] singletons = getSingletonCoefficients(values);
+    if (singletons != null) {
+      return wrap(assign(matrix, k, singletons));
+    }
+    if (matrix.isEmpty()) {
+      return oct;
+    }
+
+    final int n = matrix.getDimension();
+    checkArgument(values.length >= 2 * (n + 1), "coefficients do not have the right size");
+    double low = -values[2 * n + 1];
+    double high = values[2 * n];
+    for (int i = 0; i < n; i++) {
+      double factorLow = -values[2 * i + 1];
+      double factorHigh = values[2 * i];
+      if (factorLow == 0 && factorHigh == 0) {
+        continue;
+      }
+      double varLow = matrix.getLowerBound(i);
+      double varHigh = matrix.getUpperBound(i);
+      double p1 = multiply(factorLow, varLow);
+      double p2 = multiply(factorLow, varHigh);
+      double p3 = multiply(factorHigh, varLow);
+      double p4 = multiply(factorHigh, varHigh);
+      low += Math.min(Math.min(p1, p2), Math.min(p3, p4));
+      high += Math.max(Math.max(p1, p2), Math.max(p3, p4));
+    }
+    return wrap(addBounds(matrix.forget(k), k, low, high));
+  }
+
+  /** Multiplication for interval arithmetic, where 0 * infinity is 0. */
+  private static double multiply(double a, double b) {
+    if (a == 0 || b == 0) {
+      return 0;
+    }
+    return a * b;
+  }
+
+  /**
+   * Returns the coefficients of an interval linear expression if all intervals are singletons,
+   * and null otherwise.
+   */
+  private static double @Nullable [] getSingletonCoefficients(double[] pIntervals) {
+    double[] result = new double[pIntervals.length / 2];
+    for (int i = 0; i < result.length; i++) {
+      double high = pIntervals[2 * i];
+      if (Double.isInfinite(high) || high != -pIntervals[2 * i + 1]) {
+        return null;
+      }
+      result[i] = high;
+    }
+    return result;
+  }
+
+  @Override
+  public Octagon intervSubstituteVar(Octagon oct, int x, NumArray array) {
+    double[] singletons = getSingletonCoefficients(array.getValues());
+    if (singletons != null) {
+      return wrap(substitute(oct.getMatrix(), x, singletons));
+    }
+    return forget(oct, x);
+  }
+
+  @Override
+  public Octagon intervAddConstraint(Octagon oct, NumArray array) {
+    double[] singletons = getSingletonCoefficients(array.getValues());
+    if (singletons != null) {
+      return wrap(addLinearConstraint(oct.getMatrix(), singletons));
+    }
+    // not adding the constraint is a sound over-approximation
+    return oct;
+  }
+
+  /* change of dimensions */
+
+  @Override
+  public Octagon addDimensionAndEmbed(Octagon oct, int k) {
+    return wrap(oct.getMatrix().addDimensions(k, false));
+  }
+
+  @Override
+  public Octagon addDimensionAndProject(Octagon oct, int k) {
+    return wrap(oct.getMatrix().addDimensions(k, true));
+  }
+
+  @Override
+  public Octagon removeDimension(Octagon oct, int k) {
+    return wrap(oct.getMatrix().removeDimensions(k));
+  }
+
+  @Override
+  @SuppressForbidden("debugging output like in the native library")
+  public void printNum(NumArray arr, int size) {
+    System.out.println(Arrays.toString(Arrays.copyOf(arr.getValues(), size)));
+  }
+
+  @Override
+  @SuppressForbidden("debugging output like in the native library")
+  public void printOct(Octagon oct) {
+    System.out.print(print(oct, HashBiMap.create()));
+  }
+
+  @Override
+  public String print(Octagon oct, BiMap<Integer, MemoryLocation> map) {
+    OctagonMatrix matrix = oct.getMatrix();
+    StringBuilder str = new StringBuilder();
+    str.append("Octagon (dimension: " + matrix.getDimension() + ")\n");
+    if (matrix.isEmpty()) {
+      str.append("[Empty]\n");
+      return str.toString();
+    }
+    for (int i = 0; i < map.size(); i++) {
+      str.append(" ").append(map.get(i)).append(" -> [");
+      double lower = matrix.getLowerBound(i);
+      double upper = matrix.getUpperBound(i);
+      if (lower == -INF) {
+        str.append("-INFINITY, ");
+      } else {
+        str.append(integral ? (Object) (long) lower : (Object) lower).append(", ");
+      }
+      if (upper == INF) {
+        str.append("INFINITY]\n");
+      } else {
+        str.append(integral ? (Object) (long) upper : (Object) upper).append("]\n");
+      }
+    }
+    return str.toString();
+  }
+
+  @Override
+  public OctagonInterval getVariableBounds(Octagon oct, int id) {
+    OctagonMatrix matrix = oct.getMatrix();
+    assert id < matrix.getDimension();
+    double lower = matrix.getLowerBound(id);
+    double upper = matrix.getUpperBound(id);
+    boolean lowerInfinite = lower == -INF;
+    boolean upperInfinite = upper == INF;
+
+    if (!integral || (lowerInfinite && upperInfinite)) {
+      return new OctagonInterval(lower, upper);
+    } else if (lowerInfinite) {
+      return new OctagonInterval(
+          new OctagonDoubleValue(Double.NEGATIVE_INFINITY), OctagonIntValue.of((long) upper));
+    } else if (upperInfinite) {
+      return new OctagonInterval(
+          OctagonIntValue.of((long) lower), new OctagonDoubleValue(Double.POSITIVE_INFINITY));
+    } else {
+      return new OctagonInterval((long) lower, (long) upper);
+    }
+  }
+}
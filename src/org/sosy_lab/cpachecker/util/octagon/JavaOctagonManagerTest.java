@@ -0,0 +1,133 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+
+public class JavaOctagonManagerTest {
+
+  private final OctagonManager manager = new JavaOctagonManager(true);
+
+  private NumArray numArray(double... values) {
+    NumArray arr = manager.init_num_t(values.length);
+    for (int i = 0; i < values.length; i++) {
+      manager.num_set_float(arr, i, values[i]);
+    }
+    return arr;
+  }
+
+  /** Creates an octagon over x and y with 0 <= x <= 10 and x - y <= 2. */
+  private Octagon createOctagon() {
+    Octagon oct = manager.universe(2);
+    // types: 0 = x <= c, 1 = -x <= c, 3 = x - y <= c
+    return manager.addBinConstraint(oct, 3, numArray(0, 0, 0, 10, 1, 0, 0, 0, 3, 0, 1, 2));
+  }
+
+  @Test
+  public void testClosure() {
+    Octagon oct = createOctagon();
+    assertThat(manager.isEmpty(oct)).isFalse();
+    // y >= x - 2 >= -2 is only known after closure
+    assertThat(manager.getVariableBounds(oct, 1).getLow().getValue().longValue()).isEqualTo(-2);
+    assertThat(manager.getVariableBounds(oct, 1).getHigh().isInfinite()).isTrue();
+
+    // y <= -3 contradicts y >= -2
+    Octagon empty = manager.addBinConstraint(oct, 1, numArray(0, 1, 1, -3));
+    assertThat(manager.isEmpty(empty)).isTrue();
+  }
+
+  @Test
+  public void testTightClosure() {
+    // -x - y <= -1 and -x + y <= 0 imply -2*x <= -1, which is tightened to -2*x <= -2
+    Octagon oct = manager.universe(2);
+    oct = manager.addBinConstraint(oct, 2, numArray(5, 0, 1, -1, 4, 0, 1, 0));
+    assertThat(manager.getVariableBounds(oct, 0).getLow().getValue().longValue()).isEqualTo(1);
+
+    // together with x + y <= 1 and x - y <= 0, only x = y = 0.5 is a solution
+    Octagon empty = manager.addBinConstraint(oct, 2, numArray(2, 0, 1, 1, 3, 0, 1, 0));
+    assertThat(manager.isEmpty(empty)).isTrue();
+
+    // the strong closure of a rational octagon does not tighten
+    OctagonManager rationalManager = new JavaOctagonManager(false);
+    NumArray constraints = rationalManager.init_num_t(16);
+    double[] values = {5, 0, 1, -1, 4, 0, 1, 0, 2, 0, 1, 1, 3, 0, 1, 0};
+    for (int i = 0; i < values.length; i++) {
+      rationalManager.num_set_float(constraints, i, values[i]);
+    }
+    Octagon rational =
+        rationalManager.addBinConstraint(rationalManager.universe(2), 4, constraints);
+    assertThat(rationalManager.isEmpty(rational)).isFalse();
+    assertThat(rationalManager.getVariableBounds(rational, 0).getLow().getValue().doubleValue())
+        .isEqualTo(0.5);
+  }
+
+  @Test
+  public void testInclusion() {
+    Octagon oct = createOctagon();
+    Octagon forgotten = manager.forget(oct, 1);
+    assertThat(manager.isIncludedIn(oct, forgotten)).isTrue();
+    assertThat(manager.isIncludedIn(forgotten, oct)).isFalse();
+    assertThat(manager.isIncludedIn(manager.empty(2), oct)).isTrue();
+    assertThat(manager.isEqual(manager.union(oct, forgotten), forgotten)).isTrue();
+    assertThat(manager.isEqual(manager.intersection(oct, forgotten), oct)).isTrue();
+  }
+
+  @Test
+  public void testAssignment() {
+    Octagon oct = createOctagon();
+
+    // y := x + 1
+    Octagon assigned = manager.assingVar(oct, 1, numArray(1, 0, 1));
+    assertThat(manager.isIn(assigned, numArray(3, 4))).isTrue();
+    assertThat(manager.isIn(assigned, numArray(3, 5))).isFalse();
+
+    // x := 2 * x, not octagonal
+    assigned = manager.assingVar(oct, 0, numArray(2, 0, 0));
+    assertThat(manager.getVariableBounds(assigned, 0).getHigh().getValue().longValue())
+        .isEqualTo(20);
+  }
+
+  @Test
+  public void testWidening() {
+    Octagon oct = createOctagon();
+    // x := x + 1 increases the upper bound of x
+    Octagon next = manager.union(oct, manager.assingVar(oct, 0, numArray(1, 0, 1)));
+    Octagon widened = manager.widening(oct, next);
+    assertThat(manager.getVariableBounds(widened, 0).getHigh().isInfinite()).isTrue();
+    assertThat(manager.getVariableBounds(widened, 0).getLow().getValue().longValue())
+        .isEqualTo(0);
+    assertThat(manager.isIncludedIn(next, widened)).isTrue();
+  }
+
+  @Test
+  public void testIncrementalClosure() {
+    Octagon oct = manager.universe(4);
+    // x0 - x1 <= 1, x1 - x2 <= 1, x2 - x3 <= 1, x3 <= 5, -x0 - x3 <= 0 (thus x3 >= -1.5)
+    double[][] constraints = {{3, 0, 1, 1}, {3, 1, 2, 1}, {3, 2, 3, 1}, {0, 3, 3, 5}, {5, 0, 3, 0}};
+    for (double[] constraint : constraints) {
+      // the closure of the previous octagon is known, so the new closure is incremental
+      oct = manager.addBinConstraint(oct, 1, numArray(constraint));
+      // the intersection has no closed base and needs a full closure
+      Octagon fullyClosed = manager.intersection(oct, manager.universe(4));
+      assertThat(manager.isEqual(oct, fullyClosed)).isTrue();
+    }
+    assertThat(manager.getVariableBounds(oct, 0).getHigh().getValue().longValue()).isEqualTo(8);
+    assertThat(manager.getVariableBounds(oct, 3).getLow().getValue().longValue()).isEqualTo(-1);
+  }
+
+  @Test
+  public void testDimensions() {
+    Octagon oct = createOctagon();
+    Octagon larger = manager.addDimensionAndEmbed(oct, 2);
+    assertThat(manager.dimension(larger)).isEqualTo(4);
+    assertThat(manager.isEqual(manager.removeDimension(larger, 2), oct)).isTrue();
+  }
+}
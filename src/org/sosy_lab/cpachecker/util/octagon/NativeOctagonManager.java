@@ -0,0 +1,289 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_addBinConstraints;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_addConstraint;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_addDimenensionAndEmbed;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_addDimenensionAndProject;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_assingVar;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_copy;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_dimension;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_empty;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_forget;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_free;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_full_copy;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_init;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_init_n;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_intersection;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_intervAddConstraint;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_intervAssingVar;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_intervSubstituteVar;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_isEmpty;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_isEmptyLazy;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_isEqual;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_isEqualLazy;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_isIn;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_isIncludedIn;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_isIncludedInLazy;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_isUniverse;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_narrowing;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_nbconstraints;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_num_clear_n;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_num_get_float;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_num_get_int;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_num_infty;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_num_set;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_num_set_float;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_num_set_inf;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_num_set_int;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_print;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_printNum;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_removeDimension;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_set_bounds;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_substituteVar;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_union;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_universe;
+import static org.sosy_lab.cpachecker.util.octagon.OctWrapper.J_widening;
+
+import org.sosy_lab.common.NativeLibraries;
+
+/** Octagon manager that delegates all operations to the native octagon library via JNI. */
+abstract class NativeOctagonManager extends OctagonManager {
+
+  private static boolean libraryLoaded = false;
+
+  @SuppressWarnings("StaticAssignmentInConstructor")
+  protected NativeOctagonManager(String libraryName) {
+    if (!libraryLoaded) {
+      libraryLoaded = true;
+      NativeLibraries.loadLibrary(libraryName);
+      J_init();
+    }
+  }
+
+  /* num handling function*/
+
+  /* allocate new space for num array and init*/
+  @Override
+  public final NumArray init_num_t (int n) {
+    return new NumArray(J_init_n(n));
+  }
+
+  /* num copy */
+  @Override
+  public final void num_set(NumArray n1, NumArray n2) {
+    J_num_set(n1.getArray(), n2.getArray());
+  }
+
+  @Override
+  public final Octagon set_bounds(Octagon oct, int pos, NumArray lower, NumArray upper) {
+    return new Octagon(J_set_bounds(oct.getOctId(), pos, lower.getArray(), upper.getArray(), false), this);
+  }
+
+  /* set int */
+  @Override
+  public final void num_set_int(NumArray n, int pos, long i) {
+    J_num_set_int(n.getArray(), pos, (int)i);
+  }
+  /* set float */
+  @Override
+  public final void num_set_float(NumArray n, int pos, double d) {
+    J_num_set_float(n.getArray(), pos, d);
+  }
+  /* set infinity */
+  @Override
+  public final void num_set_inf(NumArray n, int pos) {
+    J_num_set_inf(n.getArray(), pos);
+  }
+
+  @Override
+  public final long num_get_int(NumArray n, int pos) {
+    return J_num_get_int(n.getArray(), pos);
+  }
+
+  @Override
+  public final double num_get_float(NumArray n, int pos) {
+    return J_num_get_float(n.getArray(), pos);
+  }
+
+  @Override
+  public final boolean num_infty(NumArray n, int pos) {
+    return J_num_infty(n.getArray(), pos);
+  }
+
+  @Override
+  public final void num_clear_n(NumArray n, int size) {
+    J_num_clear_n(n.getArray(), size);
+  }
+
+  /* Octagon handling functions */
+
+  /* Octagon Creation */
+  @Override
+  public final Octagon empty(int n) {
+    return new Octagon(J_empty(n), this);
+  }
+
+  @Override
+  public final Octagon universe(int n) {
+    return new Octagon(J_universe(n), this);
+  }
+  final void free(Long oct) {
+    J_free(oct);
+  }
+
+  @Override
+  public final Octagon copy(Octagon oct) {
+    return new Octagon(J_copy(oct.getOctId()), this);
+  }
+
+  @Override
+  public final Octagon full_copy(Octagon oct) {
+    return new Octagon(J_full_copy(oct.getOctId()), this);
+  }
+
+  /* Query Functions */
+  @Override
+  public final int dimension(Octagon oct) {
+    return J_dimension(oct.getOctId());
+  }
+
+  @Override
+  public final int nbconstraints(Octagon oct) {
+    return J_nbconstraints(oct.getOctId());
+  }
+
+  /* Test Functions */
+  @Override
+  public final boolean isEmpty(Octagon oct) {
+    return J_isEmpty(oct.getOctId());
+  }
+
+  @Override
+  public final int isEmptyLazy(Octagon oct) {
+    return J_isEmptyLazy(oct.getOctId());
+  }
+
+  @Override
+  public final boolean isUniverse(Octagon oct) {
+    return J_isUniverse(oct.getOctId());
+  }
+
+  @Override
+  public final boolean isIncludedIn(Octagon oct1, Octagon oct2) {
+    return J_isIncludedIn(oct1.getOctId(), oct2.getOctId());
+  }
+
+  @Override
+  public final int isIncludedInLazy(Octagon oct1, Octagon oct2) {
+    return J_isIncludedInLazy(oct1.getOctId(), oct2.getOctId());
+  }
+
+  @Override
+  public final boolean isEqual(Octagon oct1, Octagon oct2) {
+    return J_isEqual(oct1.getOctId(), oct2.getOctId());
+  }
+
+  @Override
+  public final int isEqualLazy(Octagon oct1, Octagon oct2) {
+    return J_isEqualLazy(oct1.getOctId(), oct2.getOctId());
+  }
+
+  @Override
+  public final boolean isIn(Octagon oct1, NumArray array) {
+    return J_isIn(oct1.getOctId(), array.getArray());
+  }
+
+  /* Operators */
+  @Override
+  public final Octagon intersection(Octagon oct1, Octagon oct2) {
+    return new Octagon(J_intersection(oct1.getOctId(), oct2.getOctId(), false), this);
+  }
+
+  @Override
+  public final Octagon union(Octagon oct1, Octagon oct2) {
+    return new Octagon(J_union(oct1.getOctId(), oct2.getOctId(), false), this);
+  }
+
+  /* int widening = 0 -> OCT_WIDENING_FAST
+   * int widening = 1 ->  OCT_WIDENING_ZERO
+   * int widening = 2 -> OCT_WIDENING_UNIT*/
+  @Override
+  public final Octagon widening(Octagon oct1, Octagon oct2) {
+    return new Octagon(J_widening(oct1.getOctId(), oct2.getOctId(), false, 1), this);
+  }
+
+  @Override
+  public final Octagon narrowing(Octagon oct1, Octagon oct2) {
+    return new Octagon(J_narrowing(oct1.getOctId(), oct2.getOctId(), false), this);
+  }
+
+  /* Transfer Functions */
+  @Override
+  public final Octagon forget(Octagon oct, int k) {
+    return new Octagon(J_forget(oct.getOctId(), k, false), this);
+  }
+
+  @Override
+  public final Octagon assingVar(Octagon oct, int k, NumArray array) {
+    return new Octagon(J_assingVar(oct.getOctId(), k, array.getArray(), false), this);
+  }
+
+  @Override
+  public final Octagon addBinConstraint(Octagon oct, int noOfConstraints, NumArray array) {
+    return new Octagon(J_addBinConstraints(oct.getOctId(), noOfConstraints, array.getArray(), false), this);
+  }
+
+  @Override
+  public final Octagon substituteVar(Octagon oct, int x, NumArray array) {
+    return new Octagon(J_substituteVar(oct.getOctId(), x, array.getArray(), false), this);
+  }
+
+  @Override
+  public final Octagon addConstraint(Octagon oct, NumArray array) {
+    return new Octagon(J_addConstraint(oct.getOctId(), array.getArray(), false), this);
+  }
+  @Override
+  public final Octagon intervAssingVar(Octagon oct, int k, NumArray array) {
+    return new Octagon(J_intervAssingVar(oct.getOctId(), k, array.getArray(), false), this);
+  }
+  @Override
+  public final Octagon intervSubstituteVar(Octagon oct, int x, NumArray array) {
+    return new Octagon(J_intervSubstituteVar(oct.getOctId(), x, array.getArray(), false), this);
+  }
+  @Override
+  public final Octagon intervAddConstraint(Octagon oct, NumArray array) {
+    return new Octagon(J_intervAddConstraint(oct.getOctId(), array.getArray(), false), this);
+  }
+
+  /* change of dimensions */
+  @Override
+  public final Octagon addDimensionAndEmbed(Octagon oct, int k) {
+    return new Octagon(J_addDimenensionAndEmbed(oct.getOctId(), k, false), this);
+  }
+  @Override
+  public final Octagon addDimensionAndProject(Octagon oct, int k) {
+    return new Octagon(J_addDimenensionAndProject(oct.getOctId(), k, false), this);
+  }
+  @Override
+  public final Octagon removeDimension(Octagon oct, int k) {
+    return new Octagon(J_removeDimension(oct.getOctId(), k, false), this);
+  }
+
+  @Override
+  public final void printNum(NumArray arr, int size) {
+      J_printNum(arr.getArray(), size);
+  }
+
+  @Override
+  public final void printOct(Octagon oct) {
+    J_print(oct.getOctId());
+  }
+}
\ No newline at end of file
@@ -8,18 +8,33 @@
 
 package org.sosy_lab.cpachecker.util.octagon;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 public class NumArray {
 
   private final long array;
+  private final double @Nullable [] values;
 
   NumArray(long l) {
     array = l;
+    values = null;
+  }
+
+  /** Creates a number array of the pure-Java implementation. */
+  NumArray(double[] pValues) {
+    array = 0;
+    values = pValues;
   }
 
   long getArray() {
     return array;
   }
 
+  double[] getValues() {
+    assert values != null : "number array was not created by the Java octagon manager";
+    return values;
+  }
+
   @Override
   public String toString() {
     // TODO
@@ -32,11 +47,17 @@ public class NumArray {
       return false;
     }
     NumArray otherArr = (NumArray) pObj;
+    if (values != null || otherArr.values != null) {
+      return this == otherArr;
+    }
     return this.array == otherArr.array;
   }
 
   @Override
   public int hashCode() {
+    if (values != null) {
+      return System.identityHashCode(this);
+    }
     return (int)array;
   }
 }
\ No newline at end of file
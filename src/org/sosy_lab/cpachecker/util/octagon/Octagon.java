@@ -12,21 +12,31 @@ import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.util.ArrayList;
 import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 
 public class Octagon {
 
   private final long octId;
   private final OctagonManager manager;
+  private final @Nullable OctagonMatrix matrix;
   private static List<OctagonPhantomReference> phantomReferences = new ArrayList<>();
   private static ReferenceQueue<Octagon> referenceQueue = new ReferenceQueue<>();
 
   Octagon(long l, OctagonManager manager) {
     octId = l;
     this.manager = manager;
+    matrix = null;
     registerPhantomReference(this);
   }
 
+  /** Creates an octagon of the pure-Java implementation, which needs no explicit cleanup. */
+  Octagon(OctagonMatrix pMatrix, OctagonManager pManager) {
+    octId = 0;
+    manager = pManager;
+    matrix = pMatrix;
+  }
+
   private static void registerPhantomReference(Octagon oct) {
     phantomReferences.add(new OctagonPhantomReference(oct, referenceQueue));
   }
@@ -42,12 +52,20 @@ public class Octagon {
     return octId;
   }
 
+  OctagonMatrix getMatrix() {
+    assert matrix != null : "octagon was not created by the Java octagon manager";
+    return matrix;
+  }
+
   public OctagonManager getManager() {
     return manager;
   }
 
   @Override
   public int hashCode() {
+    if (matrix != null) {
+      return matrix.getDimension();
+    }
     return (int)octId;
   }
 
@@ -63,6 +81,9 @@ public class Octagon {
 
   @Override
   public String toString() {
+    if (matrix != null) {
+      return matrix.toString();
+    }
     return "octagon with id: " + octId;
   }
 }
\ No newline at end of file
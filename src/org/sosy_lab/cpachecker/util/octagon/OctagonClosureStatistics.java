@@ -0,0 +1,46 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import java.io.PrintStream;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/** Statistics about the closure computations of the {@link JavaOctagonManager}. */
+final class OctagonClosureStatistics implements Statistics {
+
+  final StatTimer fullClosureTime = new StatTimer(StatKind.SUM, "Time for full closures");
+  final StatTimer incrementalClosureTime =
+      new StatTimer(StatKind.SUM, "Time for incremental closures");
+  final StatCounter emptyClosures = new StatCounter("Closures resulting in empty octagon");
+  final StatInt incrementalConstraints =
+      new StatInt(StatKind.SUM, "Constraints added by incremental closures");
+
+  @Override
+  public void printStatistics(PrintStream out, Result result, UnmodifiableReachedSet reached) {
+    StatisticsWriter.writingStatisticsTo(out)
+        .put("Number of full closures", fullClosureTime.getUpdateCount())
+        .put(fullClosureTime)
+        .put("Number of incremental closures", incrementalClosureTime.getUpdateCount())
+        .put(incrementalClosureTime)
+        .put(incrementalConstraints)
+        .put(emptyClosures);
+  }
+
+  @Override
+  public String getName() {
+    return "Octagon closure";
+  }
+}
@@ -0,0 +1,723 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.octagon;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Pure-Java representation of an octagon as difference-bound matrix, used by {@link
+ * JavaOctagonManager}.
+ *
+ * <p>As in Mine's octagon library, an octagon over the variables v_0, ..., v_{n-1} is represented
+ * by a matrix over the 2n signed variables V_{2k} = v_k and V_{2k+1} = -v_k, where the entry
+ * m[i][j] is an upper bound for V_j - V_i. Because of the coherence property m[i][j] = m[j^1][i^1],
+ * only the lower half-matrix with j <= (i|1) is stored in a flat array. Thus the rows of the
+ * variables v_0, ..., v_{k-1} form a prefix of the array, which makes adding and removing trailing
+ * dimensions cheap.
+ *
+ * <p>Instances are immutable. The strong closure (tight closure for integral octagons) is computed
+ * lazily and cached, and the original matrix is kept for the widening. If constraints are added to
+ * an octagon whose closure is known, the closed matrix and the added constraints are remembered,
+ * such that the closure can be computed incrementally in O(n^2) per added constraint instead of
+ * the full O(n^3) closure.
+ */
+final class OctagonMatrix {
+
+  private static final double INF = Double.POSITIVE_INFINITY;
+
+  private static final Edge[] NO_EDGES = new Edge[0];
+
+  /** A constraint V_to - V_from <= bound, i.e., an edge of the potential graph. */
+  private static final class Edge {
+    private final int from;
+    private final int to;
+    private final double bound;
+
+    private Edge(int pFrom, int pTo, double pBound) {
+      from = pFrom;
+      to = pTo;
+      bound = pBound;
+    }
+  }
+
+  private final int dimension;
+  private final boolean integral;
+  private final OctagonClosureStatistics stats;
+
+  /** The half-matrix, or null if the octagon is known to be empty. */
+  private final double @Nullable [] matrix;
+
+  /** The closed half-matrix, or null if the octagon is empty (only valid if closure is known). */
+  private double @Nullable [] closure;
+
+  private boolean isClosureKnown;
+
+  /**
+   * A closed half-matrix such that the matrix of this octagon is obtained by adding the pending
+   * edges, or null if there is no such matrix.
+   */
+  private final double @Nullable [] closedBase;
+
+  private final Edge[] pendingEdges;
+
+  private OctagonMatrix(
+      int pDimension,
+      boolean pIntegral,
+      OctagonClosureStatistics pStats,
+      double @Nullable [] pMatrix,
+      boolean pIsClosed) {
+    this(pDimension, pIntegral, pStats, pMatrix, pIsClosed, null, NO_EDGES);
+  }
+
+  private OctagonMatrix(
+      int pDimension,
+      boolean pIntegral,
+      OctagonClosureStatistics pStats,
+      double @Nullable [] pMatrix,
+      boolean pIsClosed,
+      double @Nullable [] pClosedBase,
+      Edge[] pPendingEdges) {
+    assert pMatrix == null || pMatrix.length == size(pDimension);
+    dimension = pDimension;
+    integral = pIntegral;
+    stats = pStats;
+    matrix = pMatrix;
+    if (pIsClosed || pMatrix == null) {
+      closure = pMatrix;
+      isClosureKnown = true;
+    }
+    closedBase = pClosedBase;
+    pendingEdges = pPendingEdges;
+  }
+
+  static OctagonMatrix universe(
+      int pDimension, boolean pIntegral, OctagonClosureStatistics pStats) {
+    checkArgument(pDimension >= 0);
+    double[] m = new double[size(pDimension)];
+    Arrays.fill(m, INF);
+    setDiagonal(m, 0, pDimension);
+    return new OctagonMatrix(pDimension, pIntegral, pStats, m, true);
+  }
+
+  static OctagonMatrix empty(int pDimension, boolean pIntegral, OctagonClosureStatistics pStats) {
+    checkArgument(pDimension >= 0);
+    return new OctagonMatrix(pDimension, pIntegral, pStats, null, true);
+  }
+
+  /** Returns the empty octagon with the same dimension as this one. */
+  OctagonMatrix bottom() {
+    return empty(dimension, integral, stats);
+  }
+
+  /** Number of entries of the half-matrix for the given number of variables. */
+  private static int size(int pDimension) {
+    return 2 * pDimension * (pDimension + 1);
+  }
+
+  /** Position of the entry m[i][j] in the half-matrix, only valid for j <= (i|1). */
+  private static int pos(int i, int j) {
+    return j + ((i + 1) * (i + 1)) / 2;
+  }
+
+  /** Position of the entry m[i][j] or its coherent counterpart in the half-matrix. */
+  private static int coherentPos(int i, int j) {
+    return j <= (i | 1) ? pos(i, j) : pos(j ^ 1, i ^ 1);
+  }
+
+  private static void setDiagonal(double[] pMatrix, int pFromVariable, int pToVariable) {
+    for (int i = 2 * pFromVariable; i < 2 * pToVariable; i++) {
+      pMatrix[pos(i, i)] = 0;
+    }
+  }
+
+  int getDimension() {
+    return dimension;
+  }
+
+  boolean isIntegral() {
+    return integral;
+  }
+
+  /** Returns whether the closure of this octagon was already computed. */
+  boolean isClosureKnown() {
+    return isClosureKnown;
+  }
+
+  /** Returns the closed half-matrix, or null if this octagon is empty. */
+  double @Nullable [] getClosure() {
+    if (!isClosureKnown) {
+      // an incremental closure costs O(n^2) per edge, a full closure O(n^3)
+      if (closedBase != null && pendingEdges.length < dimension) {
+        stats.incrementalClosureTime.start();
+        try {
+          closure = incrementalClosure(closedBase, pendingEdges, dimension, integral);
+        } finally {
+          stats.incrementalClosureTime.stop();
+        }
+        stats.incrementalConstraints.setNextValue(pendingEdges.length);
+      } else {
+        stats.fullClosureTime.start();
+        try {
+          closure = strongClosure(matrix, dimension, integral);
+        } finally {
+          stats.fullClosureTime.stop();
+        }
+      }
+      if (closure == null) {
+        stats.emptyClosures.inc();
+      }
+      isClosureKnown = true;
+    }
+    return closure;
+  }
+
+  boolean isEmpty() {
+    return getClosure() == null;
+  }
+
+  /**
+   * Returns the closed matrix if it is known, and otherwise the original matrix. Both represent
+   * the same octagon.
+   */
+  private double @Nullable [] getBestKnownMatrix() {
+    return isClosureKnown ? closure : matrix;
+  }
+
+  /* closure */
+
+  /**
+   * Computes the strong closure of the given half-matrix (Bagnara, Hill, Zaffanella: "Weakly
+   * relational numerical abstract domains", 2009): a shortest-path closure, followed by tightening
+   * of unary constraints for integral octagons, and a single strengthening step. Returns null if
+   * the octagon is empty.
+   *
+   * <p>The computation is done on a dense row-major copy of the full matrix, such that the inner
+   * loops are simple min-plus operations on rows that can be vectorized by the JIT compiler.
+   */
+  private static double @Nullable [] strongClosure(
+      double @Nullable [] pMatrix, int pDimension, boolean pIntegral) {
+    if (pMatrix == null) {
+      return null;
+    }
+    final int n = 2 * pDimension;
+    double[] full = toFullMatrix(pMatrix, pDimension);
+
+    // shortest-path closure (Floyd-Warshall)
+    for (int k = 0; k < n; k++) {
+      final int rowK = k * n;
+      for (int i = 0; i < n; i++) {
+        final double ik = full[i * n + k];
+        if (ik == INF) {
+          continue;
+        }
+        final int rowI = i * n;
+        for (int j = 0; j < n; j++) {
+          full[rowI + j] = Math.min(full[rowI + j], ik + full[rowK + j]);
+        }
+      }
+    }
+
+    return tightenAndStrengthen(full, pDimension, pIntegral);
+  }
+
+  /**
+   * Computes the strong closure of a closed half-matrix to which the given edges were added
+   * (Chawdhary, Robbins, King: "Simple and efficient algorithms for octagons", 2014). Each edge and
+   * its coherent counterpart are added to the shortest-path closure in O(n^2), and tightening and
+   * strengthening are applied once at the end. Returns null if the octagon is empty.
+   */
+  private static double @Nullable [] incrementalClosure(
+      double[] pClosedMatrix, Edge[] pEdges, int pDimension, boolean pIntegral) {
+    final int n = 2 * pDimension;
+    double[] full = toFullMatrix(pClosedMatrix, pDimension);
+    final double[] toFrom = new double[n];
+    final double[] toCoherentFrom = new double[n];
+    final double[] rowTo = new double[n];
+    final double[] rowCoherentTo = new double[n];
+
+    for (Edge edge : pEdges) {
+      final int from = edge.from;
+      final int to = edge.to;
+      final double c = edge.bound;
+      if (c >= full[from * n + to]) {
+        continue;
+      }
+      // the coherent edge from ~to to ~from has the same bound
+      final int from2 = to ^ 1;
+      final int to2 = from ^ 1;
+      final double toToFrom2 = full[to * n + from2];
+      final double to2ToFrom = full[to2 * n + from];
+      for (int i = 0; i < n; i++) {
+        // shortest paths from i to the targets of the new edges, using at least one new edge
+        double viaFrom = full[i * n + from] + c;
+        double viaFrom2 = full[i * n + from2] + c;
+        toFrom[i] = Math.min(viaFrom, viaFrom2 + to2ToFrom + c);
+        toCoherentFrom[i] = Math.min(viaFrom2, viaFrom + toToFrom2 + c);
+      }
+      System.arraycopy(full, to * n, rowTo, 0, n);
+      System.arraycopy(full, to2 * n, rowCoherentTo, 0, n);
+      for (int i = 0; i < n; i++) {
+        final int rowI = i * n;
+        final double a = toFrom[i];
+        final double b = toCoherentFrom[i];
+        for (int j = 0; j < n; j++) {
+          full[rowI + j] = Math.min(full[rowI + j], Math.min(a + rowTo[j], b + rowCoherentTo[j]));
+        }
+      }
+    }
+
+    return tightenAndStrengthen(full, pDimension, pIntegral);
+  }
+
+  private static double[] toFullMatrix(double[] pMatrix, int pDimension) {
+    final int n = 2 * pDimension;
+    double[] full = new double[n * n];
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j < n; j++) {
+        full[i * n + j] = pMatrix[coherentPos(i, j)];
+      }
+    }
+    return full;
+  }
+
+  /**
+   * Applies tightening (for integral octagons) and strengthening to a dense matrix after its
+   * shortest-path closure, and returns the resulting half-matrix, or null if the octagon is empty.
+   */
+  private static double @Nullable [] tightenAndStrengthen(
+      double[] full, int pDimension, boolean pIntegral) {
+    final int n = 2 * pDimension;
+    for (int i = 0; i < n; i++) {
+      if (full[i * n + i] < 0) {
+        return null;
+      }
+    }
+
+    // the bound of V_{i^1} - V_i is twice a bound of a single variable
+    final double[] unary = new double[n];
+    for (int i = 0; i < n; i++) {
+      unary[i] = full[i * n + (i ^ 1)];
+      if (pIntegral) {
+        unary[i] = 2 * Math.floor(unary[i] / 2);
+      }
+    }
+    if (pIntegral) {
+      for (int i = 0; i < n; i += 2) {
+        if (unary[i] + unary[i + 1] < 0) {
+          return null;
+        }
+      }
+    }
+
+    // strengthening: V_j - V_i <= (V_{i^1} - V_i + V_j - V_{j^1}) / 2
+    for (int i = 0; i < n; i++) {
+      final int rowI = i * n;
+      final double ui = unary[i];
+      for (int j = 0; j < n; j++) {
+        full[rowI + j] = Math.min(full[rowI + j], (ui + unary[j ^ 1]) / 2);
+      }
+      full[rowI + i] = 0;
+    }
+
+    double[] result = new double[size(pDimension)];
+    for (int i = 0; i < n; i++) {
+      for (int j = 0, last = i | 1; j <= last; j++) {
+        result[pos(i, j)] = full[i * n + j];
+      }
+    }
+    return result;
+  }
+
+  /* tests */
+
+  boolean isUniverse() {
+    double[] m = getBestKnownMatrix();
+    if (m == null) {
+      return false;
+    }
+    for (int i = 0; i < 2 * dimension; i++) {
+      for (int j = 0, last = i | 1; j <= last; j++) {
+        if (i == j ? m[pos(i, j)] < 0 : m[pos(i, j)] != INF) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  int countConstraints() {
+    double[] m = getBestKnownMatrix();
+    if (m == null) {
+      return 0;
+    }
+    int count = 0;
+    for (int i = 0; i < 2 * dimension; i++) {
+      for (int j = 0, last = i | 1; j <= last; j++) {
+        if (i != j && m[pos(i, j)] != INF) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  boolean isIncludedIn(OctagonMatrix pOther) {
+    checkArgument(dimension == pOther.dimension, "octagons have different dimensions");
+    double[] closed = getClosure();
+    if (closed == null) {
+      return true;
+    }
+    if (pOther.isEmpty()) {
+      return false;
+    }
+    return isPointwiseLessOrEqual(closed, pOther.matrix);
+  }
+
+  /** Lazy inclusion test that avoids computing a closure, returns a tbool. */
+  int isIncludedInLazy(OctagonMatrix pOther) {
+    checkArgument(dimension == pOther.dimension, "octagons have different dimensions");
+    double[] m = getBestKnownMatrix();
+    if (m == null) {
+      return 1;
+    }
+    if (pOther.matrix != null && isPointwiseLessOrEqual(m, pOther.matrix)) {
+      // closing this octagon can only decrease its entries
+      return 1;
+    }
+    // a non-empty closed octagon is included iff it is pointwise smaller
+    return isClosureKnown ? 2 : 3;
+  }
+
+  private static boolean isPointwiseLessOrEqual(double[] pMatrix1, double[] pMatrix2) {
+    for (int i = 0; i < pMatrix1.length; i++) {
+      if (pMatrix1[i] > pMatrix2[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  boolean isEqualTo(OctagonMatrix pOther) {
+    if (dimension != pOther.dimension) {
+      return false;
+    }
+    double[] m1 = getClosure();
+    double[] m2 = pOther.getClosure();
+    if (m1 == null || m2 == null) {
+      return m1 == m2;
+    }
+    return isPointwiseLessOrEqual(m1, m2) && isPointwiseLessOrEqual(m2, m1);
+  }
+
+  /** Lazy equality test that avoids computing a closure, returns a tbool. */
+  int isEqualToLazy(OctagonMatrix pOther) {
+    if (this == pOther) {
+      return 1;
+    }
+    if (isClosureKnown && pOther.isClosureKnown) {
+      return isEqualTo(pOther) ? 1 : 2;
+    }
+    return 3;
+  }
+
+  /** Checks whether the given values of the variables satisfy all constraints. */
+  boolean contains(double[] pPoint) {
+    double[] m = matrix;
+    if (m == null || isEmpty()) {
+      return false;
+    }
+    for (int i = 0; i < 2 * dimension; i++) {
+      for (int j = 0, last = i | 1; j <= last; j++) {
+        if (signedValue(pPoint, j) - signedValue(pPoint, i) > m[pos(i, j)]) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static double signedValue(double[] pPoint, int pSignedVariable) {
+    double value = pPoint[pSignedVariable / 2];
+    return (pSignedVariable & 1) == 0 ? value : -value;
+  }
+
+  /* bounds */
+
+  /**
+   * Returns the upper bound of the given variable. For empty octagons, every bound is valid, and
+   * infinity is returned.
+   */
+  double getUpperBound(int pVariable) {
+    double[] closed = getClosure();
+    if (closed == null) {
+      return INF;
+    }
+    return closed[pos(2 * pVariable + 1, 2 * pVariable)] / 2;
+  }
+
+  /** Returns the lower bound of the given variable, see {@link #getUpperBound(int)}. */
+  double getLowerBound(int pVariable) {
+    double[] closed = getClosure();
+    if (closed == null) {
+      return -INF;
+    }
+    // adding 0 avoids returning -0.0
+    return -closed[pos(2 * pVariable, 2 * pVariable + 1)] / 2 + 0.0;
+  }
+
+  /* operators */
+
+  OctagonMatrix meet(OctagonMatrix pOther) {
+    checkArgument(dimension == pOther.dimension, "octagons have different dimensions");
+    double[] m1 = getBestKnownMatrix();
+    double[] m2 = pOther.getBestKnownMatrix();
+    if (m1 == null || m2 == null) {
+      return bottom();
+    }
+    double[] result = new double[m1.length];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = Math.min(m1[i], m2[i]);
+    }
+    return new OctagonMatrix(dimension, integral, stats, result, false);
+  }
+
+  /** Convex hull. The hull of two closed octagons is closed. */
+  OctagonMatrix join(OctagonMatrix pOther) {
+    checkArgument(dimension == pOther.dimension, "octagons have different dimensions");
+    double[] m1 = getClosure();
+    double[] m2 = pOther.getClosure();
+    if (m1 == null) {
+      return pOther;
+    } else if (m2 == null) {
+      return this;
+    }
+    double[] result = new double[m1.length];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = Math.max(m1[i], m2[i]);
+    }
+    return new OctagonMatrix(dimension, integral, stats, result, true);
+  }
+
+  /**
+   * Widening with thresholds 0 and infinity. The original (non-closed) matrix of this octagon is
+   * used to guarantee termination, and the closed matrix of the other octagon.
+   */
+  OctagonMatrix widen(OctagonMatrix pOther) {
+    checkArgument(dimension == pOther.dimension, "octagons have different dimensions");
+    if (isEmpty()) {
+      return pOther;
+    }
+    double[] m1 = matrix;
+    double[] m2 = pOther.getClosure();
+    if (m2 == null) {
+      return this;
+    }
+    double[] result = new double[m1.length];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = m2[i] <= m1[i] ? m1[i] : (m2[i] <= 0 ? 0 : INF);
+    }
+    return new OctagonMatrix(dimension, integral, stats, result, false);
+  }
+
+  /** Narrowing that only refines infinite bounds. */
+  OctagonMatrix narrow(OctagonMatrix pOther) {
+    checkArgument(dimension == pOther.dimension, "octagons have different dimensions");
+    double[] m1 = getClosure();
+    double[] m2 = pOther.getClosure();
+    if (m1 == null || m2 == null) {
+      return bottom();
+    }
+    double[] result = new double[m1.length];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = m1[i] == INF ? m2[i] : m1[i];
+    }
+    return new OctagonMatrix(dimension, integral, stats, result, false);
+  }
+
+  /** Removes all constraints on the given variable. Forgetting keeps closed octagons closed. */
+  OctagonMatrix forget(int pVariable) {
+    double[] closed = getClosure();
+    if (closed == null) {
+      return this;
+    }
+    double[] result = closed.clone();
+    final int v0 = 2 * pVariable;
+    final int v1 = v0 + 1;
+    // row of v_k in the half-matrix
+    for (int i = v0; i <= v1; i++) {
+      for (int j = 0; j <= v1; j++) {
+        result[pos(i, j)] = INF;
+      }
+    }
+    // column of v_k in the rows of the following variables
+    for (int i = v1 + 1; i < 2 * dimension; i++) {
+      result[pos(i, v0)] = INF;
+      result[pos(i, v1)] = INF;
+    }
+    result[pos(v0, v0)] = 0;
+    result[pos(v1, v1)] = 0;
+    return new OctagonMatrix(dimension, integral, stats, result, true);
+  }
+
+  /** Translates the given variable by a constant, i.e., x := x + c. Keeps the closure. */
+  OctagonMatrix translate(int pVariable, double pConstant) {
+    double[] m = getBestKnownMatrix();
+    if (m == null) {
+      return this;
+    }
+    double[] result = m.clone();
+    final int v0 = 2 * pVariable;
+    final int v1 = v0 + 1;
+    for (int i = 0; i < 2 * dimension; i++) {
+      for (int j = 0, last = i | 1; j <= last; j++) {
+        double delta = shift(j, v0, v1, pConstant) - shift(i, v0, v1, pConstant);
+        if (delta != 0) {
+          result[pos(i, j)] += delta;
+        }
+      }
+    }
+    return new OctagonMatrix(dimension, integral, stats, result, isClosureKnown);
+  }
+
+  private static double shift(int pSignedVariable, int v0, int v1, double pConstant) {
+    if (pSignedVariable == v0) {
+      return pConstant;
+    } else if (pSignedVariable == v1) {
+      return -pConstant;
+    }
+    return 0;
+  }
+
+  /** Negates the given variable, i.e., x := -x. Keeps the closure. */
+  OctagonMatrix negate(int pVariable) {
+    double[] m = getBestKnownMatrix();
+    if (m == null) {
+      return this;
+    }
+    double[] result = new double[m.length];
+    for (int i = 0; i < 2 * dimension; i++) {
+      for (int j = 0, last = i | 1; j <= last; j++) {
+        result[pos(i, j)] = m[coherentPos(swap(i, pVariable), swap(j, pVariable))];
+      }
+    }
+    return new OctagonMatrix(dimension, integral, stats, result, isClosureKnown);
+  }
+
+  private static int swap(int pSignedVariable, int pVariable) {
+    return pSignedVariable / 2 == pVariable ? pSignedVariable ^ 1 : pSignedVariable;
+  }
+
+  /**
+   * Adds constraints, each given as type (c.f. the constants of {@link
+   * JavaOctagonManager#addBinConstraint}), two variables, and a constant.
+   */
+  OctagonMatrix addConstraints(int[] pTypes, int[] pVarsX, int[] pVarsY, double[] pConstants) {
+    double[] m = getBestKnownMatrix();
+    if (m == null) {
+      return this;
+    }
+    double[] result = m.clone();
+    Edge[] edges = new Edge[pTypes.length];
+    for (int k = 0; k < pTypes.length; k++) {
+      final int x = pVarsX[k];
+      final int y = pVarsY[k];
+      double c = integral ? Math.floor(pConstants[k]) : pConstants[k];
+      final int i;
+      final int j;
+      switch (pTypes[k]) {
+        case 0: // x <= c
+          i = 2 * x + 1;
+          j = 2 * x;
+          c = 2 * c;
+          break;
+        case 1: // -x <= c
+          i = 2 * x;
+          j = 2 * x + 1;
+          c = 2 * c;
+          break;
+        case 2: // x + y <= c
+          i = 2 * y + 1;
+          j = 2 * x;
+          break;
+        case 3: // x - y <= c
+          i = 2 * y;
+          j = 2 * x;
+          break;
+        case 4: // -x + y <= c
+          i = 2 * x;
+          j = 2 * y;
+          break;
+        case 5: // -x - y <= c
+          i = 2 * x;
+          j = 2 * y + 1;
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown type of octagon constraint " + pTypes[k]);
+      }
+      int p = coherentPos(i, j);
+      result[p] = Math.min(result[p], c);
+      edges[k] = new Edge(i, j, c);
+    }
+
+    // remember the closed matrix for an incremental closure
+    if (isClosureKnown) {
+      return new OctagonMatrix(dimension, integral, stats, result, false, m, edges);
+    } else if (closedBase != null) {
+      Edge[] allEdges = Arrays.copyOf(pendingEdges, pendingEdges.length + edges.length);
+      System.arraycopy(edges, 0, allEdges, pendingEdges.length, edges.length);
+      return new OctagonMatrix(dimension, integral, stats, result, false, closedBase, allEdges);
+    }
+    return new OctagonMatrix(dimension, integral, stats, result, false);
+  }
+
+  /* change of dimensions */
+
+  /**
+   * Adds the given number of variables after the existing ones. They are unconstrained if not
+   * projected, and set to 0 otherwise.
+   */
+  OctagonMatrix addDimensions(int pNumber, boolean pProject) {
+    checkArgument(pNumber >= 0);
+    int newDimension = dimension + pNumber;
+    double[] m = getBestKnownMatrix();
+    if (m == null) {
+      return empty(newDimension, integral, stats);
+    }
+    double[] result = Arrays.copyOf(m, size(newDimension));
+    Arrays.fill(result, m.length, result.length, INF);
+    setDiagonal(result, dimension, newDimension);
+    if (pProject) {
+      for (int v = dimension; v < newDimension; v++) {
+        result[pos(2 * v, 2 * v + 1)] = 0;
+        result[pos(2 * v + 1, 2 * v)] = 0;
+      }
+    }
+    return new OctagonMatrix(newDimension, integral, stats, result, isClosureKnown && !pProject);
+  }
+
+  /** Removes the given number of trailing variables, keeping all constraints implied for others. */
+  OctagonMatrix removeDimensions(int pNumber) {
+    checkArgument(0 <= pNumber && pNumber <= dimension);
+    int newDimension = dimension - pNumber;
+    double[] closed = getClosure();
+    if (closed == null) {
+      return empty(newDimension, integral, stats);
+    }
+    return new OctagonMatrix(
+        newDimension, integral, stats, Arrays.copyOf(closed, size(newDimension)), true);
+  }
+
+  @Override
+  public String toString() {
+    return "octagon of dimension " + dimension;
+  }
+}
@@ -0,0 +1,105 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.refinement;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.base.Equivalence;
+import com.google.common.collect.ImmutableList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
+import org.sosy_lab.cpachecker.cpa.arg.path.ARGPath;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/**
+ * Bounded cache for the results of edge interpolation, shared across refinement iterations.
+ *
+ * <p>The result of an edge interpolation is completely determined by the candidate interpolant
+ * (i.e., the input interpolant after consuming the current edge) and by the remaining suffix of
+ * the error path, because the feasibility checks of the interpolation only replay this suffix.
+ * Thus these two components form the key of the cache. Successive counterexamples often share
+ * (sliced) suffixes, such that the interpolation queries for them need not be repeated.
+ *
+ * <p>Edges of the suffix are compared by identity, because {@link CFAEdge#equals(Object)} only
+ * compares predecessor and successor nodes. Blank edges (which are frequently created anew by
+ * path slicing) are compared by their nodes, as their semantics is always the same.
+ *
+ * @param <I> the type of interpolants to cache
+ */
+final class EdgeInterpolantCache<I extends Interpolant<?, I>> {
+
+  private final Map<Pair<I, List<Object>>, I> cache;
+
+  private final StatCounter cacheHits = new StatCounter("Number of reused edge interpolations");
+  private final StatCounter cacheMisses = new StatCounter("Number of cached edge interpolations");
+  private final StatInt cacheSize = new StatInt(StatKind.MAX, "Size of edge-interpolant cache");
+
+  EdgeInterpolantCache(final int pMaxSize) {
+    checkArgument(pMaxSize > 0, "cache size must be positive");
+    // access-ordered map, so that the least recently used entry is evicted first
+    cache =
+        new LinkedHashMap<>(16, 0.75f, true) {
+
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Pair<I, List<Object>>, I> pEldest) {
+            return size() > pMaxSize;
+          }
+        };
+  }
+
+  /**
+   * Creates the key for an edge interpolation.
+   *
+   * @param pCandidate the candidate interpolant, i.e., the (immutable) interpolant for the state
+   *     reached after consuming the current edge from the input interpolant
+   * @param pRemainingErrorPath the suffix of the error path that is checked during interpolation
+   */
+  Pair<I, List<Object>> createKey(final I pCandidate, final ARGPath pRemainingErrorPath) {
+    ImmutableList.Builder<Object> edges = ImmutableList.builder();
+    for (CFAEdge edge : pRemainingErrorPath.getFullPath()) {
+      if (edge.getEdgeType() == CFAEdgeType.BlankEdge) {
+        edges.add(Pair.of(edge.getPredecessor(), edge.getSuccessor()));
+      } else {
+        edges.add(Equivalence.identity().wrap(edge));
+      }
+    }
+    return Pair.of(pCandidate, edges.build());
+  }
+
+  Optional<I> get(final Pair<I, List<Object>> pKey) {
+    I interpolant = cache.get(pKey);
+    if (interpolant != null) {
+      cacheHits.inc();
+    }
+    return Optional.ofNullable(interpolant);
+  }
+
+  void put(final Pair<I, List<Object>> pKey, final I pInterpolant) {
+    I previous = cache.put(pKey, pInterpolant);
+    assert previous == null || Objects.equals(previous, pInterpolant)
+        : "edge interpolation is not deterministic";
+    cacheMisses.inc();
+    cacheSize.setNextValue(cache.size());
+  }
+
+  void printStatistics(final StatisticsWriter pWriter) {
+    pWriter.put(cacheHits).put(cacheMisses).put(cacheSize);
+  }
+}
@@ -13,6 +13,7 @@ import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cpa.arg.path.ARGPath;
 import org.sosy_lab.cpachecker.cpa.arg.path.PathPosition;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 /** Classes implementing this interface are able to derive interpolants from edges. */
 public interface EdgeInterpolator<S extends ForgetfulState<?>, I extends Interpolant<S, I>> {
@@ -26,4 +27,7 @@ public interface EdgeInterpolator<S extends ForgetfulState<?>, I extends Interpo
   ) throws CPAException, InterruptedException;
 
   int getNumberOfInterpolationQueries();
+
+  /** Prints the statistics of this interpolator, if there are any. */
+  default void printStatistics(StatisticsWriter pWriter) {}
 }
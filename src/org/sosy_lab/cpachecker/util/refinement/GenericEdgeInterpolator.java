@@ -9,10 +9,13 @@
 package org.sosy_lab.cpachecker.util.refinement;
 
 import java.util.Deque;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -25,7 +28,9 @@ import org.sosy_lab.cpachecker.cpa.arg.path.ARGPath;
 import org.sosy_lab.cpachecker.cpa.arg.path.PathIterator;
 import org.sosy_lab.cpachecker.cpa.arg.path.PathPosition;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
 /**
  * Generic {@link EdgeInterpolator} that creates interpolants based on {@link MemoryLocation
@@ -51,6 +56,21 @@ public class GenericEdgeInterpolator<S extends ForgetfulState<T>, T, I extends I
   @Option(secure=true, description="whether or not to manage the callstack, which is needed for BAM")
   private boolean manageCallstack = true;
 
+  @Option(
+      secure = true,
+      description =
+          "reuse the results of edge interpolations across refinements, if the candidate"
+              + " interpolant and the remaining error path are the same. This is only sound if"
+              + " the feasibility of a path suffix depends only on its edges, i.e., if no"
+              + " path-dependent abstraction (like the assignments-in-path condition) is used.")
+  private boolean cacheInterpolants = false;
+
+  @Option(
+      secure = true,
+      description = "maximal number of entries in the cache of edge interpolants")
+  @IntegerOption(min = 1)
+  private int interpolantCacheSize = 10000;
+
   /**
    * the shutdownNotifier in use
    */
@@ -80,6 +100,11 @@ public class GenericEdgeInterpolator<S extends ForgetfulState<T>, T, I extends I
    */
   private final FeasibilityChecker<S> checker;
 
+  /**
+   * the cache of edge interpolants, or null if caching is disabled
+   */
+  private final @Nullable EdgeInterpolantCache<I> interpolantCache;
+
   /**
    * This method acts as the constructor of the class.
    */
@@ -106,6 +131,9 @@ public class GenericEdgeInterpolator<S extends ForgetfulState<T>, T, I extends I
           pConfig, pCfa.getVarClassification(), pCpaToRefine);
 
       shutdownNotifier   = pShutdownNotifier;
+
+      interpolantCache =
+          cacheInterpolants ? new EdgeInterpolantCache<>(interpolantCacheSize) : null;
     }
     catch (InvalidConfigurationException e) {
       throw new InvalidConfigurationException("Invalid configuration for checking path: "
@@ -189,6 +217,17 @@ public class GenericEdgeInterpolator<S extends ForgetfulState<T>, T, I extends I
       return interpolantManager.getTrueInterpolant();
     }
 
+    Pair<I, List<Object>> cacheKey = null;
+    if (interpolantCache != null) {
+      cacheKey =
+          interpolantCache.createKey(
+              interpolantManager.createInterpolant(initialSuccessor), remainingErrorPath);
+      Optional<I> cachedInterpolant = interpolantCache.get(cacheKey);
+      if (cachedInterpolant.isPresent()) {
+        return cachedInterpolant.orElseThrow();
+      }
+    }
+
     for (MemoryLocation currentMemoryLocation : determineMemoryLocationsToInterpolateOn(initialSuccessor)) {
       shutdownNotifier.shutdownIfNecessary();
 
@@ -202,7 +241,11 @@ public class GenericEdgeInterpolator<S extends ForgetfulState<T>, T, I extends I
       }
     }
 
-    return interpolantManager.createInterpolant(initialSuccessor);
+    I interpolant = interpolantManager.createInterpolant(initialSuccessor);
+    if (interpolantCache != null) {
+      interpolantCache.put(cacheKey, interpolant);
+    }
+    return interpolant;
   }
 
   /**
@@ -247,6 +290,13 @@ public class GenericEdgeInterpolator<S extends ForgetfulState<T>, T, I extends I
     return numberOfInterpolationQueries;
   }
 
+  @Override
+  public void printStatistics(StatisticsWriter pWriter) {
+    if (interpolantCache != null) {
+      interpolantCache.printStatistics(pWriter);
+    }
+  }
+
   /**
    * This method gets the initial successor, i.e. the state following the initial state.
    *
@@ -8,8 +8,13 @@
 
 package org.sosy_lab.cpachecker.util.refinement;
 
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
+
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.PrintStream;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -18,9 +23,11 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -64,6 +71,14 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
       + " for interpolation", toUppercase = true)
   private List<PrefixPreference> prefixPreference = ImmutableList.of(PrefixPreference.DOMAIN_MIN, PrefixPreference.LENGTH_MIN);
 
+  @Option(
+      secure = true,
+      description =
+          "number of threads used for building and scoring the infeasible sliced prefixes"
+              + " during refinement selection (1 means no parallelization)")
+  @IntegerOption(min = 1)
+  private int prefixSelectionThreads = 1;
+
   /**
    * the offset in the path from where to cut-off the subtree, and restart the analysis
    */
@@ -87,6 +102,7 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
   private final GenericPrefixProvider<S> prefixProvider;
   private final InterpolantManager<S, I> interpolantManager;
   private final PrefixSelector selector;
+  private final ListeningExecutorService prefixExecutor;
 
   public GenericPathInterpolator(
       final EdgeInterpolator<S, I> pEdgeInterpolator,
@@ -110,6 +126,20 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
 
     prefixProvider = pPrefixProvider;
     selector = new PrefixSelector(pCfa.getVarClassification(), pCfa.getLoopStructure());
+
+    if (prefixSelectionThreads > 1) {
+      // important to use daemon threads here, because we never have the chance to stop the executor
+      prefixExecutor =
+          listeningDecorator(
+              Executors.newFixedThreadPool(
+                  prefixSelectionThreads,
+                  new ThreadFactoryBuilder()
+                      .setDaemon(true)
+                      .setNameFormat("PrefixSelection-thread-%d")
+                      .build()));
+    } else {
+      prefixExecutor = newDirectExecutorService();
+    }
   }
 
   @Override
@@ -158,7 +188,10 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
       totalPrefixes.setNextValue(infeasilbePrefixes.size());
 
       prefixSelectionTime.start();
-      pErrorPath = selector.selectSlicedPrefix(prefixPreference, infeasilbePrefixes).getPath();
+      pErrorPath =
+          selector
+              .selectSlicedPrefix(prefixPreference, infeasilbePrefixes, prefixExecutor)
+              .getPath();
       logger.logf(Level.FINER, "Sliced prefix selected:\n %s", pErrorPath);
       prefixSelectionTime.stop();
     }
@@ -174,7 +207,8 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
 
     prefixExtractionTime.start();
     List<InfeasiblePrefix> prefixes =
-        prefixProvider.extractInfeasiblePrefixes(pErrorPath, pInterpolant.reconstructState());
+        prefixProvider.extractInfeasiblePrefixes(
+            pErrorPath, pInterpolant.reconstructState(), prefixExecutor);
     prefixExtractionTime.stop();
 
     return prefixes;
@@ -379,6 +413,7 @@ public class GenericPathInterpolator<S extends ForgetfulState<?>, I extends Inte
         .put(totalPrefixes);
     writer.put(prefixExtractionTime);
     writer.put(prefixSelectionTime);
+    interpolator.printStatistics(writer);
   }
 
   /**
@@ -9,16 +9,23 @@
 package org.sosy_lab.cpachecker.util.refinement;
 
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.MoreExecutors.newDirectExecutorService;
 import static org.sosy_lab.common.collect.Collections3.transformedImmutableListCopy;
 import static org.sosy_lab.cpachecker.util.AbstractStates.extractLocation;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -104,8 +111,31 @@ public class GenericPrefixProvider<S extends ForgetfulState<?>> implements Prefi
       final ARGPath path,
       final S pInitial
   ) throws CPAException, InterruptedException {
+    return extractInfeasiblePrefixes(path, pInitial, newDirectExecutorService());
+  }
+
+  /**
+   * This method obtains a list of prefixes of the path, that are infeasible by themselves.
+   * If the path is feasible, the whole path
+   * is returned as the only element of the list.
+   *
+   * <p>The replay of the path is inherently sequential, but the (more expensive) construction of
+   * the use-def-based interpolant sequence of each infeasible prefix is delegated to the given
+   * executor, such that it can overlap with the search for further infeasible prefixes.
+   * The order of the returned prefixes does not depend on the executor.
+   *
+   * @param path the path to check
+   * @param pInitial the initial state
+   * @param pExecutor the executor for building the infeasible prefixes
+   * @return the list of prefix of the path that are feasible by themselves
+   */
+  public List<InfeasiblePrefix> extractInfeasiblePrefixes(
+      final ARGPath path,
+      final S pInitial,
+      final ListeningExecutorService pExecutor
+  ) throws CPAException, InterruptedException {
 
-    List<InfeasiblePrefix> prefixes = new ArrayList<>();
+    List<ListenableFuture<InfeasiblePrefix>> prefixes = new ArrayList<>();
     Deque<S> callstack = new ArrayDeque<>();
 
     try {
@@ -148,7 +178,7 @@ public class GenericPrefixProvider<S extends ForgetfulState<?>> implements Prefi
           ARGPath infeasiblePrefix = feasiblePrefixBuilder.build(iterator.getNextAbstractState());
 
           // add infeasible prefix
-          prefixes.add(buildInfeasiblePrefix(infeasiblePrefix));
+          prefixes.add(pExecutor.submit(() -> buildInfeasiblePrefix(infeasiblePrefix)));
 
           feasiblePrefixBuilder.removeLast();
 
@@ -180,9 +210,15 @@ public class GenericPrefixProvider<S extends ForgetfulState<?>> implements Prefi
         iterator.advance();
       }
 
-      return prefixes;
+      return Futures.allAsList(prefixes).get();
     } catch (CPATransferException e) {
       throw new CPAException("Computation of infeasible prefixes failed: " + e.getMessage(), e);
+    } catch (ExecutionException e) {
+      Throwables.propagateIfPossible(e.getCause(), CPAException.class, InterruptedException.class);
+      throw new UnexpectedCheckedException("building of infeasible prefixes", e.getCause());
+    } finally {
+      // only relevant if the replay was aborted, otherwise all futures are done already
+      prefixes.forEach(prefix -> prefix.cancel(true));
     }
   }
 
@@ -8,13 +8,20 @@
 
 package org.sosy_lab.cpachecker.util.refinement;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Ordering;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
 import org.sosy_lab.cpachecker.util.LoopStructure;
 import org.sosy_lab.cpachecker.util.variableclassification.VariableClassification;
 
@@ -28,6 +35,48 @@ public class PrefixSelector {
     return Ordering.compound(createComparators(pPrefixPreference)).min(pInfeasiblePrefixes);
   }
 
+  /**
+   * Selects the same prefix as {@link #selectSlicedPrefix(List, List)}, but computes the score of
+   * each prefix only once, and does so concurrently on the given executor.
+   */
+  public InfeasiblePrefix selectSlicedPrefix(
+      List<PrefixPreference> pPrefixPreference,
+      List<InfeasiblePrefix> pInfeasiblePrefixes,
+      ListeningExecutorService pExecutor)
+      throws InterruptedException {
+
+    // the random scorer relies on the order of evaluation to be deterministic
+    if (pPrefixPreference.contains(PrefixPreference.RANDOM)) {
+      return selectSlicedPrefix(pPrefixPreference, pInfeasiblePrefixes);
+    }
+
+    // the scorers only read shared data, if all lazily computed data is available beforehand
+    factory.computeSharedData();
+    List<Scorer> scorers = Lists.transform(pPrefixPreference, factory::createScorer);
+    List<ListenableFuture<int[]>> scores = new ArrayList<>(pInfeasiblePrefixes.size());
+    for (InfeasiblePrefix prefix : pInfeasiblePrefixes) {
+      scores.add(
+          pExecutor.submit(() -> scorers.stream().mapToInt(s -> s.computeScore(prefix)).toArray()));
+    }
+
+    List<int[]> scoreVectors;
+    try {
+      scoreVectors = Futures.allAsList(scores).get();
+    } catch (ExecutionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw new AssertionError("scorers do not throw checked exceptions", e.getCause());
+    }
+
+    // pick the first prefix with the lexicographically smallest score vector, like Ordering.min
+    int best = 0;
+    for (int i = 1; i < scoreVectors.size(); i++) {
+      if (Arrays.compare(scoreVectors.get(i), scoreVectors.get(best)) < 0) {
+        best = i;
+      }
+    }
+    return pInfeasiblePrefixes.get(best);
+  }
+
   public int obtainScoreForPrefixes(final List<InfeasiblePrefix> pPrefixes, final PrefixPreference pPreference) {
 
     if (!classification.isPresent()) {
@@ -100,6 +149,14 @@ public class PrefixSelector {
       loopStructure = pLoopStructure;
     }
 
+    /**
+     * Computes the lazily initialized information of the loop structure that the scorers access,
+     * because {@link LoopStructure} is not thread-safe.
+     */
+    void computeSharedData() {
+      loopStructure.ifPresent(LoopStructure::getLoopIncDecVariables);
+    }
+
     public Scorer createScorer(PrefixPreference pPreference) {
       switch (pPreference) {
         case LENGTH_MIN:
@@ -11,15 +11,19 @@ package org.sosy_lab.cpachecker.util.slicing;
 import com.google.common.collect.ImmutableCollection;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import java.io.PrintStream;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Locale;
 import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionCallStatement;
@@ -51,14 +55,35 @@ import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
  *
  * @see SlicerFactory
  */
+@Options(prefix = "slicing")
 public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
 
+  @Option(
+      secure = true,
+      description =
+          "If the slicing criteria of a slice include all criteria of the previous slice, reuse the"
+              + " relevant edges of the previous slice and only traverse the dependences of the"
+              + " new criteria.")
+  private boolean incremental = true;
+
   private DependenceGraph depGraph;
 
+  // state of the previous slice, for incremental slicing
+  private @Nullable CFA lastCfa = null;
+  private Set<CFAEdge> lastAbortCallEdges = ImmutableSet.of();
+  private ImmutableSet<CFAEdge> lastCriteria = ImmutableSet.of();
+  private DependenceGraph.@Nullable ReachabilityQuery lastQuery = null;
+
   private StatInt candidateSliceCount =
       new StatInt(StatKind.SUM, "Number of proposed slicing " + "procedures");
   private StatInt sliceCount = new StatInt(StatKind.SUM, "Number of slicing procedures");
   private StatTimer slicingTime = new StatTimer(StatKind.SUM, "Time needed for slicing");
+  private final StatInt incrementalSliceCount =
+      new StatInt(StatKind.SUM, "Number of incremental slicing procedures");
+  private final StatTimer incrementalSlicingTime =
+      new StatTimer(StatKind.SUM, "Time needed for incremental slicing");
+  private final StatTimer fullSlicingTime =
+      new StatTimer(StatKind.SUM, "Time needed for full slicing");
 
   private final StatInt sliceEdgesNumber =
       new StatInt(StatKind.MAX, "Number of relevant slice edges");
@@ -72,6 +97,7 @@ public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
       DependenceGraph pDependenceGraph)
       throws InvalidConfigurationException {
     super(pExtractor, pLogger, pShutdownNotifier, pConfig);
+    pConfig.inject(this);
 
     if (pDependenceGraph == null) {
       throw new InvalidConfigurationException("Dependence graph required, but missing");
@@ -111,45 +137,66 @@ public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
     slicingTime.start();
 
     Set<CFAEdge> criteriaEdges = new HashSet<>();
-    Set<CFAEdge> relevantEdges = new HashSet<>();
-    DependenceGraph.ReachedSet depReachedSet = DependenceGraph.ReachedSet.empty();
-
     criteriaEdges.addAll(pSlicingCriteria);
 
     // TODO: make this configurable
     if (!criteriaEdges.isEmpty()) {
-      criteriaEdges.addAll(getAbortCallEdges(pCfa));
+      if (pCfa != lastCfa) {
+        lastCfa = pCfa;
+        lastAbortCallEdges = getAbortCallEdges(pCfa);
+        lastCriteria = ImmutableSet.of();
+        lastQuery = null;
+      }
+      criteriaEdges.addAll(lastAbortCallEdges);
     }
 
+    // Incremental slicing: if all previous criteria are still criteria, the relevant edges of the
+    // previous slice are also relevant now, and only the new criteria have to be handled.
+    DependenceGraph.ReachabilityQuery query = lastQuery;
+    Collection<CFAEdge> newCriteriaEdges;
+    final StatTimer timer;
+    if (incremental && query != null && criteriaEdges.containsAll(lastCriteria)) {
+      newCriteriaEdges = Sets.difference(criteriaEdges, lastCriteria);
+      incrementalSliceCount.setNextValue(1);
+      timer = incrementalSlicingTime;
+    } else {
+      query = depGraph.createReachabilityQuery(TraversalDirection.BACKWARD);
+      newCriteriaEdges = criteriaEdges;
+      timer = fullSlicingTime;
+    }
+    // the query is modified below, so it must not be reused if slicing is interrupted
+    lastQuery = null;
+    timer.start();
+
     try {
       // Heuristic: Reverse to make states that are deeper in the path first - these
       // have a higher chance of including earlier states in their dependences
       ImmutableList<CFAEdge> sortedCriteriaEdges =
           ImmutableList.sortedCopyOf(
               Comparator.comparingInt(edge -> edge.getPredecessor().getReversePostorderId()),
-              criteriaEdges);
+              newCriteriaEdges);
 
       for (CFAEdge g : sortedCriteriaEdges) {
-        if (relevantEdges.contains(g)) {
-          // If the relevant edges contain g, then all dependences of g are also already included
-          // and we can skip it (this is only true as long as no function call/return edge is a
-          // criterion!)
-          continue;
-        } else {
+        // If g was already reached, then all dependences of g are also already included
+        // and the query skips it (this is only true as long as no function call/return edge is a
+        // criterion!)
+        if (query.add(g)) {
           realSlices++;
         }
-
-        depReachedSet =
-            DependenceGraph.ReachedSet.combine(
-                depReachedSet, depGraph.getReachable(g, TraversalDirection.BACKWARD));
-        relevantEdges.addAll(depReachedSet.getReachedCfaEdges());
       }
 
+      DependenceGraph.ReachedSet depReachedSet = query.getReachedSet();
       final Slice slice =
           new StaticSlicerSlice(pCfa, ImmutableSet.copyOf(criteriaEdges), depReachedSet);
+      timer.stop();
       slicingTime.stop();
 
-      sliceEdgesNumber.setNextValue(relevantEdges.size());
+      if (incremental && !criteriaEdges.isEmpty()) {
+        lastCriteria = ImmutableSet.copyOf(criteriaEdges);
+        lastQuery = query;
+      }
+
+      sliceEdgesNumber.setNextValue(depReachedSet.getReachedCfaEdges().size());
       if (programEdgesNumber.getValueCount() == 0) {
         programEdgesNumber.setNextValue(countProgramEdges(pCfa));
       }
@@ -190,6 +237,10 @@ public class StaticSlicer extends AbstractSlicer implements StatisticsProvider {
 
             StatisticsWriter writer = StatisticsWriter.writingStatisticsTo(pOut);
             writer.put(candidateSliceCount).put(sliceCount).put(slicingTime);
+            writer
+                .put(incrementalSliceCount)
+                .put(incrementalSlicingTime)
+                .put(fullSlicingTime);
 
             writer.put(sliceEdgesNumber).put(programEdgesNumber);
             writer.put(
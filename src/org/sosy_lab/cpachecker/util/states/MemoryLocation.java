@@ -13,26 +13,47 @@ import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Splitter;
 import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import com.google.common.collect.Ordering;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.common.collect.PersistentMap;
 
 /**
-* This class describes a location in the memory.
-*/
+ * This class describes a location in the memory.
+ *
+ * <p>Instances created by the factory methods of this class are interned, such that equal memory
+ * locations are typically represented by the same object. Together with the precomputed hash code
+ * this makes lookups in the (frequently used) maps with memory locations as keys cheap, because
+ * most comparisons can be decided by identity instead of comparing the names.
+ */
 public class MemoryLocation implements Comparable<MemoryLocation>, Serializable {
 
   private static final long serialVersionUID = -8910967707373729034L;
+
+  private static final Interner<MemoryLocation> INTERNER = Interners.newWeakInterner();
+
+  private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
   private final String functionName;
   private final String identifier;
   private final @Nullable Long offset;
 
+  // transient, such that the serialized form is the same as without the cached hash code
+  private transient int hashCode;
+
+  // computed lazily and only stored in interned instances, 0 if not yet known
+  private transient int id = 0;
+
   private MemoryLocation(String pFunctionName, String pIdentifier, @Nullable Long pOffset) {
     checkNotNull(pFunctionName);
     checkNotNull(pIdentifier);
@@ -40,6 +61,7 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
     functionName = pFunctionName;
     identifier = pIdentifier;
     offset = pOffset;
+    hashCode = computeHashCode();
   }
 
   protected MemoryLocation(String pIdentifier, @Nullable Long pOffset) {
@@ -54,6 +76,55 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
       identifier = pIdentifier;
     }
     offset = pOffset;
+    hashCode = computeHashCode();
+  }
+
+  private int computeHashCode() {
+    return Objects.hash(functionName, identifier, offset);
+  }
+
+  private static MemoryLocation intern(MemoryLocation pMemoryLocation) {
+    return INTERNER.intern(pMemoryLocation);
+  }
+
+  /** Returns the interned instance that is equal to this memory location. */
+  MemoryLocation getInterned() {
+    return intern(this);
+  }
+
+  /** Restores the hash code, this is also called for instances of subclasses. */
+  private void readObject(ObjectInputStream pIn) throws IOException, ClassNotFoundException {
+    pIn.defaultReadObject();
+    hashCode = computeHashCode();
+  }
+
+  /** Keeps deserialized memory locations interned. */
+  private Object readResolve() {
+    return intern(this);
+  }
+
+  /**
+   * Returns a positive number that identifies this memory location. Equal memory locations have
+   * the same id as long as one of them is referenced, and ids are assigned densely in the order in
+   * which they are first requested. Ids are only valid during the current run and must not be
+   * serialized.
+   *
+   * <p>The id is stored in the interned instance only: all equal memory locations share this
+   * instance, and a memory location that is not referenced anymore can still be garbage collected.
+   * Instances that are not interned look up the id of the interned instance on each call.
+   */
+  int getId() {
+    int result = id;
+    if (result == 0) {
+      MemoryLocation canonical = intern(this);
+      synchronized (canonical) {
+        if (canonical.id == 0) {
+          canonical.id = NEXT_ID.incrementAndGet();
+        }
+        result = canonical.id;
+      }
+    }
+    return result;
   }
 
   @Override
@@ -69,30 +140,32 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
     MemoryLocation otherLocation = (MemoryLocation) other;
 
-    return Objects.equals(functionName, otherLocation.functionName)
+    return hashCode == otherLocation.hashCode
+        && Objects.equals(functionName, otherLocation.functionName)
         && Objects.equals(identifier, otherLocation.identifier)
         && Objects.equals(offset, otherLocation.offset);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(functionName, identifier, offset);
+    return hashCode;
   }
 
   public static MemoryLocation valueOf(String pFunctionName, String pIdentifier) {
-    return new MemoryLocation(pFunctionName, pIdentifier, null);
+    return intern(new MemoryLocation(pFunctionName, pIdentifier, null));
   }
 
   public static MemoryLocation valueOf(String pFunctionName, String pIdentifier, long pOffset) {
-    return new MemoryLocation(pFunctionName, pIdentifier, pOffset);
+    return intern(new MemoryLocation(pFunctionName, pIdentifier, pOffset));
   }
 
   public static MemoryLocation valueOf(String pIdentifier, long pOffset) {
-    return new MemoryLocation(pIdentifier, pOffset);
+    return intern(new MemoryLocation(pIdentifier, pOffset));
   }
 
   public static MemoryLocation valueOf(String pIdentifier, OptionalLong pOffset) {
-    return new MemoryLocation(pIdentifier, pOffset.isPresent() ? pOffset.orElseThrow() : null);
+    return intern(
+        new MemoryLocation(pIdentifier, pOffset.isPresent() ? pOffset.orElseThrow() : null));
   }
 
   public static MemoryLocation valueOf(String pVariableName) {
@@ -111,14 +184,14 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
       if (hasOffset) {
         varName = varName.replace("/" + offset, "");
       }
-      return new MemoryLocation(functionName, varName, offset);
+      return intern(new MemoryLocation(functionName, varName, offset));
 
     } else {
       String varName = nameParts.get(0);
       if (hasOffset) {
         varName = varName.replace("/" + offset, "");
       }
-      return new MemoryLocation(varName.replace("/" + offset, ""), offset);
+      return intern(new MemoryLocation(varName.replace("/" + offset, ""), offset));
     }
   }
 
@@ -168,9 +241,9 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
   public MemoryLocation getReferenceStart() {
     checkState(isReference(), "Memory location is no reference: %s", this);
     if (functionName != null) {
-      return new MemoryLocation(functionName, identifier, null);
+      return intern(new MemoryLocation(functionName, identifier, null));
     } else {
-      return new MemoryLocation(identifier, null);
+      return intern(new MemoryLocation(identifier, null));
     }
   }
 
@@ -193,6 +266,9 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
   @Override
   public int compareTo(MemoryLocation other) {
+    if (this == other) {
+      return 0;
+    }
     return ComparisonChain.start()
         .compare(functionName, other.functionName, Ordering.natural().nullsFirst())
         .compare(identifier, other.identifier)
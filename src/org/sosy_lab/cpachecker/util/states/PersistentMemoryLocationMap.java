@@ -0,0 +1,348 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.states;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.errorprone.annotations.Immutable;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.collect.PersistentMap;
+
+/**
+ * A persistent map with {@link MemoryLocation}s as keys, implemented as a hash array mapped trie
+ * over the ids of the memory locations (cf. {@link MemoryLocation#getId()}).
+ *
+ * <p>In contrast to {@link PathCopyingPersistentTreeMap}, lookups and updates never compare the
+ * names of memory locations, and the trie is much flatter than a binary tree, such that fewer
+ * nodes are copied on each update. The iteration order is the order of the ids, i.e., it is
+ * deterministic within one run, but not sorted.
+ */
+@Immutable(containerOf = "V")
+@SuppressWarnings("Immutable") // the arrays of the nodes are never modified after creation
+public final class PersistentMemoryLocationMap<V> extends AbstractMap<MemoryLocation, V>
+    implements PersistentMap<MemoryLocation, V>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  /** number of bits of the id that are used on each level of the trie */
+  private static final int BITS = 5;
+
+  private static final int MASK = (1 << BITS) - 1;
+
+  private static final int MAX_DEPTH = (Integer.SIZE + BITS - 1) / BITS;
+
+  private static final PersistentMemoryLocationMap<?> EMPTY =
+      new PersistentMemoryLocationMap<>(Node.EMPTY, 0);
+
+  /**
+   * Inner node of the trie. The children are ordered by their bit in the bitmap, and each child is
+   * either a {@link Node} or a {@link Leaf}. All nodes except the root contain at least two leaves.
+   */
+  private static final class Node {
+
+    private static final Node EMPTY = new Node(0, new Object[0]);
+
+    private final int bitmap;
+    private final Object[] children;
+
+    private Node(int pBitmap, Object[] pChildren) {
+      bitmap = pBitmap;
+      children = pChildren;
+    }
+
+    private int index(int pBit) {
+      return Integer.bitCount(bitmap & (pBit - 1));
+    }
+
+    private Node withChild(int pBit, Object pChild) {
+      int index = index(pBit);
+      Object[] newChildren;
+      if ((bitmap & pBit) == 0) {
+        newChildren = new Object[children.length + 1];
+        System.arraycopy(children, 0, newChildren, 0, index);
+        System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+      } else {
+        newChildren = children.clone();
+      }
+      newChildren[index] = pChild;
+      return new Node(bitmap | pBit, newChildren);
+    }
+
+    private Node withoutChild(int pBit) {
+      int index = index(pBit);
+      Object[] newChildren = new Object[children.length - 1];
+      System.arraycopy(children, 0, newChildren, 0, index);
+      System.arraycopy(children, index + 1, newChildren, index, newChildren.length - index);
+      return new Node(bitmap & ~pBit, newChildren);
+    }
+  }
+
+  private static final class Leaf<V> extends SimpleImmutableEntry<MemoryLocation, V> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int id;
+
+    /**
+     * The interned instance of the key, which holds the id. Referencing it keeps the id of the key
+     * stable while the leaf exists, even if the key itself is not interned.
+     */
+    @SuppressWarnings("unused")
+    private final MemoryLocation interned;
+
+    private Leaf(MemoryLocation pKey, V pValue) {
+      super(pKey, pValue);
+      interned = pKey.getInterned();
+      id = interned.getId();
+    }
+  }
+
+  private final Node root;
+  private final int size;
+
+  private PersistentMemoryLocationMap(Node pRoot, int pSize) {
+    root = pRoot;
+    size = pSize;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentMemoryLocationMap<V> of() {
+    return (PersistentMemoryLocationMap<V>) EMPTY;
+  }
+
+  private static int bit(int pId, int pShift) {
+    return 1 << ((pId >>> pShift) & MASK);
+  }
+
+  @SuppressWarnings("unchecked")
+  private @Nullable Leaf<V> find(Object pKey) {
+    if (!(pKey instanceof MemoryLocation)) {
+      return null;
+    }
+    int id = ((MemoryLocation) pKey).getId();
+    Node node = root;
+    // ids are unique, so two leaves always differ in the bits of some level
+    for (int shift = 0; ; shift += BITS) {
+      int bit = bit(id, shift);
+      if ((node.bitmap & bit) == 0) {
+        return null;
+      }
+      Object child = node.children[node.index(bit)];
+      if (child instanceof Node) {
+        node = (Node) child;
+      } else {
+        Leaf<V> leaf = (Leaf<V>) child;
+        return leaf.id == id ? leaf : null;
+      }
+    }
+  }
+
+  private static Node insert(Node pNode, int pShift, Leaf<?> pLeaf) {
+    int bit = bit(pLeaf.id, pShift);
+    if ((pNode.bitmap & bit) == 0) {
+      return pNode.withChild(bit, pLeaf);
+    }
+    Object child = pNode.children[pNode.index(bit)];
+    if (child instanceof Node) {
+      return pNode.withChild(bit, insert((Node) child, pShift + BITS, pLeaf));
+    }
+    Leaf<?> existing = (Leaf<?>) child;
+    if (existing.id == pLeaf.id) {
+      return pNode.withChild(bit, pLeaf);
+    }
+    Node subNode = insert(insert(Node.EMPTY, pShift + BITS, existing), pShift + BITS, pLeaf);
+    return pNode.withChild(bit, subNode);
+  }
+
+  /** Removes the leaf with the given id, which needs to be present. */
+  private static Node remove(Node pNode, int pShift, int pId) {
+    int bit = bit(pId, pShift);
+    Object child = pNode.children[pNode.index(bit)];
+    if (!(child instanceof Node)) {
+      return pNode.withoutChild(bit);
+    }
+    Node newChild = remove((Node) child, pShift + BITS, pId);
+    if (newChild.children.length == 1 && !(newChild.children[0] instanceof Node)) {
+      // keep the trie compact by replacing a node with a single leaf by the leaf
+      return pNode.withChild(bit, newChild.children[0]);
+    }
+    return pNode.withChild(bit, newChild);
+  }
+
+  @Override
+  public PersistentMemoryLocationMap<V> putAndCopy(MemoryLocation pKey, V pValue) {
+    Leaf<V> existing = find(checkNotNull(pKey));
+    if (existing != null && existing.getValue() == pValue) {
+      return this;
+    }
+    Node newRoot = insert(root, 0, new Leaf<>(pKey, pValue));
+    return new PersistentMemoryLocationMap<>(newRoot, existing == null ? size + 1 : size);
+  }
+
+  @Override
+  public PersistentMemoryLocationMap<V> removeAndCopy(Object pKey) {
+    Leaf<V> existing = find(pKey);
+    if (existing == null) {
+      return this;
+    }
+    if (size == 1) {
+      return of();
+    }
+    return new PersistentMemoryLocationMap<>(remove(root, 0, existing.id), size - 1);
+  }
+
+  @Override
+  public PersistentMemoryLocationMap<V> empty() {
+    return of();
+  }
+
+  @Override
+  public @Nullable V get(Object pKey) {
+    Leaf<V> leaf = find(pKey);
+    return leaf == null ? null : leaf.getValue();
+  }
+
+  @Override
+  public boolean containsKey(Object pKey) {
+    return find(pKey) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Set<Entry<MemoryLocation, V>> entrySet() {
+    return new AbstractSet<>() {
+
+      @Override
+      public Iterator<Entry<MemoryLocation, V>> iterator() {
+        return new LeafIterator<>(root);
+      }
+
+      @Override
+      public boolean contains(Object pEntry) {
+        if (!(pEntry instanceof Entry)) {
+          return false;
+        }
+        Entry<?, ?> entry = (Entry<?, ?>) pEntry;
+        Leaf<V> leaf = find(entry.getKey());
+        return leaf != null && Objects.equals(leaf.getValue(), entry.getValue());
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /** Iterates over the leaves of the trie in depth-first order. */
+  private static final class LeafIterator<V> implements Iterator<Entry<MemoryLocation, V>> {
+
+    private final Node[] nodes = new Node[MAX_DEPTH];
+    private final int[] positions = new int[MAX_DEPTH];
+    private int depth = 0;
+    private @Nullable Leaf<V> next;
+
+    private LeafIterator(Node pRoot) {
+      nodes[0] = pRoot;
+      next = computeNext();
+    }
+
+    @SuppressWarnings("unchecked")
+    private @Nullable Leaf<V> computeNext() {
+      while (depth >= 0) {
+        Node node = nodes[depth];
+        if (positions[depth] == node.children.length) {
+          depth--;
+          continue;
+        }
+        Object child = node.children[positions[depth]++];
+        if (child instanceof Node) {
+          depth++;
+          nodes[depth] = (Node) child;
+          positions[depth] = 0;
+        } else {
+          return (Leaf<V>) child;
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<MemoryLocation, V> next() {
+      Leaf<V> result = next;
+      if (result == null) {
+        throw new NoSuchElementException();
+      }
+      next = computeNext();
+      return result;
+    }
+  }
+
+  /** Ids are only valid during one run, so we serialize only the entries. */
+  private Object writeReplace() {
+    return new SerialProxy<>(this);
+  }
+
+  @SuppressWarnings("UnusedVariable") // parameter is required by API
+  private void readObject(ObjectInputStream pIn) throws InvalidObjectException {
+    throw new InvalidObjectException("Proxy required");
+  }
+
+  private static final class SerialProxy<V> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final MemoryLocation[] keys;
+    private final Object[] values;
+
+    private SerialProxy(PersistentMemoryLocationMap<V> pMap) {
+      keys = new MemoryLocation[pMap.size()];
+      values = new Object[pMap.size()];
+      int i = 0;
+      for (Entry<MemoryLocation, V> entry : pMap.entrySet()) {
+        keys[i] = entry.getKey();
+        values[i] = entry.getValue();
+        i++;
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object readResolve() {
+      PersistentMemoryLocationMap<V> result = of();
+      for (int i = 0; i < keys.length; i++) {
+        result = result.putAndCopy(keys[i], (V) values[i]);
+      }
+      return result;
+    }
+  }
+}
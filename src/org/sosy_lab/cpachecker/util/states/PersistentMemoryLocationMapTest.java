@@ -0,0 +1,83 @@
+// This file is part of CPAchecker,
+// a tool for configurable software verification:
+// https://cpachecker.sosy-lab.org
+//
+// SPDX-FileCopyrightText: 2007-2020 Dirk Beyer <https://www.sosy-lab.org>
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.sosy_lab.cpachecker.util.states;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class PersistentMemoryLocationMapTest {
+
+  private static MemoryLocation variable(int i) {
+    return MemoryLocation.valueOf("main", "x" + i);
+  }
+
+  @Test
+  public void testAgainstHashMap() {
+    Random random = new Random(0);
+    PersistentMemoryLocationMap<Integer> map = PersistentMemoryLocationMap.of();
+    Map<MemoryLocation, Integer> expected = new HashMap<>();
+
+    for (int i = 0; i < 5000; i++) {
+      MemoryLocation key = variable(random.nextInt(200));
+      if (random.nextInt(3) == 0) {
+        map = map.removeAndCopy(key);
+        expected.remove(key);
+      } else {
+        int value = random.nextInt(10);
+        map = map.putAndCopy(key, value);
+        expected.put(key, value);
+      }
+      assertThat(map.size()).isEqualTo(expected.size());
+    }
+
+    assertThat(map).containsExactlyEntriesIn(expected);
+    assertThat(map.hashCode()).isEqualTo(expected.hashCode());
+  }
+
+  @Test
+  public void testPersistence() {
+    PersistentMemoryLocationMap<Integer> empty = PersistentMemoryLocationMap.of();
+    PersistentMemoryLocationMap<Integer> map1 = empty.putAndCopy(variable(1), 1);
+    PersistentMemoryLocationMap<Integer> map2 = map1.putAndCopy(variable(2), 2);
+    PersistentMemoryLocationMap<Integer> map3 = map2.putAndCopy(variable(1), 3);
+
+    assertThat(empty).isEmpty();
+    assertThat(map1).containsExactly(variable(1), 1);
+    assertThat(map2).containsExactly(variable(1), 1, variable(2), 2);
+    assertThat(map3).containsExactly(variable(1), 3, variable(2), 2);
+    assertThat(map3.removeAndCopy(variable(2)).removeAndCopy(variable(1)))
+        .isSameInstanceAs(empty);
+  }
+
+  @Test
+  public void testSerialization() throws IOException, ClassNotFoundException {
+    PersistentMemoryLocationMap<Integer> map = PersistentMemoryLocationMap.of();
+    for (int i = 0; i < 100; i++) {
+      map = map.putAndCopy(variable(i), i);
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(map);
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      assertThat(in.readObject()).isEqualTo(map);
+    }
+  }
+}
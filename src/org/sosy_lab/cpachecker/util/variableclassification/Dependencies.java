@@ -9,16 +9,23 @@
 package org.sosy_lab.cpachecker.util.variableclassification;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.HashBasedTable;
-import com.google.common.collect.Iterables;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
 import com.google.common.collect.Table;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -27,63 +34,73 @@ import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 /**
  * This class stores dependencies between variables. It sorts vars into partitions. Dependent vars
  * are in the same partition. Partitions are independent.
+ *
+ * <p>While dependencies are added, each variable is interned to an integer id and the partitions
+ * are maintained as a union-find structure over these ids, such that merging two partitions does
+ * not copy their variables. The {@link Partition} objects are only created when they are requested
+ * for the first time, and no dependencies can be added afterwards.
  */
 class Dependencies {
 
-  /** partitions, each of them contains vars */
-  final Set<Partition> partitions = new LinkedHashSet<>();
+  private static final int INITIAL_CAPACITY = 64;
+
+  /** ids of the vars, assigned in the order the vars are added */
+  private final Map<String, Integer> varIds = new HashMap<>();
+
+  /** names of the vars, indexed by their ids */
+  private final List<String> vars = new ArrayList<>();
+
+  /** parent of each var in the union-find forest, roots are their own parents */
+  private int[] parent = new int[INITIAL_CAPACITY];
+
+  /** upper bound of the height of the tree below each root */
+  private int[] rank = new int[INITIAL_CAPACITY];
+
+  /** values of each partition, only stored at the root (null if there are no values) */
+  private final List<@Nullable Set<BigInteger>> values = new ArrayList<>();
+
+  /** edges of each partition, only stored at the root (null if there are no edges) */
+  private final List<@Nullable Multimap<CFAEdge, Integer>> edges = new ArrayList<>();
+
+  /** partitions, each of them contains vars, null until they are requested */
+  private @Nullable Set<Partition> partitions = null;
 
   /** map to get partition of a var */
   private final Map<String, Partition> varToPartition = new HashMap<>();
 
   /** table to get a partition for a edge. */
   // we use subtype, because we might serialize the table, and FindBugs complains.
-  final Table<CFAEdge, Integer, Partition> edgeToPartition = HashBasedTable.create();
+  private final HashBasedTable<CFAEdge, Integer, Partition> edgeToPartition =
+      HashBasedTable.create();
+
+  /**
+   * Returns the partitions. Partitions are ordered by their first variable, such that a partition
+   * created earlier than another one is also returned earlier.
+   */
+  Set<Partition> getPartitions() {
+    buildPartitions();
+    return partitions;
+  }
+
+  /** Returns the table to get the partition of an expression of an edge. */
+  Table<CFAEdge, Integer, Partition> getEdgeToPartition() {
+    buildPartitions();
+    return edgeToPartition;
+  }
 
   /**
    * This function returns a partition containing all vars, that are dependent with the given
    * variable.
    */
   public Partition getPartitionForVar(String var) {
-    return varToPartition.get(checkNotNull(var));
+    checkNotNull(var);
+    buildPartitions();
+    return varToPartition.get(var);
   }
 
   /** This function creates a dependency between function1::var1 and function2::var2. */
   public void add(String var1, String var2) {
-
-    // if both vars exists in some dependencies,
-    // either ignore them or merge their partitions
-    Partition partition1 = varToPartition.get(var1);
-    Partition partition2 = varToPartition.get(var2);
-    if (partition1 != null && partition2 != null) {
-
-      // swap partitions, we create partitions in the order they are used
-      if (partition1.compareTo(partition2) > 0) {
-        Partition tmp = partition2;
-        partition2 = partition1;
-        partition1 = tmp;
-      }
-
-      if (!partition1.equals(partition2)) {
-        partition1.merge(partition2);
-        partitions.remove(partition2);
-      }
-
-      // if only left side of dependency exists, add right side into same partition
-    } else if (partition1 != null) {
-      partition1.add(var2);
-
-      // if only right side of dependency exists, add left side into same partition
-    } else if (partition2 != null) {
-      partition2.add(var1);
-
-      // if none side is in any existing partition, create new partition
-    } else {
-      Partition partition = new Partition(varToPartition, edgeToPartition);
-      partition.add(var1);
-      partition.add(var2);
-      partitions.add(partition);
-    }
+    union(addVar(var1), addVar(var2));
   }
 
   /**
@@ -108,32 +125,87 @@ class Dependencies {
     Iterator<String> iter = vars.iterator();
 
     // we use same varName for all other vars --> dependency
-    String var = iter.next();
-
-    // first add one single var
-    addVar(var);
+    int var = addVar(iter.next());
 
     // then add all other vars, they are dependent from the first var
     while (iter.hasNext()) {
-      add(var, iter.next());
+      union(var, addVar(iter.next()));
     }
 
-    Partition partition = getPartitionForVar(var);
-    partition.addValues(values);
-    partition.addEdge(edge, index);
+    int root = find(var);
+    if (values != null) {
+      addValues(root, values);
+    }
+    addEdge(root, edge, index);
   }
 
   /**
    * This function adds one single variable to the partitions. This is the only method to create a
    * partition with only one element.
+   *
+   * @return the id of the variable.
    */
-  public void addVar(String var) {
+  public int addVar(String var) {
+    checkState(partitions == null, "dependencies cannot be changed after building partitions");
+    checkNotNull(var);
 
     // if var exists, we can ignore it, otherwise create new partition for var
-    if (!varToPartition.containsKey(var)) {
-      Partition partition = new Partition(varToPartition, edgeToPartition);
-      partition.add(var);
-      partitions.add(partition);
+    Integer id = varIds.get(var);
+    if (id != null) {
+      return id;
+    }
+    int newId = vars.size();
+    if (newId == parent.length) {
+      parent = Arrays.copyOf(parent, 2 * newId);
+      rank = Arrays.copyOf(rank, 2 * newId);
+    }
+    parent[newId] = newId;
+    vars.add(var);
+    values.add(null);
+    edges.add(null);
+    varIds.put(var, newId);
+    return newId;
+  }
+
+  /**
+   * Connects the given edge with the partition of the given variable.
+   *
+   * @param var a variable of the partition, which is added if necessary.
+   * @param edge where is the expression
+   * @param index if an edge has several expressions, this index is the position of the expression
+   */
+  public void addEdge(String var, CFAEdge edge, int index) {
+    addEdge(find(addVar(var)), checkNotNull(edge), index);
+  }
+
+  /**
+   * Adds all variables and dependencies of another instance to this one. The ids of the variables
+   * of the other instance are not kept.
+   */
+  void addAll(Dependencies other) {
+    checkState(other.partitions == null);
+    int[] ids = new int[other.vars.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = addVar(other.vars.get(i));
+    }
+    for (int i = 0; i < ids.length; i++) {
+      int otherRoot = other.find(i);
+      if (otherRoot != i) {
+        union(ids[i], ids[otherRoot]);
+      }
+    }
+    for (int i = 0; i < ids.length; i++) {
+      if (other.parent[i] == i) {
+        int root = find(ids[i]);
+        Set<BigInteger> otherValues = other.values.get(i);
+        if (otherValues != null) {
+          addValues(root, otherValues);
+        }
+        Multimap<CFAEdge, Integer> otherEdges = other.edges.get(i);
+        if (otherEdges != null) {
+          otherEdges.forEach((edge, index) -> addEdge(root, edge, index));
+        }
+      }
     }
   }
 
@@ -142,28 +214,124 @@ class Dependencies {
    * of the set, B is added to the set, and vice versa. Example: If A is not boolean, B is not
    * boolean.
    */
-  public void solve(final Set<String> vars) {
-    checkNotNull(vars);
-    for (Partition partition : partitions) {
-
-      // is at least one var from the partition part of vars
-      if (Iterables.any(partition.getVars(), v -> vars.contains(v))) {
-        // add all dependend vars to vars
-        vars.addAll(partition.getVars());
+  public void solve(final Set<String> pVars) {
+    checkNotNull(pVars);
+
+    // is at least one var from the partition part of vars
+    BitSet roots = new BitSet(vars.size());
+    for (String var : pVars) {
+      Integer id = varIds.get(var);
+      if (id != null) {
+        roots.set(find(id));
+      }
+    }
+
+    // add all dependend vars to vars
+    if (!roots.isEmpty()) {
+      for (int id = 0; id < vars.size(); id++) {
+        if (roots.get(find(id))) {
+          pVars.add(vars.get(id));
+        }
+      }
+    }
+  }
+
+  private int find(int id) {
+    int current = id;
+    while (parent[current] != current) {
+      // path halving
+      parent[current] = parent[parent[current]];
+      current = parent[current];
+    }
+    return current;
+  }
+
+  private void union(int id1, int id2) {
+    int root1 = find(id1);
+    int root2 = find(id2);
+    if (root1 == root2) {
+      return;
+    }
+    if (rank[root1] < rank[root2]) {
+      int tmp = root1;
+      root1 = root2;
+      root2 = tmp;
+    } else if (rank[root1] == rank[root2]) {
+      rank[root1]++;
+    }
+    parent[root2] = root1;
+
+    Set<BigInteger> values2 = values.set(root2, null);
+    if (values2 != null) {
+      addValues(root1, values2);
+    }
+    Multimap<CFAEdge, Integer> edges2 = edges.set(root2, null);
+    if (edges2 != null) {
+      Multimap<CFAEdge, Integer> edges1 = edges.get(root1);
+      if (edges1 == null) {
+        edges.set(root1, edges2);
+      } else {
+        edges1.putAll(edges2);
+      }
+    }
+  }
+
+  private void addValues(int root, Set<BigInteger> newValues) {
+    if (newValues.isEmpty()) {
+      return;
+    }
+    Set<BigInteger> rootValues = values.get(root);
+    if (rootValues == null) {
+      rootValues = new HashSet<>();
+      values.set(root, rootValues);
+    }
+    rootValues.addAll(newValues);
+  }
+
+  private void addEdge(int root, CFAEdge edge, int index) {
+    Multimap<CFAEdge, Integer> rootEdges = edges.get(root);
+    if (rootEdges == null) {
+      rootEdges = HashMultimap.create();
+      edges.set(root, rootEdges);
+    }
+    rootEdges.put(edge, index);
+  }
+
+  /** Creates the partitions from the union-find structure, if this was not done before. */
+  private void buildPartitions() {
+    if (partitions != null) {
+      return;
+    }
+    Set<Partition> result = new LinkedHashSet<>();
+    Partition[] partitionOfRoot = new Partition[vars.size()];
+
+    // the first var of each partition has the lowest id, so the partitions are created in order
+    for (int id = 0; id < vars.size(); id++) {
+      int root = find(id);
+      Partition partition = partitionOfRoot[root];
+      if (partition == null) {
+        partition = new Partition(varToPartition, edgeToPartition);
+        partitionOfRoot[root] = partition;
+        result.add(partition);
+        Set<BigInteger> rootValues = values.get(root);
+        if (rootValues != null) {
+          partition.addValues(rootValues);
+        }
+        Multimap<CFAEdge, Integer> rootEdges = edges.get(root);
+        if (rootEdges != null) {
+          rootEdges.forEach(partition::addEdge);
+        }
       }
+      partition.add(vars.get(id));
     }
+    partitions = result;
   }
 
   @Override
   public String toString() {
     StringBuilder str = new StringBuilder("[");
-    Joiner.on(",\n").appendTo(str, partitions);
+    Joiner.on(",\n").appendTo(str, getPartitions());
     str.append("]");
-
-    //      for (Pair<CFAEdge, Integer> edge : edgeToPartition.keySet()) {
-    //        str.append(edge.getFirst().getRawStatement() + " :: "
-    //            + edge.getSecond() + " --> " + edgeToPartition.get(edge) + "\n");
-    //      }
     return str.toString();
   }
 }
@@ -14,26 +14,39 @@ import static org.sosy_lab.cpachecker.util.CFAUtils.leavingEdges;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
 import com.google.common.collect.HashMultiset;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
+import com.google.common.math.IntMath;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.Writer;
 import java.math.BigInteger;
+import java.math.RoundingMode;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.UnexpectedCheckedException;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
@@ -85,6 +98,8 @@ import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.exceptions.UnrecognizedCodeException;
 import org.sosy_lab.cpachecker.util.CFAUtils;
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.statistics.StatInt;
+import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 import org.sosy_lab.cpachecker.util.variableclassification.VariableAndFieldRelevancyComputer.VarFieldDependencies;
 
@@ -106,6 +121,13 @@ public class VariableClassificationBuilder implements StatisticsProvider {
   @Option(secure=true, description = "Print some information about the variable classification.")
   private boolean printStatsOnStartup = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Collect the variables of different functions in parallel threads"
+              + " and merge the results afterwards.")
+  private boolean parallelCollection = true;
+
   /**
    * Use {@link FunctionEntryNode#getReturnVariable()} and
    * {@link AReturnStatement#asAssignment()} instead.
@@ -124,6 +146,8 @@ public class VariableClassificationBuilder implements StatisticsProvider {
 
   private final Dependencies dependencies = new Dependencies();
 
+  private VarFieldDependencies varFieldDependencies = VarFieldDependencies.emptyDependencies();
+
   private Optional<Set<String>> relevantVariables = Optional.absent();
   private Optional<Multimap<CCompositeType, String>> relevantFields = Optional.absent();
   private Optional<Multimap<CCompositeType, String>> addressedFields = Optional.absent();
@@ -137,6 +161,9 @@ public class VariableClassificationBuilder implements StatisticsProvider {
     private final StatTimer variableClassificationTimer =
         new StatTimer("Time for classifying variables");
     private final StatTimer collectTimer = new StatTimer("Time for collecting variables");
+    private final StatTimer mergeTimer = new StatTimer("Time for merging collected variables");
+    private final StatInt collectThreads =
+        new StatInt(StatKind.MAX, "Number of threads for collecting variables");
     private final StatTimer dependencyTimer = new StatTimer("Time for solving dependencies");
     private final StatTimer hierarchyTimer = new StatTimer("Time for building hierarchy");
     private final StatTimer buildTimer = new StatTimer("Time for building classification");
@@ -152,6 +179,8 @@ public class VariableClassificationBuilder implements StatisticsProvider {
       if (variableClassificationTimer.getUpdateCount() > 0) {
         put(out, 3, variableClassificationTimer);
         put(out, 4, collectTimer);
+        put(out, 5, mergeTimer);
+        put(out, 5, collectThreads);
         put(out, 4, dependencyTimer);
         put(out, 4, hierarchyTimer);
         put(out, 4, buildTimer);
@@ -173,7 +202,8 @@ public class VariableClassificationBuilder implements StatisticsProvider {
   /** This function does the whole work:
    * creating all maps, collecting vars, solving dependencies.
    * The function runs only once, after that it does nothing. */
-  public VariableClassification build(CFA cfa) throws UnrecognizedCodeException {
+  public VariableClassification build(CFA cfa)
+      throws UnrecognizedCodeException, InterruptedException {
     checkArgument(cfa.getLanguage() == Language.C, "VariableClassification currently only supports C");
 
     stats.variableClassificationTimer.start();
@@ -182,6 +212,13 @@ public class VariableClassificationBuilder implements StatisticsProvider {
     collectVars(cfa);
     stats.collectTimer.stop();
 
+    // add last vars to dependencies,
+    // this allows to get partitions for all vars,
+    // otherwise only dependent vars are in the partitions
+    for (String var : allVars) {
+      dependencies.addVar(var);
+    }
+
     // if a value is not boolean, all dependent vars are not boolean and viceversa
     stats.dependencyTimer.start();
     dependencies.solve(nonIntBoolVars);
@@ -224,13 +261,6 @@ public class VariableClassificationBuilder implements StatisticsProvider {
     }
     stats.hierarchyTimer.stop();
 
-    // add last vars to dependencies,
-    // this allows to get partitions for all vars,
-    // otherwise only dependent vars are in the partitions
-    for (String var : allVars) {
-      dependencies.addVar(var);
-    }
-
     boolean hasRelevantNonIntAddVars = !Sets.intersection(relevantVariables.get(), nonIntAddVars).isEmpty();
 
     stats.buildTimer.start();
@@ -245,11 +275,11 @@ public class VariableClassificationBuilder implements StatisticsProvider {
             addressedVariables.get(),
             relevantFields.get(),
             addressedFields.get(),
-            dependencies.partitions,
+            dependencies.getPartitions(),
             intBoolPartitions,
             intEqualPartitions,
             intAddPartitions,
-            dependencies.edgeToPartition,
+            dependencies.getEdgeToPartition(),
             extractAssumedVariables(cfa.getAllNodes()),
             extractAssignedVariables(cfa.getAllNodes()),
             logger);
@@ -382,7 +412,7 @@ public class VariableClassificationBuilder implements StatisticsProvider {
         "number of intBool partitions:  " + vc.getIntBoolPartitions().size(),
         "number of intEq partitions:    " + vc.getIntEqualPartitions().size(),
         "number of intAdd partitions:   " + vc.getIntAddPartitions().size(),
-        "number of all partitions:      " + dependencies.partitions.size(),
+        "number of all partitions:      " + dependencies.getPartitions().size(),
         });
     str.append("\n---------------------------------\n");
 
@@ -393,19 +423,67 @@ public class VariableClassificationBuilder implements StatisticsProvider {
     return Sets.intersection(ofVars, relevantVariables.get()).size();
   }
 
-  /** This function iterates over all edges of the cfa, collects all variables
-   * and orders them into different sets, i.e. nonBoolean and nonIntEuqalNumber. */
-  private void collectVars(CFA cfa) throws UnrecognizedCodeException {
-    Collection<CFANode> nodes = cfa.getAllNodes();
-    VarFieldDependencies varFieldDependencies = VarFieldDependencies.emptyDependencies();
-    for (CFANode node : nodes) {
-      for (CFAEdge edge : leavingEdges(node)) {
-        handleEdge(edge, cfa);
-        varFieldDependencies =
-            varFieldDependencies.withDependencies(
-                VariableAndFieldRelevancyComputer.handleEdge(cfa, edge));
+  /**
+   * Collects the variables of all edges of the CFA. If enabled, the functions are distributed
+   * among several threads, each of which collects the variables of its functions separately.
+   */
+  private void collectVars(CFA cfa) throws UnrecognizedCodeException, InterruptedException {
+    ImmutableListMultimap<String, CFANode> nodesPerFunction =
+        Multimaps.index(cfa.getAllNodes(), CFANode::getFunctionName);
+    List<String> functionNames = nodesPerFunction.keySet().asList();
+    int threads =
+        parallelCollection
+            ? Math.min(Runtime.getRuntime().availableProcessors(), functionNames.size())
+            : 1;
+    stats.collectThreads.setNextValue(threads);
+
+    if (threads <= 1) {
+      VariableCollector collector = new VariableCollector(cfa);
+      collector.collectVars(cfa.getAllNodes());
+      addCollectedVars(collector);
+
+    } else {
+      List<List<String>> partitions =
+          Lists.partition(
+              functionNames, IntMath.divide(functionNames.size(), threads, RoundingMode.CEILING));
+      ExecutorService executor =
+          Executors.newFixedThreadPool(
+              partitions.size(),
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("variable-classification-%d")
+                  .build());
+      try {
+        List<Future<VariableCollector>> results = new ArrayList<>();
+        for (List<String> partition : partitions) {
+          results.add(
+              executor.submit(
+                  () -> {
+                    VariableCollector collector = new VariableCollector(cfa);
+                    for (String function : partition) {
+                      collector.collectVars(nodesPerFunction.get(function));
+                    }
+                    return collector;
+                  }));
+        }
+        // merge in a fixed order, such that the result does not depend on the scheduling
+        for (Future<VariableCollector> result : results) {
+          VariableCollector collector = result.get();
+          stats.mergeTimer.start();
+          addCollectedVars(collector);
+          stats.mergeTimer.stop();
+        }
+
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        Throwables.throwIfInstanceOf(cause, UnrecognizedCodeException.class);
+        Throwables.throwIfUnchecked(cause);
+        throw new UnexpectedCheckedException("variable classification", cause);
+      } finally {
+        executor.shutdownNow();
       }
     }
+
     addressedVariables = Optional.of(varFieldDependencies.computeAddressedVariables());
     addressedFields = Optional.of(varFieldDependencies.computeAddressedFields());
     final Pair<ImmutableSet<String>, ImmutableMultimap<CCompositeType, String>> relevant =
@@ -414,6 +492,17 @@ public class VariableClassificationBuilder implements StatisticsProvider {
     relevantFields = Optional.of(relevant.getSecond());
   }
 
+  /** Adds the variables collected by the given collector to the variables of the builder. */
+  private void addCollectedVars(VariableCollector collector) {
+    allVars.addAll(collector.allVars);
+    nonIntBoolVars.addAll(collector.nonIntBoolVars);
+    nonIntEqVars.addAll(collector.nonIntEqVars);
+    nonIntAddVars.addAll(collector.nonIntAddVars);
+    intOverflowVars.addAll(collector.intOverflowVars);
+    dependencies.addAll(collector.dependencies);
+    varFieldDependencies = varFieldDependencies.withDependencies(collector.varFieldDependencies);
+  }
+
   /**
    * This method extracts all variables (i.e., their qualified name), that occur in an assumption.
    */
@@ -459,316 +548,348 @@ public class VariableClassificationBuilder implements StatisticsProvider {
     return assignedVariables;
   }
 
-  /** switch to edgeType and handle all expressions, that could be part of the edge. */
-  private void handleEdge(CFAEdge edge, CFA cfa) throws UnrecognizedCodeException {
-    switch (edge.getEdgeType()) {
-      case AssumeEdge:
-        {
-          CExpression exp = ((CAssumeEdge) edge).getExpression();
-          CFANode pre = edge.getPredecessor();
+  /**
+   * Collects the variables and their dependencies from a set of CFA edges. Several instances can
+   * collect the variables of different functions concurrently, their results are combined
+   * afterwards with {@link VariableClassificationBuilder#addCollectedVars(VariableCollector)}.
+   */
+  private static final class VariableCollector {
 
-          VariablesCollectingVisitor dcv = new VariablesCollectingVisitor(pre);
-          Set<String> vars = exp.accept(dcv);
-          if (vars != null) {
-            allVars.addAll(vars);
-            dependencies.addAll(vars, dcv.getValues(), edge, 0);
-          }
+    private final CFA cfa;
 
-          exp.accept(new BoolCollectingVisitor(pre, nonIntBoolVars));
-          exp.accept(new IntEqualCollectingVisitor(pre, nonIntEqVars));
-          exp.accept(new IntAddCollectingVisitor(pre, nonIntAddVars));
-          exp.accept(new IntOverflowCollectingVisitor(pre, intOverflowVars));
+    private final Set<String> allVars = new HashSet<>();
 
-          break;
-        }
+    private final Set<String> nonIntBoolVars = new HashSet<>();
+    private final Set<String> nonIntEqVars = new HashSet<>();
+    private final Set<String> nonIntAddVars = new HashSet<>();
+    private final Set<String> intOverflowVars = new HashSet<>();
+
+    private final Dependencies dependencies = new Dependencies();
 
-    case DeclarationEdge: {
-      handleDeclarationEdge((CDeclarationEdge) edge);
-      break;
+    private VarFieldDependencies varFieldDependencies = VarFieldDependencies.emptyDependencies();
+
+    private VariableCollector(CFA pCfa) {
+      cfa = checkNotNull(pCfa);
     }
 
-    case StatementEdge: {
-      final CStatement statement = ((CStatementEdge) edge).getStatement();
+    private void collectVars(Collection<CFANode> nodes) throws UnrecognizedCodeException {
+      for (CFANode node : nodes) {
+        for (CFAEdge edge : leavingEdges(node)) {
+          handleEdge(edge, cfa);
+          varFieldDependencies =
+              varFieldDependencies.withDependencies(
+                  VariableAndFieldRelevancyComputer.handleEdge(cfa, edge));
+        }
+      }
+    }
+
+    /** switch to edgeType and handle all expressions, that could be part of the edge. */
+    private void handleEdge(CFAEdge edge, CFA cfa) throws UnrecognizedCodeException {
+      switch (edge.getEdgeType()) {
+        case AssumeEdge:
+          {
+            CExpression exp = ((CAssumeEdge) edge).getExpression();
+            CFANode pre = edge.getPredecessor();
+
+            VariablesCollectingVisitor dcv = new VariablesCollectingVisitor(pre);
+            Set<String> vars = exp.accept(dcv);
+            if (vars != null) {
+              allVars.addAll(vars);
+              dependencies.addAll(vars, dcv.getValues(), edge, 0);
+            }
+
+            exp.accept(new BoolCollectingVisitor(pre, nonIntBoolVars));
+            exp.accept(new IntEqualCollectingVisitor(pre, nonIntEqVars));
+            exp.accept(new IntAddCollectingVisitor(pre, nonIntAddVars));
+            exp.accept(new IntOverflowCollectingVisitor(pre, intOverflowVars));
 
-      // normal assignment of variable, rightHandSide can be expression or (external) functioncall
-      if (statement instanceof CAssignment) {
-        handleAssignment(edge, (CAssignment) statement, cfa);
+            break;
+          }
 
-        // pure external functioncall
-      } else if (statement instanceof CFunctionCallStatement) {
-        handleExternalFunctionCall(edge, ((CFunctionCallStatement) statement).
-            getFunctionCallExpression().getParameterExpressions());
+      case DeclarationEdge: {
+        handleDeclarationEdge((CDeclarationEdge) edge);
+        break;
       }
 
-      break;
-    }
+      case StatementEdge: {
+        final CStatement statement = ((CStatementEdge) edge).getStatement();
 
-    case FunctionCallEdge: {
-      handleFunctionCallEdge((CFunctionCallEdge) edge);
-      break;
-    }
+        // normal assignment of variable, rightHandSide can be expression or (external) functioncall
+        if (statement instanceof CAssignment) {
+          handleAssignment(edge, (CAssignment) statement, cfa);
 
-    case FunctionReturnEdge: {
-      Optional<CVariableDeclaration> returnVar = ((CFunctionReturnEdge)edge).getFunctionEntry().getReturnVariable();
-      if (returnVar.isPresent()) {
-        String scopedVarName = returnVar.get().getQualifiedName();
-        dependencies.addVar(scopedVarName);
-        Partition partition = dependencies.getPartitionForVar(scopedVarName);
-        partition.addEdge(edge, 0);
+          // pure external functioncall
+        } else if (statement instanceof CFunctionCallStatement) {
+          handleExternalFunctionCall(edge, ((CFunctionCallStatement) statement).
+              getFunctionCallExpression().getParameterExpressions());
+        }
+
+        break;
       }
-      break;
-    }
 
-    case ReturnStatementEdge: {
-      // this is the 'x' from 'return (x);
-      // adding a new temporary FUNCTION_RETURN_VARIABLE, that is not global (-> false)
-      CReturnStatementEdge returnStatement = (CReturnStatementEdge) edge;
-      if (returnStatement.asAssignment().isPresent()) {
-        handleAssignment(edge, returnStatement.asAssignment().get(), cfa);
+      case FunctionCallEdge: {
+        handleFunctionCallEdge((CFunctionCallEdge) edge);
+        break;
       }
-      break;
-    }
 
-    case BlankEdge:
-    case CallToReturnEdge:
-      // other cases are not interesting
-      break;
+      case FunctionReturnEdge: {
+        Optional<CVariableDeclaration> returnVar = ((CFunctionReturnEdge)edge).getFunctionEntry().getReturnVariable();
+        if (returnVar.isPresent()) {
+          String scopedVarName = returnVar.get().getQualifiedName();
+          dependencies.addEdge(scopedVarName, edge, 0);
+        }
+        break;
+      }
 
-    default:
-        throw new UnrecognizedCodeException("Unknown edgeType: " + edge.getEdgeType(), edge);
-    }
-  }
+      case ReturnStatementEdge: {
+        // this is the 'x' from 'return (x);
+        // adding a new temporary FUNCTION_RETURN_VARIABLE, that is not global (-> false)
+        CReturnStatementEdge returnStatement = (CReturnStatementEdge) edge;
+        if (returnStatement.asAssignment().isPresent()) {
+          handleAssignment(edge, returnStatement.asAssignment().get(), cfa);
+        }
+        break;
+      }
 
-  /** This function handles a declaration with an optional initializer.
-   * Only simple types are handled. */
-  private void handleDeclarationEdge(final CDeclarationEdge edge) {
-    CDeclaration declaration = edge.getDeclaration();
-    if (!(declaration instanceof CVariableDeclaration)) { return; }
-
-    CVariableDeclaration vdecl = (CVariableDeclaration) declaration;
-    String varName = vdecl.getQualifiedName();
-    allVars.add(varName);
-
-    // "connect" the edge with its partition
-    Set<String> var = Sets.newHashSetWithExpectedSize(1);
-    var.add(varName);
-    dependencies.addAll(var, new HashSet<BigInteger>(), edge, 0);
-
-    // only simple types (int, long) are allowed for booleans, ...
-    if (!(vdecl.getType() instanceof CSimpleType)) {
-      nonIntBoolVars.add(varName);
-      nonIntEqVars.add(varName);
-      nonIntAddVars.add(varName);
+      case BlankEdge:
+      case CallToReturnEdge:
+        // other cases are not interesting
+        break;
+
+      default:
+          throw new UnrecognizedCodeException("Unknown edgeType: " + edge.getEdgeType(), edge);
+      }
     }
 
-    final CInitializer initializer = vdecl.getInitializer();
+    /** This function handles a declaration with an optional initializer.
+     * Only simple types are handled. */
+    private void handleDeclarationEdge(final CDeclarationEdge edge) {
+      CDeclaration declaration = edge.getDeclaration();
+      if (!(declaration instanceof CVariableDeclaration)) { return; }
 
-    if ((initializer == null) || !(initializer instanceof CInitializerExpression)) { return; }
+      CVariableDeclaration vdecl = (CVariableDeclaration) declaration;
+      String varName = vdecl.getQualifiedName();
+      allVars.add(varName);
 
-    CExpression exp = ((CInitializerExpression) initializer).getExpression();
-    if (exp == null) { return; }
+      // "connect" the edge with its partition
+      Set<String> var = Sets.newHashSetWithExpectedSize(1);
+      var.add(varName);
+      dependencies.addAll(var, new HashSet<BigInteger>(), edge, 0);
 
-    handleExpression(edge, exp, varName);
-  }
-
-  /** This function handles normal assignments of vars. */
-  private void handleAssignment(final CFAEdge edge, final CAssignment assignment, final CFA cfa)
-      throws UnrecognizedCodeException {
-    CRightHandSide rhs = assignment.getRightHandSide();
-    CExpression lhs = assignment.getLeftHandSide();
-    String function = isGlobal(lhs) ? null : edge.getPredecessor().getFunctionName();
-
-    // If we have a simple pointer, we handle it like a simple variable.
-    // This allows us to track dependencies between simple references.
-    String varName = scopeVar(function, lhs.toASTString());
-    if (lhs instanceof CPointerExpression && lhs.getExpressionType() instanceof CSimpleType) {
-      CExpression operand = ((CPointerExpression) lhs).getOperand();
-      if (operand instanceof CIdExpression) {
-        varName = scopeVar(function, operand.toASTString());
+      // only simple types (int, long) are allowed for booleans, ...
+      if (!(vdecl.getType() instanceof CSimpleType)) {
+        nonIntBoolVars.add(varName);
+        nonIntEqVars.add(varName);
+        nonIntAddVars.add(varName);
       }
-    }
 
-    // only simple types (int, long) are allowed for booleans, ...
-    if (!(lhs instanceof CIdExpression && lhs.getExpressionType() instanceof CSimpleType)) {
-      nonIntBoolVars.add(varName);
-      nonIntEqVars.add(varName);
-      nonIntAddVars.add(varName);
+      final CInitializer initializer = vdecl.getInitializer();
+
+      if ((initializer == null) || !(initializer instanceof CInitializerExpression)) { return; }
+
+      CExpression exp = ((CInitializerExpression) initializer).getExpression();
+      if (exp == null) { return; }
+
+      handleExpression(edge, exp, varName);
     }
 
-    dependencies.addVar(varName);
+    /** This function handles normal assignments of vars. */
+    private void handleAssignment(final CFAEdge edge, final CAssignment assignment, final CFA cfa)
+        throws UnrecognizedCodeException {
+      CRightHandSide rhs = assignment.getRightHandSide();
+      CExpression lhs = assignment.getLeftHandSide();
+      String function = isGlobal(lhs) ? null : edge.getPredecessor().getFunctionName();
+
+      // If we have a simple pointer, we handle it like a simple variable.
+      // This allows us to track dependencies between simple references.
+      String varName = scopeVar(function, lhs.toASTString());
+      if (lhs instanceof CPointerExpression && lhs.getExpressionType() instanceof CSimpleType) {
+        CExpression operand = ((CPointerExpression) lhs).getOperand();
+        if (operand instanceof CIdExpression) {
+          varName = scopeVar(function, operand.toASTString());
+        }
+      }
+
+      // only simple types (int, long) are allowed for booleans, ...
+      if (!(lhs instanceof CIdExpression && lhs.getExpressionType() instanceof CSimpleType)) {
+        nonIntBoolVars.add(varName);
+        nonIntEqVars.add(varName);
+        nonIntAddVars.add(varName);
+      }
+
+      dependencies.addVar(varName);
 
-    if (rhs instanceof CExpression) {
-      handleExpression(edge, ((CExpression) rhs), varName);
+      if (rhs instanceof CExpression) {
+        handleExpression(edge, ((CExpression) rhs), varName);
 
-    } else if (rhs instanceof CFunctionCallExpression) {
-      // use FUNCTION_RETURN_VARIABLE for RIGHT SIDE
-      CFunctionCallExpression func = (CFunctionCallExpression) rhs;
-      String functionName = func.getFunctionNameExpression().toASTString(); // TODO correct?
+      } else if (rhs instanceof CFunctionCallExpression) {
+        // use FUNCTION_RETURN_VARIABLE for RIGHT SIDE
+        CFunctionCallExpression func = (CFunctionCallExpression) rhs;
+        String functionName = func.getFunctionNameExpression().toASTString(); // TODO correct?
 
-      if (cfa.getAllFunctionNames().contains(functionName)) {
-        Optional<? extends AVariableDeclaration> returnVariable = cfa.getFunctionHead(functionName).getReturnVariable();
-        if (!returnVariable.isPresent()) {
-          throw new UnrecognizedCodeException(
-              "Void function " + functionName + " used in assignment", edge, assignment);
+        if (cfa.getAllFunctionNames().contains(functionName)) {
+          Optional<? extends AVariableDeclaration> returnVariable = cfa.getFunctionHead(functionName).getReturnVariable();
+          if (!returnVariable.isPresent()) {
+            throw new UnrecognizedCodeException(
+                "Void function " + functionName + " used in assignment", edge, assignment);
+          }
+          String returnVar = returnVariable.get().getQualifiedName();
+          allVars.add(returnVar);
+          allVars.add(varName);
+          dependencies.add(returnVar, varName);
+
+        } else {
+          // external function
+          // negative value, because all positives are used for params
+          dependencies.addEdge(varName, edge, -1);
         }
-        String returnVar = returnVariable.get().getQualifiedName();
-        allVars.add(returnVar);
-        allVars.add(varName);
-        dependencies.add(returnVar, varName);
+
+        handleExternalFunctionCall(edge, func.getParameterExpressions());
 
       } else {
-        // external function
-        Partition partition = dependencies.getPartitionForVar(varName);
-        partition.addEdge(edge, -1); // negative value, because all positives are used for params
+        throw new UnrecognizedCodeException("unhandled assignment", edge, assignment);
       }
+    }
 
-      handleExternalFunctionCall(edge, func.getParameterExpressions());
+    /** This function handles the call of an external function
+     * without an assignment of the result.
+     * example: "printf("%d", output);" or "assert(exp);" */
+    private void handleExternalFunctionCall(final CFAEdge edge, final List<CExpression> params) {
+      for (int i = 0; i < params.size(); i++) {
+        final CExpression param = params.get(i);
 
-    } else {
-      throw new UnrecognizedCodeException("unhandled assignment", edge, assignment);
-    }
-  }
+        /* special case: external functioncall with possible side-effect!
+         * this is the only statement, where a pointer-operation is allowed
+         * and the var can be boolean, intEqual or intAdd,
+         * because we know, the variable can have a random (unknown) value after the functioncall.
+         * example: "scanf("%d", &input);" */
+        if (param instanceof CUnaryExpression &&
+            UnaryOperator.AMPER == ((CUnaryExpression) param).getOperator() &&
+            ((CUnaryExpression) param).getOperand() instanceof CIdExpression) {
+          final CIdExpression id = (CIdExpression) ((CUnaryExpression) param).getOperand();
+          final String varName = id.getDeclaration().getQualifiedName();
 
-  /** This function handles the call of an external function
-   * without an assignment of the result.
-   * example: "printf("%d", output);" or "assert(exp);" */
-  private void handleExternalFunctionCall(final CFAEdge edge, final List<CExpression> params) {
-    for (int i = 0; i < params.size(); i++) {
-      final CExpression param = params.get(i);
-
-      /* special case: external functioncall with possible side-effect!
-       * this is the only statement, where a pointer-operation is allowed
-       * and the var can be boolean, intEqual or intAdd,
-       * because we know, the variable can have a random (unknown) value after the functioncall.
-       * example: "scanf("%d", &input);" */
-      if (param instanceof CUnaryExpression &&
-          UnaryOperator.AMPER == ((CUnaryExpression) param).getOperator() &&
-          ((CUnaryExpression) param).getOperand() instanceof CIdExpression) {
-        final CIdExpression id = (CIdExpression) ((CUnaryExpression) param).getOperand();
-        final String varName = id.getDeclaration().getQualifiedName();
-
-        dependencies.addVar(varName);
-        Partition partition = dependencies.getPartitionForVar(varName);
-        partition.addEdge(edge, i);
+          dependencies.addEdge(varName, edge, i);
 
-      } else {
-        // "printf("%d", output);" or "assert(exp);"
-        // TODO do we need the edge? ignore it?
-
-        CFANode pre = edge.getPredecessor();
-        VariablesCollectingVisitor dcv = new VariablesCollectingVisitor(pre);
-        Set<String> vars = param.accept(dcv);
-        if (vars != null) {
-          allVars.addAll(vars);
-          dependencies.addAll(vars, dcv.getValues(), edge, i);
-        }
+        } else {
+          // "printf("%d", output);" or "assert(exp);"
+          // TODO do we need the edge? ignore it?
+
+          CFANode pre = edge.getPredecessor();
+          VariablesCollectingVisitor dcv = new VariablesCollectingVisitor(pre);
+          Set<String> vars = param.accept(dcv);
+          if (vars != null) {
+            allVars.addAll(vars);
+            dependencies.addAll(vars, dcv.getValues(), edge, i);
+          }
 
-        param.accept(new BoolCollectingVisitor(pre, nonIntBoolVars));
-        param.accept(new IntEqualCollectingVisitor(pre, nonIntEqVars));
-        param.accept(new IntAddCollectingVisitor(pre, nonIntAddVars));
-        param.accept(new IntOverflowCollectingVisitor(pre, intOverflowVars));
+          param.accept(new BoolCollectingVisitor(pre, nonIntBoolVars));
+          param.accept(new IntEqualCollectingVisitor(pre, nonIntEqVars));
+          param.accept(new IntAddCollectingVisitor(pre, nonIntAddVars));
+          param.accept(new IntOverflowCollectingVisitor(pre, intOverflowVars));
+        }
       }
     }
-  }
 
-  /** This function puts each param in same partition than its arg.
-   * If there the functionresult is assigned, it is also handled. */
-  private void handleFunctionCallEdge(CFunctionCallEdge edge) {
+    /** This function puts each param in same partition than its arg.
+     * If there the functionresult is assigned, it is also handled. */
+    private void handleFunctionCallEdge(CFunctionCallEdge edge) {
 
-    // overtake arguments from last functioncall into function,
-    // get args from functioncall and make them equal with params from functionstart
-    final List<CExpression> args = edge.getArguments();
-    final List<CParameterDeclaration> params = edge.getSuccessor().getFunctionParameters();
+      // overtake arguments from last functioncall into function,
+      // get args from functioncall and make them equal with params from functionstart
+      final List<CExpression> args = edge.getArguments();
+      final List<CParameterDeclaration> params = edge.getSuccessor().getFunctionParameters();
 
-    // functions can have more args than params used in the call
-    assert args.size() >= params.size();
+      // functions can have more args than params used in the call
+      assert args.size() >= params.size();
 
-    for (int i = 0; i < params.size(); i++) {
-      CParameterDeclaration param = params.get(i);
-      String varName = param.getQualifiedName();
+      for (int i = 0; i < params.size(); i++) {
+        CParameterDeclaration param = params.get(i);
+        String varName = param.getQualifiedName();
 
-      // only simple types (int, long) are allowed for booleans, ...
-      if (!(param.getType() instanceof CSimpleType)) {
-        nonIntBoolVars.add(varName);
-        nonIntEqVars.add(varName);
-        nonIntAddVars.add(varName);
+        // only simple types (int, long) are allowed for booleans, ...
+        if (!(param.getType() instanceof CSimpleType)) {
+          nonIntBoolVars.add(varName);
+          nonIntEqVars.add(varName);
+          nonIntAddVars.add(varName);
+        }
+
+        // build name for param and evaluate it
+        // this variable is not global (->false)
+        handleExpression(edge, args.get(i), varName, i);
       }
 
-      // build name for param and evaluate it
-      // this variable is not global (->false)
-      handleExpression(edge, args.get(i), varName, i);
+      // create dependency for functionreturn
+      CFunctionSummaryEdge func = edge.getSummaryEdge();
+      CFunctionCall statement = func.getExpression();
+      Optional<CVariableDeclaration> returnVar = edge.getSuccessor().getReturnVariable();
+      if (returnVar.isPresent()) {
+        String scopedRetVal = returnVar.get().getQualifiedName();
+        if (statement instanceof CFunctionCallAssignmentStatement) {
+          // a=f();
+          CFunctionCallAssignmentStatement call = (CFunctionCallAssignmentStatement) statement;
+          CExpression lhs = call.getLeftHandSide();
+          String function = isGlobal(lhs) ? null : edge.getPredecessor().getFunctionName();
+          String varName = scopeVar(function, lhs.toASTString());
+          allVars.add(scopedRetVal);
+          allVars.add(varName);
+          dependencies.add(scopedRetVal, varName);
+        } else if (statement instanceof CFunctionCallStatement) {
+          // f(); without assignment
+          // next line is not necessary, but we do it for completeness, TODO correct?
+          dependencies.addVar(scopedRetVal);
+        }
+      }
     }
 
-    // create dependency for functionreturn
-    CFunctionSummaryEdge func = edge.getSummaryEdge();
-    CFunctionCall statement = func.getExpression();
-    Optional<CVariableDeclaration> returnVar = edge.getSuccessor().getReturnVariable();
-    if (returnVar.isPresent()) {
-      String scopedRetVal = returnVar.get().getQualifiedName();
-      if (statement instanceof CFunctionCallAssignmentStatement) {
-        // a=f();
-        CFunctionCallAssignmentStatement call = (CFunctionCallAssignmentStatement) statement;
-        CExpression lhs = call.getLeftHandSide();
-        String function = isGlobal(lhs) ? null : edge.getPredecessor().getFunctionName();
-        String varName = scopeVar(function, lhs.toASTString());
-        allVars.add(scopedRetVal);
-        allVars.add(varName);
-        dependencies.add(scopedRetVal, varName);
-      } else if (statement instanceof CFunctionCallStatement) {
-        // f(); without assignment
-        // next line is not necessary, but we do it for completeness, TODO correct?
-        dependencies.addVar(scopedRetVal);
-      }
+    /** evaluates an expression and adds containing vars to the sets. */
+    private void handleExpression(CFAEdge edge,
+                                  CExpression exp,
+                                  String varName) {
+      handleExpression(edge, exp, varName, 0);
     }
-  }
 
-  /** evaluates an expression and adds containing vars to the sets. */
-  private void handleExpression(CFAEdge edge,
-                                CExpression exp,
-                                String varName) {
-    handleExpression(edge, exp, varName, 0);
-  }
+    /** evaluates an expression and adds containing vars to the sets.
+     * the id is the position of the expression in the edge,
+     * it is 0 for all edges except a FuntionCallEdge. */
+    private void handleExpression(CFAEdge edge,
+                                  CExpression exp,
+                                  String varName,
+                                  int id) {
+      CFANode pre = edge.getPredecessor();
 
-  /** evaluates an expression and adds containing vars to the sets.
-   * the id is the position of the expression in the edge,
-   * it is 0 for all edges except a FuntionCallEdge. */
-  private void handleExpression(CFAEdge edge,
-                                CExpression exp,
-                                String varName,
-                                int id) {
-    CFANode pre = edge.getPredecessor();
-
-    VariablesCollectingVisitor dcv = new VariablesCollectingVisitor(pre);
-    Set<String> vars = exp.accept(dcv);
-    if (vars == null) {
-      vars = Sets.newHashSetWithExpectedSize(1);
-    }
+      VariablesCollectingVisitor dcv = new VariablesCollectingVisitor(pre);
+      Set<String> vars = exp.accept(dcv);
+      if (vars == null) {
+        vars = Sets.newHashSetWithExpectedSize(1);
+      }
 
-    vars.add(varName);
-    allVars.addAll(vars);
-    dependencies.addAll(vars, dcv.getValues(), edge, id);
+      vars.add(varName);
+      allVars.addAll(vars);
+      dependencies.addAll(vars, dcv.getValues(), edge, id);
 
-    BoolCollectingVisitor bcv = new BoolCollectingVisitor(pre, nonIntBoolVars);
-    Set<String> possibleBoolean = exp.accept(bcv);
-    handleResult(varName, possibleBoolean, nonIntBoolVars);
+      BoolCollectingVisitor bcv = new BoolCollectingVisitor(pre, nonIntBoolVars);
+      Set<String> possibleBoolean = exp.accept(bcv);
+      handleResult(varName, possibleBoolean, nonIntBoolVars);
 
-    IntEqualCollectingVisitor ncv = new IntEqualCollectingVisitor(pre, nonIntEqVars);
-    Set<String> possibleIntEqualVars = exp.accept(ncv);
-    handleResult(varName, possibleIntEqualVars, nonIntEqVars);
+      IntEqualCollectingVisitor ncv = new IntEqualCollectingVisitor(pre, nonIntEqVars);
+      Set<String> possibleIntEqualVars = exp.accept(ncv);
+      handleResult(varName, possibleIntEqualVars, nonIntEqVars);
 
-    IntAddCollectingVisitor icv = new IntAddCollectingVisitor(pre, nonIntAddVars);
-    Set<String> possibleIntAddVars = exp.accept(icv);
-    handleResult(varName, possibleIntAddVars, nonIntAddVars);
+      IntAddCollectingVisitor icv = new IntAddCollectingVisitor(pre, nonIntAddVars);
+      Set<String> possibleIntAddVars = exp.accept(icv);
+      handleResult(varName, possibleIntAddVars, nonIntAddVars);
 
-    IntOverflowCollectingVisitor iov = new IntOverflowCollectingVisitor(pre, intOverflowVars);
-    Set<String> possibleIntOverflowVars = exp.accept(iov);
-    handleResult(varName, possibleIntOverflowVars, intOverflowVars);
-  }
+      IntOverflowCollectingVisitor iov = new IntOverflowCollectingVisitor(pre, intOverflowVars);
+      Set<String> possibleIntOverflowVars = exp.accept(iov);
+      handleResult(varName, possibleIntOverflowVars, intOverflowVars);
+    }
 
-  /** adds the variable to notPossibleVars, if possibleVars is null.  */
-  private void handleResult(String varName, Collection<String> possibleVars, Collection<String> notPossibleVars) {
-    if (possibleVars == null) {
-      notPossibleVars.add(varName);
+    /** adds the variable to notPossibleVars, if possibleVars is null.  */
+    private void handleResult(String varName, Collection<String> possibleVars, Collection<String> notPossibleVars) {
+      if (possibleVars == null) {
+        notPossibleVars.add(varName);
+      }
     }
   }
 